@@ -0,0 +1,75 @@
+package org.klokwrk.gradle.jmh
+
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+import groovy.transform.CompileStatic
+import org.gradle.api.DefaultTask
+import org.gradle.api.GradleException
+import org.gradle.api.file.RegularFileProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.InputFile
+import org.gradle.api.tasks.OutputFile
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
+import org.gradle.api.tasks.TaskAction
+
+/**
+ * Compares current JMH results with the baseline results, and writes the comparison report in JSON format.
+ * <p/>
+ * Both results files must be in JMH's JSON result format. For the details of comparison and the report structure, take a look at {@link JmhResultComparator}.
+ */
+@CompileStatic
+abstract class JmhBaselineComparisonTask extends DefaultTask {
+  @InputFile
+  @PathSensitive(PathSensitivity.NONE)
+  abstract RegularFileProperty getBaselineResultsFile()
+
+  @InputFile
+  @PathSensitive(PathSensitivity.NONE)
+  abstract RegularFileProperty getCurrentResultsFile()
+
+  @OutputFile
+  abstract RegularFileProperty getComparisonReportFile()
+
+  @Input
+  abstract Property<BigDecimal> getRegressionThresholdPercent()
+
+  @Input
+  abstract Property<Boolean> getFailOnRegression()
+
+  JmhBaselineComparisonTask() {
+    regressionThresholdPercent.convention(10.0G)
+    failOnRegression.convention(false)
+  }
+
+  @TaskAction
+  void compare() {
+    List<Map<String, Object>> baselineResultList = new JsonSlurper().parse(baselineResultsFile.get().asFile) as List<Map<String, Object>>
+    List<Map<String, Object>> currentResultList = new JsonSlurper().parse(currentResultsFile.get().asFile) as List<Map<String, Object>>
+
+    Map<String, Object> comparisonReport = JmhResultComparator.compare(baselineResultList, currentResultList, regressionThresholdPercent.get())
+
+    File comparisonReportOutputFile = comparisonReportFile.get().asFile
+    comparisonReportOutputFile.parentFile.mkdirs()
+    comparisonReportOutputFile.setText(JsonOutput.prettyPrint(JsonOutput.toJson(comparisonReport)), "UTF-8")
+
+    Integer regressionCount = comparisonReport.regressionCount as Integer
+    logger.lifecycle("JMH baseline comparison: ${ currentResultList.size() } results compared, $regressionCount regression(s) found. Report: $comparisonReportOutputFile")
+
+    (comparisonReport.comparisonList as List<Map<String, Object>>)
+        .findAll({ Map<String, Object> comparison ->
+          comparison.scoreStatus == JmhResultComparator.STATUS_REGRESSED || comparison.allocationStatus == JmhResultComparator.STATUS_REGRESSED
+        })
+        .each({ Map<String, Object> comparison ->
+          logger.lifecycle(
+              "  REGRESSED: ${ comparison.benchmark } ${ comparison.params } - " +
+              "score: ${ comparison.scoreChangePercent }% (${ comparison.scoreStatus }), allocation: ${ comparison.allocationChangePercent }% (${ comparison.allocationStatus })"
+          )
+        })
+
+    if (failOnRegression.get() && regressionCount > 0) {
+      throw new GradleException("JMH baseline comparison found $regressionCount regression(s) above ${ regressionThresholdPercent.get() }% threshold. See $comparisonReportOutputFile for details.")
+    }
+  }
+}
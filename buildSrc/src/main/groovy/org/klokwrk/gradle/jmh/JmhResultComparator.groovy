@@ -0,0 +1,155 @@
+package org.klokwrk.gradle.jmh
+
+import groovy.transform.CompileStatic
+
+import java.math.RoundingMode
+
+/**
+ * Compares two lists of JMH results in JMH's JSON result format and produces a machine-readable comparison report.
+ * <p/>
+ * Results are matched by benchmark name, benchmark mode, and benchmark parameters. For each matched result, primary score and normalized allocation rate ({@code gc.alloc.rate.norm}, when available)
+ * are compared. A change is considered significant only when it exceeds the supplied threshold (in percents). The direction of change is interpreted according to the benchmark mode, i.e., for
+ * throughput mode, higher score is better, while for all other modes lower score is better. For allocation rate, lower is always better.
+ * <p/>
+ * Produced report is a map with the following structure:
+ * <pre>
+ * [
+ *   regressionThresholdPercent: 10,
+ *   regressionCount: 1,
+ *   comparisonList: [
+ *     [
+ *       benchmark: "org.klokwrk.SomeBenchmark.someMethod", mode: "avgt", params: [size: "10"], scoreUnit: "ns/op",
+ *       baselineScore: 100.0, currentScore: 120.0, scoreChangePercent: 20.00, scoreStatus: "REGRESSED",
+ *       allocationUnit: "B/op", baselineAllocation: 64.0, currentAllocation: 64.0, allocationChangePercent: 0.00, allocationStatus: "UNCHANGED"
+ *     ]
+ *   ],
+ *   missingInCurrentList: [...]
+ * ]
+ * </pre>
+ */
+@CompileStatic
+class JmhResultComparator {
+  static final String STATUS_IMPROVED = "IMPROVED"
+  static final String STATUS_REGRESSED = "REGRESSED"
+  static final String STATUS_UNCHANGED = "UNCHANGED"
+  static final String STATUS_NEW = "NEW"
+
+  static final String ALLOCATION_RATE_NORMALIZED_METRIC_SUFFIX = "gc.alloc.rate.norm"
+  static final String THROUGHPUT_MODE = "thrpt"
+
+  static Map<String, Object> compare(List<Map<String, Object>> baselineResultList, List<Map<String, Object>> currentResultList, BigDecimal regressionThresholdPercent) {
+    Map<String, Map<String, Object>> baselineResultMap = baselineResultList
+        .collectEntries({ Map<String, Object> baselineResult -> [makeResultKey(baselineResult), baselineResult] }) as Map<String, Map<String, Object>>
+
+    List<Map<String, Object>> comparisonList = currentResultList.collect({ Map<String, Object> currentResult ->
+      return compareResult(baselineResultMap.get(makeResultKey(currentResult)), currentResult, regressionThresholdPercent)
+    })
+
+    Set<String> currentResultKeySet = currentResultList.collect({ Map<String, Object> currentResult -> makeResultKey(currentResult) }).toSet()
+    List<String> missingInCurrentList = baselineResultMap.keySet().findAll({ String baselineResultKey -> !currentResultKeySet.contains(baselineResultKey) }).sort()
+
+    Integer regressionCount = comparisonList.count({ Map<String, Object> comparison ->
+      comparison.scoreStatus == STATUS_REGRESSED || comparison.allocationStatus == STATUS_REGRESSED
+    }) as Integer
+
+    return [
+        regressionThresholdPercent: regressionThresholdPercent,
+        regressionCount: regressionCount,
+        comparisonList: comparisonList,
+        missingInCurrentList: missingInCurrentList
+    ] as Map<String, Object>
+  }
+
+  static String makeResultKey(Map<String, Object> result) {
+    Map<String, Object> params = (result.params ?: [:]) as Map<String, Object>
+    String paramsString = params.keySet().sort().collect({ String paramName -> "$paramName=${ params.get(paramName) }" }).join(",")
+
+    return "${ result.benchmark }|${ result.mode }|${ paramsString }"
+  }
+
+  static BigDecimal calculateChangePercent(BigDecimal baselineValue, BigDecimal currentValue) {
+    if (baselineValue == null || currentValue == null) {
+      return null
+    }
+
+    if (baselineValue.signum() == 0) {
+      return currentValue.signum() == 0 ? 0.00G : null
+    }
+
+    return ((currentValue - baselineValue) * 100).divide(baselineValue.abs(), 2, RoundingMode.HALF_UP)
+  }
+
+  static String determineStatus(BigDecimal changePercent, boolean isHigherBetter, BigDecimal regressionThresholdPercent) {
+    if (changePercent == null) {
+      return STATUS_NEW
+    }
+
+    BigDecimal directedChangePercent = isHigherBetter ? changePercent : changePercent.negate()
+    if (directedChangePercent > regressionThresholdPercent) {
+      return STATUS_IMPROVED
+    }
+
+    if (directedChangePercent < regressionThresholdPercent.negate()) {
+      return STATUS_REGRESSED
+    }
+
+    return STATUS_UNCHANGED
+  }
+
+  private static Map<String, Object> compareResult(Map<String, Object> baselineResult, Map<String, Object> currentResult, BigDecimal regressionThresholdPercent) {
+    Map<String, Object> currentPrimaryMetric = currentResult.primaryMetric as Map<String, Object>
+    Map<String, Object> baselinePrimaryMetric = baselineResult?.primaryMetric as Map<String, Object>
+
+    BigDecimal currentScore = toBigDecimal(currentPrimaryMetric?.score)
+    BigDecimal baselineScore = toBigDecimal(baselinePrimaryMetric?.score)
+    BigDecimal scoreChangePercent = calculateChangePercent(baselineScore, currentScore)
+
+    Map<String, Object> currentAllocationMetric = findAllocationMetric(currentResult)
+    Map<String, Object> baselineAllocationMetric = findAllocationMetric(baselineResult)
+
+    BigDecimal currentAllocation = toBigDecimal(currentAllocationMetric?.score)
+    BigDecimal baselineAllocation = toBigDecimal(baselineAllocationMetric?.score)
+    BigDecimal allocationChangePercent = calculateChangePercent(baselineAllocation, currentAllocation)
+
+    return [
+        benchmark: currentResult.benchmark,
+        mode: currentResult.mode,
+        params: currentResult.params ?: [:],
+        scoreUnit: currentPrimaryMetric?.scoreUnit,
+        baselineScore: baselineScore,
+        currentScore: currentScore,
+        scoreChangePercent: scoreChangePercent,
+        scoreStatus: determineStatus(scoreChangePercent, currentResult.mode == THROUGHPUT_MODE, regressionThresholdPercent),
+        allocationUnit: currentAllocationMetric?.scoreUnit,
+        baselineAllocation: baselineAllocation,
+        currentAllocation: currentAllocation,
+        allocationChangePercent: allocationChangePercent,
+        allocationStatus: currentAllocationMetric == null ? null : determineStatus(allocationChangePercent, false, regressionThresholdPercent)
+    ] as Map<String, Object>
+  }
+
+  private static Map<String, Object> findAllocationMetric(Map<String, Object> result) {
+    Map<String, Object> secondaryMetrics = result?.secondaryMetrics as Map<String, Object>
+    if (secondaryMetrics == null) {
+      return null
+    }
+
+    // Note: Older JMH versions prefix profiler's metric names with "·" character. Therefore, we are matching only the suffix.
+    String allocationMetricName = secondaryMetrics.keySet().find({ String metricName -> metricName.endsWith(ALLOCATION_RATE_NORMALIZED_METRIC_SUFFIX) })
+    return allocationMetricName == null ? null : secondaryMetrics.get(allocationMetricName) as Map<String, Object>
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    if (value == null) {
+      return null
+    }
+
+    if (value instanceof Number) {
+      return (value as Number).toBigDecimal()
+    }
+
+    // Note: JMH writes NaN as a string when the score is not available.
+    String valueString = value.toString()
+    return valueString.isBigDecimal() ? valueString.toBigDecimal() : null
+  }
+}
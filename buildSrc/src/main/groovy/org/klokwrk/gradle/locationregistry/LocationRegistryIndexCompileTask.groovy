@@ -0,0 +1,87 @@
+package org.klokwrk.gradle.locationregistry
+
+import groovy.transform.CompileStatic
+import org.gradle.api.DefaultTask
+import org.gradle.api.GradleException
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.file.RegularFileProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.InputFile
+import org.gradle.api.tasks.InputFiles
+import org.gradle.api.tasks.OutputDirectory
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
+import org.gradle.api.tasks.TaskAction
+
+import java.nio.charset.StandardCharsets
+
+/**
+ * Compiles location registry CSV, optionally combined with the official UN/LOCODE CSV distribution, into the binary index stored in the output directory. Output directory is intended to be used as an
+ * additional resources directory.
+ * <p/>
+ * Official UN/LOCODE CSV files are converted first (in the order of their file names), and rows of location registry CSV are applied on top of them. That way, location registry CSV can add locations
+ * missing from the official data, or override converted locations, i.e. with more detailed port capabilities.
+ * <p/>
+ * For the details about CSV and binary index formats, take a look at {@link LocationRegistryIndexWriter}. For the details about conversion of official UN/LOCODE CSV files, take a look at
+ * {@link UnLoCodeCsvReader}.
+ */
+@CompileStatic
+abstract class LocationRegistryIndexCompileTask extends DefaultTask {
+  @InputFile
+  @PathSensitive(PathSensitivity.NONE)
+  abstract RegularFileProperty getCsvFile()
+
+  /**
+   * Files of the official UN/LOCODE CSV distribution. Can be empty.
+   */
+  @InputFiles
+  @PathSensitive(PathSensitivity.NAME_ONLY)
+  abstract ConfigurableFileCollection getUnLoCodeCsvFiles()
+
+  /**
+   * Charset of the official UN/LOCODE CSV files. Defaults to {@code ISO-8859-1}.
+   */
+  @Input
+  abstract Property<String> getUnLoCodeCsvCharset()
+
+  @OutputDirectory
+  abstract DirectoryProperty getOutputDirectory()
+
+  /**
+   * Path of the index file relative to the output directory, i.e. resource path.
+   */
+  @Input
+  abstract Property<String> getIndexFilePath()
+
+  LocationRegistryIndexCompileTask() {
+    unLoCodeCsvCharset.convention(StandardCharsets.ISO_8859_1.name())
+  }
+
+  @TaskAction
+  void compile() {
+    File indexFile = new File(outputDirectory.get().asFile, indexFilePath.get())
+    indexFile.parentFile.mkdirs()
+
+    Map<String, List<String>> rowByUnLoCodeMap = new TreeMap<>()
+    UnLoCodeCsvReader unLoCodeCsvReader = new UnLoCodeCsvReader()
+    File currentInputFile = null
+    try {
+      unLoCodeCsvFiles.files.sort(false, { File unLoCodeCsvFile -> unLoCodeCsvFile.name }).each({ File unLoCodeCsvFile ->
+        currentInputFile = unLoCodeCsvFile
+        unLoCodeCsvFile.withReader(unLoCodeCsvCharset.get(), { Reader unLoCodeCsvFileReader -> unLoCodeCsvReader.read(unLoCodeCsvFileReader, rowByUnLoCodeMap) })
+      })
+
+      currentInputFile = csvFile.get().asFile
+      currentInputFile.withReader(StandardCharsets.UTF_8.name(), { Reader csvReader -> rowByUnLoCodeMap.putAll(LocationRegistryIndexWriter.readCsv(csvReader)) })
+    }
+    catch (IllegalArgumentException iae) {
+      throw new GradleException("Cannot compile location registry index from ${ currentInputFile }: ${ iae.message }", iae)
+    }
+
+    indexFile.withOutputStream({ OutputStream indexOutputStream -> LocationRegistryIndexWriter.write(rowByUnLoCodeMap, new BufferedOutputStream(indexOutputStream)) })
+
+    logger.info("Location registry index with ${ rowByUnLoCodeMap.size() } locations written to $indexFile (skipped UN/LOCODE entries: ${ unLoCodeCsvReader.skippedEntryCount }).")
+  }
+}
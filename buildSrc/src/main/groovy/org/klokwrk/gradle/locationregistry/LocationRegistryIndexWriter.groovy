@@ -0,0 +1,195 @@
+package org.klokwrk.gradle.locationregistry
+
+import groovy.transform.CompileStatic
+
+import java.nio.charset.StandardCharsets
+import java.util.regex.Pattern
+
+/**
+ * Compiles location registry CSV into the compact binary index, which is memory-mapped and searched at runtime.
+ * <p/>
+ * CSV must start with the header line {@code unLoCode,name,countryName,unLoCodeFunction,unLoCodeCoordinates,portCapabilities}. Blank lines and lines starting with {@code #} are ignored. Values
+ * containing commas must be enclosed in double quotes, while double quotes inside quoted values must be doubled. Multiple port capabilities are separated with the {@code |} character.
+ * <p/>
+ * Binary index has the following layout (all integers are big-endian):
+ * <pre>
+ * header:       int magic ("KLRI"), int format version, int entry count, int records offset, int string pool offset
+ * records:      entry count of fixed-size records sorted by UN/LOCODE, each containing 5 ASCII bytes of UN/LOCODE followed by 5 int offsets (relative to the string pool offset) of
+ *               name, country name, function, coordinates and port capabilities strings
+ * string pool:  deduplicated strings, each written as unsigned short length followed by UTF-8 bytes
+ * </pre>
+ * Since records are sorted and of fixed size, the reader can find a location with binary search directly over the mapped file, without materializing anything on the heap.
+ * <p/>
+ * Rows can also come from the official UN/LOCODE CSV distribution. Such files are converted into location registry rows by {@link UnLoCodeCsvReader}, and can be merged with rows read by
+ * {@link #readCsv(java.io.Reader)} before being written with {@link #write(java.util.Map, java.io.OutputStream)}.
+ */
+@CompileStatic
+class LocationRegistryIndexWriter {
+  static final int MAGIC = 0x4B4C5249
+  static final int FORMAT_VERSION = 1
+  static final int HEADER_SIZE = 20
+  static final int UN_LO_CODE_SIZE = 5
+  static final int STRING_FIELD_COUNT = 5
+  static final int RECORD_SIZE = UN_LO_CODE_SIZE + STRING_FIELD_COUNT * Integer.BYTES
+
+  static final List<String> CSV_HEADER_LIST = ["unLoCode", "name", "countryName", "unLoCodeFunction", "unLoCodeCoordinates", "portCapabilities"]
+
+  private static final Pattern UN_LO_CODE_PATTERN = Pattern.compile(/^[A-Z]{2}[2-9A-Z]{3}$/)
+  private static final int MAX_STRING_BYTES_LENGTH = 0xffff
+
+  /**
+   * Reads location registry CSV and writes the binary index into the output stream.
+   *
+   * @return number of written locations
+   */
+  static int compile(Reader csvReader, OutputStream indexOutputStream) {
+    Map<String, List<String>> rowByUnLoCodeMap = readCsv(csvReader)
+    write(rowByUnLoCodeMap, indexOutputStream)
+
+    return rowByUnLoCodeMap.size()
+  }
+
+  /**
+   * Parses single CSV line into the list of values.
+   */
+  @SuppressWarnings("CodeNarc.CyclomaticComplexity")
+  static List<String> parseCsvLine(String csvLine) {
+    List<String> valueList = []
+    StringBuilder currentValue = new StringBuilder()
+    boolean isInsideQuotes = false
+
+    int index = 0
+    while (index < csvLine.length()) {
+      char currentChar = csvLine.charAt(index)
+
+      if (isInsideQuotes) {
+        if (currentChar == '"' as char) {
+          if (index + 1 < csvLine.length() && csvLine.charAt(index + 1) == '"' as char) {
+            currentValue.append('"')
+            index++
+          }
+          else {
+            isInsideQuotes = false
+          }
+        }
+        else {
+          currentValue.append(currentChar)
+        }
+      }
+      else if (currentChar == '"' as char) {
+        isInsideQuotes = true
+      }
+      else if (currentChar == ',' as char) {
+        valueList.add(currentValue.toString().trim())
+        currentValue.setLength(0)
+      }
+      else {
+        currentValue.append(currentChar)
+      }
+
+      index++
+    }
+
+    if (isInsideQuotes) {
+      throw new IllegalArgumentException("Unterminated quoted value in CSV line: [$csvLine]")
+    }
+
+    valueList.add(currentValue.toString().trim())
+    return valueList
+  }
+
+  /**
+   * Reads location registry CSV into the map of rows keyed by UN/LOCODE.
+   */
+  static Map<String, List<String>> readCsv(Reader csvReader) {
+    Map<String, List<String>> rowByUnLoCodeMap = new TreeMap<>()
+    boolean isHeaderRead = false
+    int lineNumber = 0
+
+    csvReader.eachLine({ String csvLine ->
+      lineNumber++
+      if (csvLine.trim().isEmpty() || csvLine.trim().startsWith("#")) {
+        return
+      }
+
+      List<String> valueList = parseCsvLine(csvLine)
+      if (!isHeaderRead) {
+        if (valueList != CSV_HEADER_LIST) {
+          throw new IllegalArgumentException("Invalid CSV header at line $lineNumber. Expected header is [${ CSV_HEADER_LIST.join(",") }].")
+        }
+
+        isHeaderRead = true
+        return
+      }
+
+      if (valueList.size() != CSV_HEADER_LIST.size()) {
+        throw new IllegalArgumentException("Invalid number of values at line $lineNumber. Expected ${ CSV_HEADER_LIST.size() } values, but found ${ valueList.size() }.")
+      }
+
+      String unLoCode = valueList[0]
+      if (!UN_LO_CODE_PATTERN.matcher(unLoCode).matches()) {
+        throw new IllegalArgumentException("Invalid UN/LOCODE [$unLoCode] at line $lineNumber.")
+      }
+
+      if (rowByUnLoCodeMap.containsKey(unLoCode)) {
+        throw new IllegalArgumentException("Duplicate UN/LOCODE [$unLoCode] at line $lineNumber.")
+      }
+
+      rowByUnLoCodeMap.put(unLoCode, valueList)
+    })
+
+    return rowByUnLoCodeMap
+  }
+
+  /**
+   * Writes the binary index for provided location registry rows keyed by UN/LOCODE. Rows are written in the UN/LOCODE order regardless of the ordering of provided map.
+   */
+  static void write(Map<String, List<String>> rowByUnLoCodeMap, OutputStream indexOutputStream) {
+    ByteArrayOutputStream stringPoolByteArrayOutputStream = new ByteArrayOutputStream()
+    DataOutputStream stringPoolDataOutputStream = new DataOutputStream(stringPoolByteArrayOutputStream)
+    Map<String, Integer> stringOffsetMap = [:]
+
+    ByteArrayOutputStream recordsByteArrayOutputStream = new ByteArrayOutputStream(rowByUnLoCodeMap.size() * RECORD_SIZE)
+    DataOutputStream recordsDataOutputStream = new DataOutputStream(recordsByteArrayOutputStream)
+
+    Map<String, List<String>> sortedRowByUnLoCodeMap = new TreeMap<>(rowByUnLoCodeMap)
+    sortedRowByUnLoCodeMap.each({ String unLoCode, List<String> valueList ->
+      recordsDataOutputStream.write(unLoCode.getBytes(StandardCharsets.US_ASCII))
+      valueList.subList(1, CSV_HEADER_LIST.size()).each({ String value ->
+        recordsDataOutputStream.writeInt(findOrAddPooledString(value, stringOffsetMap, stringPoolDataOutputStream))
+      })
+    })
+
+    int recordsOffset = HEADER_SIZE
+    int stringPoolOffset = recordsOffset + recordsDataOutputStream.size()
+
+    DataOutputStream indexDataOutputStream = new DataOutputStream(indexOutputStream)
+    indexDataOutputStream.writeInt(MAGIC)
+    indexDataOutputStream.writeInt(FORMAT_VERSION)
+    indexDataOutputStream.writeInt(rowByUnLoCodeMap.size())
+    indexDataOutputStream.writeInt(recordsOffset)
+    indexDataOutputStream.writeInt(stringPoolOffset)
+    recordsByteArrayOutputStream.writeTo(indexDataOutputStream)
+    stringPoolByteArrayOutputStream.writeTo(indexDataOutputStream)
+    indexDataOutputStream.flush()
+  }
+
+  private static int findOrAddPooledString(String value, Map<String, Integer> stringOffsetMap, DataOutputStream stringPoolDataOutputStream) {
+    Integer existingOffset = stringOffsetMap.get(value)
+    if (existingOffset != null) {
+      return existingOffset
+    }
+
+    byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8)
+    if (valueBytes.length > MAX_STRING_BYTES_LENGTH) {
+      throw new IllegalArgumentException("Value is too long to be stored in the index: [$value]")
+    }
+
+    int offset = stringPoolDataOutputStream.size()
+    stringPoolDataOutputStream.writeShort(valueBytes.length)
+    stringPoolDataOutputStream.write(valueBytes)
+    stringOffsetMap.put(value, offset)
+
+    return offset
+  }
+}
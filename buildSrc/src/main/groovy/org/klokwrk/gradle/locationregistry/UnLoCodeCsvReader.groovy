@@ -0,0 +1,149 @@
+package org.klokwrk.gradle.locationregistry
+
+import groovy.transform.CompileStatic
+
+import java.util.regex.Matcher
+import java.util.regex.Pattern
+
+/**
+ * Converts files of the official UN/LOCODE CSV distribution (https://unece.org/trade/cefact/UNLOCODE-Download) into location registry rows as expected by {@link LocationRegistryIndexWriter}.
+ * <p/>
+ * Official CSV files do not have a header line. Relevant columns are (zero-based): change indicator (0), country code (1), location code (2), name (3), function (7) and coordinates (10). Lines without
+ * a location code describe countries, and their names are remembered for the locations that follow.
+ * <p/>
+ * Since the domain model is stricter than the official data, following entries are skipped and counted in {@link #getSkippedEntryCount()}:
+ * <ul>
+ * <li>entries marked for deletion ({@code X}) and reference entries ({@code =})</li>
+ * <li>entries whose UN/LOCODE, name or function are not acceptable to the domain model</li>
+ * <li>entries without coordinates or with invalid coordinates</li>
+ * </ul>
+ * Country names are taken from English country names known to the JVM, and the official country names are used only as a fallback. Official data do not contain port capabilities. Therefore, ports
+ * (function {@code 1}) get only the {@code SEA_PORT} capability, while all other locations get no port capabilities. More detailed capabilities can be provided with the location registry CSV, whose
+ * rows take precedence over converted rows.
+ * <p/>
+ * Instances are not thread-safe. A single instance should be used for all files of the distribution, since a country can span over multiple files.
+ */
+@CompileStatic
+class UnLoCodeCsvReader {
+  static final String PORT_CAPABILITIES_PORT = "SEA_PORT"
+  static final String PORT_CAPABILITIES_NO_PORT = ""
+
+  private static final int CHANGE_INDICATOR_COLUMN_INDEX = 0
+  private static final int COUNTRY_CODE_COLUMN_INDEX = 1
+  private static final int LOCATION_CODE_COLUMN_INDEX = 2
+  private static final int NAME_COLUMN_INDEX = 3
+  private static final int FUNCTION_COLUMN_INDEX = 7
+  private static final int COORDINATES_COLUMN_INDEX = 10
+
+  private static final List<String> SKIPPED_CHANGE_INDICATOR_LIST = ["X", "="]
+  private static final int NAME_LENGTH_MAX = 200
+  private static final int MINUTE_MAX = 60
+  private static final int LATITUDE_DEGREE_MAX = 90
+  private static final int LONGITUDE_DEGREE_MAX = 180
+
+  private static final Pattern UN_LO_CODE_PATTERN = Pattern.compile(/^[A-Z]{4}[A-Z2-9]$/)
+  private static final Pattern FUNCTION_PATTERN = Pattern.compile(/^(?=.*[0-7B].*)[01-][2-][3-][4-][5-][6-][7-][B-]$/)
+  private static final Pattern COORDINATES_PATTERN = Pattern.compile(/^([0-9]{2})([0-9]{2})[NS] ([0-9]{3})([0-9]{2})[WE]$/)
+
+  private final Map<String, String> countryNameByCountryCodeMap = [:]
+  private int skippedEntryCount = 0
+
+  /**
+   * Returns the number of location entries skipped so far.
+   */
+  int getSkippedEntryCount() {
+    return skippedEntryCount
+  }
+
+  /**
+   * Reads single official UN/LOCODE CSV file and puts converted location registry rows into provided map keyed by UN/LOCODE.
+   *
+   * @return number of converted location entries
+   */
+  int read(Reader unLoCodeCsvReader, Map<String, List<String>> rowByUnLoCodeMap) {
+    int convertedEntryCount = 0
+    int lineNumber = 0
+
+    unLoCodeCsvReader.eachLine({ String csvLine ->
+      lineNumber++
+      if (csvLine.trim().isEmpty()) {
+        return
+      }
+
+      List<String> valueList = LocationRegistryIndexWriter.parseCsvLine(csvLine)
+      if (valueList.size() <= COORDINATES_COLUMN_INDEX) {
+        throw new IllegalArgumentException("Invalid number of values at line $lineNumber. Expected at least ${ COORDINATES_COLUMN_INDEX + 1 } values, but found ${ valueList.size() }.")
+      }
+
+      String countryCode = valueList[COUNTRY_CODE_COLUMN_INDEX]
+      if (valueList[LOCATION_CODE_COLUMN_INDEX].isEmpty()) {
+        countryNameByCountryCodeMap.put(countryCode, makeCountryName(countryCode, valueList[NAME_COLUMN_INDEX]))
+        return
+      }
+
+      List<String> rowValueList = convertLocationEntry(valueList)
+      if (rowValueList == null) {
+        skippedEntryCount++
+        return
+      }
+
+      rowByUnLoCodeMap.put(rowValueList[0], rowValueList)
+      convertedEntryCount++
+    })
+
+    return convertedEntryCount
+  }
+
+  /**
+   * Returns English country name known to the JVM for provided ISO 3166 country code. When there is no such name, official country name without the leading dot is returned instead.
+   */
+  static String makeCountryName(String countryCode, String officialCountryName) {
+    String displayCountryName = Locale.of("", countryCode).getDisplayCountry(Locale.ENGLISH)
+    if (displayCountryName && displayCountryName != countryCode) {
+      return displayCountryName
+    }
+
+    String officialCountryNameTrimmed = officialCountryName?.replaceFirst(/^\./, "")?.trim()
+    return officialCountryNameTrimmed ?: countryCode
+  }
+
+  /**
+   * Checks if provided coordinates in UN/LOCODE format are well-formed and within the valid range.
+   */
+  static boolean isValidCoordinates(String coordinates) {
+    Matcher coordinatesMatcher = COORDINATES_PATTERN.matcher(coordinates)
+    if (!coordinatesMatcher.matches()) {
+      return false
+    }
+
+    int latitudeDegrees = coordinatesMatcher.group(1) as int
+    int latitudeMinutes = coordinatesMatcher.group(2) as int
+    int longitudeDegrees = coordinatesMatcher.group(3) as int
+    int longitudeMinutes = coordinatesMatcher.group(4) as int
+
+    return latitudeMinutes < MINUTE_MAX && longitudeMinutes < MINUTE_MAX &&
+           latitudeDegrees * MINUTE_MAX + latitudeMinutes <= LATITUDE_DEGREE_MAX * MINUTE_MAX &&
+           longitudeDegrees * MINUTE_MAX + longitudeMinutes <= LONGITUDE_DEGREE_MAX * MINUTE_MAX
+  }
+
+  private List<String> convertLocationEntry(List<String> valueList) {
+    if (valueList[CHANGE_INDICATOR_COLUMN_INDEX] in SKIPPED_CHANGE_INDICATOR_LIST) {
+      return null
+    }
+
+    String countryCode = valueList[COUNTRY_CODE_COLUMN_INDEX]
+    String unLoCode = countryCode + valueList[LOCATION_CODE_COLUMN_INDEX]
+    String name = valueList[NAME_COLUMN_INDEX]
+    String function = valueList[FUNCTION_COLUMN_INDEX]
+    String coordinates = valueList[COORDINATES_COLUMN_INDEX]
+
+    if (!UN_LO_CODE_PATTERN.matcher(unLoCode).matches() || name.isEmpty() || name.length() > NAME_LENGTH_MAX || !FUNCTION_PATTERN.matcher(function).matches() || !isValidCoordinates(coordinates)) {
+      return null
+    }
+
+    String countryName = countryNameByCountryCodeMap.computeIfAbsent(countryCode, { String aCountryCode -> makeCountryName(aCountryCode, null) })
+    String portCapabilities = function.startsWith("1") ? PORT_CAPABILITIES_PORT : PORT_CAPABILITIES_NO_PORT
+
+    return [unLoCode, name, countryName, function, coordinates, portCapabilities]
+  }
+}
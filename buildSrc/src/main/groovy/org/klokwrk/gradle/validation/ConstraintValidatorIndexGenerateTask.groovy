@@ -0,0 +1,56 @@
+package org.klokwrk.gradle.validation
+
+import groovy.transform.CompileStatic
+import org.gradle.api.DefaultTask
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.provider.ListProperty
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.InputFiles
+import org.gradle.api.tasks.OutputDirectory
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
+import org.gradle.api.tasks.TaskAction
+
+import java.nio.charset.StandardCharsets
+
+/**
+ * Generates the static index of constraint validator implementations from compiled classes. Output directory is intended to be used as an additional resources directory.
+ * <p/>
+ * For the details about the index format, take a look at {@link ConstraintValidatorIndexWriter}.
+ */
+@CompileStatic
+abstract class ConstraintValidatorIndexGenerateTask extends DefaultTask {
+  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  abstract ConfigurableFileCollection getClassesDirs()
+
+  @OutputDirectory
+  abstract DirectoryProperty getOutputDirectory()
+
+  /**
+   * Path of the index file relative to the output directory, i.e. resource path.
+   */
+  @Input
+  abstract Property<String> getIndexFilePath()
+
+  /**
+   * Packages (including subpackages) whose validators are all contained in provided class directories. The classpath is not scanned at runtime for these packages.
+   */
+  @Input
+  abstract ListProperty<String> getCoveredPackages()
+
+  @TaskAction
+  void generate() {
+    File indexFile = new File(outputDirectory.get().asFile, indexFilePath.get())
+    indexFile.parentFile.mkdirs()
+
+    SortedMap<String, String> constraintAnnotationByValidatorMap = ConstraintValidatorIndexWriter.collect(classesDirs.files)
+    indexFile.withWriter(StandardCharsets.UTF_8.name(), { Writer indexWriter ->
+      ConstraintValidatorIndexWriter.write(constraintAnnotationByValidatorMap, new TreeSet<String>(coveredPackages.get()), indexWriter)
+    })
+
+    logger.info("Constraint validator index with ${ constraintAnnotationByValidatorMap.size() } validators written to $indexFile")
+  }
+}
@@ -0,0 +1,92 @@
+package org.klokwrk.gradle.validation
+
+import groovy.transform.CompileStatic
+import io.github.classgraph.ClassGraph
+import io.github.classgraph.ClassInfo
+import io.github.classgraph.ClassRefTypeSignature
+import io.github.classgraph.ClassTypeSignature
+import io.github.classgraph.ScanResult
+
+/**
+ * Creates the static index of constraint validator implementations found in compiled classes.
+ * <p/>
+ * Index is a properties file where each line maps fully qualified class name of a constraint validator implementation to the fully qualified class name of the constraint annotation it validates:
+ * <pre>
+ * org.klokwrk.lib.lo.validation.validator.TrimmedStringConstraintValidator=org.klokwrk.lib.lo.validation.constraint.TrimmedStringConstraint
+ * </pre>
+ * The index also declares packages it covers completely, i.e. packages (including subpackages) whose validators are all listed in the index:
+ * <pre>
+ * klokwrk.constraint-validator-index.covered-packages=org.klokwrk.lib.lo.validation.validator
+ * </pre>
+ * At runtime, the classpath is not scanned for covered packages. Property name contains a dash, so it can not clash with a validator class name.
+ * <p/>
+ * Lines are sorted by validator class name, and the index does not contain any timestamps, so the output is reproducible.
+ */
+@CompileStatic
+class ConstraintValidatorIndexWriter {
+  static final String CONSTRAINT_VALIDATOR_CLASS_NAME = "jakarta.validation.ConstraintValidator"
+  static final String COVERED_PACKAGES_PROPERTY_NAME = "klokwrk.constraint-validator-index.covered-packages"
+
+  /**
+   * Scans provided class directories and collects constraint validator implementations.
+   * <p/>
+   * Only concrete classes directly implementing {@code jakarta.validation.ConstraintValidator} are considered. Classes are not loaded, all information is read from the class files.
+   *
+   * @return sorted map of validator class names to constraint annotation class names
+   */
+  static SortedMap<String, String> collect(Collection<File> classesDirectoryList) {
+    SortedMap<String, String> constraintAnnotationByValidatorMap = new TreeMap<>()
+
+    List<File> existingClassesDirectoryList = classesDirectoryList.findAll({ File classesDirectory -> classesDirectory.isDirectory() })
+    if (existingClassesDirectoryList.isEmpty()) {
+      return constraintAnnotationByValidatorMap
+    }
+
+    ClassGraph validatorImplementationClassGraph = new ClassGraph()
+        .enableClassInfo()
+        .overrideClasspath(existingClassesDirectoryList)
+
+    validatorImplementationClassGraph.scan().withCloseable { ScanResult scanResult ->
+      scanResult.allStandardClasses.each { ClassInfo classInfo ->
+        if (classInfo.isAbstract()) {
+          return
+        }
+
+        String constraintAnnotationClassName = findConstraintAnnotationClassName(classInfo.typeSignature)
+        if (constraintAnnotationClassName) {
+          constraintAnnotationByValidatorMap.put(classInfo.name, constraintAnnotationClassName)
+        }
+      }
+    }
+
+    return constraintAnnotationByValidatorMap
+  }
+
+  /**
+   * Writes the index in the properties format.
+   */
+  static void write(SortedMap<String, String> constraintAnnotationByValidatorMap, SortedSet<String> coveredPackageSet, Writer indexWriter) {
+    indexWriter.write("# Generated by klokwrk build. Maps constraint validator implementations to constraint annotations. Do not edit.\n")
+    indexWriter.write("${ COVERED_PACKAGES_PROPERTY_NAME }=${ coveredPackageSet.join(",") }\n")
+    constraintAnnotationByValidatorMap.each { String validatorClassName, String constraintAnnotationClassName ->
+      indexWriter.write("${ validatorClassName }=${ constraintAnnotationClassName }\n")
+    }
+    indexWriter.flush()
+  }
+
+  private static String findConstraintAnnotationClassName(ClassTypeSignature classTypeSignature) {
+    if (classTypeSignature == null) {
+      return null
+    }
+
+    ClassRefTypeSignature constraintValidatorSignature = classTypeSignature.superinterfaceSignatures
+        .find({ ClassRefTypeSignature superinterfaceSignature -> superinterfaceSignature.baseClassName == CONSTRAINT_VALIDATOR_CLASS_NAME })
+
+    if (constraintValidatorSignature == null || constraintValidatorSignature.typeArguments.isEmpty()) {
+      return null
+    }
+
+    ClassRefTypeSignature constraintAnnotationSignature = constraintValidatorSignature.typeArguments[0].typeSignature as ClassRefTypeSignature
+    return constraintAnnotationSignature?.fullyQualifiedClassName
+  }
+}
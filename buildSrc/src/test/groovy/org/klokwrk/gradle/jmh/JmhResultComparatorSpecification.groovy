@@ -0,0 +1,107 @@
+package org.klokwrk.gradle.jmh
+
+import spock.lang.Specification
+
+class JmhResultComparatorSpecification extends Specification {
+  static Map<String, Object> makeResult(String benchmark, String mode, Map<String, String> params, Object score, Object allocationScore = null) {
+    Map<String, Object> result = [
+        benchmark: benchmark,
+        mode: mode,
+        params: params,
+        primaryMetric: [score: score, scoreUnit: mode == "thrpt" ? "ops/s" : "ns/op"]
+    ] as Map<String, Object>
+
+    if (allocationScore != null) {
+      result.secondaryMetrics = ["gc.alloc.rate.norm": [score: allocationScore, scoreUnit: "B/op"]]
+    }
+
+    return result
+  }
+
+  void "makeResultKey() should not depend on the order of params"() {
+    expect:
+    JmhResultComparator.makeResultKey(makeResult("a.B.c", "avgt", [x: "1", y: "2"], 1.0)) == JmhResultComparator.makeResultKey(makeResult("a.B.c", "avgt", [y: "2", x: "1"], 1.0))
+    JmhResultComparator.makeResultKey(makeResult("a.B.c", "avgt", [x: "1"], 1.0)) != JmhResultComparator.makeResultKey(makeResult("a.B.c", "avgt", [x: "2"], 1.0))
+    JmhResultComparator.makeResultKey(makeResult("a.B.c", "avgt", null, 1.0)) == "a.B.c|avgt|"
+  }
+
+  void "calculateChangePercent() should work as expected"() {
+    expect:
+    JmhResultComparator.calculateChangePercent(baselineValueParam, currentValueParam) == changePercentExpected
+
+    where:
+    baselineValueParam | currentValueParam | changePercentExpected
+    100.0              | 120.0             | 20.00
+    100.0              | 80.0              | -20.00
+    3.0                | 4.0               | 33.33
+    0.0                | 0.0               | 0.00
+    0.0                | 1.0               | null
+    null               | 1.0               | null
+    1.0                | null              | null
+  }
+
+  void "determineStatus() should work as expected"() {
+    expect:
+    JmhResultComparator.determineStatus(changePercentParam, isHigherBetterParam, 10.0) == statusExpected
+
+    where:
+    changePercentParam | isHigherBetterParam | statusExpected
+    20.0               | false               | JmhResultComparator.STATUS_REGRESSED
+    -20.0              | false               | JmhResultComparator.STATUS_IMPROVED
+    20.0               | true                | JmhResultComparator.STATUS_IMPROVED
+    -20.0              | true                | JmhResultComparator.STATUS_REGRESSED
+    10.0               | false               | JmhResultComparator.STATUS_UNCHANGED
+    -5.0               | true                | JmhResultComparator.STATUS_UNCHANGED
+    null               | true                | JmhResultComparator.STATUS_NEW
+  }
+
+  void "compare() should produce expected report"() {
+    given:
+    List<Map<String, Object>> baselineResultList = [
+        makeResult("a.B.slower", "avgt", [size: "10"], 100.0, 64.0),
+        makeResult("a.B.allocating", "avgt", [size: "10"], 100.0, 64.0),
+        makeResult("a.B.faster", "thrpt", [:], 1000.0),
+        makeResult("a.B.removed", "avgt", [:], 1.0)
+    ]
+
+    List<Map<String, Object>> currentResultList = [
+        makeResult("a.B.slower", "avgt", [size: "10"], 150.0, 64.0),
+        makeResult("a.B.allocating", "avgt", [size: "10"], 100.0, 128.0),
+        makeResult("a.B.faster", "thrpt", [:], 2000.0),
+        makeResult("a.B.added", "avgt", [:], "NaN")
+    ]
+
+    when:
+    Map<String, Object> report = JmhResultComparator.compare(baselineResultList, currentResultList, 10.0)
+    List<Map<String, Object>> comparisonList = report.comparisonList as List<Map<String, Object>>
+
+    then:
+    report.regressionCount == 2
+    report.missingInCurrentList == ["a.B.removed|avgt|"]
+    comparisonList.size() == 4
+
+    verifyAll(comparisonList[0]) {
+      scoreChangePercent == 50.00
+      scoreStatus == JmhResultComparator.STATUS_REGRESSED
+      allocationChangePercent == 0.00
+      allocationStatus == JmhResultComparator.STATUS_UNCHANGED
+    }
+
+    verifyAll(comparisonList[1]) {
+      scoreStatus == JmhResultComparator.STATUS_UNCHANGED
+      allocationUnit == "B/op"
+      allocationStatus == JmhResultComparator.STATUS_REGRESSED
+    }
+
+    verifyAll(comparisonList[2]) {
+      scoreStatus == JmhResultComparator.STATUS_IMPROVED
+      allocationStatus == null
+    }
+
+    verifyAll(comparisonList[3]) {
+      baselineScore == null
+      currentScore == null
+      scoreStatus == JmhResultComparator.STATUS_NEW
+    }
+  }
+}
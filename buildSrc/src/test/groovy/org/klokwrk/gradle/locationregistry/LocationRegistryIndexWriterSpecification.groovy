@@ -0,0 +1,100 @@
+package org.klokwrk.gradle.locationregistry
+
+import spock.lang.Specification
+
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+class LocationRegistryIndexWriterSpecification extends Specification {
+  static final String CSV_HEADER = "unLoCode,name,countryName,unLoCodeFunction,unLoCodeCoordinates,portCapabilities"
+
+  static String readPooledString(ByteBuffer indexBuffer, int stringPoolOffset, int relativeOffset) {
+    int absoluteOffset = stringPoolOffset + relativeOffset
+    int length = indexBuffer.getShort(absoluteOffset) & 0xffff
+    byte[] stringBytes = new byte[length]
+    indexBuffer.get(absoluteOffset + 2, stringBytes)
+    return new String(stringBytes, StandardCharsets.UTF_8)
+  }
+
+  void "parseCsvLine() should work as expected"() {
+    expect:
+    LocationRegistryIndexWriter.parseCsvLine(csvLineParam) == valueListExpected
+
+    where:
+    csvLineParam                         | valueListExpected
+    "a,b,c"                              | ["a", "b", "c"]
+    "a, b ,"                             | ["a", "b", ""]
+    '"Korea, Republic of",b'             | ["Korea, Republic of", "b"]
+    '"say ""hi""",b'                     | ['say "hi"', "b"]
+    ""                                   | [""]
+  }
+
+  void "parseCsvLine() should fail for unterminated quoted value"() {
+    when:
+    LocationRegistryIndexWriter.parseCsvLine('"abc,d')
+
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  void "compile() should write sorted records and deduplicated string pool"() {
+    given:
+    String csv = """
+      $CSV_HEADER
+      # comment line
+      NLRTM,Rotterdam,Netherlands,12345---,5155N 00430E,SEA_PORT|CONTAINER_PORT
+
+      HRRJK,Rijeka,Croatia,1234----,4520N 01424E,SEA_PORT|CONTAINER_PORT
+      HRZAG,Zagreb,Croatia,-2345---,4548N 01600E,
+    """.stripIndent()
+
+    ByteArrayOutputStream indexOutputStream = new ByteArrayOutputStream()
+
+    when:
+    int locationCount = LocationRegistryIndexWriter.compile(new StringReader(csv), indexOutputStream)
+    ByteBuffer indexBuffer = ByteBuffer.wrap(indexOutputStream.toByteArray())
+
+    int recordsOffset = indexBuffer.getInt(12)
+    int stringPoolOffset = indexBuffer.getInt(16)
+    List<String> unLoCodeList = (0..<3).collect({ Integer index ->
+      byte[] unLoCodeBytes = new byte[5]
+      indexBuffer.get(recordsOffset + index * LocationRegistryIndexWriter.RECORD_SIZE, unLoCodeBytes)
+      return new String(unLoCodeBytes, StandardCharsets.US_ASCII)
+    })
+
+    int hrzagRecordOffset = recordsOffset + LocationRegistryIndexWriter.RECORD_SIZE
+    List<String> hrzagValueList = (0..<5).collect({ Integer fieldIndex ->
+      readPooledString(indexBuffer, stringPoolOffset, indexBuffer.getInt(hrzagRecordOffset + 5 + fieldIndex * 4))
+    })
+
+    then:
+    locationCount == 3
+    indexBuffer.getInt(0) == LocationRegistryIndexWriter.MAGIC
+    indexBuffer.getInt(4) == LocationRegistryIndexWriter.FORMAT_VERSION
+    indexBuffer.getInt(8) == 3
+    recordsOffset == LocationRegistryIndexWriter.HEADER_SIZE
+    stringPoolOffset == recordsOffset + 3 * LocationRegistryIndexWriter.RECORD_SIZE
+
+    unLoCodeList == ["HRRJK", "HRZAG", "NLRTM"]
+    hrzagValueList == ["Zagreb", "Croatia", "-2345---", "4548N 01600E", ""]
+
+    // Country name "Croatia" is shared between HRRJK and HRZAG records.
+    indexBuffer.getInt(recordsOffset + 5 + 4) == indexBuffer.getInt(hrzagRecordOffset + 5 + 4)
+  }
+
+  void "compile() should fail for invalid CSV"() {
+    when:
+    LocationRegistryIndexWriter.compile(new StringReader(csvParam), new ByteArrayOutputStream())
+
+    then:
+    IllegalArgumentException iae = thrown()
+    iae.message.startsWith(messageStartExpected)
+
+    where:
+    csvParam                                                                                 | messageStartExpected
+    "unLoCode,name\nHRRJK,Rijeka"                                                            | "Invalid CSV header"
+    "$CSV_HEADER\nHRRJK,Rijeka,Croatia"                                                      | "Invalid number of values"
+    "$CSV_HEADER\nhrrjk,Rijeka,Croatia,1234----,4520N 01424E,"                               | "Invalid UN/LOCODE"
+    "$CSV_HEADER\nHRRJK,Rijeka,Croatia,1234----,4520N 01424E,\nHRRJK,Rijeka,Croatia,1---,," | "Duplicate UN/LOCODE"
+  }
+}
@@ -0,0 +1,73 @@
+package org.klokwrk.gradle.locationregistry
+
+import spock.lang.Specification
+
+class UnLoCodeCsvReaderSpecification extends Specification {
+  void "read() should convert official UN/LOCODE entries into location registry rows"() {
+    given:
+    String unLoCodeCsv = """
+      ,"HR",,".CROATIA",,,,,,,,
+      ,"HR","RJK","Rijeka","Rijeka","51","AI","1234----","0701",,"4520N 01424E",""
+      ,"HR","ZAG","Zagreb","Zagreb","21","AI","-2345---","0307",,"4548N 01600E",""
+      X,"HR","XXX","Deleted","Deleted",,"AI","1-------","0701",,"4520N 01424E",""
+      =,"HR","OPA","Opatija = Abbazia",,,,,,,,
+      ,"HR","NOC","No Coordinates","No Coordinates",,"RL","1-------","0701",,,""
+      ,"HR","BAD","Bad Coordinates","Bad Coordinates",,"RL","1-------","0701",,"4575N 01424E",""
+      ,"HR","NOF","No Function","No Function",,"RL","--------","0701",,"4520N 01424E",""
+      ,"HR","R2K","Digits","Digits",,"RL","1-------","0701",,"4520N 01424E",""
+      ,"NL","RTM","Rotterdam","Rotterdam","ZH","AI","12345---","0501",,"5155N 00430E",""
+    """.stripIndent()
+
+    UnLoCodeCsvReader unLoCodeCsvReader = new UnLoCodeCsvReader()
+    Map<String, List<String>> rowByUnLoCodeMap = new TreeMap<>()
+
+    when:
+    int convertedEntryCount = unLoCodeCsvReader.read(new StringReader(unLoCodeCsv), rowByUnLoCodeMap)
+
+    then:
+    convertedEntryCount == 3
+    unLoCodeCsvReader.skippedEntryCount == 6
+    rowByUnLoCodeMap == [
+        HRRJK: ["HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", "SEA_PORT"],
+        HRZAG: ["HRZAG", "Zagreb", "Croatia", "-2345---", "4548N 01600E", ""],
+        NLRTM: ["NLRTM", "Rotterdam", "Netherlands", "12345---", "5155N 00430E", "SEA_PORT"]
+    ]
+  }
+
+  void "read() should fail for line with too few values"() {
+    when:
+    new UnLoCodeCsvReader().read(new StringReader(',"HR","RJK","Rijeka"'), [:])
+
+    then:
+    IllegalArgumentException iae = thrown()
+    iae.message.startsWith("Invalid number of values at line 1.")
+  }
+
+  void "makeCountryName() should work as expected"() {
+    expect:
+    UnLoCodeCsvReader.makeCountryName(countryCodeParam, officialCountryNameParam) == countryNameExpected
+
+    where:
+    countryCodeParam | officialCountryNameParam | countryNameExpected
+    "HR"             | ".CROATIA"               | "Croatia"
+    "HR"             | null                     | "Croatia"
+    "XZ"             | ".INTERNATIONAL WATERS"  | "INTERNATIONAL WATERS"
+    "XZ"             | null                     | "XZ"
+  }
+
+  void "isValidCoordinates() should work as expected"() {
+    expect:
+    UnLoCodeCsvReader.isValidCoordinates(coordinatesParam) == isValidExpected
+
+    where:
+    coordinatesParam | isValidExpected
+    "4520N 01424E"   | true
+    "9000S 18000W"   | true
+    ""               | false
+    "4520N 1424E"    | false
+    "4560N 01424E"   | false
+    "4520N 01460E"   | false
+    "9001N 01424E"   | false
+    "4520N 18001E"   | false
+  }
+}
@@ -0,0 +1,44 @@
+package org.klokwrk.gradle.validation
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+class ConstraintValidatorIndexWriterSpecification extends Specification {
+  @TempDir
+  File tempDir
+
+  void "write() should write sorted lines in properties format"() {
+    given:
+    SortedMap<String, String> constraintAnnotationByValidatorMap = new TreeMap<>([
+        "org.example.ZValidator": "org.example.ZConstraint",
+        "org.example.AValidator": "org.example.AConstraint",
+        "org.example.AForMapValidator": "org.example.AConstraint"
+    ])
+    StringWriter indexWriter = new StringWriter()
+
+    when:
+    ConstraintValidatorIndexWriter.write(constraintAnnotationByValidatorMap, new TreeSet<String>(["org.example", "org.another"]), indexWriter)
+    List<String> lineList = indexWriter.toString().readLines()
+
+    then:
+    lineList.size() == 5
+    lineList[0].startsWith("#")
+    lineList[1] == "klokwrk.constraint-validator-index.covered-packages=org.another,org.example"
+    lineList[2..4] == [
+        "org.example.AForMapValidator=org.example.AConstraint",
+        "org.example.AValidator=org.example.AConstraint",
+        "org.example.ZValidator=org.example.ZConstraint"
+    ]
+
+    and:
+    Properties indexProperties = new Properties()
+    indexProperties.load(new StringReader(indexWriter.toString()))
+    indexProperties.remove(ConstraintValidatorIndexWriter.COVERED_PACKAGES_PROPERTY_NAME)
+    new TreeMap(indexProperties) == constraintAnnotationByValidatorMap
+  }
+
+  void "collect() should return empty map for missing or empty class directories"() {
+    expect:
+    ConstraintValidatorIndexWriter.collect([new File(tempDir, "missing"), tempDir]).isEmpty()
+  }
+}
@@ -18,6 +18,7 @@
 package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.in.web
 
 import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkRequest
 import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandRequest
 import org.klokwrk.cargotracking.booking.lib.boundary.web.metadata.WebMetaDataFactory
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationRequest
@@ -39,4 +40,15 @@ class BookingOfferCommandWebAssembler {
 
     return createBookingOfferCommandOperationRequest
   }
+
+  static OperationRequest<CreateBookingOfferCommandBulkRequest> toCreateBookingOfferCommandBulkOperationRequest(
+      CreateBookingOfferCommandBulkWebRequest createBookingOfferCommandBulkWebRequest, HttpServletRequest httpServletRequest)
+  {
+    Map metadataMap = WebMetaDataFactory.makeMetaDataMapForWebBookingChannel(ClientIpAddressExtractor.extractClientIpAddress(httpServletRequest))
+
+    OperationRequest<CreateBookingOfferCommandBulkRequest> createBookingOfferCommandBulkOperationRequest =
+        new OperationRequest(payload: new CreateBookingOfferCommandBulkRequest(createBookingOfferCommandBulkWebRequest.properties), metaData: metadataMap)
+
+    return createBookingOfferCommandBulkOperationRequest
+  }
 }
@@ -17,25 +17,45 @@
  */
 package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.in.web
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkItemResponse
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkPortIn
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkResponse
 import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandPortIn
 import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandResponse
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
+import org.klokwrk.cargotracking.lib.web.spring.mvc.ResponseFormattingOperationResponseFactory
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
 import org.springframework.web.bind.annotation.PostMapping
 import org.springframework.web.bind.annotation.RequestBody
 import org.springframework.web.bind.annotation.RequestMapping
 import org.springframework.web.bind.annotation.RestController
+import org.springframework.web.method.HandlerMethod
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody
 
 import jakarta.servlet.http.HttpServletRequest
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.function.Consumer
 
 @CompileStatic
 @RestController
 @RequestMapping("/booking-offer")
 class BookingOfferCommandWebController {
   private final CreateBookingOfferCommandPortIn createBookingOfferCommandPortIn
+  private final CreateBookingOfferCommandBulkPortIn createBookingOfferCommandBulkPortIn
+  private final CreateBookingOfferCommandBulkWebResponseWriter createBookingOfferCommandBulkWebResponseWriter
 
-  BookingOfferCommandWebController(CreateBookingOfferCommandPortIn createBookingOfferCommandPortIn) {
+  BookingOfferCommandWebController(
+      CreateBookingOfferCommandPortIn createBookingOfferCommandPortIn, CreateBookingOfferCommandBulkPortIn createBookingOfferCommandBulkPortIn, ObjectMapper objectMapper,
+      ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory)
+  {
     this.createBookingOfferCommandPortIn = createBookingOfferCommandPortIn
+    this.createBookingOfferCommandBulkPortIn = createBookingOfferCommandBulkPortIn
+    this.createBookingOfferCommandBulkWebResponseWriter = new CreateBookingOfferCommandBulkWebResponseWriter(objectMapper, responseFormattingOperationResponseFactory)
   }
 
   @SuppressWarnings("CodeNarc.FactoryMethodName")
@@ -48,4 +68,32 @@ class BookingOfferCommandWebController {
 
     return createBookingOfferCommandResponse
   }
+
+  /**
+   * Creates booking offers for all items of the bulk request, and streams outcomes of individual items as newline delimited JSON.
+   * <p/>
+   * The bulk request is validated before the response is started, so validation failures of the bulk as a whole are reported as regular failure responses. Afterward, the outcome of each item is
+   * streamed as soon as it becomes available, which means the order of streamed items does not have to match the order in the request.
+   *
+   * @see CreateBookingOfferCommandBulkWebResponseWriter
+   */
+  @SuppressWarnings("CodeNarc.FactoryMethodName")
+  @PostMapping("/create-booking-offer-bulk")
+  ResponseEntity<StreamingResponseBody> createBookingOfferCommandBulk(
+      @RequestBody CreateBookingOfferCommandBulkWebRequest createBookingOfferCommandBulkWebRequest, HttpServletRequest httpServletRequest, Locale locale)
+  {
+    BlockingQueue<CreateBookingOfferCommandBulkItemResponse> itemResponseQueue = new LinkedBlockingQueue<>()
+    CompletableFuture<CreateBookingOfferCommandBulkResponse> bulkResponseFuture = createBookingOfferCommandBulkPortIn.createBookingOfferCommandBulk(
+        BookingOfferCommandWebAssembler.toCreateBookingOfferCommandBulkOperationRequest(createBookingOfferCommandBulkWebRequest, httpServletRequest),
+        { CreateBookingOfferCommandBulkItemResponse itemResponse -> itemResponseQueue.add(itemResponse) } as Consumer<CreateBookingOfferCommandBulkItemResponse>
+    )
+
+    // Handler method is used for resolving localized failure messages of individual items.
+    HandlerMethod handlerMethod = new HandlerMethod(this, "createBookingOfferCommandBulk", CreateBookingOfferCommandBulkWebRequest, HttpServletRequest, Locale)
+    StreamingResponseBody streamingResponseBody = { OutputStream outputStream ->
+      createBookingOfferCommandBulkWebResponseWriter.write(itemResponseQueue, bulkResponseFuture, handlerMethod, locale, outputStream)
+    } as StreamingResponseBody
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(streamingResponseBody)
+  }
 }
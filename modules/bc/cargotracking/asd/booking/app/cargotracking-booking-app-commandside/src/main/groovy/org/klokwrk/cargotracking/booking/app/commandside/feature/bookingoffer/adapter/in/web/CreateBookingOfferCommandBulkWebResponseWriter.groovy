@@ -0,0 +1,143 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.in.web
+
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectWriter
+import com.fasterxml.jackson.databind.SerializationFeature
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkItemResponse
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkResponse
+import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
+import org.klokwrk.cargotracking.lib.web.spring.mvc.ResponseFormattingOperationResponseFactory
+import org.springframework.web.method.HandlerMethod
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.TimeUnit
+
+/**
+ * Writes outcomes of bulk booking offer creation into an output stream as newline delimited JSON.
+ * <p/>
+ * Every item outcome is written as a separate line as soon as it is taken from the queue. The line has the same shape as the response of the corresponding single item
+ * {@code create-booking-offer} request, with additional {@code itemIndex} property referencing the item in the request. Failures are rendered (and localized) by
+ * {@link ResponseFormattingOperationResponseFactory} in the same way as failed single item responses. The last line contains the bulk summary without {@code itemIndex} property.
+ * <p/>
+ * Once the response is started, failures can not be reported via HTTP status anymore. Therefore, an item outcome that can not be formatted is written as a failure line of that item, and a failure
+ * of the bulk as a whole is written as a failure summary line.
+ * <p/>
+ * Output is flushed whenever there are no more item outcomes waiting in the queue.
+ */
+@CompileStatic
+class CreateBookingOfferCommandBulkWebResponseWriter {
+  static final String ITEM_INDEX_PROPERTY_NAME = "itemIndex"
+
+  private static final Long QUEUE_POLL_TIMEOUT_MILLIS = 100
+
+  private final ObjectWriter ndjsonObjectWriter
+  private final ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory
+
+  CreateBookingOfferCommandBulkWebResponseWriter(ObjectMapper objectMapper, ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory) {
+    // Note: Flushing and closing is disabled since flushing is controlled explicitly.
+    this.ndjsonObjectWriter = objectMapper
+        .writer()
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+
+    this.responseFormattingOperationResponseFactory = responseFormattingOperationResponseFactory
+  }
+
+  /**
+   * Writes item outcomes from the queue until the bulk summary future is completed and the queue is drained. At the end, writes the bulk summary.
+   * <p/>
+   * Handler method and locale are used for resolving localized failure messages in the same way as it is done for failures thrown directly from the handler method.
+   */
+  void write(
+      BlockingQueue<CreateBookingOfferCommandBulkItemResponse> itemResponseQueue, CompletableFuture<CreateBookingOfferCommandBulkResponse> bulkResponseFuture,
+      HandlerMethod handlerMethod, Locale locale, OutputStream outputStream)
+  {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))
+
+    while (true) {
+      // NOTE: All item outcomes are queued before the bulk summary future is completed. Therefore, the queue must be checked once more after the future is done.
+      Boolean isBulkResponseDone = bulkResponseFuture.isDone()
+      CreateBookingOfferCommandBulkItemResponse itemResponse = itemResponseQueue.poll(QUEUE_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+      if (itemResponse == null) {
+        if (isBulkResponseDone) {
+          break
+        }
+
+        continue
+      }
+
+      writeLine(makeItemResponseLineMap(itemResponse, handlerMethod, locale), writer)
+      if (itemResponseQueue.isEmpty()) {
+        writer.flush()
+      }
+    }
+
+    writeLine(makeBulkResponseLineMap(bulkResponseFuture, handlerMethod, locale), writer)
+    writer.flush()
+  }
+
+  protected void writeLine(Map<String, ?> lineMap, Writer writer) {
+    ndjsonObjectWriter.writeValue(writer, lineMap)
+    writer.write("\n")
+  }
+
+  protected Map<String, ?> makeItemResponseLineMap(CreateBookingOfferCommandBulkItemResponse itemResponse, HandlerMethod handlerMethod, Locale locale) {
+    OperationResponse operationResponse
+    try {
+      operationResponse = itemResponse.isSuccessful() ?
+          responseFormattingOperationResponseFactory.makeSuccessOperationResponse(itemResponse.payload, locale) :
+          responseFormattingOperationResponseFactory.makeFailureOperationResponse(itemResponse.failure, handlerMethod, locale)
+    }
+    catch (RuntimeException runtimeException) {
+      operationResponse = responseFormattingOperationResponseFactory.makeFailureOperationResponse(runtimeException, handlerMethod, locale)
+    }
+
+    return [(ITEM_INDEX_PROPERTY_NAME): itemResponse.itemIndex] + makeOperationResponseLineMap(operationResponse)
+  }
+
+  /**
+   * Makes the summary line map from the completed bulk summary future.
+   * <p/>
+   * When the future is completed exceptionally (i.e., dispatching was interrupted), the summary line describes the failure instead of letting it escape after item outcomes were already written.
+   */
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected Map<String, ?> makeBulkResponseLineMap(CompletableFuture<CreateBookingOfferCommandBulkResponse> bulkResponseFuture, HandlerMethod handlerMethod, Locale locale) {
+    OperationResponse operationResponse
+    try {
+      operationResponse = responseFormattingOperationResponseFactory.makeSuccessOperationResponse(bulkResponseFuture.join(), locale)
+    }
+    catch (RuntimeException runtimeException) {
+      Throwable failure = (runtimeException instanceof CompletionException && runtimeException.cause != null) ? runtimeException.cause : runtimeException
+      operationResponse = responseFormattingOperationResponseFactory.makeFailureOperationResponse(failure, handlerMethod, locale)
+    }
+
+    return makeOperationResponseLineMap(operationResponse)
+  }
+
+  protected Map<String, ?> makeOperationResponseLineMap(OperationResponse operationResponse) {
+    return [metaData: operationResponse.metaData, payload: operationResponse.payload]
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.out.remoting
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.domain.model.value.Location
+import org.klokwrk.cargotracking.domain.model.value.PortCapabilities
+
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption
+import java.nio.file.StandardOpenOption
+
+/**
+ * Read-only view of the binary location registry index, which is memory-mapped and searched in place.
+ * <p/>
+ * Index is produced at build time from the location registry CSV by {@code LocationRegistryIndexWriter} (see {@code buildSrc}). Records of fixed size are sorted by UN/LOCODE, so lookup is a binary
+ * search over the mapped file. Strings are read, and {@link Location} instances are created, only for the location being looked up. Therefore, neither heap usage nor startup time depend on the
+ * number of locations in the registry.
+ * <p/>
+ * Instances are thread-safe as they use only absolute reads from the mapped buffer.
+ */
+@CompileStatic
+class LocationRegistryIndex {
+  static final int MAGIC = 0x4B4C5249
+  static final int FORMAT_VERSION = 1
+  static final int UN_LO_CODE_SIZE = 5
+  static final int STRING_FIELD_COUNT = 5
+  static final int RECORD_SIZE = UN_LO_CODE_SIZE + STRING_FIELD_COUNT * Integer.BYTES
+
+  private static final int NAME_FIELD_INDEX = 0
+  private static final int COUNTRY_NAME_FIELD_INDEX = 1
+  private static final int FUNCTION_FIELD_INDEX = 2
+  private static final int COORDINATES_FIELD_INDEX = 3
+  private static final int PORT_CAPABILITIES_FIELD_INDEX = 4
+
+  private final ByteBuffer indexBuffer
+  private final int entryCount
+  private final int recordsOffset
+  private final int stringPoolOffset
+
+  /**
+   * Memory-maps index file at the provided path.
+   */
+  static LocationRegistryIndex open(Path indexFilePath) {
+    FileChannel fileChannel = FileChannel.open(indexFilePath, StandardOpenOption.READ)
+    try {
+      // Note: Mapping stays valid after the channel is closed.
+      return new LocationRegistryIndex(fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()))
+    }
+    finally {
+      fileChannel.close()
+    }
+  }
+
+  /**
+   * Memory-maps index available as a classpath resource.
+   * <p/>
+   * When resource is not a plain file (i.e., when it is packaged inside a jar), it is copied into a temporary file first, and that file is mapped.
+   */
+  static LocationRegistryIndex openClasspathResource(String resourcePath, ClassLoader classLoader = LocationRegistryIndex.classLoader) {
+    URL resourceUrl = classLoader.getResource(resourcePath)
+    if (resourceUrl == null) {
+      throw new IllegalStateException("Location registry index resource is not found: [$resourcePath]")
+    }
+
+    if (resourceUrl.protocol == "file") {
+      return open(Path.of(resourceUrl.toURI()))
+    }
+
+    Path indexFilePath = Files.createTempFile("location-registry", ".idx")
+    indexFilePath.toFile().deleteOnExit()
+    resourceUrl.withInputStream({ InputStream resourceInputStream -> Files.copy(resourceInputStream, indexFilePath, StandardCopyOption.REPLACE_EXISTING) })
+
+    return open(indexFilePath)
+  }
+
+  LocationRegistryIndex(ByteBuffer indexBuffer) {
+    if (indexBuffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Supplied buffer does not contain location registry index.")
+    }
+
+    int formatVersion = indexBuffer.getInt(4)
+    if (formatVersion != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported location registry index format version [$formatVersion]. Supported version is [$FORMAT_VERSION].")
+    }
+
+    this.indexBuffer = indexBuffer
+    this.entryCount = indexBuffer.getInt(8)
+    this.recordsOffset = indexBuffer.getInt(12)
+    this.stringPoolOffset = indexBuffer.getInt(16)
+  }
+
+  int getEntryCount() {
+    return entryCount
+  }
+
+  /**
+   * Returns UN/LOCODE of the entry at provided position in the index.
+   */
+  String findUnLoCodeAt(int entryIndex) {
+    byte[] unLoCodeBytes = new byte[UN_LO_CODE_SIZE]
+    indexBuffer.get(recordOffset(entryIndex), unLoCodeBytes)
+    return new String(unLoCodeBytes, StandardCharsets.US_ASCII)
+  }
+
+  /**
+   * Finds the position of the entry with provided UN/LOCODE, or returns {@code -1} if there is no such entry.
+   */
+  int findEntryIndex(String unLoCode) {
+    if (unLoCode == null || unLoCode.length() != UN_LO_CODE_SIZE) {
+      return -1
+    }
+
+    int lowIndex = 0
+    int highIndex = entryCount - 1
+    while (lowIndex <= highIndex) {
+      int middleIndex = (lowIndex + highIndex) >>> 1
+      int comparison = compareUnLoCodeAt(middleIndex, unLoCode)
+
+      if (comparison < 0) {
+        lowIndex = middleIndex + 1
+      }
+      else if (comparison > 0) {
+        highIndex = middleIndex - 1
+      }
+      else {
+        return middleIndex
+      }
+    }
+
+    return -1
+  }
+
+  /**
+   * Creates {@link Location} for provided UN/LOCODE, or returns {@code null} if there is no such entry.
+   */
+  Location findLocation(String unLoCode) {
+    int entryIndex = findEntryIndex(unLoCode)
+    if (entryIndex < 0) {
+      return null
+    }
+
+    return makeLocationAt(entryIndex)
+  }
+
+  /**
+   * Creates {@link Location} from the entry at provided position in the index.
+   */
+  Location makeLocationAt(int entryIndex) {
+    String portCapabilitiesString = readStringField(entryIndex, PORT_CAPABILITIES_FIELD_INDEX)
+    PortCapabilities portCapabilities = portCapabilitiesString.isEmpty() ?
+        PortCapabilities.NO_PORT_CAPABILITIES :
+        PortCapabilities.makeFromStringsIfPossible(portCapabilitiesString.tokenize("|"))
+
+    if (portCapabilities == null) {
+      throw new IllegalStateException("Invalid port capabilities [$portCapabilitiesString] for location [${ findUnLoCodeAt(entryIndex) }].")
+    }
+
+    return Location.make(
+        findUnLoCodeAt(entryIndex), readStringField(entryIndex, NAME_FIELD_INDEX), readStringField(entryIndex, COUNTRY_NAME_FIELD_INDEX),
+        readStringField(entryIndex, FUNCTION_FIELD_INDEX), readStringField(entryIndex, COORDINATES_FIELD_INDEX), portCapabilities
+    )
+  }
+
+  private int recordOffset(int entryIndex) {
+    return recordsOffset + entryIndex * RECORD_SIZE
+  }
+
+  private int compareUnLoCodeAt(int entryIndex, String unLoCode) {
+    int unLoCodeOffset = recordOffset(entryIndex)
+    for (int charIndex = 0; charIndex < UN_LO_CODE_SIZE; charIndex++) {
+      int comparison = (indexBuffer.get(unLoCodeOffset + charIndex) & 0xff) - (unLoCode.charAt(charIndex) as int)
+      if (comparison != 0) {
+        return comparison
+      }
+    }
+
+    return 0
+  }
+
+  private String readStringField(int entryIndex, int fieldIndex) {
+    int stringOffset = stringPoolOffset + indexBuffer.getInt(recordOffset(entryIndex) + UN_LO_CODE_SIZE + fieldIndex * Integer.BYTES)
+    int stringLength = indexBuffer.getShort(stringOffset) & 0xffff
+
+    byte[] stringBytes = new byte[stringLength]
+    indexBuffer.get(stringOffset + Short.BYTES, stringBytes)
+    return new String(stringBytes, StandardCharsets.UTF_8)
+  }
+}
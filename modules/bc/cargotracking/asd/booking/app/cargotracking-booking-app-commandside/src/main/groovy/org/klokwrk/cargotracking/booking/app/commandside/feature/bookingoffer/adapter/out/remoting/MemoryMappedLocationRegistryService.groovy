@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.out.remoting
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.out.LocationByUnLoCodeQueryPortOut
+import org.klokwrk.cargotracking.domain.model.value.Location
+
+/**
+ * Location registry backed by the memory-mapped {@link LocationRegistryIndex}.
+ * <p/>
+ * Index is compiled at build time from {@code src/main/location-registry/location-registry.csv}, and it is packaged as a classpath resource. Found locations are kept in a bounded concurrent cache
+ * (Caffeine), so lookups of frequently used locations neither take a global lock nor create new {@link Location} instances. For unknown UN/LOCODEs, {@link Location#UNKNOWN_LOCATION} is returned, and
+ * nothing is cached.
+ * <p/>
+ * The service is created by the application's Spring Boot configuration, which also provides the size of the location cache.
+ */
+@CompileStatic
+class MemoryMappedLocationRegistryService implements LocationByUnLoCodeQueryPortOut {
+  static final String LOCATION_REGISTRY_INDEX_RESOURCE_PATH = "location-registry/location-registry.idx"
+
+  private final LocationRegistryIndex locationRegistryIndex
+  private final Cache<String, Location> locationCache
+
+  MemoryMappedLocationRegistryService(Integer locationCacheSize) {
+    this(LocationRegistryIndex.openClasspathResource(LOCATION_REGISTRY_INDEX_RESOURCE_PATH), locationCacheSize)
+  }
+
+  MemoryMappedLocationRegistryService(LocationRegistryIndex locationRegistryIndex, Integer locationCacheSize) {
+    assert locationRegistryIndex != null
+    assert locationCacheSize != null && locationCacheSize > 0
+
+    this.locationRegistryIndex = locationRegistryIndex
+    this.locationCache = Caffeine.newBuilder()
+        .maximumSize(locationCacheSize)
+        .build()
+  }
+
+  @Override
+  Location locationByUnLoCodeQuery(String unLoCode) {
+    if (unLoCode == null) {
+      return Location.UNKNOWN_LOCATION
+    }
+
+    Location cachedLocation = locationCache.getIfPresent(unLoCode)
+    if (cachedLocation != null) {
+      return cachedLocation
+    }
+
+    Location locationFound = locationRegistryIndex.findLocation(unLoCode)
+    if (locationFound == null) {
+      return Location.UNKNOWN_LOCATION
+    }
+
+    // NOTE: Concurrent misses for the same UN/LOCODE might put equal locations more than once. That is harmless since locations are immutable.
+    locationCache.put(unLoCode, locationFound)
+    return locationFound
+  }
+
+  /**
+   * Returns the number of currently cached locations after performing any pending cache maintenance (i.e., evictions).
+   */
+  Long getCachedLocationCount() {
+    locationCache.cleanUp()
+    return locationCache.estimatedSize()
+  }
+}
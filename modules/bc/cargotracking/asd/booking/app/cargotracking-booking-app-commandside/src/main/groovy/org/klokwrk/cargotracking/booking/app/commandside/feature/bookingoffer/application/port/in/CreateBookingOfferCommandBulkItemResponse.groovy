@@ -0,0 +1,46 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in
+
+import groovy.transform.CompileStatic
+import groovy.transform.MapConstructor
+import groovy.transform.PropertyOptions
+import org.klokwrk.lib.xlang.groovy.base.transform.options.RelaxedPropertyHandler
+
+/**
+ * Describes the outcome of a single item from {@link CreateBookingOfferCommandBulkRequest}.
+ * <p/>
+ * For successfully processed items, {@code payload} is populated, while for failed items, {@code failure} holds the exception (either validation, domain or unknown) that caused the failure. Inbound
+ * adapters are responsible for rendering the failure in the same way as they would render it for the corresponding single item request.
+ */
+@PropertyOptions(propertyHandler = RelaxedPropertyHandler)
+@MapConstructor
+@CompileStatic
+class CreateBookingOfferCommandBulkItemResponse {
+  /**
+   * Zero-based index of the item in {@link CreateBookingOfferCommandBulkRequest#bookingOffers}.
+   */
+  Integer itemIndex
+
+  CreateBookingOfferCommandResponse payload
+  Throwable failure
+
+  boolean isSuccessful() {
+    return failure == null
+  }
+}
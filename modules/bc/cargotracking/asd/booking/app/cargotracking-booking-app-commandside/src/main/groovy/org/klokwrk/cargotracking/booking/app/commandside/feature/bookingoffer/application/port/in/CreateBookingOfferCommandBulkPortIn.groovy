@@ -0,0 +1,40 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationRequest
+
+import java.util.concurrent.CompletableFuture
+import java.util.function.Consumer
+
+@CompileStatic
+interface CreateBookingOfferCommandBulkPortIn {
+  /**
+   * Creates booking offers for all items of the bulk request.
+   * <p/>
+   * The bulk request itself is validated synchronously, and a {@code ConstraintViolationException} is thrown if it is not valid. Individual items are validated and processed independently of each
+   * other. The outcome of each item (success or failure) is reported to the {@code itemResponseConsumer} as soon as it becomes available, meaning that the order of reported items does not have to
+   * match the order of items in the request. The consumer is never invoked concurrently.
+   * <p/>
+   * Returned future is completed with the bulk summary after outcomes of all items are reported.
+   */
+  @SuppressWarnings("CodeNarc.FactoryMethodName")
+  CompletableFuture<CreateBookingOfferCommandBulkResponse> createBookingOfferCommandBulk(
+      OperationRequest<CreateBookingOfferCommandBulkRequest> createBookingOfferCommandBulkOperationRequest, Consumer<CreateBookingOfferCommandBulkItemResponse> itemResponseConsumer)
+}
@@ -0,0 +1,55 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in
+
+import groovy.transform.CompileStatic
+import groovy.transform.MapConstructor
+import groovy.transform.PropertyOptions
+import org.klokwrk.lib.lo.validation.constraint.NotNullElementsConstraint
+import org.klokwrk.lib.lo.validation.group.Level1
+import org.klokwrk.lib.lo.validation.group.Level2
+import org.klokwrk.lib.lo.validation.group.Level3
+import org.klokwrk.lib.xlang.groovy.base.transform.options.RelaxedPropertyHandler
+
+import jakarta.validation.GroupSequence
+import jakarta.validation.constraints.NotEmpty
+import jakarta.validation.constraints.Size
+
+/**
+ * Request DTO parameter for {@code createBookingOfferCommandBulk} operation from {@link CreateBookingOfferCommandBulkPortIn} inbound port interface.
+ * <p/>
+ * Only the shape of the bulk is validated here. Contained booking offer requests are deliberately not cascaded into with {@code @Valid}, since a single invalid item should not reject the whole bulk.
+ * Instead, each item is validated independently, and its validation failure is reported as the outcome of that item only.
+ */
+@GroupSequence([CreateBookingOfferCommandBulkRequest, Level1, Level2, Level3])
+@PropertyOptions(propertyHandler = RelaxedPropertyHandler)
+@MapConstructor(noArg = true)
+@CompileStatic
+class CreateBookingOfferCommandBulkRequest {
+  static final int BOOKING_OFFERS_MAX_SIZE = 1_000
+
+  /**
+   * Booking offer requests to be processed.
+   * <p/>
+   * Must be not {@code null}, not empty, without {@code null} elements, and with at most {@link #BOOKING_OFFERS_MAX_SIZE} elements.
+   */
+  @NotNullElementsConstraint(groups = [Level3])
+  @Size(max = BOOKING_OFFERS_MAX_SIZE, groups = [Level2])
+  @NotEmpty(groups = [Level1])
+  List<CreateBookingOfferCommandRequest> bookingOffers
+}
@@ -19,30 +19,75 @@ package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.a
 
 import groovy.transform.CompileStatic
 import org.axonframework.commandhandling.gateway.CommandGateway
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkItemResponse
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkPortIn
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkRequest
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkResponse
 import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandPortIn
 import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandRequest
 import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandResponse
 import org.klokwrk.cargotracking.domain.model.aggregate.BookingOfferAggregate
 import org.klokwrk.cargotracking.domain.model.command.CreateBookingOfferCommand
+import org.klokwrk.cargotracking.domain.model.value.Customer
+import org.klokwrk.cargotracking.domain.model.value.Location
 import org.klokwrk.cargotracking.lib.axon.cqrs.command.CommandGatewayAdapter
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationRequest
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
 import org.klokwrk.lib.hi.validation.springboot.ValidationService
 import org.springframework.stereotype.Service
 
+import jakarta.annotation.PreDestroy
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Semaphore
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Consumer
+import java.util.function.Function
+import java.util.function.Supplier
+
+import static org.hamcrest.Matchers.greaterThan
 import static org.hamcrest.Matchers.notNullValue
 
 @Service
 @CompileStatic
-class BookingOfferCommandApplicationService implements CreateBookingOfferCommandPortIn {
+class BookingOfferCommandApplicationService implements CreateBookingOfferCommandPortIn, CreateBookingOfferCommandBulkPortIn {
+  private static final Long BULK_DISPATCH_EXECUTOR_TERMINATION_TIMEOUT_MILLIS = 10_000
+
   private final BookingOfferCommandFactoryService bookingOfferCommandFactoryService
   private final CommandGatewayAdapter commandGatewayAdapter
   private final ValidationService validationService
+  private final Integer bulkMaxInFlightCommandCount
+  private final ExecutorService bulkDispatchExecutor
+
+  BookingOfferCommandApplicationService(
+      ValidationService validationService, CommandGateway commandGateway, BookingOfferCommandFactoryService bookingOfferCommandFactoryService,
+      BookingOfferCommandBulkSettings bookingOfferCommandBulkSettings)
+  {
+    requireMatch(bookingOfferCommandBulkSettings, notNullValue())
+    Integer bulkMaxInFlightCommandCount = bookingOfferCommandBulkSettings.maxInFlightCommandCount
+    requireMatch(bulkMaxInFlightCommandCount, greaterThan(0))
 
-  BookingOfferCommandApplicationService(ValidationService validationService, CommandGateway commandGateway, BookingOfferCommandFactoryService bookingOfferCommandFactoryService) {
     this.validationService = validationService
     this.commandGatewayAdapter = new CommandGatewayAdapter(commandGateway)
     this.bookingOfferCommandFactoryService = bookingOfferCommandFactoryService
+    this.bulkMaxInFlightCommandCount = bulkMaxInFlightCommandCount
+    this.bulkDispatchExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("booking-offer-bulk-dispatch-", 0).factory())
+  }
+
+  /**
+   * Shuts down the bulk dispatch executor.
+   * <p/>
+   * Bulks that are already dispatching get a limited time to complete. After that, they are interrupted, which completes their summary futures exceptionally.
+   */
+  @PreDestroy
+  void shutdownBulkDispatchExecutor() {
+    bulkDispatchExecutor.shutdown()
+    if (!bulkDispatchExecutor.awaitTermination(BULK_DISPATCH_EXECUTOR_TERMINATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+      bulkDispatchExecutor.shutdownNow()
+    }
   }
 
   @Override
@@ -55,4 +100,135 @@ class BookingOfferCommandApplicationService implements CreateBookingOfferCommand
 
     return new OperationResponse(payload: bookingOfferCommandFactoryService.makeCreateBookingOfferCommandResponse(bookingOfferAggregate))
   }
+
+  @Override
+  CompletableFuture<CreateBookingOfferCommandBulkResponse> createBookingOfferCommandBulk(
+      OperationRequest<CreateBookingOfferCommandBulkRequest> createBookingOfferCommandBulkOperationRequest, Consumer<CreateBookingOfferCommandBulkItemResponse> itemResponseConsumer)
+  {
+    requireMatch(createBookingOfferCommandBulkOperationRequest, notNullValue())
+    requireMatch(itemResponseConsumer, notNullValue())
+    validationService.validate(createBookingOfferCommandBulkOperationRequest.payload)
+
+    // NOTE: Customers and locations are resolved only once per distinct key for the whole bulk. As resolving is done sequentially in the calling thread, memoizing resolvers do not need to be
+    //       thread-safe.
+    Function<String, Customer> customerResolver = bookingOfferCommandFactoryService.makeMemoizingCustomerResolver()
+    Function<String, Location> locationResolver = bookingOfferCommandFactoryService.makeMemoizingLocationResolver()
+
+    List<Object> commandOrFailureList = createBookingOfferCommandBulkOperationRequest.payload.bookingOffers.collect({ CreateBookingOfferCommandRequest createBookingOfferCommandRequest ->
+      try {
+        validationService.validate(createBookingOfferCommandRequest)
+        return bookingOfferCommandFactoryService.makeCreateBookingOfferCommand(createBookingOfferCommandRequest, customerResolver, locationResolver)
+      }
+      catch (RuntimeException runtimeException) {
+        return runtimeException
+      }
+    } as Closure<Object>)
+
+    BulkItemResponseReporter bulkItemResponseReporter = new BulkItemResponseReporter(itemResponseConsumer)
+    Supplier<CreateBookingOfferCommandBulkResponse> createBookingOfferCommandBulkResponseSupplier = {
+      dispatchCreateBookingOfferCommandList(commandOrFailureList, createBookingOfferCommandBulkOperationRequest.metaData, bulkItemResponseReporter)
+    } as Supplier<CreateBookingOfferCommandBulkResponse>
+
+    return CompletableFuture.supplyAsync(createBookingOfferCommandBulkResponseSupplier, bulkDispatchExecutor)
+  }
+
+  /**
+   * Dispatches commands concurrently while keeping at most {@code bulkMaxInFlightCommandCount} commands in flight.
+   * <p/>
+   * Blocks until all dispatched commands are completed. Therefore, it should be executed in a separate (virtual) thread.
+   */
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected CreateBookingOfferCommandBulkResponse dispatchCreateBookingOfferCommandList(List<Object> commandOrFailureList, Map<String, ?> metaData, BulkItemResponseReporter bulkItemResponseReporter) {
+    Semaphore inFlightCommandSemaphore = new Semaphore(bulkMaxInFlightCommandCount)
+
+    commandOrFailureList.eachWithIndex({ Object commandOrFailure, Integer itemIndex ->
+      if (commandOrFailure instanceof Throwable) {
+        bulkItemResponseReporter.reportFailure(itemIndex, commandOrFailure as Throwable)
+        return
+      }
+
+      inFlightCommandSemaphore.acquire()
+      try {
+        CompletableFuture<BookingOfferAggregate> bookingOfferAggregateFuture = commandGatewayAdapter.send(commandOrFailure, metaData)
+        bookingOfferAggregateFuture.whenComplete({ BookingOfferAggregate bookingOfferAggregate, Throwable throwable ->
+          try {
+            reportCompletedCommand(itemIndex, bookingOfferAggregate, throwable, bulkItemResponseReporter)
+          }
+          finally {
+            inFlightCommandSemaphore.release()
+          }
+        })
+      }
+      catch (RuntimeException runtimeException) {
+        inFlightCommandSemaphore.release()
+        bulkItemResponseReporter.reportFailure(itemIndex, runtimeException)
+      }
+    })
+
+    // Waits for all in-flight commands to complete.
+    inFlightCommandSemaphore.acquire(bulkMaxInFlightCommandCount)
+
+    return bulkItemResponseReporter.makeCreateBookingOfferCommandBulkResponse()
+  }
+
+  /**
+   * Reports the outcome of a completed command.
+   * <p/>
+   * Every completed command is reported exactly once. When the response of a successful command can not be created, the item is reported as failed. Otherwise, the item would be missing from the
+   * streamed outcomes and from the bulk summary counts.
+   */
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected void reportCompletedCommand(Integer itemIndex, BookingOfferAggregate bookingOfferAggregate, Throwable throwable, BulkItemResponseReporter bulkItemResponseReporter) {
+    if (throwable != null) {
+      bulkItemResponseReporter.reportFailure(itemIndex, (throwable instanceof CompletionException && throwable.cause != null) ? throwable.cause : throwable)
+      return
+    }
+
+    CreateBookingOfferCommandResponse createBookingOfferCommandResponse
+    try {
+      createBookingOfferCommandResponse = bookingOfferCommandFactoryService.makeCreateBookingOfferCommandResponse(bookingOfferAggregate)
+    }
+    catch (RuntimeException runtimeException) {
+      bulkItemResponseReporter.reportFailure(itemIndex, runtimeException)
+      return
+    }
+
+    bulkItemResponseReporter.reportSuccess(itemIndex, createBookingOfferCommandResponse)
+  }
+
+  /**
+   * Serializes reporting of bulk item outcomes to the consumer, and counts them along the way.
+   */
+  protected static class BulkItemResponseReporter {
+    private final Consumer<CreateBookingOfferCommandBulkItemResponse> itemResponseConsumer
+    private final AtomicInteger successfulItemCount = new AtomicInteger()
+    private final AtomicInteger failedItemCount = new AtomicInteger()
+
+    BulkItemResponseReporter(Consumer<CreateBookingOfferCommandBulkItemResponse> itemResponseConsumer) {
+      this.itemResponseConsumer = itemResponseConsumer
+    }
+
+    void reportSuccess(Integer itemIndex, CreateBookingOfferCommandResponse createBookingOfferCommandResponse) {
+      successfulItemCount.incrementAndGet()
+      report(new CreateBookingOfferCommandBulkItemResponse(itemIndex: itemIndex, payload: createBookingOfferCommandResponse))
+    }
+
+    void reportFailure(Integer itemIndex, Throwable failure) {
+      failedItemCount.incrementAndGet()
+      report(new CreateBookingOfferCommandBulkItemResponse(itemIndex: itemIndex, failure: failure))
+    }
+
+    CreateBookingOfferCommandBulkResponse makeCreateBookingOfferCommandBulkResponse() {
+      Integer successfulItemCountValue = successfulItemCount.get()
+      Integer failedItemCountValue = failedItemCount.get()
+
+      return new CreateBookingOfferCommandBulkResponse(
+          itemCount: successfulItemCountValue + failedItemCountValue, successfulItemCount: successfulItemCountValue, failedItemCount: failedItemCountValue
+      )
+    }
+
+    protected synchronized void report(CreateBookingOfferCommandBulkItemResponse createBookingOfferCommandBulkItemResponse) {
+      itemResponseConsumer.accept(createBookingOfferCommandBulkItemResponse)
+    }
+  }
 }
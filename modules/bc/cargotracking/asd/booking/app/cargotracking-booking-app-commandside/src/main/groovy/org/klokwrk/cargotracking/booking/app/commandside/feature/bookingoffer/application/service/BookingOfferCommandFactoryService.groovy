@@ -37,6 +37,7 @@ import org.klokwrk.cargotracking.domain.model.value.RouteSpecification
 import org.springframework.stereotype.Service
 
 import java.time.Clock
+import java.util.function.Function
 
 import static org.hamcrest.Matchers.notNullValue
 
@@ -62,21 +63,35 @@ class BookingOfferCommandFactoryService {
    * Creates {@link CreateBookingOfferCommand} from supplied {@link CreateBookingOfferCommandRequest} instance.
    */
   CreateBookingOfferCommand makeCreateBookingOfferCommand(CreateBookingOfferCommandRequest createBookingOfferCommandRequest) {
+    return makeCreateBookingOfferCommand(createBookingOfferCommandRequest, customerByUserIdPortOut::findCustomerByUserId, locationByUnLoCodeQueryPortOut::locationByUnLoCodeQuery)
+  }
+
+  /**
+   * Creates {@link CreateBookingOfferCommand} from supplied {@link CreateBookingOfferCommandRequest} instance while resolving customer and locations with supplied resolvers.
+   * <p/>
+   * Intended to be used with resolvers created by {@link #makeMemoizingCustomerResolver()} and {@link #makeMemoizingLocationResolver()} when creating commands for multiple requests that share the
+   * same customers and locations.
+   */
+  CreateBookingOfferCommand makeCreateBookingOfferCommand(
+      CreateBookingOfferCommandRequest createBookingOfferCommandRequest, Function<String, Customer> customerResolver, Function<String, Location> locationResolver)
+  {
     requireMatch(createBookingOfferCommandRequest, notNullValue())
+    requireMatch(customerResolver, notNullValue())
+    requireMatch(locationResolver, notNullValue())
 
     // NOTE: Since commands are immutable objects, the command's data and objects should be in their fully valid state after the command is constructed.
     //       While creating a command, we sometimes have to resolve data from external services. The domain facade is an excellent choice for such activities. In this example, we resolve Customer
     //       and Location registry data (a.k.a. master data) from the outbound adapter.
 
-    Customer customer = customerByUserIdPortOut.findCustomerByUserId(createBookingOfferCommandRequest.userId)
+    Customer customer = customerResolver.apply(createBookingOfferCommandRequest.userId)
 
     Location resolvedOriginLocation = null
     if (createBookingOfferCommandRequest.routeSpecification?.originLocation != null) {
-      resolvedOriginLocation = locationByUnLoCodeQueryPortOut.locationByUnLoCodeQuery(createBookingOfferCommandRequest.routeSpecification.originLocation)
+      resolvedOriginLocation = locationResolver.apply(createBookingOfferCommandRequest.routeSpecification.originLocation)
     }
     Location resolvedDestinationLocation = null
     if (createBookingOfferCommandRequest.routeSpecification?.destinationLocation != null) {
-      resolvedDestinationLocation = locationByUnLoCodeQueryPortOut.locationByUnLoCodeQuery(createBookingOfferCommandRequest.routeSpecification.destinationLocation)
+      resolvedDestinationLocation = locationResolver.apply(createBookingOfferCommandRequest.routeSpecification.destinationLocation)
     }
 
     RouteSpecification routeSpecification = null
@@ -115,6 +130,49 @@ class BookingOfferCommandFactoryService {
     return createBookingOfferCommand
   }
 
+  /**
+   * Creates customer resolver that queries the outbound port only once per distinct user id.
+   * <p/>
+   * Returned resolver is not thread-safe, and it is intended to be used for a single batch of requests only.
+   */
+  Function<String, Customer> makeMemoizingCustomerResolver() {
+    return memoize(customerByUserIdPortOut::findCustomerByUserId)
+  }
+
+  /**
+   * Creates location resolver that queries the outbound port only once per distinct UN/LOCODE.
+   * <p/>
+   * Returned resolver is not thread-safe, and it is intended to be used for a single batch of requests only.
+   */
+  Function<String, Location> makeMemoizingLocationResolver() {
+    return memoize(locationByUnLoCodeQueryPortOut::locationByUnLoCodeQuery)
+  }
+
+  /**
+   * Memoizes results of the supplied resolver by key, including the runtime exceptions (i.e., "not found" domain exceptions) that are rethrown for each subsequent resolving of the same key.
+   */
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected static <V> Function<String, V> memoize(Function<String, V> resolver) {
+    Map<String, Object> resolvedByKeyMap = [:]
+
+    return { String key ->
+      Object resolved = resolvedByKeyMap.computeIfAbsent(key, { String keyToResolve ->
+        try {
+          return resolver.apply(keyToResolve)
+        }
+        catch (RuntimeException runtimeException) {
+          return runtimeException
+        }
+      })
+
+      if (resolved instanceof RuntimeException) {
+        throw resolved as RuntimeException
+      }
+
+      return resolved as V
+    } as Function<String, V>
+  }
+
   /**
    * Creates {@link CreateBookingOfferCommandResponse} from supplied {@link BookingOfferAggregate} instance.
    */
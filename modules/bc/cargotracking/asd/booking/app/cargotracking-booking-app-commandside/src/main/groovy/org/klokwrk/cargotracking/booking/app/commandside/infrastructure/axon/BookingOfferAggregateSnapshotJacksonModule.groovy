@@ -0,0 +1,69 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.infrastructure.axon
+
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.databind.DeserializationContext
+import com.fasterxml.jackson.databind.SerializerProvider
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer
+import com.fasterxml.jackson.databind.module.SimpleModule
+import com.fasterxml.jackson.databind.ser.std.StdSerializer
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.domain.model.aggregate.BookingOfferAggregate
+import org.klokwrk.cargotracking.domain.model.aggregate.BookingOfferAggregateSnapshot
+
+/**
+ * Jackson module that de/serializes {@link BookingOfferAggregate} through its compact {@link BookingOfferAggregateSnapshot}.
+ * <p/>
+ * The module is meant to be registered only with the object mapper of the Axon event serializer, which Axon uses for storing aggregate snapshots. Other serializations of the aggregate, like the
+ * aggregate returned as a command result, are not affected.
+ */
+@CompileStatic
+class BookingOfferAggregateSnapshotJacksonModule extends SimpleModule {
+  BookingOfferAggregateSnapshotJacksonModule() {
+    super(BookingOfferAggregateSnapshotJacksonModule.simpleName)
+
+    addSerializer(BookingOfferAggregate, new BookingOfferAggregateSnapshotSerializer())
+    addDeserializer(BookingOfferAggregate, new BookingOfferAggregateSnapshotDeserializer())
+  }
+
+  @CompileStatic
+  static class BookingOfferAggregateSnapshotSerializer extends StdSerializer<BookingOfferAggregate> {
+    BookingOfferAggregateSnapshotSerializer() {
+      super(BookingOfferAggregate)
+    }
+
+    @Override
+    void serialize(BookingOfferAggregate bookingOfferAggregate, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
+      serializerProvider.defaultSerializeValue(bookingOfferAggregate.toSnapshot(), jsonGenerator)
+    }
+  }
+
+  @CompileStatic
+  static class BookingOfferAggregateSnapshotDeserializer extends StdDeserializer<BookingOfferAggregate> {
+    BookingOfferAggregateSnapshotDeserializer() {
+      super(BookingOfferAggregate)
+    }
+
+    @Override
+    BookingOfferAggregate deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+      return BookingOfferAggregate.fromSnapshot(deserializationContext.readValue(jsonParser, BookingOfferAggregateSnapshot))
+    }
+  }
+}
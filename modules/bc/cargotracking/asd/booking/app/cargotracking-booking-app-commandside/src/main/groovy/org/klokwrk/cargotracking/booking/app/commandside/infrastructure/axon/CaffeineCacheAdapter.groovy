@@ -0,0 +1,110 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.infrastructure.axon
+
+import com.github.benmanes.caffeine.cache.Caffeine
+import groovy.transform.CompileStatic
+import org.axonframework.common.Registration
+import org.axonframework.common.caching.Cache
+
+import java.util.function.BiFunction
+import java.util.function.Function
+import java.util.function.Supplier
+import java.util.function.UnaryOperator
+
+/**
+ * Axon {@link Cache} backed by a size-bounded Caffeine cache.
+ * <p/>
+ * Cached entries are held via strong references until the number of entries exceeds the configured maximum size. Then Caffeine evicts entries that are least likely to be used again. Unlike
+ * Axon's {@code WeakReferenceCache}, entries of frequently used aggregates survive garbage collections, so loading them does not go back to the event store.
+ * <p/>
+ * Registering cache entry listeners is not supported.
+ */
+@CompileStatic
+class CaffeineCacheAdapter implements Cache {
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineCache
+
+  CaffeineCacheAdapter(Long maximumSize) {
+    assert maximumSize != null && maximumSize > 0
+
+    this.caffeineCache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .build()
+  }
+
+  @Override
+  <K, V> V get(K key) {
+    return caffeineCache.getIfPresent(key) as V
+  }
+
+  @Override
+  void put(Object key, Object value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Null values are not supported.")
+    }
+
+    caffeineCache.put(key, value)
+  }
+
+  @Override
+  boolean putIfAbsent(Object key, Object value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Null values are not supported.")
+    }
+
+    return caffeineCache.asMap().putIfAbsent(key, value) == null
+  }
+
+  @Override
+  <T> T computeIfAbsent(Object key, Supplier<T> valueSupplier) {
+    return caffeineCache.get(key, { Object keyToCompute -> valueSupplier.get() } as Function<Object, Object>) as T
+  }
+
+  @Override
+  boolean remove(Object key) {
+    return caffeineCache.asMap().remove(key) != null
+  }
+
+  @Override
+  void removeAll() {
+    caffeineCache.invalidateAll()
+  }
+
+  @Override
+  boolean containsKey(Object key) {
+    return caffeineCache.asMap().containsKey(key)
+  }
+
+  @Override
+  <V> void computeIfPresent(Object key, UnaryOperator<V> update) {
+    caffeineCache.asMap().computeIfPresent(key, { Object keyToUpdate, Object value -> update.apply(value as V) } as BiFunction<Object, Object, Object>)
+  }
+
+  @Override
+  Registration registerCacheEntryListener(Cache.EntryListener cacheEntryListener) {
+    throw new UnsupportedOperationException("Registering cache entry listeners is not supported.")
+  }
+
+  /**
+   * Returns the number of currently cached entries after performing any pending cache maintenance (i.e., evictions).
+   */
+  Long getEstimatedSize() {
+    caffeineCache.cleanUp()
+    return caffeineCache.estimatedSize()
+  }
+}
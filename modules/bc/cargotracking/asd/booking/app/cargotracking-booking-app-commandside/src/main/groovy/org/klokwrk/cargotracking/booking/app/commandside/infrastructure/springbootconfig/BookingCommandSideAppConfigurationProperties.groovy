@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.infrastructure.springbootconfig
+
+import groovy.transform.CompileStatic
+import org.springframework.boot.context.properties.ConfigurationProperties
+import org.springframework.validation.annotation.Validated
+
+import jakarta.validation.Valid
+import jakarta.validation.constraints.Min
+import jakarta.validation.constraints.NotNull
+
+/**
+ * Spring Boot configuration properties of the commandside app.
+ * <p/>
+ * Properties are validated on startup, so the app does not start with invalid values.
+ */
+@SuppressWarnings("ConfigurationProperties")
+@ConfigurationProperties(prefix = "cargotracking")
+@Validated
+@CompileStatic
+class BookingCommandSideAppConfigurationProperties {
+  @SuppressWarnings("unused")
+  @Valid
+  BookingOfferAggregate bookingOfferAggregate = new BookingOfferAggregate()
+
+  class BookingOfferAggregate {
+    /**
+     * The number of events applied to the {@code BookingOfferAggregate} after which a new aggregate snapshot is taken.
+     * <p/>
+     * Default value is <code>50</code>.
+     */
+    @NotNull
+    @Min(1L)
+    Integer snapshotThreshold = 50
+
+    /**
+     * The maximum number of {@code BookingOfferAggregate} instances kept in the aggregate cache.
+     * <p/>
+     * Default value is <code>10000</code>.
+     */
+    @NotNull
+    @Min(1L)
+    Long cacheMaximumSize = 10_000L
+  }
+
+  @SuppressWarnings("unused")
+  @Valid
+  BookingOfferBulk bookingOfferBulk = new BookingOfferBulk()
+
+  class BookingOfferBulk {
+    /**
+     * The maximum number of commands concurrently in flight while processing a single bulk booking offer creation request.
+     * <p/>
+     * Default value is <code>32</code>.
+     */
+    @NotNull
+    @Min(1L)
+    Integer maxInFlightCommandCount = 32
+  }
+
+  @SuppressWarnings("unused")
+  @Valid
+  LocationRegistry locationRegistry = new LocationRegistry()
+
+  class LocationRegistry {
+    /**
+     * The maximum number of locations kept in memory after being looked up in the memory-mapped location registry.
+     * <p/>
+     * Default value is <code>1024</code>.
+     */
+    @NotNull
+    @Min(1L)
+    Integer locationCacheSize = 1024
+  }
+}
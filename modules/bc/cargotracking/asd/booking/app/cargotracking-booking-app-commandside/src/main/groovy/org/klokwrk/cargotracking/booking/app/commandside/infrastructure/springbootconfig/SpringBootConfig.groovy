@@ -17,13 +17,26 @@
  */
 package org.klokwrk.cargotracking.booking.app.commandside.infrastructure.springbootconfig
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import groovy.transform.CompileStatic
+import io.micrometer.core.instrument.MeterRegistry
 import org.axonframework.commandhandling.CommandBus
 import org.axonframework.commandhandling.gateway.CommandGateway
 import org.axonframework.commandhandling.gateway.DefaultCommandGateway
 import org.axonframework.commandhandling.gateway.IntervalRetryScheduler
 import org.axonframework.commandhandling.gateway.RetryScheduler
+import org.axonframework.common.caching.Cache
+import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition
+import org.axonframework.eventsourcing.Snapshotter
 import org.axonframework.messaging.annotation.HandlerEnhancerDefinition
+import org.axonframework.serialization.AnnotationRevisionResolver
+import org.axonframework.serialization.Serializer
+import org.axonframework.serialization.json.JacksonSerializer
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.out.remoting.MemoryMappedLocationRegistryService
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.service.BookingOfferCommandBulkSettings
+import org.klokwrk.cargotracking.booking.app.commandside.infrastructure.axon.BookingOfferAggregateSnapshotJacksonModule
+import org.klokwrk.cargotracking.booking.app.commandside.infrastructure.axon.CaffeineCacheAdapter
 import org.klokwrk.cargotracking.booking.lib.out.customer.adapter.InMemoryCustomerRegistryService
 import org.klokwrk.cargotracking.domain.model.service.CargoCreatorService
 import org.klokwrk.cargotracking.domain.model.service.ConstantBasedMaxAllowedTeuCountPolicy
@@ -35,20 +48,26 @@ import org.klokwrk.cargotracking.lib.axon.cqrs.command.CommandHandlerExceptionIn
 import org.klokwrk.cargotracking.lib.axon.cqrs.command.NonTransientFailurePredicate
 import org.klokwrk.cargotracking.lib.axon.logging.LoggingCommandHandlerEnhancerDefinition
 import org.klokwrk.cargotracking.lib.axon.logging.LoggingEventSourcingHandlerEnhancerDefinition
+import org.klokwrk.cargotracking.lib.axon.logging.MetricsCommandHandlerEnhancerDefinition
+import org.klokwrk.cargotracking.lib.axon.logging.MetricsEventSourcingHandlerEnhancerDefinition
+import org.klokwrk.cargotracking.lib.web.spring.mvc.ResponseFormattingOperationResponseFactory
 import org.klokwrk.lib.hi.jackson.springboot.EssentialJacksonCustomizer
 import org.klokwrk.lib.hi.jackson.springboot.EssentialJacksonCustomizerConfigurationProperties
 import org.klokwrk.lib.hi.validation.springboot.ValidationConfigurationProperties
 import org.klokwrk.lib.hi.validation.springboot.ValidationService
 import org.springframework.beans.factory.ObjectProvider
+import org.springframework.beans.factory.annotation.Qualifier
 import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
+import org.springframework.context.annotation.ImportRuntimeHints
 
 import java.util.concurrent.Executors
 import java.util.concurrent.ScheduledExecutorService
 
-@EnableConfigurationProperties([EssentialJacksonCustomizerConfigurationProperties, ValidationConfigurationProperties])
+@EnableConfigurationProperties([BookingCommandSideAppConfigurationProperties, EssentialJacksonCustomizerConfigurationProperties, ValidationConfigurationProperties])
 @Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(LocationRegistryIndexRuntimeHints)
 @CompileStatic
 class SpringBootConfig {
 
@@ -71,6 +90,16 @@ class SpringBootConfig {
     return new LoggingEventSourcingHandlerEnhancerDefinition()
   }
 
+  @Bean
+  HandlerEnhancerDefinition metricsCommandHandlerEnhancerDefinition(MeterRegistry meterRegistry) {
+    return new MetricsCommandHandlerEnhancerDefinition(meterRegistry)
+  }
+
+  @Bean
+  HandlerEnhancerDefinition metricsEventSourcingHandlerEnhancerDefinition(MeterRegistry meterRegistry) {
+    return new MetricsEventSourcingHandlerEnhancerDefinition(meterRegistry)
+  }
+
   @Bean
   CommandHandlerExceptionInterceptor commandHandlerExceptionInterceptor() {
     return new CommandHandlerExceptionInterceptor()
@@ -82,6 +111,11 @@ class SpringBootConfig {
     return new ValidationService(validationConfigurationProperties)
   }
 
+  @Bean
+  ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory() {
+    return new ResponseFormattingOperationResponseFactory()
+  }
+
   @Bean
   MaxAllowedWeightPerContainerPolicy maxAllowedWeightPerContainerPolicy() {
     return new PercentBasedMaxAllowedWeightPerContainerPolicy(95)
@@ -102,6 +136,56 @@ class SpringBootConfig {
     return new InMemoryCustomerRegistryService()
   }
 
+  @Bean
+  MemoryMappedLocationRegistryService memoryMappedLocationRegistryService(BookingCommandSideAppConfigurationProperties bookingCommandSideAppConfigurationProperties) {
+    return new MemoryMappedLocationRegistryService(bookingCommandSideAppConfigurationProperties.locationRegistry.locationCacheSize)
+  }
+
+  @Bean
+  BookingOfferCommandBulkSettings bookingOfferCommandBulkSettings(BookingCommandSideAppConfigurationProperties bookingCommandSideAppConfigurationProperties) {
+    return new BookingOfferCommandBulkSettings(maxInFlightCommandCount: bookingCommandSideAppConfigurationProperties.bookingOfferBulk.maxInFlightCommandCount)
+  }
+
+  /**
+   * Creates a snapshot trigger definition referenced by name from the {@code BookingOfferAggregate}.
+   * <p/>
+   * The snapshot is taken after the configured number of events is applied during the aggregate loading and command handling. That way, the number of events replayed while loading the aggregate
+   * is bounded by the threshold regardless of the total number of aggregate's events.
+   */
+  @Bean
+  SnapshotTriggerDefinition bookingOfferAggregateSnapshotTriggerDefinition(
+      Snapshotter snapshotter, BookingCommandSideAppConfigurationProperties bookingCommandSideAppConfigurationProperties)
+  {
+    return new EventCountSnapshotTriggerDefinition(snapshotter, bookingCommandSideAppConfigurationProperties.bookingOfferAggregate.snapshotThreshold)
+  }
+
+  /**
+   * Creates the Axon event serializer, which Axon also uses for storing aggregate snapshots.
+   * <p/>
+   * The serializer works with a copy of the application's object mapper extended with {@link BookingOfferAggregateSnapshotJacksonModule}, so the {@code BookingOfferAggregate} is stored as its
+   * compact snapshot. The application's object mapper and the general Axon serializer, which serializes command results, are not affected.
+   */
+  @Bean
+  @Qualifier("eventSerializer")
+  Serializer eventSerializer(ObjectMapper objectMapper) {
+    return JacksonSerializer
+        .builder()
+        .objectMapper(objectMapper.copy().registerModule(new BookingOfferAggregateSnapshotJacksonModule()))
+        .revisionResolver(new AnnotationRevisionResolver())
+        .build()
+  }
+
+  /**
+   * Creates an aggregate cache referenced by name from the {@code BookingOfferAggregate}.
+   * <p/>
+   * Cached aggregates are loaded without reading the event store at all. The cache holds aggregates via strong references, so cached aggregates survive garbage collections. The number of cached
+   * aggregates is bounded by the configured maximum size, and aggregates least likely to be used again are evicted first.
+   */
+  @Bean
+  Cache bookingOfferAggregateCache(BookingCommandSideAppConfigurationProperties bookingCommandSideAppConfigurationProperties) {
+    return new CaffeineCacheAdapter(bookingCommandSideAppConfigurationProperties.bookingOfferAggregate.cacheMaximumSize)
+  }
+
   @Bean
   CommandGateway defaultCommandGateway(CommandBus commandBus) {
     ScheduledExecutorService scheduledExecutorService = Executors.newScheduledThreadPool(RETRY_EXECUTOR_POOL_SIZE_DEFAULT)
@@ -138,7 +138,13 @@ class BookingCommandSideAppDependenciesSpecification extends Specification {
         "tech.units.indriya.."
     ]
 
+    // Only the web in-adapter streams bulk responses directly, and only the remoting out-adapter keeps a local cache of looked up locations.
+    String[] webInAdapterThirdPartyDependencyAllPackages = ["com.fasterxml.jackson..", "org.springframework.http..", "org.springframework.web.."]
+    String[] remotingOutAdapterThirdPartyDependencyAllPackages = ["com.github.benmanes.caffeine.."]
+
     String[] cargotrackingBookingCommandsideAppFeaturePackages = ["org.klokwrk.cargotracking.booking.app.commandside.feature.."]
+    String[] cargotrackingBookingCommandsideAppWebInAdapterPackages = ["org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.in.web.."]
+    String[] cargotrackingBookingCommandsideAppRemotingOutAdapterPackages = ["org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.out.remoting.."]
 
     String[] cargotrackingBookingCommandAllPackages = ["org.klokwrk.cargotracking.domain.model.command.."]
     String[] cargotrackingBookingEventAllPackages = ["org.klokwrk.cargotracking.domain.model.event.."]
@@ -155,36 +161,49 @@ class BookingCommandSideAppDependenciesSpecification extends Specification {
 
     String[] klokwrkLangGroovyAllPackages = ["org.klokwrk.lib.xlang.groovy.."]
 
+    String[] allowedPackages =
+        cargotrackingBookingCommandsideAppFeaturePackages +
+
+        cargotrackingBookingCommandAllPackages +
+        cargotrackingBookingEventAllPackages +
+        cargotrackingBookingBoundaryWebAllPackages +
+        cargotrackingBookingDomainValueAllPackages +
+        cargotrackingBookingDomainAggregateAllPackages +
+        cargotrackingBookingStandaloneOutAdapterAllPackages +
+
+        cargotrackingLibAxonCqrsCommandPackages +
+        cargotrackingLibBoundaryApiAllPackages +
+        cargotrackingLibWebAllPackages +
+
+        klokwrkLibValidationPackages +
+
+        klokwrkLangGroovyAllPackages +
+
+        thirdPartyDependencyAllPackages as String[]
+
     // @formatter:off
     ArchRule rule = ArchRuleDefinition
         .classes().that()
             .resideInAnyPackage(cargotrackingBookingCommandsideAppFeaturePackages)
             .and()
+            .resideOutsideOfPackages(cargotrackingBookingCommandsideAppWebInAdapterPackages + cargotrackingBookingCommandsideAppRemotingOutAdapterPackages as String[])
+            .and()
             .haveNameNotMatching(/.*JsonFixtureBuilder$/)
-        .should().onlyAccessClassesThat().resideInAnyPackage(
-            cargotrackingBookingCommandsideAppFeaturePackages +
+        .should().onlyAccessClassesThat().resideInAnyPackage(allowedPackages)
 
-            cargotrackingBookingCommandAllPackages +
-            cargotrackingBookingEventAllPackages +
-            cargotrackingBookingBoundaryWebAllPackages +
-            cargotrackingBookingDomainValueAllPackages +
-            cargotrackingBookingDomainAggregateAllPackages +
-            cargotrackingBookingStandaloneOutAdapterAllPackages +
-
-            cargotrackingLibAxonCqrsCommandPackages +
-            cargotrackingLibBoundaryApiAllPackages +
-            cargotrackingLibWebAllPackages +
-
-            klokwrkLibValidationPackages +
+    ArchRule webInAdapterRule = ArchRuleDefinition
+        .classes().that().resideInAnyPackage(cargotrackingBookingCommandsideAppWebInAdapterPackages)
+        .should().onlyAccessClassesThat().resideInAnyPackage(allowedPackages + webInAdapterThirdPartyDependencyAllPackages as String[])
 
-            klokwrkLangGroovyAllPackages +
-
-            thirdPartyDependencyAllPackages as String[]
-        )
+    ArchRule remotingOutAdapterRule = ArchRuleDefinition
+        .classes().that().resideInAnyPackage(cargotrackingBookingCommandsideAppRemotingOutAdapterPackages)
+        .should().onlyAccessClassesThat().resideInAnyPackage(allowedPackages + remotingOutAdapterThirdPartyDependencyAllPackages as String[])
     // @formatter:on
 
     expect:
     rule.check(allKlokwrkClasses)
+    webInAdapterRule.check(allKlokwrkClasses)
+    remotingOutAdapterRule.check(allKlokwrkClasses)
   }
 
   void "commandside app infrastructure classes should only access classes from allowed dependencies"() {
@@ -194,13 +213,20 @@ class BookingCommandSideAppDependenciesSpecification extends Specification {
         "org.codehaus.groovy..",
         "groovy..",
 
+        "com.fasterxml.jackson..",
+        "com.github.benmanes.caffeine..",
         "io.opentelemetry..",
         "org.axonframework.commandhandling",
         "org.axonframework.commandhandling.gateway",
+        "org.axonframework.common",
+        "org.axonframework.common.caching",
+        "org.axonframework.eventsourcing",
         "org.axonframework.messaging",
         "org.axonframework.messaging.annotation",
+        "org.axonframework.serialization..",
         "org.axonframework.tracing..",
 
+        "org.springframework.aot.hint..",
         "org.springframework.boot.context..",
         "org.springframework.beans..",
         "org.springframework.context..",
@@ -208,7 +234,10 @@ class BookingCommandSideAppDependenciesSpecification extends Specification {
     ]
 
     String[] cargotrackingBookingCommandsideAppInfrastructurePackages = ["org.klokwrk.cargotracking.booking.app.commandside.infrastructure.."]
+    String[] cargotrackingBookingCommandsideAppRemotingOutAdapterPackages = ["org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.out.remoting.."]
+    String[] cargotrackingBookingCommandsideAppApplicationServicePackages = ["org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.service"]
 
+    String[] cargotrackingBookingDomainAggregateAllPackages = ["org.klokwrk.cargotracking.domain.model.aggregate.."]
     String[] cargotrackingBookingServiceAllPackages = ["org.klokwrk.cargotracking.domain.model.service.."]
     String[] cargotrackingBookingStandaloneOutAdapterAllPackages = ["org.klokwrk.cargotracking.booking.lib.out.customer.."]
 
@@ -224,7 +253,10 @@ class BookingCommandSideAppDependenciesSpecification extends Specification {
         .classes().that().resideInAnyPackage(cargotrackingBookingCommandsideAppInfrastructurePackages)
         .should().onlyAccessClassesThat().resideInAnyPackage(
             cargotrackingBookingCommandsideAppInfrastructurePackages +
+            cargotrackingBookingCommandsideAppRemotingOutAdapterPackages +
+            cargotrackingBookingCommandsideAppApplicationServicePackages +
 
+            cargotrackingBookingDomainAggregateAllPackages +
             cargotrackingBookingServiceAllPackages +
             cargotrackingBookingStandaloneOutAdapterAllPackages +
 
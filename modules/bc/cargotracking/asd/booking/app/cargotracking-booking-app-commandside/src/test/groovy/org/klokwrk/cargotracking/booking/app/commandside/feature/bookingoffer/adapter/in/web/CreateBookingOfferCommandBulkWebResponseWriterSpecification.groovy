@@ -0,0 +1,165 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.in.web
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkItemResponse
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandBulkResponse
+import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.in.CreateBookingOfferCommandResponse
+import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
+import org.klokwrk.cargotracking.lib.web.spring.mvc.ResponseFormattingOperationResponseFactory
+import org.springframework.context.support.ResourceBundleMessageSource
+import org.springframework.web.method.HandlerMethod
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.LinkedBlockingQueue
+
+class CreateBookingOfferCommandBulkWebResponseWriterSpecification extends Specification {
+  static class TestController {
+    @SuppressWarnings("unused")
+    void testControllerMethod() {
+    }
+  }
+
+  static class PayloadFailingResponseFormattingOperationResponseFactory extends ResponseFormattingOperationResponseFactory {
+    @Override
+    OperationResponse makeSuccessOperationResponse(Object payload, Locale locale) {
+      if (payload instanceof CreateBookingOfferCommandResponse) {
+        throw new IllegalStateException("Testing formatting failure")
+      }
+
+      return super.makeSuccessOperationResponse(payload, locale)
+    }
+  }
+
+  ObjectMapper objectMapper
+  HandlerMethod handlerMethod
+  Locale locale
+
+  void setup() {
+    objectMapper = new ObjectMapper().findAndRegisterModules()
+    handlerMethod = new HandlerMethod(new TestController(), "testControllerMethod")
+    locale = new Locale("en")
+  }
+
+  private ResponseFormattingOperationResponseFactory configureResponseFormattingOperationResponseFactory(ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory) {
+    ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource()
+    messageSource.defaultEncoding = "UTF-8"
+    messageSource.setBasenames("responseFormattingDefaultMessages")
+    responseFormattingOperationResponseFactory.messageSource = messageSource
+
+    return responseFormattingOperationResponseFactory
+  }
+
+  private List<Map> writeAndParseLines(
+      ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory, List<CreateBookingOfferCommandBulkItemResponse> itemResponseList,
+      CompletableFuture<CreateBookingOfferCommandBulkResponse> bulkResponseFuture)
+  {
+    BlockingQueue<CreateBookingOfferCommandBulkItemResponse> itemResponseQueue = new LinkedBlockingQueue<>(itemResponseList)
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream()
+
+    new CreateBookingOfferCommandBulkWebResponseWriter(objectMapper, responseFormattingOperationResponseFactory).write(itemResponseQueue, bulkResponseFuture, handlerMethod, locale, outputStream)
+
+    return outputStream.toString(StandardCharsets.UTF_8).readLines().collect({ String line -> objectMapper.readValue(line, Map) })
+  }
+
+  void "should write item lines followed by the summary line"() {
+    given:
+    List<CreateBookingOfferCommandBulkItemResponse> itemResponseList = [
+        new CreateBookingOfferCommandBulkItemResponse(itemIndex: 1, payload: new CreateBookingOfferCommandResponse(bookingOfferId: "someId", lastEventSequenceNumber: 0)),
+        new CreateBookingOfferCommandBulkItemResponse(itemIndex: 0, failure: new IllegalStateException("Testing item failure"))
+    ]
+    CompletableFuture<CreateBookingOfferCommandBulkResponse> bulkResponseFuture =
+        CompletableFuture.completedFuture(new CreateBookingOfferCommandBulkResponse(itemCount: 2, successfulItemCount: 1, failedItemCount: 1))
+
+    when:
+    List<Map> lineList = writeAndParseLines(configureResponseFormattingOperationResponseFactory(new ResponseFormattingOperationResponseFactory()), itemResponseList, bulkResponseFuture)
+
+    then:
+    lineList.size() == 3
+    verifyAll(lineList[0]) {
+      itemIndex == 1
+      metaData.http.status == "200"
+      payload.bookingOfferId == "someId"
+    }
+    verifyAll(lineList[1]) {
+      itemIndex == 0
+      metaData.http.status == "500"
+      metaData.violation.type == "unknown"
+    }
+    verifyAll(lineList[2]) {
+      !containsKey("itemIndex")
+      metaData.http.status == "200"
+      payload == [itemCount: 2, successfulItemCount: 1, failedItemCount: 1]
+    }
+  }
+
+  void "should write failure item line when item outcome can not be formatted"() {
+    given:
+    List<CreateBookingOfferCommandBulkItemResponse> itemResponseList = [
+        new CreateBookingOfferCommandBulkItemResponse(itemIndex: 0, payload: new CreateBookingOfferCommandResponse(bookingOfferId: "someId", lastEventSequenceNumber: 0))
+    ]
+    CompletableFuture<CreateBookingOfferCommandBulkResponse> bulkResponseFuture =
+        CompletableFuture.completedFuture(new CreateBookingOfferCommandBulkResponse(itemCount: 1, successfulItemCount: 1, failedItemCount: 0))
+
+    when:
+    List<Map> lineList = writeAndParseLines(
+        configureResponseFormattingOperationResponseFactory(new PayloadFailingResponseFormattingOperationResponseFactory()), itemResponseList, bulkResponseFuture
+    )
+
+    then:
+    lineList.size() == 2
+    verifyAll(lineList[0]) {
+      itemIndex == 0
+      metaData.http.status == "500"
+      metaData.violation.type == "unknown"
+      payload == [:]
+    }
+    verifyAll(lineList[1]) {
+      !containsKey("itemIndex")
+      metaData.http.status == "200"
+    }
+  }
+
+  void "should write failure summary line when bulk response future is completed exceptionally"() {
+    given:
+    List<CreateBookingOfferCommandBulkItemResponse> itemResponseList = [
+        new CreateBookingOfferCommandBulkItemResponse(itemIndex: 0, payload: new CreateBookingOfferCommandResponse(bookingOfferId: "someId", lastEventSequenceNumber: 0))
+    ]
+    CompletableFuture<CreateBookingOfferCommandBulkResponse> bulkResponseFuture = CompletableFuture.failedFuture(new InterruptedException("Testing bulk failure"))
+
+    when:
+    List<Map> lineList = writeAndParseLines(configureResponseFormattingOperationResponseFactory(new ResponseFormattingOperationResponseFactory()), itemResponseList, bulkResponseFuture)
+
+    then:
+    lineList.size() == 2
+    verifyAll(lineList[0]) {
+      itemIndex == 0
+      metaData.http.status == "200"
+    }
+    verifyAll(lineList[1]) {
+      !containsKey("itemIndex")
+      metaData.http.status == "500"
+      metaData.violation.type == "unknown"
+      payload == [:]
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.adapter.out.remoting
+
+import org.klokwrk.cargotracking.domain.model.value.Location
+import org.klokwrk.cargotracking.domain.model.value.PortCapabilities
+import spock.lang.Shared
+import spock.lang.Specification
+
+class MemoryMappedLocationRegistryServiceSpecification extends Specification {
+  @Shared
+  LocationRegistryIndex locationRegistryIndex = LocationRegistryIndex.openClasspathResource(MemoryMappedLocationRegistryService.LOCATION_REGISTRY_INDEX_RESOURCE_PATH)
+
+  void "index should contain sorted and loadable entries"() {
+    when:
+    List<String> unLoCodeList = (0..<locationRegistryIndex.entryCount).collect({ Integer entryIndex -> locationRegistryIndex.findUnLoCodeAt(entryIndex) })
+    List<Location> locationList = (0..<locationRegistryIndex.entryCount).collect({ Integer entryIndex -> locationRegistryIndex.makeLocationAt(entryIndex) })
+
+    then:
+    locationRegistryIndex.entryCount > 0
+    unLoCodeList == unLoCodeList.toSorted()
+    unLoCodeList.toSet().size() == unLoCodeList.size()
+    locationList*.unLoCode*.code == unLoCodeList
+  }
+
+  void "index should contain all sample locations"() {
+    given:
+    Map<String, Location> sampleLocationMap = InMemoryLocationRegistryService.LocationSample.LOCATION_SAMPLE_MAP
+
+    expect:
+    sampleLocationMap.values().every({ Location sampleLocation -> locationRegistryIndex.findLocation(sampleLocation.unLoCode.code) == sampleLocation })
+  }
+
+  void "findEntryIndex() should return -1 for unknown or invalid UN/LOCODE"() {
+    expect:
+    locationRegistryIndex.findEntryIndex(unLoCodeParam) == -1
+    locationRegistryIndex.findLocation(unLoCodeParam) == null
+
+    where:
+    unLoCodeParam | _
+    null          | _
+    ""            | _
+    "HRRJ"        | _
+    "HRRJKK"      | _
+    "AAAAA"       | _
+    "ZZZZZ"       | _
+    "hrrjk"       | _
+  }
+
+  void "locationByUnLoCodeQuery() should find location"() {
+    given:
+    MemoryMappedLocationRegistryService memoryMappedLocationRegistryService = new MemoryMappedLocationRegistryService(locationRegistryIndex, 2)
+
+    when:
+    Location location = memoryMappedLocationRegistryService.locationByUnLoCodeQuery("HRRJK")
+
+    then:
+    verifyAll(location) {
+      unLoCode.code == "HRRJK"
+      name.name == "Rijeka"
+      countryName.name == "Croatia"
+      unLoCodeFunction.functionEncoded == "1234----"
+      unLoCodeCoordinates.coordinatesEncoded == "4520N 01424E"
+      portCapabilities == PortCapabilities.SEA_CONTAINER_PORT_CAPABILITIES
+    }
+
+    and:
+    memoryMappedLocationRegistryService.locationByUnLoCodeQuery("HRRJK").is(location)
+  }
+
+  void "locationByUnLoCodeQuery() should return unknown location for unknown UN/LOCODE"() {
+    given:
+    MemoryMappedLocationRegistryService memoryMappedLocationRegistryService = new MemoryMappedLocationRegistryService(locationRegistryIndex, 2)
+
+    expect:
+    memoryMappedLocationRegistryService.locationByUnLoCodeQuery(unLoCodeParam) == Location.UNKNOWN_LOCATION
+    memoryMappedLocationRegistryService.cachedLocationCount == 0
+
+    where:
+    unLoCodeParam | _
+    null          | _
+    "HRXXX"       | _
+  }
+
+  void "locationByUnLoCodeQuery() should keep the location cache bounded"() {
+    given:
+    MemoryMappedLocationRegistryService memoryMappedLocationRegistryService = new MemoryMappedLocationRegistryService(locationRegistryIndex, 2)
+
+    when:
+    Location rijekaLocation = memoryMappedLocationRegistryService.locationByUnLoCodeQuery("HRRJK")
+    Location zagrebLocation = memoryMappedLocationRegistryService.locationByUnLoCodeQuery("HRZAG")
+    Location rotterdamLocation = memoryMappedLocationRegistryService.locationByUnLoCodeQuery("NLRTM")
+    memoryMappedLocationRegistryService.locationByUnLoCodeQuery("HRXXX")
+
+    then:
+    memoryMappedLocationRegistryService.cachedLocationCount <= 2
+
+    and:
+    memoryMappedLocationRegistryService.locationByUnLoCodeQuery("HRRJK") == rijekaLocation
+    memoryMappedLocationRegistryService.locationByUnLoCodeQuery("HRZAG") == zagrebLocation
+    memoryMappedLocationRegistryService.locationByUnLoCodeQuery("NLRTM") == rotterdamLocation
+  }
+}
@@ -46,6 +46,7 @@ import java.time.Clock
 import java.time.Duration
 import java.time.Instant
 import java.time.ZoneOffset
+import java.util.function.Function
 
 class BookingOfferCommandFactoryServiceSpecification extends Specification {
 
@@ -254,6 +255,65 @@ class BookingOfferCommandFactoryServiceSpecification extends Specification {
     thrown(DomainException)
   }
 
+  void "makeCreateBookingOfferCommand - should resolve customer and locations only once per distinct key when used with memoizing resolvers"() {
+    given:
+    CustomerByUserIdPortOut customerByUserIdPortOutMock = Mock()
+    LocationByUnLoCodeQueryPortOut locationByUnLoCodeQueryPortOutMock = Mock()
+    BookingOfferCommandFactoryService bookingOfferCommandFactoryService = new BookingOfferCommandFactoryService(customerByUserIdPortOutMock, locationByUnLoCodeQueryPortOutMock, Optional.of(clock))
+
+    Function<String, Customer> customerResolver = bookingOfferCommandFactoryService.makeMemoizingCustomerResolver()
+    Function<String, Location> locationResolver = bookingOfferCommandFactoryService.makeMemoizingLocationResolver()
+
+    CreateBookingOfferCommandRequest createBookingOfferCommandRequest = new CreateBookingOfferCommandRequest(
+        userId: "standard-customer@cargotracking.com", routeSpecification: validRouteSpecificationRequestData, cargos: [validCargoRequestData]
+    )
+
+    when:
+    List<CreateBookingOfferCommand> createBookingOfferCommandList = (1..3).collect({
+      bookingOfferCommandFactoryService.makeCreateBookingOfferCommand(createBookingOfferCommandRequest, customerResolver, locationResolver)
+    })
+
+    then:
+    1 * customerByUserIdPortOutMock.findCustomerByUserId("standard-customer@cargotracking.com") >> customerByUserIdPortOut.findCustomerByUserId("standard-customer@cargotracking.com")
+    1 * locationByUnLoCodeQueryPortOutMock.locationByUnLoCodeQuery("HRRJK") >> locationByUnLoCodeQueryPortOut.locationByUnLoCodeQuery("HRRJK")
+    1 * locationByUnLoCodeQueryPortOutMock.locationByUnLoCodeQuery("NLRTM") >> locationByUnLoCodeQueryPortOut.locationByUnLoCodeQuery("NLRTM")
+    0 * _
+
+    createBookingOfferCommandList.size() == 3
+    createBookingOfferCommandList.every({ CreateBookingOfferCommand createBookingOfferCommand ->
+      createBookingOfferCommand.routeSpecification.originLocation.unLoCode.code == "HRRJK" &&
+      createBookingOfferCommand.routeSpecification.destinationLocation.unLoCode.code == "NLRTM"
+    })
+  }
+
+  void "memoize - should resolve each distinct key only once, including failures"() {
+    given:
+    Function<String, String> resolverMock = Mock()
+    Function<String, String> memoizingResolver = BookingOfferCommandFactoryService.memoize(resolverMock)
+
+    when:
+    List<String> resolvedList = ["a", "b", "a"].collect({ String key -> memoizingResolver.apply(key) })
+
+    then:
+    1 * resolverMock.apply("a") >> "A"
+    1 * resolverMock.apply("b") >> "B"
+    resolvedList == ["A", "B", "A"]
+
+    when:
+    memoizingResolver.apply("c")
+
+    then:
+    1 * resolverMock.apply("c") >> { throw new IllegalStateException("c") }
+    thrown(IllegalStateException)
+
+    when:
+    memoizingResolver.apply("c")
+
+    then:
+    0 * resolverMock.apply(_)
+    thrown(IllegalStateException)
+  }
+
   void "makeCreateBookingOfferCommandResponse - should create expected response"() {
     given:
     String myBookingOfferId = CombUuidShortPrefixUtils.makeCombShortPrefix()
@@ -0,0 +1,114 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.infrastructure.axon
+
+import org.axonframework.common.caching.Cache
+import spock.lang.Specification
+
+import java.util.function.UnaryOperator
+
+class CaffeineCacheAdapterSpecification extends Specification {
+  void "should put, get and remove entries"() {
+    given:
+    CaffeineCacheAdapter caffeineCacheAdapter = new CaffeineCacheAdapter(10L)
+
+    when:
+    caffeineCacheAdapter.put("key", "value")
+
+    then:
+    caffeineCacheAdapter.containsKey("key")
+    caffeineCacheAdapter.get("key") == "value"
+    !caffeineCacheAdapter.putIfAbsent("key", "otherValue")
+    caffeineCacheAdapter.get("key") == "value"
+
+    and:
+    caffeineCacheAdapter.remove("key")
+    !caffeineCacheAdapter.remove("key")
+    !caffeineCacheAdapter.containsKey("key")
+    caffeineCacheAdapter.get("key") == null
+  }
+
+  void "should compute entries"() {
+    given:
+    CaffeineCacheAdapter caffeineCacheAdapter = new CaffeineCacheAdapter(10L)
+
+    when:
+    String computedValue = caffeineCacheAdapter.computeIfAbsent("key", { "value" })
+    caffeineCacheAdapter.computeIfPresent("key", { String value -> value.toUpperCase() } as UnaryOperator<String>)
+    caffeineCacheAdapter.computeIfPresent("missingKey", { String value -> value.toUpperCase() } as UnaryOperator<String>)
+
+    then:
+    computedValue == "value"
+    caffeineCacheAdapter.get("key") == "VALUE"
+    !caffeineCacheAdapter.containsKey("missingKey")
+  }
+
+  void "should keep the number of entries bounded by maximum size"() {
+    given:
+    CaffeineCacheAdapter caffeineCacheAdapter = new CaffeineCacheAdapter(2L)
+
+    when:
+    (1..10).each({ Integer index -> caffeineCacheAdapter.put("key${ index }".toString(), index) })
+
+    then:
+    caffeineCacheAdapter.estimatedSize == 2
+  }
+
+  void "should remove all entries"() {
+    given:
+    CaffeineCacheAdapter caffeineCacheAdapter = new CaffeineCacheAdapter(10L)
+    caffeineCacheAdapter.put("key1", "value1")
+    caffeineCacheAdapter.put("key2", "value2")
+
+    when:
+    caffeineCacheAdapter.removeAll()
+
+    then:
+    caffeineCacheAdapter.estimatedSize == 0
+  }
+
+  void "should fail for null values and entry listeners"() {
+    given:
+    CaffeineCacheAdapter caffeineCacheAdapter = new CaffeineCacheAdapter(10L)
+
+    when:
+    caffeineCacheAdapter.put("key", null)
+
+    then:
+    thrown(IllegalArgumentException)
+
+    when:
+    caffeineCacheAdapter.registerCacheEntryListener(Stub(Cache.EntryListener))
+
+    then:
+    thrown(UnsupportedOperationException)
+  }
+
+  void "constructor should fail for invalid parameters"() {
+    when:
+    new CaffeineCacheAdapter(maximumSizeParam)
+
+    then:
+    thrown(AssertionError)
+
+    where:
+    maximumSizeParam | _
+    null             | _
+    0L               | _
+  }
+}
@@ -21,10 +21,12 @@ import groovy.transform.CompileStatic
 import org.klokwrk.cargotracking.booking.app.commandside.feature.bookingoffer.application.port.out.LocationByUnLoCodeQueryPortOut
 import org.klokwrk.cargotracking.domain.model.value.Location
 import org.klokwrk.cargotracking.domain.model.value.PortCapabilities
-import org.springframework.stereotype.Service
 
-// TODO dmurat: implement real registry
-@Service
+/**
+ * Simple location registry containing only a small sample of hand-written locations.
+ * <p/>
+ * Intended for tests that do not need a complete registry. At runtime, {@link MemoryMappedLocationRegistryService} is used instead.
+ */
 @CompileStatic
 class InMemoryLocationRegistryService implements LocationByUnLoCodeQueryPortOut {
   Location locationByUnLoCodeQuery(String unLoCode) {
@@ -50,6 +50,8 @@ import static org.klokwrk.cargotracking.booking.app.commandside.feature.bookingo
 import static org.klokwrk.cargotracking.booking.app.commandside.test.util.BookingOfferCommandTestHelpers.createBookingOffer_failed
 import static org.klokwrk.cargotracking.booking.app.commandside.test.util.BookingOfferCommandTestHelpers.createBookingOffer_succeeded
 import static org.klokwrk.cargotracking.test.support.assertion.MetaDataAssertion.assertResponseHasMetaDataThat
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup
 
@@ -750,4 +752,82 @@ class BookingOfferCommandWebControllerIntegrationSpecification extends AbstractC
     "hr-HR"             | "hr_HR"           | "Zahtjev nije ispravan."
     "en"                | "en"              | "Request is not valid."
   }
+
+  void "should stream outcome of each item for bulk request"() {
+    given:
+    String webRequestBody = objectMapper.writeValueAsString([
+        bookingOffers: [
+            createBookingOfferCommandRequest_rijekaToRotterdam_cargoDry().buildAsMap(),
+            createBookingOfferCommandRequest_rijekaToRotterdam_cargoDry().userId("unknownUserId").buildAsMap(),
+            createBookingOfferCommandRequest_cargoDry().routeSpecification(new RouteSpecificationRequestDataJsonFixtureBuilder()).buildAsMap(),
+            createBookingOfferCommandRequest_rotterdamToRijeka().cargos_add(cargoRequestData_dry()).buildAsMap()
+        ]
+    ])
+
+    when:
+    MvcResult asyncMvcResult = mockMvc.perform(
+        post("/booking-offer/create-booking-offer-bulk")
+            .content(webRequestBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+    ).andReturn()
+    MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncMvcResult)).andReturn()
+
+    List<Map> lineMapList = mvcResult.response.contentAsString.readLines().collect({ String line -> objectMapper.readValue(line, Map) })
+    Map<Integer, Map> itemResponseMapByItemIndex = lineMapList.findAll({ Map lineMap -> lineMap.itemIndex != null }).collectEntries({ Map lineMap ->
+      [(lineMap.itemIndex as Integer): lineMap.findAll({ Map.Entry entry -> entry.key != "itemIndex" })]
+    })
+
+    then:
+    mvcResult.response.status == HttpStatus.OK.value()
+    mvcResult.response.contentType.startsWith(MediaType.APPLICATION_NDJSON_VALUE)
+
+    lineMapList.size() == 5
+    itemResponseMapByItemIndex.keySet() == [0, 1, 2, 3] as Set
+
+    assertResponseHasMetaDataThat(itemResponseMapByItemIndex[0]) {
+      isSuccessful()
+    }
+    (itemResponseMapByItemIndex[0].payload as Map).bookingOfferId
+
+    assertResponseHasMetaDataThat(itemResponseMapByItemIndex[1]) {
+      isViolationOfDomain_badRequest()
+      has_violation_message("Can't find the customer with user id 'unknownUserId'.")
+    }
+
+    assertResponseHasMetaDataThat(itemResponseMapByItemIndex[2]) {
+      isViolationOfValidation()
+      has_violation_message("Request is not valid.")
+    }
+
+    assertResponseHasMetaDataThat(itemResponseMapByItemIndex[3]) {
+      isSuccessful()
+    }
+    (itemResponseMapByItemIndex[3].payload as Map).bookingOfferId
+
+    verifyAll(lineMapList.last()) {
+      itemIndex == null
+      payload == [itemCount: 4, successfulItemCount: 2, failedItemCount: 2]
+    }
+  }
+
+  void "should fail for empty bulk request - validation failure"() {
+    when:
+    MvcResult mvcResult = mockMvc.perform(
+        post("/booking-offer/create-booking-offer-bulk")
+            .content(objectMapper.writeValueAsString([bookingOffers: []]))
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+    ).andReturn()
+    Map responseMap = objectMapper.readValue(mvcResult.response.contentAsString, Map)
+
+    then:
+    mvcResult.response.status == HttpStatus.BAD_REQUEST.value()
+
+    assertResponseHasMetaDataThat(responseMap) {
+      isViolationOfValidation()
+      has_violation_message("Request is not valid.")
+    }
+  }
 }
@@ -0,0 +1,112 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.commandside.infrastructure.springbootconfig
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.axonframework.serialization.SerializedObject
+import org.axonframework.serialization.Serializer
+import org.klokwrk.cargotracking.booking.app.commandside.infrastructure.axon.BookingOfferAggregateSnapshotJacksonModule
+import org.klokwrk.cargotracking.booking.app.commandside.test.base.AbstractCommandSideIntegrationSpecification
+import org.klokwrk.cargotracking.domain.model.aggregate.BookingOfferAggregate
+import org.klokwrk.cargotracking.domain.model.event.BookingOfferCreatedEvent
+import org.klokwrk.cargotracking.domain.model.event.BookingOfferCreatedEventFixtureBuilder
+import org.klokwrk.cargotracking.domain.model.event.CargoAddedEvent
+import org.klokwrk.cargotracking.domain.model.event.RouteSpecificationAddedEvent
+import org.klokwrk.cargotracking.lib.domain.model.event.BaseEvent
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.beans.factory.annotation.Qualifier
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.test.context.ActiveProfiles
+
+@SpringBootTest(properties = ['axon.axonserver.servers = ${axonServerInstanceUrl}'])
+@ActiveProfiles("testIntegration")
+class BookingOfferAggregateSnapshotSerializationIntegrationSpecification extends AbstractCommandSideIntegrationSpecification {
+  @Autowired
+  @Qualifier("eventSerializer")
+  Serializer eventSerializer
+
+  @Autowired
+  ObjectMapper objectMapper
+
+  static BookingOfferAggregate makeBookingOfferAggregate(List<BaseEvent> eventList) {
+    BookingOfferAggregate bookingOfferAggregate = new BookingOfferAggregate()
+    eventList.each { BaseEvent event ->
+      switch (event) {
+        case BookingOfferCreatedEvent:
+          bookingOfferAggregate.onBookingOfferCreatedEvent(event as BookingOfferCreatedEvent)
+          break
+        case RouteSpecificationAddedEvent:
+          bookingOfferAggregate.onRouteSpecificationAddedEvent(event as RouteSpecificationAddedEvent)
+          break
+        case CargoAddedEvent:
+          bookingOfferAggregate.onCargoAddedEvent(event as CargoAddedEvent)
+          break
+      }
+    }
+
+    return bookingOfferAggregate
+  }
+
+  void "should restore aggregate state after round trip through configured event serializer"() {
+    given:
+    BookingOfferAggregate bookingOfferAggregate = makeBookingOfferAggregate(BookingOfferCreatedEventFixtureBuilder.bookingOfferCreation_complete_defaultEventsSequence())
+
+    when:
+    SerializedObject<String> serializedBookingOfferAggregate = eventSerializer.serialize(bookingOfferAggregate, String)
+    BookingOfferAggregate restoredBookingOfferAggregate = eventSerializer.deserialize(serializedBookingOfferAggregate)
+
+    then:
+    serializedBookingOfferAggregate.type.name == BookingOfferAggregate.name
+    serializedBookingOfferAggregate.type.revision == "1"
+
+    verifyAll(restoredBookingOfferAggregate) {
+      bookingOfferId == bookingOfferAggregate.bookingOfferId
+      lastEventSequenceNumber == 2
+      customer == bookingOfferAggregate.customer
+      routeSpecification == bookingOfferAggregate.routeSpecification
+      bookingOfferCargos.bookingOfferCargoCollection.size() == 1
+      bookingOfferCargos.bookingOfferCargoCollection == bookingOfferAggregate.bookingOfferCargos.bookingOfferCargoCollection
+      bookingOfferCargos.totalCommodityWeight == bookingOfferAggregate.bookingOfferCargos.totalCommodityWeight
+      bookingOfferCargos.totalContainerTeuCount == bookingOfferAggregate.bookingOfferCargos.totalContainerTeuCount
+    }
+  }
+
+  void "should restore aggregate state without route specification and cargos after round trip through configured event serializer"() {
+    given:
+    BookingOfferAggregate bookingOfferAggregate = makeBookingOfferAggregate([BookingOfferCreatedEventFixtureBuilder.bookingOfferCreatedEvent_default().build()] as List<BaseEvent>)
+
+    when:
+    BookingOfferAggregate restoredBookingOfferAggregate = eventSerializer.deserialize(eventSerializer.serialize(bookingOfferAggregate, String))
+
+    then:
+    verifyAll(restoredBookingOfferAggregate) {
+      bookingOfferId == bookingOfferAggregate.bookingOfferId
+      lastEventSequenceNumber == 0
+      customer == bookingOfferAggregate.customer
+      routeSpecification == null
+      bookingOfferCargos.bookingOfferCargoCollection.isEmpty()
+      bookingOfferCargos.totalCommodityWeight == bookingOfferAggregate.bookingOfferCargos.totalCommodityWeight
+      bookingOfferCargos.totalContainerTeuCount == bookingOfferAggregate.bookingOfferCargos.totalContainerTeuCount
+    }
+  }
+
+  void "should not register snapshot mapping with application's object mapper"() {
+    expect:
+    !objectMapper.registeredModuleIds.contains(BookingOfferAggregateSnapshotJacksonModule.name)
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.feature.bookingoffer.adapter.out.persistence
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.ObjectNode
+import groovy.transform.CompileStatic
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferDetailsJpaEntity
+
+/**
+ * Reads and writes the JSON {@code details} document of {@link BookingOfferDetailsJpaEntity} as a mutable Jackson tree.
+ * <p>
+ * Event handlers patch only the parts of the document affected by the event (i.e., set a single property or append a single array element) instead of round-tripping the whole document through
+ * a {@code Map}. When events are handled as a part of an event processor batch, the document of each affected booking offer is parsed only once per batch, and it is serialized back into the entity
+ * only once, just before the batch commits. Therefore, the cost of handling a single event does not depend on the document size, i.e., on the number of cargos already added to the booking offer.
+ * <p>
+ * Outside of a batch, the document is parsed on read and serialized on write.
+ */
+@CompileStatic
+class BookingOfferDetailsDocumentWriter {
+  static final String BATCH_DOCUMENTS_RESOURCE_KEY = BookingOfferDetailsDocumentWriter.name + ".batchDocuments"
+
+  private final ObjectMapper objectMapper
+
+  BookingOfferDetailsDocumentWriter(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper
+  }
+
+  ObjectNode readDetailsDocument(BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity) {
+    BatchingUnitOfWork<?> batchingUnitOfWork = BookingOfferProjectionEntityLoader.findCurrentBatchingUnitOfWork()
+    if (batchingUnitOfWork == null) {
+      return parseDetailsDocument(bookingOfferDetailsJpaEntity)
+    }
+
+    return fetchBatchDocumentMap(batchingUnitOfWork).computeIfAbsent(bookingOfferDetailsJpaEntity, { BookingOfferDetailsJpaEntity missingBookingOfferDetailsJpaEntity ->
+      parseDetailsDocument(missingBookingOfferDetailsJpaEntity)
+    })
+  }
+
+  void writeDetailsDocument(BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity, ObjectNode detailsDocument) {
+    BatchingUnitOfWork<?> batchingUnitOfWork = BookingOfferProjectionEntityLoader.findCurrentBatchingUnitOfWork()
+    if (batchingUnitOfWork == null) {
+      bookingOfferDetailsJpaEntity.details = objectMapper.writeValueAsString(detailsDocument)
+      return
+    }
+
+    // Note: Inside a batch, the document is serialized into the entity only once when the batch prepares to commit (see fetchBatchDocumentMap()).
+    fetchBatchDocumentMap(batchingUnitOfWork).put(bookingOfferDetailsJpaEntity, detailsDocument)
+  }
+
+  protected ObjectNode parseDetailsDocument(BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity) {
+    return objectMapper.readTree(bookingOfferDetailsJpaEntity.details) as ObjectNode
+  }
+
+  protected Map<BookingOfferDetailsJpaEntity, ObjectNode> fetchBatchDocumentMap(BatchingUnitOfWork<?> batchingUnitOfWork) {
+    return batchingUnitOfWork.getOrComputeResource(BATCH_DOCUMENTS_RESOURCE_KEY, { String resourceKey ->
+      Map<BookingOfferDetailsJpaEntity, ObjectNode> batchDocumentMap = [:]
+      batchingUnitOfWork.onPrepareCommit({ flushBatchDocumentMap(batchDocumentMap) })
+      return batchDocumentMap
+    }) as Map<BookingOfferDetailsJpaEntity, ObjectNode>
+  }
+
+  protected void flushBatchDocumentMap(Map<BookingOfferDetailsJpaEntity, ObjectNode> batchDocumentMap) {
+    batchDocumentMap.each { BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity, ObjectNode detailsDocument ->
+      bookingOfferDetailsJpaEntity.details = objectMapper.writeValueAsString(detailsDocument)
+    }
+  }
+}
@@ -17,7 +17,10 @@
  */
 package org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.feature.bookingoffer.adapter.out.persistence
 
+import com.fasterxml.jackson.databind.JsonNode
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.node.ArrayNode
+import com.fasterxml.jackson.databind.node.ObjectNode
 import groovy.transform.CompileStatic
 import org.axonframework.eventhandling.DomainEventMessage
 import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferDetailsJpaEntity
@@ -30,11 +33,17 @@ import org.klokwrk.lib.xlang.groovy.base.constant.CommonConstants
 @CompileStatic
 class BookingOfferDetailsProjectionHelper {
   private final BookingOfferDetailsProjectionJpaRepository bookingOfferDetailsProjectionJpaRepository
+  private final BookingOfferProjectionEntityLoader bookingOfferProjectionEntityLoader
+  private final BookingOfferDetailsDocumentWriter bookingOfferDetailsDocumentWriter
   private final ObjectMapper objectMapper
 
-  BookingOfferDetailsProjectionHelper(BookingOfferDetailsProjectionJpaRepository bookingOfferDetailsProjectionJpaRepository, ObjectMapper objectMapper) {
+  BookingOfferDetailsProjectionHelper(
+      BookingOfferDetailsProjectionJpaRepository bookingOfferDetailsProjectionJpaRepository, BookingOfferProjectionEntityLoader bookingOfferProjectionEntityLoader, ObjectMapper objectMapper)
+  {
     this.objectMapper = objectMapper
     this.bookingOfferDetailsProjectionJpaRepository = bookingOfferDetailsProjectionJpaRepository
+    this.bookingOfferProjectionEntityLoader = bookingOfferProjectionEntityLoader
+    this.bookingOfferDetailsDocumentWriter = new BookingOfferDetailsDocumentWriter(objectMapper)
   }
 
   void storeBookingOfferCreatedEvent(BookingOfferCreatedEvent bookingOfferCreatedEvent, DomainEventMessage domainEventMessage) {
@@ -57,15 +66,16 @@ class BookingOfferDetailsProjectionHelper {
     )
 
     bookingOfferDetailsProjectionJpaRepository.persist(bookingOfferDetailsJpaEntity)
+    bookingOfferProjectionEntityLoader.registerBookingOfferDetailsJpaEntity(bookingOfferDetailsJpaEntity)
   }
 
   void storeRouteSpecificationAddedEvent(RouteSpecificationAddedEvent routeSpecificationAddedEvent, DomainEventMessage domainEventMessage) {
-    BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity = bookingOfferDetailsProjectionJpaRepository.findById(UUID.fromString(routeSpecificationAddedEvent.bookingOfferId)).get()
-    Map<String, ?> detailsMapToUpdate = objectMapper.readValue(bookingOfferDetailsJpaEntity.details, Map)
-    detailsMapToUpdate.routeSpecification = routeSpecificationAddedEvent.routeSpecification.propertiesFiltered
-    bookingOfferDetailsJpaEntity.with {
-      details = objectMapper.writeValueAsString(detailsMapToUpdate)
+    BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity = bookingOfferProjectionEntityLoader.findBookingOfferDetailsJpaEntity(UUID.fromString(routeSpecificationAddedEvent.bookingOfferId))
+    ObjectNode detailsDocument = bookingOfferDetailsDocumentWriter.readDetailsDocument(bookingOfferDetailsJpaEntity)
+    detailsDocument.set("routeSpecification", objectMapper.valueToTree(routeSpecificationAddedEvent.routeSpecification.propertiesFiltered) as JsonNode)
+    bookingOfferDetailsDocumentWriter.writeDetailsDocument(bookingOfferDetailsJpaEntity, detailsDocument)
 
+    bookingOfferDetailsJpaEntity.with {
       inboundChannelName = domainEventMessage.metaData[MetaDataConstant.INBOUND_CHANNEL_NAME_KEY] ?: CommonConstants.NOT_AVAILABLE
       inboundChannelType = domainEventMessage.metaData[MetaDataConstant.INBOUND_CHANNEL_TYPE_KEY] ?: CommonConstants.NOT_AVAILABLE
       lastEventRecordedAt = domainEventMessage.timestamp
@@ -74,18 +84,18 @@ class BookingOfferDetailsProjectionHelper {
   }
 
   void storeCargoAddedEvent(CargoAddedEvent cargoAddedEvent, DomainEventMessage domainEventMessage) {
-    BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity = bookingOfferDetailsProjectionJpaRepository.findById(UUID.fromString(cargoAddedEvent.bookingOfferId)).get()
-    Map<String, ?> detailsMapToUpdate = objectMapper.readValue(bookingOfferDetailsJpaEntity.details, Map)
+    BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity = bookingOfferProjectionEntityLoader.findBookingOfferDetailsJpaEntity(UUID.fromString(cargoAddedEvent.bookingOfferId))
+    ObjectNode detailsDocument = bookingOfferDetailsDocumentWriter.readDetailsDocument(bookingOfferDetailsJpaEntity)
 
-    detailsMapToUpdate.cargos ?= []
-    (detailsMapToUpdate.cargos as List).add(cargoAddedEvent.cargo.propertiesFiltered)
+    JsonNode cargosNode = detailsDocument.get("cargos")
+    ArrayNode cargosArrayNode = (cargosNode != null && cargosNode.isArray()) ? cargosNode as ArrayNode : detailsDocument.putArray("cargos")
+    cargosArrayNode.add(objectMapper.valueToTree(cargoAddedEvent.cargo.propertiesFiltered) as JsonNode)
 
-    detailsMapToUpdate.totalCommodityWeight = cargoAddedEvent.totalCommodityWeight
-    detailsMapToUpdate.totalContainerTeuCount = cargoAddedEvent.totalContainerTeuCount
+    detailsDocument.set("totalCommodityWeight", objectMapper.valueToTree(cargoAddedEvent.totalCommodityWeight) as JsonNode)
+    detailsDocument.put("totalContainerTeuCount", cargoAddedEvent.totalContainerTeuCount)
+    bookingOfferDetailsDocumentWriter.writeDetailsDocument(bookingOfferDetailsJpaEntity, detailsDocument)
 
     bookingOfferDetailsJpaEntity.with {
-      details = objectMapper.writeValueAsString(detailsMapToUpdate)
-
       inboundChannelName = domainEventMessage.metaData[MetaDataConstant.INBOUND_CHANNEL_NAME_KEY] ?: CommonConstants.NOT_AVAILABLE
       inboundChannelType = domainEventMessage.metaData[MetaDataConstant.INBOUND_CHANNEL_TYPE_KEY] ?: CommonConstants.NOT_AVAILABLE
       lastEventRecordedAt = domainEventMessage.timestamp
@@ -21,7 +21,12 @@ import groovy.transform.CompileStatic
 import io.hypersistence.utils.spring.repository.HibernateRepository
 import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferDetailsJpaEntity
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
 
 @CompileStatic
 interface BookingOfferDetailsProjectionJpaRepository extends JpaRepository<BookingOfferDetailsJpaEntity, UUID>, HibernateRepository<BookingOfferDetailsJpaEntity> {
+  @Modifying
+  @Query(value = "delete from booking_offer_details", nativeQuery = true)
+  void deleteAllBookingOfferDetails()
 }
@@ -0,0 +1,143 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.feature.bookingoffer.adapter.out.persistence
+
+import groovy.transform.CompileStatic
+import org.axonframework.eventhandling.DomainEventMessage
+import org.axonframework.messaging.Message
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork
+import org.axonframework.messaging.unitofwork.UnitOfWork
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferDetailsJpaEntity
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
+import org.klokwrk.cargotracking.domain.model.event.CargoAddedEvent
+import org.klokwrk.cargotracking.domain.model.event.RouteSpecificationAddedEvent
+
+/**
+ * Loads booking offer projection entities in a batch-aware manner.
+ * <p>
+ * Pooled streaming event processor handles all events of a single batch inside one {@link BatchingUnitOfWork} and one transaction. When an entity is requested during such a batch for the first time,
+ * the loader collects identifiers of all booking offers updated by the batch events and fetches all affected summary and details rows with a single {@code IN (...)} query per table. Fetched entities
+ * are kept as a resource of the root unit of work, so the rest of the batch folds its changes into already managed entities without additional selects. Modified entities are flushed at the end
+ * of the batch through configured Hibernate JDBC batching.
+ * <p>
+ * Outside of a batching unit of work, the loader falls back to loading entities one at a time through repositories.
+ */
+@CompileStatic
+class BookingOfferProjectionEntityLoader {
+  static final String BATCH_ENTITIES_RESOURCE_KEY = BookingOfferProjectionEntityLoader.name + ".batchEntities"
+  static final Set<Class<?>> PRELOADABLE_PAYLOAD_TYPE_SET = [RouteSpecificationAddedEvent, CargoAddedEvent] as Set<Class<?>>
+
+  private final BookingOfferSummaryProjectionJpaRepository bookingOfferSummaryProjectionJpaRepository
+  private final BookingOfferDetailsProjectionJpaRepository bookingOfferDetailsProjectionJpaRepository
+
+  BookingOfferProjectionEntityLoader(
+      BookingOfferSummaryProjectionJpaRepository bookingOfferSummaryProjectionJpaRepository, BookingOfferDetailsProjectionJpaRepository bookingOfferDetailsProjectionJpaRepository)
+  {
+    this.bookingOfferSummaryProjectionJpaRepository = bookingOfferSummaryProjectionJpaRepository
+    this.bookingOfferDetailsProjectionJpaRepository = bookingOfferDetailsProjectionJpaRepository
+  }
+
+  BookingOfferSummaryJpaEntity findBookingOfferSummaryJpaEntity(UUID bookingOfferId) {
+    BatchEntities batchEntities = fetchBatchEntities()
+    if (batchEntities == null) {
+      return bookingOfferSummaryProjectionJpaRepository.findByIdWithCommodityTypes(bookingOfferId).get()
+    }
+
+    return batchEntities.bookingOfferSummaryJpaEntityMap.computeIfAbsent(bookingOfferId, { UUID missingBookingOfferId ->
+      bookingOfferSummaryProjectionJpaRepository.findByIdWithCommodityTypes(missingBookingOfferId).get()
+    })
+  }
+
+  BookingOfferDetailsJpaEntity findBookingOfferDetailsJpaEntity(UUID bookingOfferId) {
+    BatchEntities batchEntities = fetchBatchEntities()
+    if (batchEntities == null) {
+      return bookingOfferDetailsProjectionJpaRepository.findById(bookingOfferId).get()
+    }
+
+    return batchEntities.bookingOfferDetailsJpaEntityMap.computeIfAbsent(bookingOfferId, { UUID missingBookingOfferId ->
+      bookingOfferDetailsProjectionJpaRepository.findById(missingBookingOfferId).get()
+    })
+  }
+
+  void registerBookingOfferSummaryJpaEntity(BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity) {
+    fetchBatchEntities()?.bookingOfferSummaryJpaEntityMap?.put(bookingOfferSummaryJpaEntity.bookingOfferId, bookingOfferSummaryJpaEntity)
+  }
+
+  void registerBookingOfferDetailsJpaEntity(BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity) {
+    fetchBatchEntities()?.bookingOfferDetailsJpaEntityMap?.put(bookingOfferDetailsJpaEntity.bookingOfferId, bookingOfferDetailsJpaEntity)
+  }
+
+  /**
+   * Returns the batching unit of work of the event processor's batch currently in progress, or {@code null} if events are not handled as a part of a batch.
+   */
+  @SuppressWarnings("CodeNarc.Instanceof")
+  static BatchingUnitOfWork<?> findCurrentBatchingUnitOfWork() {
+    if (!CurrentUnitOfWork.isStarted()) {
+      return null
+    }
+
+    UnitOfWork<?> rootUnitOfWork = CurrentUnitOfWork.get().root()
+    if (!(rootUnitOfWork instanceof BatchingUnitOfWork)) {
+      return null
+    }
+
+    return rootUnitOfWork as BatchingUnitOfWork<?>
+  }
+
+  protected BatchEntities fetchBatchEntities() {
+    BatchingUnitOfWork<?> batchingUnitOfWork = findCurrentBatchingUnitOfWork()
+    if (batchingUnitOfWork == null) {
+      return null
+    }
+
+    return batchingUnitOfWork.getOrComputeResource(BATCH_ENTITIES_RESOURCE_KEY, { String resourceKey -> preloadBatchEntities(batchingUnitOfWork) }) as BatchEntities
+  }
+
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected BatchEntities preloadBatchEntities(BatchingUnitOfWork<?> batchingUnitOfWork) {
+    Set<UUID> bookingOfferIdSet = [] as Set<UUID>
+    (batchingUnitOfWork.messages as List<Message<?>>).each { Message<?> message ->
+      if (message instanceof DomainEventMessage && PRELOADABLE_PAYLOAD_TYPE_SET.contains(message.payloadType)) {
+        // Note: Aggregate identifier of booking offer events is bookingOfferId. Using it avoids payload deserialization just for collecting identifiers.
+        bookingOfferIdSet.add(UUID.fromString((message as DomainEventMessage).aggregateIdentifier))
+      }
+    }
+
+    BatchEntities batchEntities = new BatchEntities()
+    if (bookingOfferIdSet.isEmpty()) {
+      return batchEntities
+    }
+
+    bookingOfferSummaryProjectionJpaRepository.findAllByIdWithCommodityTypes(bookingOfferIdSet).each { BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity ->
+      batchEntities.bookingOfferSummaryJpaEntityMap.put(bookingOfferSummaryJpaEntity.bookingOfferId, bookingOfferSummaryJpaEntity)
+    }
+
+    bookingOfferDetailsProjectionJpaRepository.findAllById(bookingOfferIdSet).each { BookingOfferDetailsJpaEntity bookingOfferDetailsJpaEntity ->
+      batchEntities.bookingOfferDetailsJpaEntityMap.put(bookingOfferDetailsJpaEntity.bookingOfferId, bookingOfferDetailsJpaEntity)
+    }
+
+    return batchEntities
+  }
+
+  @CompileStatic
+  static class BatchEntities {
+    final Map<UUID, BookingOfferSummaryJpaEntity> bookingOfferSummaryJpaEntityMap = [:]
+    final Map<UUID, BookingOfferDetailsJpaEntity> bookingOfferDetailsJpaEntityMap = [:]
+  }
+}
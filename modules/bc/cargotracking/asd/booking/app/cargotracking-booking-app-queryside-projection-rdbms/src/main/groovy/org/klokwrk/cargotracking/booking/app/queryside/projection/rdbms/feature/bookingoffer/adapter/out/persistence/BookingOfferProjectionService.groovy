@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import groovy.transform.CompileStatic
 import org.axonframework.eventhandling.DomainEventMessage
 import org.axonframework.eventhandling.EventHandler
+import org.axonframework.eventhandling.ResetHandler
 import org.klokwrk.cargotracking.domain.model.event.BookingOfferCreatedEvent
 import org.klokwrk.cargotracking.domain.model.event.CargoAddedEvent
 import org.klokwrk.cargotracking.domain.model.event.RouteSpecificationAddedEvent
@@ -44,8 +45,9 @@ class BookingOfferProjectionService {
     this.bookingOfferDetailsProjectionJpaRepository = bookingOfferDetailsProjectionJpaRepository
     this.objectMapper = objectMapper
 
-    this.bookingOfferSummaryProjectionHelper = new BookingOfferSummaryProjectionHelper(bookingOfferSummaryProjectionJpaRepository)
-    this.bookingOfferDetailsProjectionHelper = new BookingOfferDetailsProjectionHelper(bookingOfferDetailsProjectionJpaRepository, objectMapper)
+    BookingOfferProjectionEntityLoader bookingOfferProjectionEntityLoader = new BookingOfferProjectionEntityLoader(bookingOfferSummaryProjectionJpaRepository, bookingOfferDetailsProjectionJpaRepository)
+    this.bookingOfferSummaryProjectionHelper = new BookingOfferSummaryProjectionHelper(bookingOfferSummaryProjectionJpaRepository, bookingOfferProjectionEntityLoader)
+    this.bookingOfferDetailsProjectionHelper = new BookingOfferDetailsProjectionHelper(bookingOfferDetailsProjectionJpaRepository, bookingOfferProjectionEntityLoader, objectMapper)
   }
 
   @EventHandler
@@ -65,4 +67,14 @@ class BookingOfferProjectionService {
     bookingOfferSummaryProjectionHelper.storeCargoAddedEvent(cargoAddedEvent, domainEventMessage)
     bookingOfferDetailsProjectionHelper.storeCargoAddedEvent(cargoAddedEvent, domainEventMessage)
   }
+
+  /**
+   * Clears all booking offer projection tables before events are replayed from the start of the event stream (see ProjectionRebuildService).
+   */
+  @ResetHandler
+  void onReset() {
+    bookingOfferSummaryProjectionJpaRepository.deleteAllCommodityTypes()
+    bookingOfferSummaryProjectionJpaRepository.deleteAllBookingOfferSummaries()
+    bookingOfferDetailsProjectionJpaRepository.deleteAllBookingOfferDetails()
+  }
 }
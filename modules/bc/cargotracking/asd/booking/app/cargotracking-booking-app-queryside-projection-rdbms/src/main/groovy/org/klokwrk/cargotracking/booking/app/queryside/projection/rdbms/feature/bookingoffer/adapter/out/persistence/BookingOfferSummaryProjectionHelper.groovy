@@ -31,9 +31,13 @@ import tech.units.indriya.unit.Units
 @CompileStatic
 class BookingOfferSummaryProjectionHelper {
   private final BookingOfferSummaryProjectionJpaRepository bookingOfferSummaryProjectionJpaRepository
+  private final BookingOfferProjectionEntityLoader bookingOfferProjectionEntityLoader
 
-  BookingOfferSummaryProjectionHelper(BookingOfferSummaryProjectionJpaRepository bookingOfferSummaryProjectionJpaRepository) {
+  BookingOfferSummaryProjectionHelper(
+      BookingOfferSummaryProjectionJpaRepository bookingOfferSummaryProjectionJpaRepository, BookingOfferProjectionEntityLoader bookingOfferProjectionEntityLoader)
+  {
     this.bookingOfferSummaryProjectionJpaRepository = bookingOfferSummaryProjectionJpaRepository
+    this.bookingOfferProjectionEntityLoader = bookingOfferProjectionEntityLoader
   }
 
   void storeBookingOfferCreatedEvent(BookingOfferCreatedEvent bookingOfferCreatedEvent, DomainEventMessage domainEventMessage) {
@@ -54,10 +58,11 @@ class BookingOfferSummaryProjectionHelper {
     )
 
     bookingOfferSummaryProjectionJpaRepository.persist(bookingOfferSummaryJpaEntity)
+    bookingOfferProjectionEntityLoader.registerBookingOfferSummaryJpaEntity(bookingOfferSummaryJpaEntity)
   }
 
   void storeRouteSpecificationAddedEvent(RouteSpecificationAddedEvent routeSpecificationAddedEvent, DomainEventMessage domainEventMessage) {
-    BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity = bookingOfferSummaryProjectionJpaRepository.findById(UUID.fromString(routeSpecificationAddedEvent.bookingOfferId)).get()
+    BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity = bookingOfferProjectionEntityLoader.findBookingOfferSummaryJpaEntity(UUID.fromString(routeSpecificationAddedEvent.bookingOfferId))
     bookingOfferSummaryJpaEntity.with {
       originLocationUnLoCode = routeSpecificationAddedEvent.routeSpecification.originLocation.unLoCode
       originLocationName = routeSpecificationAddedEvent.routeSpecification.originLocation.name
@@ -79,7 +84,7 @@ class BookingOfferSummaryProjectionHelper {
   }
 
   void storeCargoAddedEvent(CargoAddedEvent cargoAddedEvent, DomainEventMessage domainEventMessage) {
-    BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity = bookingOfferSummaryProjectionJpaRepository.findByIdWithCommodityTypes(UUID.fromString(cargoAddedEvent.bookingOfferId)).get()
+    BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity = bookingOfferProjectionEntityLoader.findBookingOfferSummaryJpaEntity(UUID.fromString(cargoAddedEvent.bookingOfferId))
     bookingOfferSummaryJpaEntity.with {
       commodityTypes ?= [] as Set<CommodityType>
       commodityTypes.add(cargoAddedEvent.cargo.commodityType)
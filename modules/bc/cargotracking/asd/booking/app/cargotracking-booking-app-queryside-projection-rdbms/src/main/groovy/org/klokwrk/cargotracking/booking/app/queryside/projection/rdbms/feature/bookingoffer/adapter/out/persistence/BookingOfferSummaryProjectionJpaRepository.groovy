@@ -21,6 +21,7 @@ import groovy.transform.CompileStatic
 import io.hypersistence.utils.spring.repository.HibernateRepository
 import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
 import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
 import org.springframework.data.jpa.repository.Query
 import org.springframework.data.repository.query.Param
 
@@ -33,4 +34,20 @@ interface BookingOfferSummaryProjectionJpaRepository extends JpaRepository<Booki
     where bos.bookingOfferId = :bookingOfferId
   """)
   Optional<BookingOfferSummaryJpaEntity> findByIdWithCommodityTypes(@Param("bookingOfferId") UUID bookingOfferId)
+
+  @Query("""
+    select distinct bos
+    from BookingOfferSummaryJpaEntity bos
+    left join fetch bos.commodityTypes
+    where bos.bookingOfferId in :bookingOfferIds
+  """)
+  List<BookingOfferSummaryJpaEntity> findAllByIdWithCommodityTypes(@Param("bookingOfferIds") Collection<UUID> bookingOfferIds)
+
+  @Modifying
+  @Query(value = "delete from booking_offer_summary_commodity_type", nativeQuery = true)
+  void deleteAllCommodityTypes()
+
+  @Modifying
+  @Query(value = "delete from booking_offer_summary", nativeQuery = true)
+  void deleteAllBookingOfferSummaries()
 }
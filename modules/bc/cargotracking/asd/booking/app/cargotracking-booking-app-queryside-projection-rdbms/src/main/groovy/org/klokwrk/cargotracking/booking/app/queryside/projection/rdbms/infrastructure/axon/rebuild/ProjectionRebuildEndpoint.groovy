@@ -0,0 +1,61 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.infrastructure.axon.rebuild
+
+import groovy.transform.CompileStatic
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation
+import org.springframework.boot.actuate.endpoint.annotation.Selector
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation
+import org.springframework.lang.Nullable
+
+/**
+ * Actuator endpoint exposing {@link ProjectionRebuildService}.
+ * <p>
+ * Usage (with default management base path):
+ * <ul>
+ *   <li>{@code GET /management/projectionrebuild} - lists names of rebuildable event processors.</li>
+ *   <li>{@code GET /management/projectionrebuild/{processorName}} - reports rebuild progress of the processor.</li>
+ *   <li>{@code POST /management/projectionrebuild/{processorName}} with optional JSON body {@code {"segmentCount": <number>}} - starts the rebuild. When {@code segmentCount} is not specified, the
+ *       number of available processors is used, up to {@link ProjectionRebuildService#SEGMENT_COUNT_MAX}.</li>
+ * </ul>
+ */
+@Endpoint(id = "projectionrebuild")
+@CompileStatic
+class ProjectionRebuildEndpoint {
+  private final ProjectionRebuildService projectionRebuildService
+
+  ProjectionRebuildEndpoint(ProjectionRebuildService projectionRebuildService) {
+    this.projectionRebuildService = projectionRebuildService
+  }
+
+  @ReadOperation
+  Map<String, Object> rebuildableProcessors() {
+    return [processorNames: projectionRebuildService.findRebuildableProcessorNames()] as Map<String, Object>
+  }
+
+  @ReadOperation
+  Map<String, Object> rebuildStatus(@Selector String processorName) {
+    return projectionRebuildService.fetchRebuildStatus(processorName)
+  }
+
+  @WriteOperation
+  Map<String, Object> rebuild(@Selector String processorName, @Nullable Integer segmentCount) {
+    return projectionRebuildService.startRebuild(processorName, segmentCount ?: Math.min(Runtime.runtime.availableProcessors(), ProjectionRebuildService.SEGMENT_COUNT_MAX))
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.infrastructure.axon.rebuild
+
+import groovy.transform.CompileStatic
+import groovy.util.logging.Slf4j
+import org.axonframework.config.EventProcessingConfiguration
+import org.axonframework.eventhandling.EventProcessor
+import org.axonframework.eventhandling.EventTrackerStatus
+import org.axonframework.eventhandling.Segment
+import org.axonframework.eventhandling.StreamingEventProcessor
+import org.axonframework.eventhandling.TrackedEventMessage
+import org.axonframework.eventhandling.TrackingToken
+import org.axonframework.eventhandling.tokenstore.TokenStore
+import org.axonframework.messaging.StreamableMessageSource
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Rebuilds projections by replaying the complete event stream through segmented streaming event processors.
+ * <p>
+ * Rebuild is executed in the following steps:
+ * <ul>
+ *   <li>processor's segments are split until the requested segment count is reached. As the default sequencing policy is sequential per aggregate, events are distributed among segments by
+ *       aggregate identifier (i.e., by {@code bookingOfferId}), and segments are replayed in parallel on the processor's worker threads.</li>
+ *   <li>processor is shut down, and its tokens are reset. During the reset, Axon invokes {@code @ResetHandler} methods of event handlers, which are responsible for clearing projection tables.</li>
+ *   <li>processor is started again. Each segment replays events from the start of the stream and, once it catches up with the head of the stream, continues processing in live mode.</li>
+ * </ul>
+ * Rebuild progress can be followed via {@link #fetchRebuildStatus(java.lang.String)}, which reports, for each segment, its position, lag behind the head of the event stream and whether it is
+ * still replaying. It also reports the processor's mode (see {@link ProcessorMode}) and the overall replay throughput in events per second.
+ */
+@Slf4j
+@CompileStatic
+class ProjectionRebuildService {
+  static final Duration SEGMENT_SPLIT_TIMEOUT = Duration.ofSeconds(30)
+  static final Integer SEGMENT_COUNT_MAX = 64
+
+  private final EventProcessingConfiguration eventProcessingConfiguration
+  private final TokenStore tokenStore
+  private final StreamableMessageSource<TrackedEventMessage<?>> streamableMessageSource
+  private final Map<String, RebuildStart> rebuildStartMap = new ConcurrentHashMap<>()
+
+  ProjectionRebuildService(
+      EventProcessingConfiguration eventProcessingConfiguration, TokenStore tokenStore, StreamableMessageSource<TrackedEventMessage<?>> streamableMessageSource)
+  {
+    this.eventProcessingConfiguration = eventProcessingConfiguration
+    this.tokenStore = tokenStore
+    this.streamableMessageSource = streamableMessageSource
+  }
+
+  /**
+   * Returns names of all registered event processors that support rebuilding, i.e., streaming event processors that support resetting of tokens.
+   */
+  List<String> findRebuildableProcessorNames() {
+    return eventProcessingConfiguration.eventProcessors()
+        .findAll({ String processorName, EventProcessor eventProcessor -> isRebuildable(eventProcessor) })
+        .keySet()
+        .sort()
+  }
+
+  /**
+   * Starts the rebuild of projection handled by the processor with given name.
+   * <p>
+   * When {@code segmentCount} is greater than the processor's current segment count, segments are split before replaying. Existing segments are never merged. Segment count must be between 1 and
+   * {@link #SEGMENT_COUNT_MAX}.
+   */
+  synchronized Map<String, Object> startRebuild(String processorName, Integer segmentCount) {
+    if (segmentCount != null && (segmentCount < 1 || segmentCount > SEGMENT_COUNT_MAX)) {
+      throw new IllegalArgumentException("Segment count must be between 1 and ${ SEGMENT_COUNT_MAX }, but it is ${ segmentCount }.")
+    }
+
+    StreamingEventProcessor streamingEventProcessor = fetchRebuildableProcessor(processorName)
+
+    splitSegments(processorName, streamingEventProcessor, segmentCount)
+
+    log.info("Starting projection rebuild for processor '{}'.", processorName)
+    streamingEventProcessor.shutDown()
+    streamingEventProcessor.resetTokens()
+
+    rebuildStartMap.put(processorName, new RebuildStart(startedAt: Instant.now(), headPosition: fetchHeadPosition()))
+    streamingEventProcessor.start()
+
+    return fetchRebuildStatus(processorName)
+  }
+
+  /**
+   * Reports the rebuild progress of the processor with given name.
+   * <p>
+   * Lag of a segment is the difference between the head of the event stream and the segment's current position. Events per second are calculated from the position of the slowest segment and
+   * the time elapsed since the rebuild start.
+   */
+  Map<String, Object> fetchRebuildStatus(String processorName) {
+    StreamingEventProcessor streamingEventProcessor = fetchRebuildableProcessor(processorName)
+    Long headPosition = fetchHeadPosition()
+
+    Map<Integer, EventTrackerStatus> processingStatusMap = streamingEventProcessor.processingStatus()
+    List<Map<String, Object>> segmentStatusList = processingStatusMap.values()
+        .sort({ EventTrackerStatus eventTrackerStatus -> eventTrackerStatus.segment.segmentId })
+        .collect({ EventTrackerStatus eventTrackerStatus -> makeSegmentStatus(eventTrackerStatus, headPosition) })
+
+    ProcessorMode processorMode = determineProcessorMode(streamingEventProcessor, processingStatusMap.values())
+    Map<String, Object> rebuildStatus = [
+        processorName: processorName,
+        running: streamingEventProcessor.isRunning(),
+        mode: processorMode.name(),
+        segmentCount: tokenStore.fetchSegments(processorName).length,
+        headPosition: headPosition,
+        segments: segmentStatusList
+    ] as Map<String, Object>
+
+    RebuildStart rebuildStart = rebuildStartMap.get(processorName)
+    if (rebuildStart != null) {
+      Long slowestSegmentPosition = segmentStatusList.collect({ Map<String, Object> segmentStatus -> segmentStatus.currentPosition as Long }).min() ?: 0L
+      long elapsedMillis = Math.max(Duration.between(rebuildStart.startedAt, Instant.now()).toMillis(), 1L)
+
+      rebuildStatus.rebuildStartedAt = rebuildStart.startedAt.toString()
+      rebuildStatus.rebuildHeadPosition = rebuildStart.headPosition
+      rebuildStatus.eventsPerSecond = processorMode == ProcessorMode.REPLAYING ? (slowestSegmentPosition * 1000L).intdiv(elapsedMillis) : null
+    }
+
+    return rebuildStatus
+  }
+
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected boolean isRebuildable(EventProcessor eventProcessor) {
+    return eventProcessor instanceof StreamingEventProcessor && (eventProcessor as StreamingEventProcessor).supportsReset()
+  }
+
+  protected StreamingEventProcessor fetchRebuildableProcessor(String processorName) {
+    EventProcessor eventProcessor = eventProcessingConfiguration.eventProcessors().get(processorName)
+    if (eventProcessor == null || !isRebuildable(eventProcessor)) {
+      throw new IllegalArgumentException("Rebuildable event processor with name '${ processorName }' does not exist.")
+    }
+
+    return eventProcessor as StreamingEventProcessor
+  }
+
+  protected void splitSegments(String processorName, StreamingEventProcessor streamingEventProcessor, Integer segmentCount) {
+    if (segmentCount == null) {
+      return
+    }
+
+    int[] segmentIdArray = tokenStore.fetchSegments(processorName)
+    while (segmentIdArray.length < segmentCount) {
+      // Note: splitting the largest segment (the one with the smallest mask) keeps segments as balanced as possible.
+      int[] currentSegmentIdArray = segmentIdArray
+      Segment largestSegment = (segmentIdArray as List<Integer>)
+          .collect({ Integer segmentId -> Segment.computeSegment(segmentId, currentSegmentIdArray) })
+          .min({ Segment segment -> segment.mask })
+
+      Boolean isSplit = streamingEventProcessor.splitSegment(largestSegment.segmentId).get(SEGMENT_SPLIT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+      if (!isSplit) {
+        log.warn("Splitting segment {} of processor '{}' failed. Continuing rebuild with {} segments.", largestSegment.segmentId, processorName, segmentIdArray.length)
+        return
+      }
+
+      segmentIdArray = tokenStore.fetchSegments(processorName)
+    }
+  }
+
+  /**
+   * Determines the mode of the processor from its actual state and the statuses of segments it currently processes.
+   * <p>
+   * A processor is {@code LIVE} only when it is running, and all of its claimed segments are caught up with the head of the event stream. A running processor that has not claimed any segment yet, or
+   * whose segments are still behind the head of the event stream without replaying, is reported as {@code CATCHING_UP}.
+   */
+  protected static ProcessorMode determineProcessorMode(StreamingEventProcessor streamingEventProcessor, Collection<EventTrackerStatus> eventTrackerStatusCollection) {
+    if (streamingEventProcessor.isError() || eventTrackerStatusCollection.any({ EventTrackerStatus eventTrackerStatus -> eventTrackerStatus.isErrorState() })) {
+      return ProcessorMode.ERROR
+    }
+
+    if (!streamingEventProcessor.isRunning()) {
+      return ProcessorMode.STOPPED
+    }
+
+    if (eventTrackerStatusCollection.any({ EventTrackerStatus eventTrackerStatus -> eventTrackerStatus.isReplaying() })) {
+      return ProcessorMode.REPLAYING
+    }
+
+    if (!eventTrackerStatusCollection.isEmpty() && eventTrackerStatusCollection.every({ EventTrackerStatus eventTrackerStatus -> eventTrackerStatus.isCaughtUp() })) {
+      return ProcessorMode.LIVE
+    }
+
+    return ProcessorMode.CATCHING_UP
+  }
+
+  protected Long fetchHeadPosition() {
+    TrackingToken headToken = streamableMessageSource.createHeadToken()
+    return headToken?.position()?.orElse(0L) ?: 0L
+  }
+
+  protected static Map<String, Object> makeSegmentStatus(EventTrackerStatus eventTrackerStatus, Long headPosition) {
+    Long currentPosition = eventTrackerStatus.currentPosition.orElse(0L)
+
+    return [
+        segmentId: eventTrackerStatus.segment.segmentId,
+        replaying: eventTrackerStatus.isReplaying(),
+        caughtUp: eventTrackerStatus.isCaughtUp(),
+        errorState: eventTrackerStatus.isErrorState(),
+        currentPosition: currentPosition,
+        lag: Math.max(headPosition - currentPosition, 0L)
+    ] as Map<String, Object>
+  }
+
+  static enum ProcessorMode {
+    STOPPED,
+    ERROR,
+    CATCHING_UP,
+    REPLAYING,
+    LIVE
+  }
+
+  @CompileStatic
+  static class RebuildStart {
+    Instant startedAt
+    Long headPosition
+  }
+}
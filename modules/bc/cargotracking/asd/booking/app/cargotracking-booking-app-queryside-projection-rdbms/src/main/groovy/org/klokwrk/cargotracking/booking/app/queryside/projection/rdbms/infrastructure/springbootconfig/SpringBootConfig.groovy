@@ -18,14 +18,22 @@
 package org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.infrastructure.springbootconfig
 
 import groovy.transform.CompileStatic
+import io.micrometer.core.instrument.MeterRegistry
 import org.axonframework.config.Configuration as AxonConfiguration
 import org.axonframework.config.Configurer
 import org.axonframework.config.ConfigurerModule
+import org.axonframework.config.EventProcessingConfiguration
 import org.axonframework.config.EventProcessingConfigurer
+import org.axonframework.eventhandling.TrackedEventMessage
 import org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor
+import org.axonframework.eventhandling.tokenstore.TokenStore
+import org.axonframework.messaging.StreamableMessageSource
 import org.axonframework.messaging.annotation.HandlerEnhancerDefinition
+import org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.infrastructure.axon.rebuild.ProjectionRebuildEndpoint
+import org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.infrastructure.axon.rebuild.ProjectionRebuildService
 import org.klokwrk.cargotracking.lib.axon.errorhandling.PropagatingAndLoggingErrorHandler
 import org.klokwrk.cargotracking.lib.axon.logging.LoggingEventHandlerEnhancerDefinition
+import org.klokwrk.cargotracking.lib.axon.logging.MetricsEventHandlerEnhancerDefinition
 import org.klokwrk.lib.hi.datasourceproxy.springboot.DataSourceProxyBeanPostProcessor
 import org.klokwrk.lib.hi.datasourceproxy.springboot.DataSourceProxyConfigurationProperties
 import org.klokwrk.lib.hi.jackson.springboot.EssentialJacksonCustomizer
@@ -35,14 +43,20 @@ import org.springframework.beans.factory.config.BeanPostProcessor
 import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
+
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
 
 @EnableConfigurationProperties([DataSourceProxyConfigurationProperties, EssentialJacksonCustomizerConfigurationProperties])
 @Configuration(proxyBeanMethods = false)
 @CompileStatic
 class SpringBootConfig {
   @Bean
-  static BeanPostProcessor dataSourceProxyBeanPostProcessor(ObjectProvider<DataSourceProxyConfigurationProperties> dataSourceProxyConfigurationPropertiesObjectProvider) {
-    return new DataSourceProxyBeanPostProcessor(dataSourceProxyConfigurationPropertiesObjectProvider)
+  static BeanPostProcessor dataSourceProxyBeanPostProcessor(
+      ObjectProvider<DataSourceProxyConfigurationProperties> dataSourceProxyConfigurationPropertiesObjectProvider, ObjectProvider<MeterRegistry> meterRegistryObjectProvider)
+  {
+    return new DataSourceProxyBeanPostProcessor(dataSourceProxyConfigurationPropertiesObjectProvider, meterRegistryObjectProvider)
   }
 
   @Bean
@@ -56,7 +70,23 @@ class SpringBootConfig {
   }
 
   @Bean
-  ConfigurerModule axonEventProcessingConfigurerModule() {
+  HandlerEnhancerDefinition metricsEventHandlerEnhancerDefinition(MeterRegistry meterRegistry) {
+    return new MetricsEventHandlerEnhancerDefinition(meterRegistry)
+  }
+
+  /**
+   * Creates worker executor shared by segments of pooled streaming event processors.
+   * <p/>
+   * Segments are processed in parallel by worker threads. When the projection is rebuilt (see ProjectionRebuildService), segments are split up to the number of available processors, so the pool is
+   * sized accordingly. Axon does not shut down externally provided executors, so the executor is shut down together with the application context.
+   */
+  @Bean(destroyMethod = "shutdown")
+  ScheduledExecutorService projectionWorkerExecutorService() {
+    return Executors.newScheduledThreadPool(Runtime.runtime.availableProcessors(), new CustomizableThreadFactory("ProjectionWorker-"))
+  }
+
+  @Bean
+  ConfigurerModule axonEventProcessingConfigurerModule(ScheduledExecutorService projectionWorkerExecutorService) {
     PropagatingAndLoggingErrorHandler propagatingAndLoggingErrorHandler = new PropagatingAndLoggingErrorHandler()
 
     return { Configurer configurer ->
@@ -70,11 +100,27 @@ class SpringBootConfig {
                   return propagatingAndLoggingErrorHandler
                 })
                 .usingPooledStreamingEventProcessors({ AxonConfiguration configuration, PooledStreamingEventProcessor.Builder builder ->
+                  // Note: All events of a batch are handled in a single transaction, while BookingOfferProjectionEntityLoader preloads all rows affected by the batch with a single query per
+                  //       table. As each event causes up to two updates, batchSize is aligned with hibernate.jdbc.batch_size (30) so that the whole batch is flushed in as few JDBC round trips as
+                  //       possible.
                   builder
                       .initialSegmentCount(2)
-                      .batchSize(5)
+                      .batchSize(15)
+                      .workerExecutor(projectionWorkerExecutorService)
                 })
           })
     }
   }
+
+  @Bean
+  ProjectionRebuildService projectionRebuildService(
+      EventProcessingConfiguration eventProcessingConfiguration, TokenStore tokenStore, StreamableMessageSource<TrackedEventMessage<?>> streamableMessageSource)
+  {
+    return new ProjectionRebuildService(eventProcessingConfiguration, tokenStore, streamableMessageSource)
+  }
+
+  @Bean
+  ProjectionRebuildEndpoint projectionRebuildEndpoint(ProjectionRebuildService projectionRebuildService) {
+    return new ProjectionRebuildEndpoint(projectionRebuildService)
+  }
 }
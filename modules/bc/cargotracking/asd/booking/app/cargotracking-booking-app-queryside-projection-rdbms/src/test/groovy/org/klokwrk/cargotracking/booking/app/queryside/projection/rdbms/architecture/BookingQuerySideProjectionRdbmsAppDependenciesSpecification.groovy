@@ -55,6 +55,8 @@ class BookingQuerySideProjectionRdbmsAppDependenciesSpecification extends Specif
         "org.codehaus.groovy..",
         "groovy..",
 
+        "org.slf4j..",
+
         "io.opentelemetry..",
         "org.axonframework.config..",
         "org.axonframework.eventhandling..",
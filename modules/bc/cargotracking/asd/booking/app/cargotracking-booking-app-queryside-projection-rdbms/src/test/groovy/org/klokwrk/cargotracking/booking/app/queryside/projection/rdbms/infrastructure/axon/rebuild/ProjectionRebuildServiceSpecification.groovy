@@ -0,0 +1,216 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.infrastructure.axon.rebuild
+
+import org.axonframework.config.EventProcessingConfiguration
+import org.axonframework.eventhandling.EventProcessor
+import org.axonframework.eventhandling.EventTrackerStatus
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken
+import org.axonframework.eventhandling.Segment
+import org.axonframework.eventhandling.StreamingEventProcessor
+import org.axonframework.eventhandling.TrackedEventMessage
+import org.axonframework.eventhandling.tokenstore.TokenStore
+import org.axonframework.messaging.StreamableMessageSource
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+
+class ProjectionRebuildServiceSpecification extends Specification {
+  EventProcessingConfiguration eventProcessingConfigurationStub
+  TokenStore tokenStoreStub
+  StreamableMessageSource<TrackedEventMessage<?>> streamableMessageSourceStub
+  StreamingEventProcessor streamingEventProcessorMock
+  Map<Integer, EventTrackerStatus> processingStatusMap = [:]
+  ProjectionRebuildService projectionRebuildService
+
+  void setup() {
+    streamingEventProcessorMock = Mock()
+    streamingEventProcessorMock.supportsReset() >> true
+    streamingEventProcessorMock.processingStatus() >> { processingStatusMap }
+
+    EventProcessor nonStreamingEventProcessorStub = Stub()
+
+    eventProcessingConfigurationStub = Stub()
+    eventProcessingConfigurationStub.eventProcessors() >> [myProcessor: streamingEventProcessorMock, nonStreamingProcessor: nonStreamingEventProcessorStub]
+
+    tokenStoreStub = Stub()
+    streamableMessageSourceStub = Stub()
+    streamableMessageSourceStub.createHeadToken() >> new GlobalSequenceTrackingToken(100)
+
+    projectionRebuildService = new ProjectionRebuildService(eventProcessingConfigurationStub, tokenStoreStub, streamableMessageSourceStub)
+  }
+
+  void "findRebuildableProcessorNames - should return only streaming event processors supporting reset"() {
+    expect:
+    projectionRebuildService.findRebuildableProcessorNames() == ["myProcessor"]
+  }
+
+  void "fetchRebuildStatus - should fail for unknown processor"() {
+    when:
+    projectionRebuildService.fetchRebuildStatus("unknownProcessor")
+
+    then:
+    IllegalArgumentException illegalArgumentException = thrown()
+    illegalArgumentException.message == "Rebuildable event processor with name 'unknownProcessor' does not exist."
+  }
+
+  void "startRebuild - should split segments, reset tokens and restart processor"() {
+    given:
+    tokenStoreStub.fetchSegments("myProcessor") >>> [[0, 1] as int[], [0, 1, 2] as int[], [0, 1, 2, 3] as int[]]
+
+    when:
+    projectionRebuildService.startRebuild("myProcessor", 4)
+
+    then:
+    1 * streamingEventProcessorMock.splitSegment(0) >> CompletableFuture.completedFuture(true)
+    1 * streamingEventProcessorMock.splitSegment(1) >> CompletableFuture.completedFuture(true)
+
+    then:
+    1 * streamingEventProcessorMock.shutDown()
+
+    then:
+    1 * streamingEventProcessorMock.resetTokens()
+
+    then:
+    1 * streamingEventProcessorMock.start()
+    0 * streamingEventProcessorMock.splitSegment(_)
+  }
+
+  void "startRebuild - should stop splitting when segment split fails"() {
+    given:
+    tokenStoreStub.fetchSegments("myProcessor") >> ([0] as int[])
+
+    when:
+    projectionRebuildService.startRebuild("myProcessor", 4)
+
+    then:
+    1 * streamingEventProcessorMock.splitSegment(0) >> CompletableFuture.completedFuture(false)
+
+    then:
+    1 * streamingEventProcessorMock.shutDown()
+    1 * streamingEventProcessorMock.resetTokens()
+    1 * streamingEventProcessorMock.start()
+  }
+
+  void "startRebuild - should fail for segment count out of range"() {
+    when:
+    projectionRebuildService.startRebuild("myProcessor", segmentCountParam)
+
+    then:
+    IllegalArgumentException illegalArgumentException = thrown()
+    illegalArgumentException.message == "Segment count must be between 1 and 64, but it is ${ segmentCountParam }."
+
+    and:
+    0 * streamingEventProcessorMock.shutDown()
+    0 * streamingEventProcessorMock.resetTokens()
+
+    where:
+    segmentCountParam | _
+    0                 | _
+    65                | _
+  }
+
+  void "fetchRebuildStatus - should report segment positions and lag"() {
+    given:
+    tokenStoreStub.fetchSegments("myProcessor") >> ([0, 1] as int[])
+
+    EventTrackerStatus firstEventTrackerStatusStub = Stub()
+    firstEventTrackerStatusStub.segment >> Segment.computeSegment(0, 0, 1)
+    firstEventTrackerStatusStub.isReplaying() >> true
+    firstEventTrackerStatusStub.currentPosition >> OptionalLong.of(40)
+
+    EventTrackerStatus secondEventTrackerStatusStub = Stub()
+    secondEventTrackerStatusStub.segment >> Segment.computeSegment(1, 0, 1)
+    secondEventTrackerStatusStub.isCaughtUp() >> true
+    secondEventTrackerStatusStub.currentPosition >> OptionalLong.of(100)
+
+    streamingEventProcessorMock.isRunning() >> true
+    processingStatusMap.putAll([1: secondEventTrackerStatusStub, 0: firstEventTrackerStatusStub])
+
+    when:
+    Map<String, Object> rebuildStatus = projectionRebuildService.fetchRebuildStatus("myProcessor")
+
+    then:
+    verifyAll(rebuildStatus) {
+      processorName == "myProcessor"
+      running == true
+      mode == "REPLAYING"
+      segmentCount == 2
+      headPosition == 100
+      segments.size() == 2
+
+      segments[0].segmentId == 0
+      segments[0].replaying == true
+      segments[0].currentPosition == 40
+      segments[0].lag == 60
+
+      segments[1].segmentId == 1
+      segments[1].caughtUp == true
+      segments[1].lag == 0
+    }
+  }
+
+  void "fetchRebuildStatus - should derive mode from processor state"() {
+    given:
+    tokenStoreStub.fetchSegments("myProcessor") >> ([0] as int[])
+
+    EventTrackerStatus eventTrackerStatusStub = Stub()
+    eventTrackerStatusStub.segment >> Segment.ROOT_SEGMENT
+    eventTrackerStatusStub.isReplaying() >> replayingParam
+    eventTrackerStatusStub.isCaughtUp() >> caughtUpParam
+    eventTrackerStatusStub.isErrorState() >> errorStateParam
+    eventTrackerStatusStub.currentPosition >> OptionalLong.of(100)
+
+    streamingEventProcessorMock.isRunning() >> runningParam
+    streamingEventProcessorMock.isError() >> processorErrorParam
+    if (segmentClaimedParam) {
+      processingStatusMap.put(0, eventTrackerStatusStub)
+    }
+
+    when:
+    Map<String, Object> rebuildStatus = projectionRebuildService.fetchRebuildStatus("myProcessor")
+
+    then:
+    rebuildStatus.running == runningParam
+    rebuildStatus.mode == modeParam
+
+    where:
+    runningParam | processorErrorParam | segmentClaimedParam | replayingParam | caughtUpParam | errorStateParam | modeParam
+    false        | false               | false               | false          | false         | false           | "STOPPED"
+    false        | true                | false               | false          | false         | false           | "ERROR"
+    true         | false               | true                | false          | true          | true            | "ERROR"
+    true         | false               | false               | false          | false         | false           | "CATCHING_UP"
+    true         | false               | true                | false          | false         | false           | "CATCHING_UP"
+    true         | false               | true                | true           | false         | false           | "REPLAYING"
+    true         | false               | true                | false          | true          | false           | "LIVE"
+  }
+
+  void "fetchRebuildStatus - should not report events per second when processor is not replaying"() {
+    given:
+    tokenStoreStub.fetchSegments("myProcessor") >> ([0] as int[])
+    projectionRebuildService.startRebuild("myProcessor", null)
+
+    when:
+    Map<String, Object> rebuildStatus = projectionRebuildService.fetchRebuildStatus("myProcessor")
+
+    then:
+    rebuildStatus.mode == "STOPPED"
+    rebuildStatus.containsKey("rebuildStartedAt")
+    rebuildStatus.eventsPerSecond == null
+  }
+}
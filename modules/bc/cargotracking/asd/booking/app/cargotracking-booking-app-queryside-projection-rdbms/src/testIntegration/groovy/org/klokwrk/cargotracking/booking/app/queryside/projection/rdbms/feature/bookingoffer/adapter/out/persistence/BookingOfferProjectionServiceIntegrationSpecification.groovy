@@ -346,6 +346,45 @@ class BookingOfferProjectionServiceIntegrationSpecification extends AbstractProj
     }
   }
 
+  void "booking offer creation - complete - should work for interleaved events of multiple booking offers published together"() {
+    given:
+    Long startingBookingOfferSummaryRecordsCount = BookingOfferSummarySqlHelper.selectCurrentBookingOfferSummaryRecordsCount(groovySql)
+
+    List<List<BaseEvent>> bookingOfferCreationEventsSequenceList = (1..5).collect({ BookingOfferCreatedEventFixtureBuilder.bookingOfferCreation_complete_defaultEventsSequence() })
+    List<UUID> bookingOfferIdAsUuidList = bookingOfferCreationEventsSequenceList.collect({ List<BaseEvent> bookingOfferCreationEventsSequence ->
+      UUID.fromString((bookingOfferCreationEventsSequence[0] as BookingOfferCreatedEvent).bookingOfferId)
+    })
+
+    when:
+    eventBus.publish((0..2).collectMany({ Integer sequenceNumber ->
+      bookingOfferCreationEventsSequenceList.collect({ List<BaseEvent> bookingOfferCreationEventsSequence ->
+        GenericDomainEventMessageFactory.makeEventMessage(bookingOfferCreationEventsSequence[sequenceNumber], WebMetaDataFixtureBuilder.webMetaData_booking_default().build(), sequenceNumber as Long)
+      })
+    }))
+
+    then:
+    new PollingConditions(timeout: 10, initialDelay: 0, delay: 0.1).eventually {
+      BookingOfferSummarySqlHelper.selectCurrentBookingOfferSummaryRecordsCount(groovySql) == startingBookingOfferSummaryRecordsCount + 5
+      bookingOfferIdAsUuidList.each { UUID bookingOfferIdAsUuid ->
+        verifyAll(BookingOfferSummarySqlHelper.selectBookingOfferSummaryRecord(groovySql, bookingOfferIdAsUuid)) {
+          last_event_sequence_number == 2
+          origin_location_un_lo_code == "HRRJK"
+          destination_location_un_lo_code == "NLRTM"
+          total_commodity_weight == "1000 kg"
+          total_commodity_weight_kg == 1000
+          total_container_teu_count == 1.00G
+          commodity_type_list == ["DRY"] as Set
+        }
+
+        verifyAll(BookingOfferSummarySqlHelper.selectBookingOfferDetailsRecord(groovySql, bookingOfferIdAsUuid)) {
+          last_event_sequence_number == 2
+          (details as String).matches(/.*originLocation.*Rijeka.*destinationLocation.*Rotterdam.*/)
+          (details as String).matches(/.*"cargos".*/)
+        }
+      }
+    }
+  }
+
   void "booking offer creation - partial - BookingOfferCreatedEvent - should execute expected SQL statements"() {
     // NOTE: Here we are testing whether our Spring Data JPA repository implementations optimally works when persisting the new entity with the assigned identifier. We want only SQL inserts to be
     //       executed, without any additional and unnecessary SQL selects. For more information, take a look at the article at https://vladmihalcea.com/best-spring-data-jparepository/ and the usage
@@ -0,0 +1,156 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.infrastructure.axon.rebuild
+
+import groovy.sql.Sql
+import org.axonframework.config.ProcessingGroup
+import org.axonframework.eventhandling.EventBus
+import org.axonframework.eventhandling.EventHandler
+import org.axonframework.eventhandling.ReplayStatus
+import org.axonframework.eventhandling.ResetHandler
+import org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.test.base.AbstractProjectionRdbmsIntegrationSpecification
+import org.klokwrk.cargotracking.booking.lib.boundary.web.metadata.WebMetaDataFixtureBuilder
+import org.klokwrk.cargotracking.booking.test.support.queryside.axon.GenericDomainEventMessageFactory
+import org.klokwrk.cargotracking.booking.test.support.queryside.feature.bookingoffer.sql.BookingOfferSummarySqlHelper
+import org.klokwrk.cargotracking.domain.model.event.BookingOfferCreatedEvent
+import org.klokwrk.cargotracking.domain.model.event.BookingOfferCreatedEventFixtureBuilder
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.boot.test.context.TestConfiguration
+import org.springframework.context.annotation.Bean
+import org.springframework.test.context.ActiveProfiles
+import spock.util.concurrent.PollingConditions
+
+import javax.sql.DataSource
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+
+@SpringBootTest
+@ActiveProfiles("testIntegration")
+class ProjectionRebuildServiceIntegrationSpecification extends AbstractProjectionRdbmsIntegrationSpecification {
+  static final String PROJECTION_PROCESSOR_NAME = "org.klokwrk.cargotracking.booking.app.queryside.projection.rdbms.feature.bookingoffer.adapter.out.persistence"
+
+  @TestConfiguration
+  static class TestSpringBootConfiguration {
+    @Bean
+    Sql groovySql(DataSource dataSource) {
+      return new Sql(dataSource)
+    }
+
+    @Bean
+    ReplayRecordingEventHandler replayRecordingEventHandler() {
+      return new ReplayRecordingEventHandler()
+    }
+  }
+
+  /**
+   * Test event handler registered in the same processing group as the projection. It records reset invocations and booking offers whose creation events are replayed.
+   */
+  @ProcessingGroup(PROJECTION_PROCESSOR_NAME)
+  static class ReplayRecordingEventHandler {
+    AtomicInteger resetCount = new AtomicInteger(0)
+    Queue<String> replayedBookingOfferIdQueue = new ConcurrentLinkedQueue<>()
+
+    @EventHandler
+    void onBookingOfferCreatedEvent(BookingOfferCreatedEvent bookingOfferCreatedEvent, ReplayStatus replayStatus) {
+      if (replayStatus.isReplay()) {
+        replayedBookingOfferIdQueue.add(bookingOfferCreatedEvent.bookingOfferId)
+      }
+    }
+
+    @ResetHandler
+    void onReset() {
+      resetCount.incrementAndGet()
+    }
+  }
+
+  @Autowired
+  EventBus eventBus
+
+  @Autowired
+  Sql groovySql
+
+  @Autowired
+  ProjectionRebuildService projectionRebuildService
+
+  @Autowired
+  ReplayRecordingEventHandler replayRecordingEventHandler
+
+  void "should report projection processor as rebuildable"() {
+    expect:
+    projectionRebuildService.findRebuildableProcessorNames().contains(PROJECTION_PROCESSOR_NAME)
+  }
+
+  void "startRebuild - should truncate projection tables, reset tokens and replay events from the start of the event stream"() {
+    given:
+    BookingOfferCreatedEvent bookingOfferCreatedEvent = BookingOfferCreatedEventFixtureBuilder.bookingOfferCreatedEvent_default().build()
+    UUID bookingOfferIdAsUuid = UUID.fromString(bookingOfferCreatedEvent.bookingOfferId)
+    eventBus.publish(GenericDomainEventMessageFactory.makeEventMessage(bookingOfferCreatedEvent, WebMetaDataFixtureBuilder.webMetaData_booking_default().build(), 0L))
+
+    new PollingConditions(timeout: 10, initialDelay: 0, delay: 0.1).eventually {
+      BookingOfferSummarySqlHelper.selectFromBookingOfferSummary_lastEventSequenceNumber(groovySql, bookingOfferIdAsUuid) == 0
+      projectionRebuildService.fetchRebuildStatus(PROJECTION_PROCESSOR_NAME).mode == "LIVE"
+    }
+
+    // Note: The marker value does not originate from any event. It can disappear only when projection tables are truncated and the booking offer is projected again from replayed events.
+    groovySql.executeUpdate([bookingOfferId: bookingOfferIdAsUuid], "UPDATE booking_offer_summary SET last_event_sequence_number = 999 WHERE booking_offer_id = :bookingOfferId")
+    Integer startingResetCount = replayRecordingEventHandler.resetCount.get()
+
+    when:
+    Map<String, Object> rebuildStatus = projectionRebuildService.startRebuild(PROJECTION_PROCESSOR_NAME, 2)
+
+    then:
+    verifyAll(rebuildStatus) {
+      processorName == PROJECTION_PROCESSOR_NAME
+      segmentCount == 2
+      rebuildStartedAt != null
+    }
+
+    replayRecordingEventHandler.resetCount.get() == startingResetCount + 1
+
+    new PollingConditions(timeout: 30, initialDelay: 0, delay: 0.1).eventually {
+      replayRecordingEventHandler.replayedBookingOfferIdQueue.contains(bookingOfferCreatedEvent.bookingOfferId)
+      BookingOfferSummarySqlHelper.selectFromBookingOfferSummary_lastEventSequenceNumber(groovySql, bookingOfferIdAsUuid) == 0
+
+      verifyAll(projectionRebuildService.fetchRebuildStatus(PROJECTION_PROCESSOR_NAME)) {
+        running == true
+        mode == "LIVE"
+        segments.size() == 2
+        segments.every({ Map<String, Object> segmentStatus -> segmentStatus.caughtUp == true && segmentStatus.replaying == false })
+      }
+    }
+  }
+
+  void "fetchRebuildStatus - should report stopped processor as stopped"() {
+    given:
+    projectionRebuildService.fetchRebuildableProcessor(PROJECTION_PROCESSOR_NAME).shutDown()
+
+    when:
+    Map<String, Object> rebuildStatus = projectionRebuildService.fetchRebuildStatus(PROJECTION_PROCESSOR_NAME)
+
+    then:
+    rebuildStatus.running == false
+    rebuildStatus.mode == "STOPPED"
+
+    cleanup:
+    projectionRebuildService.fetchRebuildableProcessor(PROJECTION_PROCESSOR_NAME).start()
+    new PollingConditions(timeout: 10, initialDelay: 0, delay: 0.1).eventually {
+      projectionRebuildService.fetchRebuildStatus(PROJECTION_PROCESSOR_NAME).mode == "LIVE"
+    }
+  }
+}
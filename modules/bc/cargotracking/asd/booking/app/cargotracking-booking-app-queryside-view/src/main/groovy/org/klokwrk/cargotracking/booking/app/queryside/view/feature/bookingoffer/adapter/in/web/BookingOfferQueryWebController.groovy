@@ -17,45 +17,86 @@
  */
 package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import groovy.transform.CompileStatic
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferDetailsFindByIdQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferDetailsFindByIdQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferDetailsFindByIdQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryExportQueryPortIn
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryExportQueryResponse
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindAllQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindAllQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindAllQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdAwaitQueryPortIn
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdAwaitQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdSubscriptionQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryResponse
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationRequest
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
 import org.klokwrk.cargotracking.lib.boundary.api.domain.metadata.constant.MetaDataConstant
+import org.klokwrk.cargotracking.lib.web.spring.mvc.ResponseFormattingOperationResponseFactory
+import org.springframework.http.MediaType
 import org.springframework.web.bind.annotation.PostMapping
 import org.springframework.web.bind.annotation.RequestBody
 import org.springframework.web.bind.annotation.RequestMapping
+import org.springframework.web.bind.annotation.RequestParam
 import org.springframework.web.bind.annotation.RestController
+import org.springframework.web.method.HandlerMethod
+import org.springframework.web.context.request.async.DeferredResult
+import org.springframework.web.context.request.async.WebAsyncTask
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter
+
+import jakarta.servlet.http.HttpServletResponse
+import java.time.Duration
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.function.BiConsumer
+import java.util.function.Consumer
 
 @CompileStatic
 @RestController
 @RequestMapping("/booking-offer")
 class BookingOfferQueryWebController {
+  static final String BOOKING_OFFER_SUMMARY_EVENT_NAME = "bookingOfferSummary"
+  static final String BOOKING_OFFER_SUMMARY_FAILURE_EVENT_NAME = "bookingOfferSummaryFailure"
+  static final Long BOOKING_OFFER_SUMMARY_AWAIT_ASYNC_REQUEST_TIMEOUT_MILLIS = BookingOfferSummaryFindByIdAwaitQueryRequest.AWAIT_TIMEOUT_MILLIS_MAX + 5_000L
+
   private final BookingOfferSummaryFindByIdQueryPortIn bookingOfferSummaryFindByIdQueryPortIn
   private final BookingOfferSummaryFindAllQueryPortIn bookingOfferSummaryFindAllQueryPortIn
   private final BookingOfferSummarySearchAllQueryPortIn bookingOfferSummarySearchAllQueryPortIn
+  private final BookingOfferSummaryExportQueryPortIn bookingOfferSummaryExportQueryPortIn
   private final BookingOfferDetailsFindByIdQueryPortIn bookingOfferDetailsFindByIdQueryPortIn
+  private final BookingOfferSummaryFindByIdSubscriptionQueryPortIn bookingOfferSummaryFindByIdSubscriptionQueryPortIn
+  private final BookingOfferSummaryFindByIdAwaitQueryPortIn bookingOfferSummaryFindByIdAwaitQueryPortIn
+  private final BookingOfferSummaryExportWriter bookingOfferSummaryExportWriter
+  private final ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory
+  private final Duration bookingOfferSummaryExportTimeout
+  private final Duration bookingOfferSummaryUpdatesTimeout
 
+  @SuppressWarnings("CodeNarc.ParameterCount")
   BookingOfferQueryWebController(
       BookingOfferSummaryFindByIdQueryPortIn bookingOfferSummaryFindByIdQueryPortIn, BookingOfferSummaryFindAllQueryPortIn bookingOfferSummaryFindAllQueryPortIn,
-      BookingOfferSummarySearchAllQueryPortIn bookingOfferSummarySearchAllQueryPortIn,
-      BookingOfferDetailsFindByIdQueryPortIn bookingOfferDetailsFindByIdQueryPortIn)
+      BookingOfferSummarySearchAllQueryPortIn bookingOfferSummarySearchAllQueryPortIn, BookingOfferSummaryExportQueryPortIn bookingOfferSummaryExportQueryPortIn,
+      BookingOfferDetailsFindByIdQueryPortIn bookingOfferDetailsFindByIdQueryPortIn, BookingOfferSummaryFindByIdSubscriptionQueryPortIn bookingOfferSummaryFindByIdSubscriptionQueryPortIn,
+      BookingOfferSummaryFindByIdAwaitQueryPortIn bookingOfferSummaryFindByIdAwaitQueryPortIn, ObjectMapper objectMapper,
+      ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory, BookingOfferQueryWebSettings bookingOfferQueryWebSettings)
   {
     this.bookingOfferSummaryFindByIdQueryPortIn = bookingOfferSummaryFindByIdQueryPortIn
     this.bookingOfferSummaryFindAllQueryPortIn = bookingOfferSummaryFindAllQueryPortIn
     this.bookingOfferSummarySearchAllQueryPortIn = bookingOfferSummarySearchAllQueryPortIn
+    this.bookingOfferSummaryExportQueryPortIn = bookingOfferSummaryExportQueryPortIn
     this.bookingOfferDetailsFindByIdQueryPortIn = bookingOfferDetailsFindByIdQueryPortIn
+    this.bookingOfferSummaryFindByIdSubscriptionQueryPortIn = bookingOfferSummaryFindByIdSubscriptionQueryPortIn
+    this.bookingOfferSummaryFindByIdAwaitQueryPortIn = bookingOfferSummaryFindByIdAwaitQueryPortIn
+    this.bookingOfferSummaryExportWriter = new BookingOfferSummaryExportWriter(objectMapper)
+    this.responseFormattingOperationResponseFactory = responseFormattingOperationResponseFactory
+    this.bookingOfferSummaryExportTimeout = bookingOfferQueryWebSettings.bookingOfferSummaryExportTimeout
+    this.bookingOfferSummaryUpdatesTimeout = bookingOfferQueryWebSettings.bookingOfferSummaryUpdatesTimeout
   }
 
   @PostMapping("/booking-offer-summary-find-by-id")
@@ -66,6 +107,102 @@ class BookingOfferQueryWebController {
     return bookingOfferSummaryFindByIdOperationResponse
   }
 
+  /**
+   * Waits until the booking offer summary reflects the requested event sequence number (or until the await timeout expires) and returns it.
+   * <p/>
+   * Intended as a replacement for polling the {@code booking-offer-summary-find-by-id} endpoint after issuing a command. The request is validated before the response is started, so validation
+   * failures are reported as regular failure responses. Waiting is asynchronous, so the servlet request thread is released while the booking offer summary is not available yet.
+   */
+  @PostMapping("/booking-offer-summary-find-by-id-await")
+  DeferredResult<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>> bookingOfferSummaryFindByIdAwaitQuery(
+      @RequestBody BookingOfferSummaryFindByIdAwaitQueryRequest webRequest, Locale locale)
+  {
+    CompletableFuture<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>> bookingOfferSummaryFindByIdOperationResponseFuture =
+        bookingOfferSummaryFindByIdAwaitQueryPortIn.bookingOfferSummaryFindByIdAwaitQuery(makeOperationRequest(webRequest, BookingOfferSummaryFindByIdAwaitQueryRequest, locale))
+
+    // Implementation notes:
+    // The await timeout is applied by the inbound port, so the async request timeout serves only as a safety net. When the client disconnects, the future is cancelled, which ends waiting.
+    DeferredResult<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>> deferredResult =
+        new DeferredResult<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>>(BOOKING_OFFER_SUMMARY_AWAIT_ASYNC_REQUEST_TIMEOUT_MILLIS)
+
+    bookingOfferSummaryFindByIdOperationResponseFuture.whenComplete({ OperationResponse<BookingOfferSummaryFindByIdQueryResponse> operationResponse, Throwable failure ->
+      if (failure != null) {
+        deferredResult.setErrorResult(failure)
+        return
+      }
+
+      deferredResult.setResult(operationResponse)
+    } as BiConsumer<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>, Throwable>)
+
+    deferredResult.onTimeout({ bookingOfferSummaryFindByIdOperationResponseFuture.cancel(false) } as Runnable)
+    deferredResult.onError({ Throwable throwable -> bookingOfferSummaryFindByIdOperationResponseFuture.cancel(false) } as Consumer<Throwable>)
+
+    return deferredResult
+  }
+
+  /**
+   * Streams the booking offer summary and its subsequent updates as server-sent events.
+   * <p/>
+   * The request is validated before the response is started, so validation failures are reported as regular failure responses. Each event has the same data as the response of the
+   * {@code booking-offer-summary-find-by-id} endpoint, while event id is the sequence number of the last event reflected by the booking offer summary. When the booking offer summary is not found
+   * (i.e., it is not projected yet, or it is not owned by the requesting customer), no event is sent until it becomes available.
+   * <p/>
+   * Failures occurring after the response is started are sent as a single {@code bookingOfferSummaryFailure} event carrying a regular failure response, after which the stream is completed. The
+   * subscription is closed when the stream is completed, when the client disconnects or when the stream times out. The timeout is configured by the
+   * {@code cargotracking.booking-offer-summary-updates.timeout} property. After the timeout, the client can reconnect and continue from the last received event.
+   */
+  @PostMapping(value = "/booking-offer-summary-find-by-id-updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  SseEmitter bookingOfferSummaryFindByIdSubscriptionQuery(@RequestBody BookingOfferSummaryFindByIdQueryWebRequest webRequest, Locale locale) {
+    SseEmitter sseEmitter = new SseEmitter(bookingOfferSummaryUpdatesTimeout.toMillis())
+
+    AutoCloseable subscription = bookingOfferSummaryFindByIdSubscriptionQueryPortIn.bookingOfferSummaryFindByIdSubscriptionQuery(
+        makeOperationRequest(webRequest, BookingOfferSummaryFindByIdQueryRequest, locale),
+        { OperationResponse<BookingOfferSummaryFindByIdQueryResponse> operationResponse ->
+          sendBookingOfferSummaryEvent(sseEmitter, operationResponse, locale)
+        } as Consumer<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>>,
+        { Throwable throwable ->
+          sendBookingOfferSummaryFailureEvent(sseEmitter, throwable, locale)
+          sseEmitter.complete()
+        } as Consumer<Throwable>
+    )
+
+    sseEmitter.onCompletion({ subscription.close() } as Runnable)
+    sseEmitter.onTimeout({ subscription.close() } as Runnable)
+    sseEmitter.onError({ Throwable throwable -> subscription.close() } as Consumer<Throwable>)
+
+    return sseEmitter
+  }
+
+  protected void sendBookingOfferSummaryEvent(SseEmitter sseEmitter, OperationResponse<BookingOfferSummaryFindByIdQueryResponse> operationResponse, Locale locale) {
+    SseEmitter.SseEventBuilder sseEventBuilder = SseEmitter
+        .event()
+        .name(BOOKING_OFFER_SUMMARY_EVENT_NAME)
+        .id(operationResponse.payload.lastEventSequenceNumber.toString())
+        .data(responseFormattingOperationResponseFactory.makeSuccessOperationResponse(operationResponse.payload, locale), MediaType.APPLICATION_JSON)
+
+    sendEvent(sseEmitter, sseEventBuilder)
+  }
+
+  protected void sendBookingOfferSummaryFailureEvent(SseEmitter sseEmitter, Throwable failure, Locale locale) {
+    HandlerMethod handlerMethod = new HandlerMethod(this, "bookingOfferSummaryFindByIdSubscriptionQuery", BookingOfferSummaryFindByIdQueryWebRequest, Locale)
+
+    SseEmitter.SseEventBuilder sseEventBuilder = SseEmitter
+        .event()
+        .name(BOOKING_OFFER_SUMMARY_FAILURE_EVENT_NAME)
+        .data(responseFormattingOperationResponseFactory.makeFailureOperationResponse(failure, handlerMethod, locale), MediaType.APPLICATION_JSON)
+
+    sendEvent(sseEmitter, sseEventBuilder)
+  }
+
+  protected void sendEvent(SseEmitter sseEmitter, SseEmitter.SseEventBuilder sseEventBuilder) {
+    try {
+      sseEmitter.send(sseEventBuilder)
+    }
+    catch (IOException ignored) {
+      // Client is gone. The servlet container reports the error asynchronously, which ends up in emitter's error callback that closes the subscription.
+    }
+  }
+
   /**
    * Creates {@link OperationRequest} from {@code webRequest} DTO.
    *
@@ -97,6 +234,35 @@ class BookingOfferQueryWebController {
     return bookingOfferSummarySearchAllOperationResponse
   }
 
+  /**
+   * Exports all booking offer summaries matching the search request, without paging.
+   * <p/>
+   * The search request is validated before the response is started, so validation failures are reported as regular failure responses. Booking offer summaries are then streamed to the client
+   * in the requested format. Paging requirements from the search request are ignored.
+   * <p/>
+   * Streaming is performed asynchronously, with the timeout configured by the {@code cargotracking.booking-offer-summary-export.timeout} property. Exports of large customers can take much longer
+   * than the default async request timeout, which still applies to all other async endpoints.
+   */
+  @PostMapping("/booking-offer-summary-export")
+  WebAsyncTask<Void> bookingOfferSummaryExportQuery(
+      @RequestBody BookingOfferSummarySearchAllQueryRequest webRequest, @RequestParam(name = "format", defaultValue = "NDJSON") BookingOfferSummaryExportFormat exportFormat, Locale locale,
+      HttpServletResponse httpServletResponse)
+  {
+    OperationResponse<BookingOfferSummaryExportQueryResponse> bookingOfferSummaryExportOperationResponse =
+        bookingOfferSummaryExportQueryPortIn.bookingOfferSummaryExportQuery(makeOperationRequest(webRequest, BookingOfferSummarySearchAllQueryRequest, locale))
+
+    httpServletResponse.contentType = exportFormat.mediaType.toString()
+
+    // Implementation notes:
+    // Since the servlet response is resolved as a handler method argument, Spring MVC considers the request as handled, and nothing is rendered for the null result of the task.
+    Callable<Void> bookingOfferSummaryExportCallable = {
+      bookingOfferSummaryExportWriter.write(exportFormat, bookingOfferSummaryExportOperationResponse.payload, httpServletResponse.outputStream)
+      return null
+    } as Callable<Void>
+
+    return new WebAsyncTask<Void>(bookingOfferSummaryExportTimeout.toMillis(), bookingOfferSummaryExportCallable)
+  }
+
   @PostMapping("/booking-offer-details-find-by-id")
   OperationResponse<BookingOfferDetailsFindByIdQueryResponse> bookingOfferDetailsFindByIdQuery(@RequestBody BookingOfferDetailsFindByIdQueryRequest webRequest, Locale locale) {
     OperationResponse<BookingOfferDetailsFindByIdQueryResponse> bookingOfferDetailsFindByIdOperationResponse =
@@ -0,0 +1,45 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web
+
+import groovy.transform.CompileStatic
+import groovy.transform.MapConstructor
+import groovy.transform.PropertyOptions
+import org.klokwrk.lib.xlang.groovy.base.transform.options.RelaxedPropertyHandler
+
+import java.time.Duration
+
+/**
+ * Settings of {@link BookingOfferQueryWebController}.
+ * <p/>
+ * The application's Spring Boot configuration creates them from its configuration properties.
+ */
+@PropertyOptions(propertyHandler = RelaxedPropertyHandler)
+@MapConstructor
+@CompileStatic
+class BookingOfferQueryWebSettings {
+  /**
+   * The maximum duration of a single booking offer summary export.
+   */
+  Duration bookingOfferSummaryExportTimeout
+
+  /**
+   * The maximum duration of a single booking offer summary updates stream.
+   */
+  Duration bookingOfferSummaryUpdatesTimeout
+}
@@ -0,0 +1,43 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web
+
+import groovy.transform.CompileStatic
+import org.springframework.http.MediaType
+
+/**
+ * Supported formats of booking offer summary export.
+ */
+@CompileStatic
+enum BookingOfferSummaryExportFormat {
+  /**
+   * Newline delimited JSON, where each line contains a single booking offer summary.
+   */
+  NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+
+  /**
+   * Comma-separated values with a header line, as described in RFC 4180.
+   */
+  CSV(MediaType.parseMediaType("text/csv"))
+
+  final MediaType mediaType
+
+  BookingOfferSummaryExportFormat(MediaType mediaType) {
+    this.mediaType = mediaType
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web
+
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectWriter
+import com.fasterxml.jackson.databind.SerializationFeature
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryExportQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryResponse
+import org.klokwrk.cargotracking.domain.model.value.CommodityType
+import org.klokwrk.lib.lo.uom.format.KwrkQuantityFormat
+
+import java.nio.charset.StandardCharsets
+import java.util.function.Consumer
+
+/**
+ * Writes exported booking offer summaries into an output stream in a requested format.
+ * <p/>
+ * Booking offer summaries are written one by one as they arrive. Output is flushed only by the underlying buffers, and once at the end.
+ */
+@CompileStatic
+class BookingOfferSummaryExportWriter {
+  static final List<String> CSV_HEADER_LIST = [
+      "bookingOfferId", "customerType",
+      "originLocationUnLoCode", "originLocationName", "originLocationCountryName",
+      "destinationLocationUnLoCode", "destinationLocationName", "destinationLocationCountryName",
+      "departureEarliestTime", "departureLatestTime", "arrivalLatestTime",
+      "commodityTypes", "totalCommodityWeight", "totalContainerTeuCount",
+      "firstEventRecordedAt", "lastEventRecordedAt", "lastEventSequenceNumber"
+  ].asImmutable()
+
+  private static final String CSV_SEPARATOR = ","
+  private static final String CSV_LINE_SEPARATOR = "\r\n"
+  private static final String CSV_COMMODITY_TYPE_SEPARATOR = "|"
+
+  private final ObjectWriter ndjsonObjectWriter
+
+  BookingOfferSummaryExportWriter(ObjectMapper objectMapper) {
+    // Note: Flushing and closing is disabled to avoid sending a separate chunk to the client for every written booking offer summary.
+    this.ndjsonObjectWriter = objectMapper
+        .writerFor(BookingOfferSummaryFindByIdQueryResponse)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+  }
+
+  void write(BookingOfferSummaryExportFormat exportFormat, BookingOfferSummaryExportQueryResponse bookingOfferSummaryExportQueryResponse, OutputStream outputStream) {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))
+
+    if (exportFormat == BookingOfferSummaryExportFormat.CSV) {
+      writer.write(CSV_HEADER_LIST.join(CSV_SEPARATOR))
+      writer.write(CSV_LINE_SEPARATOR)
+      bookingOfferSummaryExportQueryResponse.exportTo({ BookingOfferSummaryFindByIdQueryResponse bookingOfferSummary ->
+        writeCsvLine(bookingOfferSummary, writer)
+      } as Consumer<BookingOfferSummaryFindByIdQueryResponse>)
+    }
+    else {
+      bookingOfferSummaryExportQueryResponse.exportTo({ BookingOfferSummaryFindByIdQueryResponse bookingOfferSummary ->
+        ndjsonObjectWriter.writeValue(writer, bookingOfferSummary)
+        writer.write("\n")
+      } as Consumer<BookingOfferSummaryFindByIdQueryResponse>)
+    }
+
+    writer.flush()
+  }
+
+  protected void writeCsvLine(BookingOfferSummaryFindByIdQueryResponse bookingOfferSummary, Writer writer) {
+    List<Object> valueList = [
+        bookingOfferSummary.bookingOfferId, bookingOfferSummary.customerType?.name(),
+        bookingOfferSummary.originLocationUnLoCode, bookingOfferSummary.originLocationName, bookingOfferSummary.originLocationCountryName,
+        bookingOfferSummary.destinationLocationUnLoCode, bookingOfferSummary.destinationLocationName, bookingOfferSummary.destinationLocationCountryName,
+        bookingOfferSummary.departureEarliestTime, bookingOfferSummary.departureLatestTime, bookingOfferSummary.arrivalLatestTime,
+        bookingOfferSummary.commodityTypes?.collect({ CommodityType commodityType -> commodityType.name() })?.sort()?.join(CSV_COMMODITY_TYPE_SEPARATOR),
+        bookingOfferSummary.totalCommodityWeight ? KwrkQuantityFormat.instance.format(bookingOfferSummary.totalCommodityWeight) : null,
+        bookingOfferSummary.totalContainerTeuCount?.toPlainString(),
+        bookingOfferSummary.firstEventRecordedAt, bookingOfferSummary.lastEventRecordedAt, bookingOfferSummary.lastEventSequenceNumber
+    ]
+
+    valueList.eachWithIndex({ Object value, int index ->
+      if (index > 0) {
+        writer.write(CSV_SEPARATOR)
+      }
+
+      if (value != null) {
+        writer.write(escapeCsvValue(value.toString()))
+      }
+    })
+
+    writer.write(CSV_LINE_SEPARATOR)
+  }
+
+  /**
+   * Escapes CSV value according to RFC 4180.
+   * <p/>
+   * Values containing separators, quotes, or line breaks are enclosed in quotes, while contained quotes are doubled.
+   */
+  static String escapeCsvValue(String value) {
+    if (value.contains(CSV_SEPARATOR) || value.contains('"') || value.contains("\n") || value.contains("\r")) {
+      return '"' + value.replace('"', '""') + '"'
+    }
+
+    return value
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import groovy.transform.CompileStatic
+import groovy.util.logging.Slf4j
+import jakarta.annotation.PreDestroy
+import org.axonframework.config.ProcessingGroup
+import org.axonframework.eventhandling.DomainEventMessage
+import org.axonframework.eventhandling.EventHandler
+import org.axonframework.eventhandling.ResetHandler
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryQueryHandlerService.UpdateEmissionOutcome
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdAwaitQueryRequest
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryUpdateEmissionPortOut
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory
+import org.springframework.stereotype.Service
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.function.BiFunction
+
+/**
+ * Lightweight subscription to the booking event stream that keeps {@link BookingOfferSummaryFindByIdQueryResponseCache} consistent with the projection.
+ * <p/>
+ * The handler does not touch event payloads. It uses only the aggregate identifier and the sequence number of a domain event message, so payload classes are not needed on the classpath and no
+ * payload deserialization takes place. The corresponding event processor is configured in <code>SpringBootConfig</code> with an in-memory token store that starts from the head of the event stream.
+ * <p/>
+ * Besides invalidating the cache, the handler triggers emission of updates to subscription queries interested in a booking offer (see
+ * {@link BookingOfferSummaryQueryHandlerService#emitBookingOfferSummaryFindByIdQueryUpdate(java.lang.String, java.lang.Long)}). Emission is requested only when there are active subscription
+ * queries for the booking offer. As the projection is maintained by a separate application, the observed event is usually not projected yet. Therefore, emission is attempted with a delay and
+ * retried in fixed intervals while the projection is behind and there are still subscribers, or until attempts are exhausted. The number of attempts is derived from
+ * {@link BookingOfferSummaryFindByIdAwaitQueryRequest#AWAIT_TIMEOUT_MILLIS_MAX}, so the emission is not abandoned while an await query for the same event can still be waiting for it.
+ * <p/>
+ * An event can also be observed before a subscription query interested in it is registered. In that case, the emission is requested by the subscriber through
+ * {@link BookingOfferSummaryUpdateEmissionPortOut}, when the initial result of its subscription query does not reflect the highest observed event (or the awaited event).
+ * <p/>
+ * Pending emissions are coalesced per booking offer. There is at most one scheduled emission for a booking offer, and it always targets the highest observed event sequence number. Emission happens
+ * on a dedicated thread, so it never holds back the event processor. The thread is stopped when the application context is closed.
+ */
+@Slf4j
+@ProcessingGroup(BookingOfferSummaryCacheInvalidationEventHandler.PROCESSING_GROUP_NAME)
+@Service
+@CompileStatic
+class BookingOfferSummaryCacheInvalidationEventHandler implements BookingOfferSummaryUpdateEmissionPortOut {
+  static final String PROCESSING_GROUP_NAME = "bookingOfferSummaryCacheInvalidation"
+  static final Duration UPDATE_EMISSION_RETRY_INTERVAL = Duration.ofMillis(100)
+  static final Integer UPDATE_EMISSION_MAX_ATTEMPT_COUNT = Math.ceilDiv(BookingOfferSummaryFindByIdAwaitQueryRequest.AWAIT_TIMEOUT_MILLIS_MAX, UPDATE_EMISSION_RETRY_INTERVAL.toMillis()) as Integer
+
+  private final BookingOfferSummaryFindByIdQueryResponseCache bookingOfferSummaryFindByIdQueryResponseCache
+  private final BookingOfferSummaryQueryHandlerService bookingOfferSummaryQueryHandlerService
+  private final ScheduledExecutorService updateEmissionExecutorService
+  private final ConcurrentMap<String, Long> pendingEventSequenceNumberByBookingOfferIdMap = new ConcurrentHashMap<>()
+
+  BookingOfferSummaryCacheInvalidationEventHandler(
+      BookingOfferSummaryFindByIdQueryResponseCache bookingOfferSummaryFindByIdQueryResponseCache, BookingOfferSummaryQueryHandlerService bookingOfferSummaryQueryHandlerService)
+  {
+    this.bookingOfferSummaryFindByIdQueryResponseCache = bookingOfferSummaryFindByIdQueryResponseCache
+    this.bookingOfferSummaryQueryHandlerService = bookingOfferSummaryQueryHandlerService
+    this.updateEmissionExecutorService = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("BookingOfferSummaryUpdateEmission-").tap({ daemon = true }))
+  }
+
+  @EventHandler
+  void onDomainEventMessage(DomainEventMessage<?> domainEventMessage) {
+    bookingOfferSummaryFindByIdQueryResponseCache.invalidate(domainEventMessage.aggregateIdentifier, domainEventMessage.sequenceNumber)
+
+    if (bookingOfferSummaryQueryHandlerService.hasBookingOfferSummaryFindByIdSubscribers(domainEventMessage.aggregateIdentifier)) {
+      requestUpdateEmission(domainEventMessage.aggregateIdentifier, domainEventMessage.sequenceNumber)
+    }
+  }
+
+  @Override
+  void requestBookingOfferSummaryUpdateEmission(String bookingOfferId, Long initialEventSequenceNumber, Long awaitedEventSequenceNumber) {
+    // Note: booking offer identifier is normalized to match the aggregate identifier format used in domain event messages.
+    String normalizedBookingOfferId = UUID.fromString(bookingOfferId).toString()
+
+    Long observedEventSequenceNumber = bookingOfferSummaryFindByIdQueryResponseCache.findLastObservedEventSequenceNumber(normalizedBookingOfferId)
+    Long knownEventSequenceNumber = [observedEventSequenceNumber, awaitedEventSequenceNumber].findAll({ Long eventSequenceNumber -> eventSequenceNumber != null }).max()
+    if (knownEventSequenceNumber == null || (initialEventSequenceNumber != null && initialEventSequenceNumber >= knownEventSequenceNumber)) {
+      return
+    }
+
+    requestUpdateEmission(normalizedBookingOfferId, knownEventSequenceNumber)
+  }
+
+  /**
+   * Registers the event sequence number as pending for emission, and schedules the emission when none is pending for the booking offer yet.
+   * <p/>
+   * When an emission is already pending, it is only moved to the higher event sequence number, and it is rescheduled after the current attempt completes.
+   */
+  protected void requestUpdateEmission(String bookingOfferId, Long eventSequenceNumber) {
+    boolean isSchedulingRequired = false
+    pendingEventSequenceNumberByBookingOfferIdMap.compute(bookingOfferId, { String aBookingOfferId, Long pendingEventSequenceNumber ->
+      if (pendingEventSequenceNumber == null) {
+        isSchedulingRequired = true
+        return eventSequenceNumber
+      }
+
+      return Math.max(pendingEventSequenceNumber, eventSequenceNumber)
+    } as BiFunction<String, Long, Long>)
+
+    if (isSchedulingRequired) {
+      scheduleUpdateEmission(bookingOfferId, 1)
+    }
+  }
+
+  protected void scheduleUpdateEmission(String bookingOfferId, Integer attemptOrdinal) {
+    updateEmissionExecutorService.schedule({ emitUpdate(bookingOfferId, attemptOrdinal) } as Runnable, UPDATE_EMISSION_RETRY_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)
+  }
+
+  @SuppressWarnings("CodeNarc.CatchRuntimeException")
+  protected void emitUpdate(String bookingOfferId, Integer attemptOrdinal) {
+    Long eventSequenceNumber = pendingEventSequenceNumberByBookingOfferIdMap.get(bookingOfferId)
+    if (eventSequenceNumber == null) {
+      return
+    }
+
+    UpdateEmissionOutcome updateEmissionOutcome = null
+    try {
+      updateEmissionOutcome = bookingOfferSummaryQueryHandlerService.emitBookingOfferSummaryFindByIdQueryUpdate(bookingOfferId, eventSequenceNumber)
+    }
+    catch (RuntimeException re) {
+      log.warn("Emission of booking offer summary update failed [bookingOfferId: {}, eventSequenceNumber: {}]", bookingOfferId, eventSequenceNumber, re)
+    }
+
+    boolean isRetryRequired = updateEmissionOutcome == UpdateEmissionOutcome.PROJECTION_BEHIND && attemptOrdinal < UPDATE_EMISSION_MAX_ATTEMPT_COUNT
+    if (updateEmissionOutcome == UpdateEmissionOutcome.PROJECTION_BEHIND && !isRetryRequired) {
+      log.debug("Emission of booking offer summary update is abandoned after {} attempts [bookingOfferId: {}, eventSequenceNumber: {}]", attemptOrdinal, bookingOfferId, eventSequenceNumber)
+    }
+
+    Integer nextAttemptOrdinal = null
+    pendingEventSequenceNumberByBookingOfferIdMap.compute(bookingOfferId, { String aBookingOfferId, Long pendingEventSequenceNumber ->
+      if (pendingEventSequenceNumber == null) {
+        return null
+      }
+
+      if (pendingEventSequenceNumber > eventSequenceNumber) {
+        // A newer event is observed in the meantime. It gets its own full set of attempts.
+        nextAttemptOrdinal = 1
+        return pendingEventSequenceNumber
+      }
+
+      if (isRetryRequired) {
+        nextAttemptOrdinal = attemptOrdinal + 1
+        return pendingEventSequenceNumber
+      }
+
+      return null
+    } as BiFunction<String, Long, Long>)
+
+    if (nextAttemptOrdinal != null) {
+      scheduleUpdateEmission(bookingOfferId, nextAttemptOrdinal)
+    }
+  }
+
+  @ResetHandler
+  void onReset() {
+    bookingOfferSummaryFindByIdQueryResponseCache.invalidateAll()
+  }
+
+  @PreDestroy
+  void shutdownUpdateEmissionExecutor() {
+    updateEmissionExecutorService.shutdownNow()
+  }
+}
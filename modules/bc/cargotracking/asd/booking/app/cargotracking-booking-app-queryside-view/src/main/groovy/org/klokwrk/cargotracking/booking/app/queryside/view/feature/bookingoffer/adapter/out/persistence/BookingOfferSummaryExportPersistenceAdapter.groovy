@@ -0,0 +1,129 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import groovy.transform.CompileStatic
+import net.croz.nrich.search.api.model.AdditionalRestrictionResolver
+import net.croz.nrich.search.api.model.SearchConfiguration
+import net.croz.nrich.search.support.JpaQueryBuilder
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryExport
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryExportCriteria
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryExportQueryPortOut
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryExportRecord
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
+import org.springframework.data.domain.Sort
+import org.springframework.data.mapping.PropertyReferenceException
+import org.springframework.stereotype.Service
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionStatus
+import org.springframework.transaction.support.TransactionTemplate
+
+import jakarta.persistence.EntityManager
+import jakarta.persistence.criteria.CriteriaQuery
+import jakarta.persistence.criteria.JoinType
+import jakarta.persistence.criteria.Root
+import java.util.function.Consumer
+import java.util.stream.Stream
+
+/**
+ * Persistence adapter implementing export queries for booking offer summaries.
+ * <p/>
+ * Export queries are not Axon query handlers. They are invoked directly through {@link BookingOfferSummaryExportQueryPortOut}, bypassing the query bus.
+ * <p/>
+ * Booking offer summaries are streamed from a forward-only database cursor, and each entity is detached from the persistence context as soon as it is passed to the consumer. Therefore, memory
+ * consumption does not depend on the number of exported booking offer summaries.
+ * <p/>
+ * Since the export is performed outside of Axon's message handling, it runs in its own read-only transaction. Database cursors (and therefore the fetch size) are honored by the PostgreSQL JDBC
+ * driver only inside a transaction.
+ */
+@Service
+@CompileStatic
+class BookingOfferSummaryExportPersistenceAdapter implements BookingOfferSummaryExportQueryPortOut {
+  static final Integer FETCH_SIZE = 500
+
+  // Note: Hibernate-specific hints are referenced by their names to avoid dependency on Hibernate API.
+  private static final String FETCH_SIZE_HINT = "org.hibernate.fetchSize"
+  private static final String READ_ONLY_HINT = "org.hibernate.readOnly"
+
+  private final EntityManager entityManager
+  private final TransactionTemplate readOnlyTransactionTemplate
+
+  BookingOfferSummaryExportPersistenceAdapter(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+    this.entityManager = entityManager
+    this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager).tap({ readOnly = true })
+  }
+
+  @Override
+  BookingOfferSummaryExport prepareBookingOfferSummaryExport(BookingOfferSummaryExportCriteria bookingOfferSummaryExportCriteria) {
+    CriteriaQuery<BookingOfferSummaryJpaEntity> criteriaQuery = makeBookingOfferSummaryExportCriteriaQuery(bookingOfferSummaryExportCriteria)
+
+    return new BookingOfferSummaryExport({ Consumer<BookingOfferSummaryExportRecord> bookingOfferSummaryExportRecordConsumer ->
+      exportBookingOfferSummaries(criteriaQuery, bookingOfferSummaryExportRecordConsumer)
+    } as Consumer<Consumer<BookingOfferSummaryExportRecord>>)
+  }
+
+  // Implementation notes:
+  // Commodity types are fetched with a join in the same query to avoid n+1 problem. When streaming a collection fetch, Hibernate assembles an entity from consecutive result rows. For rows of a
+  // single entity to be consecutive, bookingOfferId is appended to sort orders as the last tie-breaker.
+  protected CriteriaQuery<BookingOfferSummaryJpaEntity> makeBookingOfferSummaryExportCriteriaQuery(BookingOfferSummaryExportCriteria bookingOfferSummaryExportCriteria) {
+    SearchConfiguration<BookingOfferSummaryJpaEntity, BookingOfferSummaryJpaEntity, BookingOfferSummaryExportCriteria> searchConfiguration = SearchConfiguration
+        .<BookingOfferSummaryJpaEntity, BookingOfferSummaryJpaEntity, BookingOfferSummaryExportCriteria>builder()
+        .resultClass(BookingOfferSummaryJpaEntity)
+        .anyMatch(false)
+        .searchPropertyConfiguration(BookingOfferSummaryQueryHandlerService.makeBookingOfferSummarySearchPropertyConfiguration())
+        .additionalRestrictionResolverList([new BookingOfferSummaryJpaEntityExportAdditionalRestrictionResolver()] as List<AdditionalRestrictionResolver>) // codenarc-disable-line UnnecessaryCast
+        .build()
+
+    Sort sort = QueryHandlerSpringDataJpaUtil.makeSortFromSortRequirements(bookingOfferSummaryExportCriteria.sortRequirementList)
+    if (!sort.getOrderFor(BookingOfferSummaryKeysetPagingUtil.BOOKING_OFFER_IDENTIFIER)) {
+      sort = sort.and(Sort.by(BookingOfferSummaryKeysetPagingUtil.BOOKING_OFFER_IDENTIFIER))
+    }
+
+    CriteriaQuery<BookingOfferSummaryJpaEntity> criteriaQuery = null
+    try {
+      criteriaQuery = new JpaQueryBuilder<BookingOfferSummaryJpaEntity>(entityManager, BookingOfferSummaryJpaEntity).buildQuery(bookingOfferSummaryExportCriteria, searchConfiguration, sort)
+    }
+    catch (PropertyReferenceException pre) {
+      throw QueryHandlerSpringDataJpaUtil.makeQueryExceptionFromPropertyReferenceException(pre)
+    }
+
+    Root<BookingOfferSummaryJpaEntity> root = criteriaQuery.roots.first() as Root<BookingOfferSummaryJpaEntity>
+    root.fetch("commodityTypes", JoinType.LEFT)
+
+    return criteriaQuery
+  }
+
+  protected void exportBookingOfferSummaries(
+      CriteriaQuery<BookingOfferSummaryJpaEntity> criteriaQuery, Consumer<BookingOfferSummaryExportRecord> bookingOfferSummaryExportRecordConsumer)
+  {
+    readOnlyTransactionTemplate.executeWithoutResult({ TransactionStatus transactionStatus ->
+      Stream<BookingOfferSummaryJpaEntity> bookingOfferSummaryJpaEntityStream = entityManager
+          .createQuery(criteriaQuery)
+          .setHint(FETCH_SIZE_HINT, FETCH_SIZE)
+          .setHint(READ_ONLY_HINT, true)
+          .resultStream
+
+      bookingOfferSummaryJpaEntityStream.withCloseable({
+        bookingOfferSummaryJpaEntityStream.forEach({ BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity ->
+          bookingOfferSummaryExportRecordConsumer.accept(BookingOfferSummaryHydrationUtil.makeBookingOfferSummaryExportRecord(bookingOfferSummaryJpaEntity))
+          entityManager.detach(bookingOfferSummaryJpaEntity)
+        })
+      })
+    } as Consumer<TransactionStatus>)
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import groovy.transform.CompileStatic
+import groovy.transform.TupleConstructor
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.MeterBinder
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryResponse
+
+import java.time.Duration
+import java.util.function.Supplier
+
+/**
+ * Bounded in-process read-through cache of fully built {@link BookingOfferSummaryFindByIdQueryResponse} instances.
+ * <p/>
+ * The cache is organized in two levels. The first level holds built responses keyed by booking offer identifier, where each entry also remembers the customer identifier it was loaded for. As a
+ * booking offer belongs to exactly one customer, this is equivalent to keying by (bookingOfferId, customerId), but it allows invalidation by booking offer identifier only, which is all that is
+ * available in domain event messages. A lookup with a customer identifier different from the cached one is treated as a miss and is resolved by the database.
+ * <p/>
+ * The second level is a watermark of the highest event sequence number observed for each booking offer (see {@link #invalidate(String, Long)}). It protects the first level from caching responses
+ * loaded from a projection that has not yet caught up with events already seen by this application. Such responses are returned to the caller but are not cached.
+ * <p/>
+ * Both levels are bounded in size and expire entries after the configured time-to-live. The time-to-live also limits staleness for any event that might be missed by the invalidating subscription.
+ * <p/>
+ * Hit, miss, and eviction statistics of the first level are published as Micrometer metrics under the {@code cache.*} names with the {@code cache} tag set to {@link #CACHE_NAME}.
+ */
+@CompileStatic
+class BookingOfferSummaryFindByIdQueryResponseCache implements MeterBinder {
+  static final String CACHE_NAME = "bookingOfferSummaryFindByIdQueryResponse"
+
+  private final Cache<String, CachedBookingOfferSummaryFindByIdQueryResponse> responseCache
+  private final Cache<String, Long> lastEventSequenceNumberCache
+
+  BookingOfferSummaryFindByIdQueryResponseCache(long maximumSize, Duration timeToLive) {
+    responseCache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .recordStats()
+        .build()
+
+    lastEventSequenceNumberCache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .build()
+  }
+
+  /**
+   * Returns cached response for a booking offer and customer, or loads, caches, and returns it when it is not cached.
+   * <p/>
+   * The loader is invoked outside any cache lock. Therefore, concurrent misses for the same key may load the response more than once, which is acceptable since loading is a side-effect-free query.
+   * Exceptions thrown from the loader are propagated and nothing is cached.
+   */
+  BookingOfferSummaryFindByIdQueryResponse fetchOrLoad(String bookingOfferId, String customerId, Supplier<BookingOfferSummaryFindByIdQueryResponse> loader) {
+    CachedBookingOfferSummaryFindByIdQueryResponse cachedResponse = responseCache.getIfPresent(bookingOfferId)
+    if (cachedResponse != null && cachedResponse.customerId == customerId) {
+      return cachedResponse.response
+    }
+
+    BookingOfferSummaryFindByIdQueryResponse loadedResponse = loader.get()
+    if (isCacheable(bookingOfferId, loadedResponse)) {
+      CachedBookingOfferSummaryFindByIdQueryResponse responseToCache = new CachedBookingOfferSummaryFindByIdQueryResponse(customerId, loadedResponse)
+      responseCache.put(bookingOfferId, responseToCache)
+
+      // Invalidation might have happened between loading and caching. Since invalidation updates the watermark before removing an entry, rechecking the watermark here closes that gap.
+      if (!isCacheable(bookingOfferId, loadedResponse)) {
+        responseCache.asMap().remove(bookingOfferId, responseToCache)
+      }
+    }
+
+    return loadedResponse
+  }
+
+  /**
+   * Invalidates cached response of a booking offer if it does not reflect the event with a given sequence number.
+   * <p/>
+   * Intended to be called for each observed event of a booking offer aggregate.
+   */
+  void invalidate(String bookingOfferId, Long eventSequenceNumber) {
+    lastEventSequenceNumberCache.asMap().merge(bookingOfferId, eventSequenceNumber, { Long existingSequenceNumber, Long newSequenceNumber ->
+      Math.max(existingSequenceNumber, newSequenceNumber)
+    })
+
+    responseCache.asMap().computeIfPresent(bookingOfferId, { String key, CachedBookingOfferSummaryFindByIdQueryResponse cachedResponse ->
+      isCacheable(key, cachedResponse.response) ? cachedResponse : null
+    })
+  }
+
+  /**
+   * Returns the highest event sequence number observed for a booking offer, or {@code null} when no event of a booking offer is observed (or remembered) yet.
+   */
+  Long findLastObservedEventSequenceNumber(String bookingOfferId) {
+    return lastEventSequenceNumberCache.getIfPresent(bookingOfferId)
+  }
+
+  void invalidateAll() {
+    responseCache.invalidateAll()
+    lastEventSequenceNumberCache.invalidateAll()
+  }
+
+  @Override
+  void bindTo(MeterRegistry meterRegistry) {
+    CaffeineCacheMetrics.monitor(meterRegistry, responseCache, CACHE_NAME)
+  }
+
+  protected boolean isCacheable(String bookingOfferId, BookingOfferSummaryFindByIdQueryResponse response) {
+    Long lastObservedEventSequenceNumber = lastEventSequenceNumberCache.getIfPresent(bookingOfferId)
+    if (lastObservedEventSequenceNumber == null) {
+      return true
+    }
+
+    return response.lastEventSequenceNumber != null && response.lastEventSequenceNumber >= lastObservedEventSequenceNumber
+  }
+
+  @TupleConstructor
+  static class CachedBookingOfferSummaryFindByIdQueryResponse {
+    String customerId
+    BookingOfferSummaryFindByIdQueryResponse response
+  }
+}
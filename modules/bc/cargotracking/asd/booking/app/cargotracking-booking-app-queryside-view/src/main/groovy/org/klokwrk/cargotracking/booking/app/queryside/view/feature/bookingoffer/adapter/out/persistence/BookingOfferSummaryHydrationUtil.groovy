@@ -0,0 +1,158 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryExportRecord
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
+import org.klokwrk.lib.lo.uom.format.KwrkQuantityFormat
+
+import javax.measure.Quantity
+import javax.measure.quantity.Mass
+
+/**
+ * Hydrates booking offer summary query responses from fetched JPA entities.
+ * <p/>
+ * Responses are populated with statically compiled property assignments instead of going through the reflective {@code properties} map of an entity. Pages are assembled via an identifier-indexed
+ * map, making the assembly linear in page size.
+ * <p/>
+ * Formatted total commodity weights are parsed into quantities only once per distinct value. Since booking offers tend to share a limited set of weights, and quantities are immutable, parsed
+ * quantities are kept in a small bounded cache.
+ */
+@CompileStatic
+class BookingOfferSummaryHydrationUtil {
+  static final long TOTAL_COMMODITY_WEIGHT_CACHE_MAXIMUM_SIZE = 1_000
+
+  private static final Cache<String, Quantity<Mass>> TOTAL_COMMODITY_WEIGHT_CACHE = Caffeine.newBuilder().maximumSize(TOTAL_COMMODITY_WEIGHT_CACHE_MAXIMUM_SIZE).build()
+
+  /**
+   * Creates a query response from the booking offer summary entity.
+   */
+  static BookingOfferSummaryFindByIdQueryResponse makeBookingOfferSummaryFindByIdQueryResponse(BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity) {
+    BookingOfferSummaryFindByIdQueryResponse bookingOfferSummaryFindByIdQueryResponse = new BookingOfferSummaryFindByIdQueryResponse()
+
+    bookingOfferSummaryFindByIdQueryResponse.bookingOfferId = bookingOfferSummaryJpaEntity.bookingOfferId.toString()
+    bookingOfferSummaryFindByIdQueryResponse.customerType = bookingOfferSummaryJpaEntity.customerType
+
+    bookingOfferSummaryFindByIdQueryResponse.originLocationUnLoCode = bookingOfferSummaryJpaEntity.originLocationUnLoCode
+    bookingOfferSummaryFindByIdQueryResponse.originLocationName = bookingOfferSummaryJpaEntity.originLocationName
+    bookingOfferSummaryFindByIdQueryResponse.originLocationCountryName = bookingOfferSummaryJpaEntity.originLocationCountryName
+
+    bookingOfferSummaryFindByIdQueryResponse.destinationLocationUnLoCode = bookingOfferSummaryJpaEntity.destinationLocationUnLoCode
+    bookingOfferSummaryFindByIdQueryResponse.destinationLocationName = bookingOfferSummaryJpaEntity.destinationLocationName
+    bookingOfferSummaryFindByIdQueryResponse.destinationLocationCountryName = bookingOfferSummaryJpaEntity.destinationLocationCountryName
+
+    bookingOfferSummaryFindByIdQueryResponse.departureEarliestTime = bookingOfferSummaryJpaEntity.departureEarliestTime
+    bookingOfferSummaryFindByIdQueryResponse.departureLatestTime = bookingOfferSummaryJpaEntity.departureLatestTime
+    bookingOfferSummaryFindByIdQueryResponse.arrivalLatestTime = bookingOfferSummaryJpaEntity.arrivalLatestTime
+
+    bookingOfferSummaryFindByIdQueryResponse.commodityTypes = bookingOfferSummaryJpaEntity.commodityTypes
+    bookingOfferSummaryFindByIdQueryResponse.totalCommodityWeight = parseTotalCommodityWeight(bookingOfferSummaryJpaEntity.totalCommodityWeight)
+    bookingOfferSummaryFindByIdQueryResponse.totalContainerTeuCount = bookingOfferSummaryJpaEntity.totalContainerTeuCount
+
+    bookingOfferSummaryFindByIdQueryResponse.firstEventRecordedAt = bookingOfferSummaryJpaEntity.firstEventRecordedAt
+    bookingOfferSummaryFindByIdQueryResponse.lastEventRecordedAt = bookingOfferSummaryJpaEntity.lastEventRecordedAt
+    bookingOfferSummaryFindByIdQueryResponse.lastEventSequenceNumber = bookingOfferSummaryJpaEntity.lastEventSequenceNumber
+
+    return bookingOfferSummaryFindByIdQueryResponse
+  }
+
+  /**
+   * Creates an export record from the booking offer summary entity.
+   */
+  static BookingOfferSummaryExportRecord makeBookingOfferSummaryExportRecord(BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity) {
+    BookingOfferSummaryExportRecord bookingOfferSummaryExportRecord = new BookingOfferSummaryExportRecord()
+
+    bookingOfferSummaryExportRecord.bookingOfferId = bookingOfferSummaryJpaEntity.bookingOfferId.toString()
+    bookingOfferSummaryExportRecord.customerType = bookingOfferSummaryJpaEntity.customerType
+
+    bookingOfferSummaryExportRecord.originLocationUnLoCode = bookingOfferSummaryJpaEntity.originLocationUnLoCode
+    bookingOfferSummaryExportRecord.originLocationName = bookingOfferSummaryJpaEntity.originLocationName
+    bookingOfferSummaryExportRecord.originLocationCountryName = bookingOfferSummaryJpaEntity.originLocationCountryName
+
+    bookingOfferSummaryExportRecord.destinationLocationUnLoCode = bookingOfferSummaryJpaEntity.destinationLocationUnLoCode
+    bookingOfferSummaryExportRecord.destinationLocationName = bookingOfferSummaryJpaEntity.destinationLocationName
+    bookingOfferSummaryExportRecord.destinationLocationCountryName = bookingOfferSummaryJpaEntity.destinationLocationCountryName
+
+    bookingOfferSummaryExportRecord.departureEarliestTime = bookingOfferSummaryJpaEntity.departureEarliestTime
+    bookingOfferSummaryExportRecord.departureLatestTime = bookingOfferSummaryJpaEntity.departureLatestTime
+    bookingOfferSummaryExportRecord.arrivalLatestTime = bookingOfferSummaryJpaEntity.arrivalLatestTime
+
+    bookingOfferSummaryExportRecord.commodityTypes = bookingOfferSummaryJpaEntity.commodityTypes
+    bookingOfferSummaryExportRecord.totalCommodityWeight = parseTotalCommodityWeight(bookingOfferSummaryJpaEntity.totalCommodityWeight)
+    bookingOfferSummaryExportRecord.totalContainerTeuCount = bookingOfferSummaryJpaEntity.totalContainerTeuCount
+
+    bookingOfferSummaryExportRecord.firstEventRecordedAt = bookingOfferSummaryJpaEntity.firstEventRecordedAt
+    bookingOfferSummaryExportRecord.lastEventRecordedAt = bookingOfferSummaryJpaEntity.lastEventRecordedAt
+    bookingOfferSummaryExportRecord.lastEventSequenceNumber = bookingOfferSummaryJpaEntity.lastEventSequenceNumber
+
+    return bookingOfferSummaryExportRecord
+  }
+
+  /**
+   * Creates query responses ordered as in the provided list of booking offer identifiers.
+   * <p/>
+   * Fetched entities can be in any order. Identifiers without a corresponding entity are skipped.
+   */
+  static List<BookingOfferSummaryFindByIdQueryResponse> makePageContent(List<UUID> bookingOfferIdList, List<BookingOfferSummaryJpaEntity> bookingOfferSummaryJpaEntityList) {
+    return makePageContent(bookingOfferIdList, makeBookingOfferSummaryJpaEntityMap(bookingOfferSummaryJpaEntityList))
+  }
+
+  /**
+   * Creates query responses ordered as in the provided list of booking offer identifiers, from entities already indexed by their identifiers.
+   * <p/>
+   * Identifiers without a corresponding entity are skipped.
+   */
+  static List<BookingOfferSummaryFindByIdQueryResponse> makePageContent(List<UUID> bookingOfferIdList, Map<UUID, BookingOfferSummaryJpaEntity> bookingOfferSummaryJpaEntityMap) {
+    List<BookingOfferSummaryFindByIdQueryResponse> pageContent = new ArrayList<>(bookingOfferIdList.size())
+    for (UUID bookingOfferId in bookingOfferIdList) {
+      BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity = bookingOfferSummaryJpaEntityMap.get(bookingOfferId)
+      if (bookingOfferSummaryJpaEntity != null) {
+        pageContent.add(makeBookingOfferSummaryFindByIdQueryResponse(bookingOfferSummaryJpaEntity))
+      }
+    }
+
+    return pageContent
+  }
+
+  /**
+   * Indexes booking offer summary entities by their identifiers.
+   */
+  static Map<UUID, BookingOfferSummaryJpaEntity> makeBookingOfferSummaryJpaEntityMap(List<BookingOfferSummaryJpaEntity> bookingOfferSummaryJpaEntityList) {
+    // Note: Capacity is chosen to avoid rehashing with the default load factor.
+    Map<UUID, BookingOfferSummaryJpaEntity> bookingOfferSummaryJpaEntityMap = new HashMap<>(((bookingOfferSummaryJpaEntityList.size() * 4).intdiv(3) as int) + 1)
+    for (BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity in bookingOfferSummaryJpaEntityList) {
+      bookingOfferSummaryJpaEntityMap.put(bookingOfferSummaryJpaEntity.bookingOfferId, bookingOfferSummaryJpaEntity)
+    }
+
+    return bookingOfferSummaryJpaEntityMap
+  }
+
+  static Quantity<Mass> parseTotalCommodityWeight(String totalCommodityWeight) {
+    if (!totalCommodityWeight) {
+      return null
+    }
+
+    return TOTAL_COMMODITY_WEIGHT_CACHE.get(totalCommodityWeight, { String formattedTotalCommodityWeight ->
+      KwrkQuantityFormat.instance.parse(formattedTotalCommodityWeight) as Quantity<Mass>
+    })
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import groovy.transform.CompileStatic
+import net.croz.nrich.search.api.model.AdditionalRestrictionResolver
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryKeysetPagingUtil.KeysetPageRequest
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryRequest
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
+
+import jakarta.persistence.criteria.CriteriaBuilder
+import jakarta.persistence.criteria.CriteriaQuery
+import jakarta.persistence.criteria.Predicate
+import jakarta.persistence.criteria.Root
+
+/**
+ * Restricts search results to elements following the cursor of keyset page request.
+ */
+@SuppressWarnings("CodeNarc.BracesForClass")
+@CompileStatic
+class BookingOfferSummaryJpaEntityKeysetAdditionalRestrictionResolver implements
+    AdditionalRestrictionResolver<BookingOfferSummaryJpaEntity, BookingOfferSummaryJpaEntity, BookingOfferSummarySearchAllQueryRequest>
+{
+  private final KeysetPageRequest keysetPageRequest
+
+  BookingOfferSummaryJpaEntityKeysetAdditionalRestrictionResolver(KeysetPageRequest keysetPageRequest) {
+    this.keysetPageRequest = keysetPageRequest
+  }
+
+  @Override
+  List<Predicate> resolvePredicateList(
+      CriteriaBuilder criteriaBuilder, CriteriaQuery<BookingOfferSummaryJpaEntity> query, Root<BookingOfferSummaryJpaEntity> root, BookingOfferSummarySearchAllQueryRequest request)
+  {
+    Predicate seekPredicate = BookingOfferSummaryKeysetPagingUtil.makeSeekPredicate(criteriaBuilder, root, keysetPageRequest)
+    return seekPredicate == null ? [] : [seekPredicate]
+  }
+}
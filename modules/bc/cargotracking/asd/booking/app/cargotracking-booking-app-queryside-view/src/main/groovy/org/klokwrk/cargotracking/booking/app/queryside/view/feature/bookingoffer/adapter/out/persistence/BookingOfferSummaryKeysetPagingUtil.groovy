@@ -0,0 +1,212 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import groovy.transform.CompileStatic
+import groovy.transform.TupleConstructor
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
+import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.QueryException
+import org.klokwrk.cargotracking.lib.boundary.api.domain.violation.ViolationInfo
+import org.klokwrk.cargotracking.lib.boundary.query.api.paging.PageRequirement
+import org.klokwrk.cargotracking.lib.boundary.query.api.sorting.SortRequirement
+import org.springframework.data.domain.Sort
+
+import jakarta.persistence.criteria.CriteriaBuilder
+import jakarta.persistence.criteria.Order
+import jakarta.persistence.criteria.Path
+import jakarta.persistence.criteria.Predicate
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+import java.util.function.Function
+
+/**
+ * Supports keyset (seek) paging over booking offer summaries.
+ * <p/>
+ * With keyset paging, the page is selected by a predicate requiring sort key values to be after the sort key values of the last element from the previous page. Combined with matching composite
+ * indexes, this makes the cost of fetching any page the same as for the first one. The {@code bookingOfferId} is always appended to sort orders as the last tie-breaker, which makes the order
+ * total and keys unique.
+ * <p/>
+ * Sort key values of the last element are sent to the client as an opaque cursor. The cursor also contains the ordinal of the next page and the signature of sort orders, which is used for
+ * detecting cursors created for a different sorting.
+ */
+@CompileStatic
+class BookingOfferSummaryKeysetPagingUtil {
+  static final String BOOKING_OFFER_IDENTIFIER = "bookingOfferId"
+
+  private static final String INVALID_CURSOR_MESSAGE_KEY = "badRequest.query.paging.invalidCursor"
+  private static final String KEYSET_UNSUPPORTED_PROPERTY_MESSAGE_KEY = "badRequest.query.sorting.keysetUnsupportedProperty"
+  private static final String CURSOR_PART_SEPARATOR = "|"
+
+  // Note: Only properties of non-nullable columns are supported since a comparison with SQL null is never true. Each property is covered by a composite index starting with customer_id and ending
+  //       with booking_offer_id (see V0.0.3__booking_offer_summary_keyset_paging_indexes.sql migration in cargotracking-booking-app-rdbms-management module).
+  private static final Map<String, KeysetProperty> KEYSET_PROPERTY_MAP = [
+      (BOOKING_OFFER_IDENTIFIER): new KeysetProperty(
+          { BookingOfferSummaryJpaEntity entity -> entity.bookingOfferId } as Function<BookingOfferSummaryJpaEntity, Comparable>,
+          { String cursorValue -> UUID.fromString(cursorValue) } as Function<String, Comparable>
+      ),
+      firstEventRecordedAt: new KeysetProperty(
+          { BookingOfferSummaryJpaEntity entity -> entity.firstEventRecordedAt } as Function<BookingOfferSummaryJpaEntity, Comparable>,
+          { String cursorValue -> Instant.parse(cursorValue) } as Function<String, Comparable>
+      ),
+      lastEventRecordedAt: new KeysetProperty(
+          { BookingOfferSummaryJpaEntity entity -> entity.lastEventRecordedAt } as Function<BookingOfferSummaryJpaEntity, Comparable>,
+          { String cursorValue -> Instant.parse(cursorValue) } as Function<String, Comparable>
+      )
+  ]
+
+  /**
+   * Creates keyset page request from page and sort requirements.
+   * <p/>
+   * Throws {@link QueryException} with bad request violation if sorting is requested by an unsupported property, or if the cursor is invalid.
+   */
+  static KeysetPageRequest makeKeysetPageRequest(PageRequirement pageRequirement, List<SortRequirement> sortRequirementList) {
+    List<Sort.Order> sortOrderList = makeSortOrderList(sortRequirementList)
+
+    if (!pageRequirement.cursor) {
+      return new KeysetPageRequest(sortOrderList, pageRequirement.size, 0, null)
+    }
+
+    List<String> cursorPartList = decodeCursorPartList(pageRequirement.cursor)
+    if (cursorPartList.size() != sortOrderList.size() + 2 || cursorPartList[1] != makeSortOrderListSignature(sortOrderList)) {
+      throw makeInvalidCursorQueryException()
+    }
+
+    try {
+      Integer pageOrdinal = Integer.valueOf(cursorPartList[0])
+      List<Comparable> cursorKeyValueList = []
+      sortOrderList.eachWithIndex({ Sort.Order sortOrder, int index ->
+        cursorKeyValueList << KEYSET_PROPERTY_MAP[sortOrder.property].cursorValueParser.apply(cursorPartList[index + 2])
+      })
+
+      return new KeysetPageRequest(sortOrderList, pageRequirement.size, pageOrdinal, cursorKeyValueList)
+    }
+    catch (RuntimeException ignore) {
+      throw makeInvalidCursorQueryException()
+    }
+  }
+
+  /**
+   * Creates the cursor pointing to the page following the requested one.
+   *
+   * @param keysetPageRequest the request of the current page.
+   * @param lastBookingOfferSummaryJpaEntity the last entity of the current page.
+   */
+  static String makeNextCursor(KeysetPageRequest keysetPageRequest, BookingOfferSummaryJpaEntity lastBookingOfferSummaryJpaEntity) {
+    List<String> cursorPartList = [(keysetPageRequest.pageOrdinal + 1).toString(), makeSortOrderListSignature(keysetPageRequest.sortOrderList)]
+    keysetPageRequest.sortOrderList.each({ Sort.Order sortOrder ->
+      cursorPartList << KEYSET_PROPERTY_MAP[sortOrder.property].entityValueAccessor.apply(lastBookingOfferSummaryJpaEntity).toString()
+    })
+
+    return Base64.urlEncoder.withoutPadding().encodeToString(cursorPartList.join(CURSOR_PART_SEPARATOR).getBytes(StandardCharsets.UTF_8))
+  }
+
+  /**
+   * Creates predicate selecting elements following the cursor of keyset page request, or {@code null} if the first page is requested.
+   * <p/>
+   * For sort orders {@code (k1, k2, ..., kn)} and cursor values {@code (v1, v2, ..., vn)}, the predicate has a form of {@code (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... OR (k1 = v1 AND ... AND
+   * kn > vn)}, where {@code >} is replaced with {@code <} for descending orders.
+   * <p/>
+   * As the database cannot derive an index range start from such disjunction, the predicate is additionally restricted with redundant {@code k1 >= v1} conjunction. Together with the equality
+   * predicate on leading index column(s), this allows the database to start the index range scan right at the cursor instead of filtering out all preceding elements.
+   */
+  static Predicate makeSeekPredicate(CriteriaBuilder criteriaBuilder, Path<BookingOfferSummaryJpaEntity> root, KeysetPageRequest keysetPageRequest) {
+    if (keysetPageRequest.cursorKeyValueList == null) {
+      return null
+    }
+
+    List<Predicate> seekPredicateList = []
+    List<Predicate> equalPredicateList = []
+    keysetPageRequest.sortOrderList.eachWithIndex({ Sort.Order sortOrder, int index ->
+      Path<Comparable> propertyPath = root.<Comparable> get(sortOrder.property)
+      Comparable cursorKeyValue = keysetPageRequest.cursorKeyValueList[index]
+
+      Predicate comparePredicate = sortOrder.ascending ? criteriaBuilder.greaterThan(propertyPath, cursorKeyValue) : criteriaBuilder.lessThan(propertyPath, cursorKeyValue)
+      seekPredicateList << criteriaBuilder.and((equalPredicateList + [comparePredicate]) as Predicate[])
+      equalPredicateList << criteriaBuilder.equal(propertyPath, cursorKeyValue)
+    })
+
+    Sort.Order firstSortOrder = keysetPageRequest.sortOrderList.first()
+    Path<Comparable> firstPropertyPath = root.<Comparable> get(firstSortOrder.property)
+    Comparable firstCursorKeyValue = keysetPageRequest.cursorKeyValueList.first()
+    Predicate indexRangeStartPredicate = firstSortOrder.ascending
+        ? criteriaBuilder.greaterThanOrEqualTo(firstPropertyPath, firstCursorKeyValue)
+        : criteriaBuilder.lessThanOrEqualTo(firstPropertyPath, firstCursorKeyValue)
+
+    return criteriaBuilder.and(indexRangeStartPredicate, criteriaBuilder.or(seekPredicateList as Predicate[]))
+  }
+
+  static List<Order> makeCriteriaOrderList(CriteriaBuilder criteriaBuilder, Path<BookingOfferSummaryJpaEntity> root, KeysetPageRequest keysetPageRequest) {
+    return keysetPageRequest.sortOrderList.collect({ Sort.Order sortOrder ->
+      sortOrder.ascending ? criteriaBuilder.asc(root.get(sortOrder.property)) : criteriaBuilder.desc(root.get(sortOrder.property))
+    })
+  }
+
+  protected static List<Sort.Order> makeSortOrderList(List<SortRequirement> sortRequirementList) {
+    List<Sort.Order> sortOrderList = sortRequirementList.collect({ SortRequirement sortRequirement ->
+      if (!KEYSET_PROPERTY_MAP.containsKey(sortRequirement.propertyName)) {
+        throw new QueryException(ViolationInfo.makeForBadRequestWithCustomCodeKey(KEYSET_UNSUPPORTED_PROPERTY_MESSAGE_KEY, [sortRequirement.propertyName]))
+      }
+
+      new Sort.Order(Sort.Direction.fromString(sortRequirement.direction.name()), sortRequirement.propertyName)
+    })
+
+    if (!sortOrderList.any({ Sort.Order sortOrder -> sortOrder.property == BOOKING_OFFER_IDENTIFIER })) {
+      // Using the direction of the last sort order allows the database to scan composite index in a single direction.
+      sortOrderList << new Sort.Order(sortOrderList.last().direction, BOOKING_OFFER_IDENTIFIER)
+    }
+
+    return sortOrderList
+  }
+
+  protected static String makeSortOrderListSignature(List<Sort.Order> sortOrderList) {
+    return sortOrderList.collect({ Sort.Order sortOrder -> "${ sortOrder.property }:${ sortOrder.direction.name() }".toString() }).join(",")
+  }
+
+  protected static List<String> decodeCursorPartList(String cursor) {
+    try {
+      String decodedCursor = new String(Base64.urlDecoder.decode(cursor), StandardCharsets.UTF_8)
+      return decodedCursor.split(/\|/, -1).toList()
+    }
+    catch (IllegalArgumentException ignore) {
+      throw makeInvalidCursorQueryException()
+    }
+  }
+
+  protected static QueryException makeInvalidCursorQueryException() {
+    return new QueryException(ViolationInfo.makeForBadRequestWithCustomCodeKey(INVALID_CURSOR_MESSAGE_KEY))
+  }
+
+  @TupleConstructor
+  static class KeysetProperty {
+    Function<BookingOfferSummaryJpaEntity, Comparable> entityValueAccessor
+    Function<String, Comparable> cursorValueParser
+  }
+
+  /**
+   * Requirements for fetching a single keyset page.
+   * <p/>
+   * Contains sort orders (always ending with {@code bookingOfferId}), the page size, the ordinal of the requested page, and sort key values from the cursor ({@code null} for the first page).
+   */
+  @TupleConstructor
+  static class KeysetPageRequest {
+    List<Sort.Order> sortOrderList
+    Integer size
+    Integer pageOrdinal
+    List<Comparable> cursorKeyValueList
+  }
+}
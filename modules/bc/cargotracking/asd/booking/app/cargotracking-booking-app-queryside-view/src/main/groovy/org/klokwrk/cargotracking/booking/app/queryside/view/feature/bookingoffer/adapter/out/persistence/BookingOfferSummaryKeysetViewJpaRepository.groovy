@@ -0,0 +1,49 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import groovy.transform.CompileStatic
+import net.croz.nrich.search.api.model.SearchConfiguration
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryKeysetPagingUtil.KeysetPageRequest
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryRequest
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
+
+/**
+ * Repository fragment for keyset paging over booking offer summaries.
+ * <p/>
+ * Implemented by {@link BookingOfferSummaryKeysetViewJpaRepositoryImpl}.
+ */
+@CompileStatic
+interface BookingOfferSummaryKeysetViewJpaRepository {
+  /**
+   * Fetches identifiers of booking offers belonging to the customer, for the page specified by keyset page request.
+   * <p/>
+   * To allow detection of the following page without counting, returned list contains at most {@code keysetPageRequest.size + 1} elements.
+   */
+  List<UUID> findKeysetPageOfBookingOfferIdByCustomerId(String customerId, KeysetPageRequest keysetPageRequest)
+
+  /**
+   * Searches for the page specified by keyset page request, with restrictions and projection taken from the search configuration.
+   * <p/>
+   * Search configuration is expected to restrict results to elements following the cursor (see {@link BookingOfferSummaryJpaEntityKeysetAdditionalRestrictionResolver}). Unlike the search
+   * executor's paged search, no counting is performed. To allow detection of the following page, returned list contains at most {@code keysetPageRequest.size + 1} elements.
+   */
+  <P> List<P> findKeysetPageBySearchRequest(
+      BookingOfferSummarySearchAllQueryRequest searchRequest, SearchConfiguration<BookingOfferSummaryJpaEntity, P, BookingOfferSummarySearchAllQueryRequest> searchConfiguration,
+      KeysetPageRequest keysetPageRequest)
+}
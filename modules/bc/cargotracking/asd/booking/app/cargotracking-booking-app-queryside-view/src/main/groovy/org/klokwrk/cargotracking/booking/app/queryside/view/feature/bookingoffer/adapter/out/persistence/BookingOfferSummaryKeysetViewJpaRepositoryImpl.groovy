@@ -0,0 +1,75 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import groovy.transform.CompileStatic
+import net.croz.nrich.search.api.model.SearchConfiguration
+import net.croz.nrich.search.support.JpaQueryBuilder
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryKeysetPagingUtil.KeysetPageRequest
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryRequest
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
+import org.springframework.data.domain.Sort
+
+import jakarta.persistence.EntityManager
+import jakarta.persistence.criteria.CriteriaBuilder
+import jakarta.persistence.criteria.CriteriaQuery
+import jakarta.persistence.criteria.Predicate
+import jakarta.persistence.criteria.Root
+
+@CompileStatic
+class BookingOfferSummaryKeysetViewJpaRepositoryImpl implements BookingOfferSummaryKeysetViewJpaRepository {
+  private final EntityManager entityManager
+  private final JpaQueryBuilder<BookingOfferSummaryJpaEntity> jpaQueryBuilder
+
+  BookingOfferSummaryKeysetViewJpaRepositoryImpl(EntityManager entityManager) {
+    this.entityManager = entityManager
+    this.jpaQueryBuilder = new JpaQueryBuilder<>(entityManager, BookingOfferSummaryJpaEntity)
+  }
+
+  @Override
+  List<UUID> findKeysetPageOfBookingOfferIdByCustomerId(String customerId, KeysetPageRequest keysetPageRequest) {
+    CriteriaBuilder criteriaBuilder = entityManager.criteriaBuilder
+    CriteriaQuery<UUID> criteriaQuery = criteriaBuilder.createQuery(UUID)
+    Root<BookingOfferSummaryJpaEntity> root = criteriaQuery.from(BookingOfferSummaryJpaEntity)
+
+    List<Predicate> predicateList = [criteriaBuilder.equal(root.get("customerId"), customerId)]
+    Predicate seekPredicate = BookingOfferSummaryKeysetPagingUtil.makeSeekPredicate(criteriaBuilder, root, keysetPageRequest)
+    if (seekPredicate != null) {
+      predicateList << seekPredicate
+    }
+
+    criteriaQuery
+        .select(root.<UUID> get(BookingOfferSummaryKeysetPagingUtil.BOOKING_OFFER_IDENTIFIER))
+        .where(predicateList as Predicate[])
+        .orderBy(BookingOfferSummaryKeysetPagingUtil.makeCriteriaOrderList(criteriaBuilder, root, keysetPageRequest))
+
+    return entityManager.createQuery(criteriaQuery).setMaxResults(keysetPageRequest.size + 1).resultList
+  }
+
+  // Implementation notes:
+  // The query is built by the same query builder that the search executor uses, so restrictions are identical to those of the offset-paged search. Only the execution differs, as the search
+  // executor's paged search always counts all matching elements following the cursor.
+  @Override
+  <P> List<P> findKeysetPageBySearchRequest(
+      BookingOfferSummarySearchAllQueryRequest searchRequest, SearchConfiguration<BookingOfferSummaryJpaEntity, P, BookingOfferSummarySearchAllQueryRequest> searchConfiguration,
+      KeysetPageRequest keysetPageRequest)
+  {
+    CriteriaQuery<P> criteriaQuery = jpaQueryBuilder.buildQuery(searchRequest, searchConfiguration, Sort.by(keysetPageRequest.sortOrderList))
+    return entityManager.createQuery(criteriaQuery).setMaxResults(keysetPageRequest.size + 1).resultList
+  }
+}
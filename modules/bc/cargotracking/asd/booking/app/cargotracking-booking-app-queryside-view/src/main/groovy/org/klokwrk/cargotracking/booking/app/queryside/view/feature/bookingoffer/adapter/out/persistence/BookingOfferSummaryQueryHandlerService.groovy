@@ -23,6 +23,9 @@ import net.croz.nrich.search.api.model.AdditionalRestrictionResolver
 import net.croz.nrich.search.api.model.SearchConfiguration
 import net.croz.nrich.search.api.model.property.SearchPropertyConfiguration
 import org.axonframework.queryhandling.QueryHandler
+import org.axonframework.queryhandling.QueryUpdateEmitter
+import org.axonframework.queryhandling.SubscriptionQueryMessage
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryKeysetPagingUtil.KeysetPageRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindAllQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindAllQueryResponse
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryRequest
@@ -31,14 +34,16 @@ import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryResponse
 import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
 import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.QueryException
+import org.klokwrk.cargotracking.lib.boundary.api.domain.violation.ViolationCode
 import org.klokwrk.cargotracking.lib.boundary.api.domain.violation.ViolationInfo
-import org.klokwrk.lib.lo.uom.format.KwrkQuantityFormat
 import org.springframework.dao.InvalidDataAccessApiUsageException
 import org.springframework.data.domain.Page
 import org.springframework.data.domain.PageRequest
 import org.springframework.data.mapping.PropertyReferenceException
 import org.springframework.stereotype.Service
 
+import java.util.function.Predicate
+
 /**
  * Implements query handling related to booking offer summary.
  * <p/>
@@ -49,21 +54,40 @@ import org.springframework.stereotype.Service
  * query handler runs in standalone application, we can resolve this by configuring "global" Axon's transaction definition to be read-only.
  * <p/>
  * For more information and some resources, take a look at <code>axonTransactionManager</code> bean in <code>SpringBootConfig</code> class.
+ * <p/>
+ * Responses for finding a booking offer summary by id are served through {@link BookingOfferSummaryFindByIdQueryResponseCache}, so repeated queries for the same booking offer do not hit the
+ * database until the booking offer changes.
+ * <p/>
+ * Finding a booking offer summary by id is also supported as a subscription query. Updates are emitted via {@link #emitBookingOfferSummaryFindByIdQueryUpdate(java.lang.String, java.lang.Long)} when
+ * the projection reflects a newly observed event of the booking offer, and only to subscribers owning the booking offer.
  */
 @Service
 @CompileStatic
 class BookingOfferSummaryQueryHandlerService {
-  private static final String BOOKING_OFFER_IDENTIFIER = "bookingOfferId"
-  private static final String TOTAL_COMMODITY_WEIGHT = "totalCommodityWeight"
-
   private final BookingOfferSummaryViewJpaRepository bookingOfferSummaryViewJpaRepository
+  private final BookingOfferSummaryFindByIdQueryResponseCache bookingOfferSummaryFindByIdQueryResponseCache
+  private final QueryUpdateEmitter queryUpdateEmitter
 
-  BookingOfferSummaryQueryHandlerService(BookingOfferSummaryViewJpaRepository bookingOfferSummaryViewJpaRepository) {
+  BookingOfferSummaryQueryHandlerService(
+      BookingOfferSummaryViewJpaRepository bookingOfferSummaryViewJpaRepository, BookingOfferSummaryFindByIdQueryResponseCache bookingOfferSummaryFindByIdQueryResponseCache,
+      QueryUpdateEmitter queryUpdateEmitter)
+  {
     this.bookingOfferSummaryViewJpaRepository = bookingOfferSummaryViewJpaRepository
+    this.bookingOfferSummaryFindByIdQueryResponseCache = bookingOfferSummaryFindByIdQueryResponseCache
+    this.queryUpdateEmitter = queryUpdateEmitter
   }
 
   @QueryHandler
   BookingOfferSummaryFindByIdQueryResponse handleBookingOfferSummaryFindByIdQueryRequest(BookingOfferSummaryFindByIdQueryRequest bookingOfferSummaryFindByIdQueryRequest) {
+    // Note: UUID string is normalized to match the aggregate identifier format used in domain event messages, which is required for cache invalidation to work.
+    return bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(
+        UUID.fromString(bookingOfferSummaryFindByIdQueryRequest.bookingOfferId).toString(),
+        bookingOfferSummaryFindByIdQueryRequest.customerId,
+        { loadBookingOfferSummaryFindByIdQueryResponse(bookingOfferSummaryFindByIdQueryRequest) }
+    )
+  }
+
+  protected BookingOfferSummaryFindByIdQueryResponse loadBookingOfferSummaryFindByIdQueryResponse(BookingOfferSummaryFindByIdQueryRequest bookingOfferSummaryFindByIdQueryRequest) {
     BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity = bookingOfferSummaryViewJpaRepository
         .findByBookingOfferIdAndCustomerId(UUID.fromString(bookingOfferSummaryFindByIdQueryRequest.bookingOfferId), bookingOfferSummaryFindByIdQueryRequest.customerId)
 
@@ -71,17 +95,117 @@ class BookingOfferSummaryQueryHandlerService {
       throw new QueryException(ViolationInfo.NOT_FOUND)
     }
 
-    BookingOfferSummaryFindByIdQueryResponse bookingOfferSummaryFindByIdQueryResponse =
-        new BookingOfferSummaryFindByIdQueryResponse(fetchBookingOfferSummaryJpaEntityProperties(bookingOfferSummaryJpaEntity))
-
+    BookingOfferSummaryFindByIdQueryResponse bookingOfferSummaryFindByIdQueryResponse = BookingOfferSummaryHydrationUtil.makeBookingOfferSummaryFindByIdQueryResponse(bookingOfferSummaryJpaEntity)
     return bookingOfferSummaryFindByIdQueryResponse
   }
 
-  protected Map<String, Object> fetchBookingOfferSummaryJpaEntityProperties(BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity) {
-    return bookingOfferSummaryJpaEntity.properties.tap({
-      it[this.BOOKING_OFFER_IDENTIFIER] = bookingOfferSummaryJpaEntity.bookingOfferId.toString()
-      it[this.TOTAL_COMMODITY_WEIGHT] = bookingOfferSummaryJpaEntity.totalCommodityWeight ? KwrkQuantityFormat.instance.parse(bookingOfferSummaryJpaEntity.totalCommodityWeight) : null
-    })
+  /**
+   * Emits the current booking offer summary to active subscription queries interested in a booking offer.
+   * <p/>
+   * Intended to be called when an event with a given sequence number is observed for a booking offer. Since the projection is maintained by a separate application, it might not reflect the observed
+   * event yet. In that case, nothing is emitted for the affected subscribers, and the caller is expected to retry later. Already emitted subscribers can receive the same update again on retry.
+   * <p/>
+   * The database is not accessed when there are no active subscription queries for the booking offer. Subscribers that do not own the booking offer are skipped, and they are not a reason for a
+   * retry.
+   *
+   * @param bookingOfferId normalized booking offer identifier, as used for aggregate identifiers in domain event messages.
+   * @return {@link UpdateEmissionOutcome#PROJECTION_BEHIND} when the projection does not reflect the observed event yet, and the caller should retry. Otherwise, there is nothing left to emit for
+   *         the observed event.
+   */
+  UpdateEmissionOutcome emitBookingOfferSummaryFindByIdQueryUpdate(String bookingOfferId, Long eventSequenceNumber) {
+    Set<String> subscriberCustomerIds = findBookingOfferSummaryFindByIdSubscriberCustomerIds(bookingOfferId)
+    if (subscriberCustomerIds.isEmpty()) {
+      return UpdateEmissionOutcome.NO_SUBSCRIBERS
+    }
+
+    boolean isProjectionBehind = false
+    for (String customerId in subscriberCustomerIds) {
+      BookingOfferSummaryFindByIdQueryResponse bookingOfferSummaryFindByIdQueryResponse = findBookingOfferSummaryFindByIdQueryResponseOrNull(bookingOfferId, customerId)
+      if (bookingOfferSummaryFindByIdQueryResponse == null) {
+        // Booking offer is either not projected yet, or it is not owned by the subscriber. Only the former is worth a retry.
+        isProjectionBehind = isProjectionBehind || !bookingOfferSummaryViewJpaRepository.existsById(UUID.fromString(bookingOfferId))
+        continue
+      }
+
+      if (bookingOfferSummaryFindByIdQueryResponse.lastEventSequenceNumber == null || bookingOfferSummaryFindByIdQueryResponse.lastEventSequenceNumber < eventSequenceNumber) {
+        isProjectionBehind = true
+        continue
+      }
+
+      queryUpdateEmitter.emit(
+          BookingOfferSummaryFindByIdQueryRequest,
+          { BookingOfferSummaryFindByIdQueryRequest subscribedRequest ->
+            isBookingOfferSummaryFindByIdQueryRequestFor(subscribedRequest, bookingOfferId, customerId)
+          } as Predicate<BookingOfferSummaryFindByIdQueryRequest>,
+          bookingOfferSummaryFindByIdQueryResponse
+      )
+    }
+
+    return isProjectionBehind ? UpdateEmissionOutcome.PROJECTION_BEHIND : UpdateEmissionOutcome.EMITTED
+  }
+
+  /**
+   * Checks if there are active subscription queries interested in a booking offer.
+   *
+   * @param bookingOfferId normalized booking offer identifier, as used for aggregate identifiers in domain event messages.
+   */
+  boolean hasBookingOfferSummaryFindByIdSubscribers(String bookingOfferId) {
+    return !findBookingOfferSummaryFindByIdSubscriberCustomerIds(bookingOfferId).isEmpty()
+  }
+
+  protected BookingOfferSummaryFindByIdQueryResponse findBookingOfferSummaryFindByIdQueryResponseOrNull(String bookingOfferId, String customerId) {
+    try {
+      return handleBookingOfferSummaryFindByIdQueryRequest(new BookingOfferSummaryFindByIdQueryRequest(bookingOfferId: bookingOfferId, customerId: customerId))
+    }
+    catch (QueryException queryException) {
+      if (queryException.violationInfo.violationCode.code == ViolationCode.NOT_FOUND.code) {
+        return null
+      }
+
+      throw queryException
+    }
+  }
+
+  protected Set<String> findBookingOfferSummaryFindByIdSubscriberCustomerIds(String bookingOfferId) {
+    Set<String> subscriberCustomerIds = [] as Set<String>
+    for (SubscriptionQueryMessage<?, ?, ?> subscriptionQueryMessage in queryUpdateEmitter.activeSubscriptions()) {
+      if (subscriptionQueryMessage.payloadType != BookingOfferSummaryFindByIdQueryRequest) {
+        continue
+      }
+
+      BookingOfferSummaryFindByIdQueryRequest subscribedRequest = subscriptionQueryMessage.payload as BookingOfferSummaryFindByIdQueryRequest
+      if (subscribedRequest.customerId != null && isBookingOfferSummaryFindByIdQueryRequestFor(subscribedRequest, bookingOfferId, subscribedRequest.customerId)) {
+        subscriberCustomerIds << subscribedRequest.customerId
+      }
+    }
+
+    return subscriberCustomerIds
+  }
+
+  protected static boolean isBookingOfferSummaryFindByIdQueryRequestFor(
+      BookingOfferSummaryFindByIdQueryRequest bookingOfferSummaryFindByIdQueryRequest, String bookingOfferId, String customerId)
+  {
+    return bookingOfferSummaryFindByIdQueryRequest.customerId == customerId && UUID.fromString(bookingOfferSummaryFindByIdQueryRequest.bookingOfferId).toString() == bookingOfferId
+  }
+
+  /**
+   * Outcome of emitting a booking offer summary update to subscription queries.
+   */
+  static enum UpdateEmissionOutcome {
+    /**
+     * All subscribers owning the booking offer received the booking offer summary reflecting the observed event.
+     */
+    EMITTED,
+
+    /**
+     * There are no active subscription queries for the booking offer.
+     */
+    NO_SUBSCRIBERS,
+
+    /**
+     * The projection does not reflect the observed event yet.
+     */
+    PROJECTION_BEHIND
   }
 
   // Implementation notes:
@@ -98,8 +222,14 @@ class BookingOfferSummaryQueryHandlerService {
   //
   // In general, we should use all three pieces of advice to write correct and performant JPA queries for entities with collections.
   //
+  // Since the second query does not preserve the order of identifiers, the page is assembled via an identifier-indexed map (see BookingOfferSummaryHydrationUtil).
+  //
   @QueryHandler
   BookingOfferSummaryFindAllQueryResponse handleBookingOfferSummaryFindAllQueryRequest(BookingOfferSummaryFindAllQueryRequest bookingOfferSummaryFindAllQueryRequest) {
+    if (bookingOfferSummaryFindAllQueryRequest.pageRequirement.keyset) {
+      return handleBookingOfferSummaryFindAllQueryRequestWithKeysetPaging(bookingOfferSummaryFindAllQueryRequest)
+    }
+
     PageRequest pageRequest =
         QueryHandlerSpringDataJpaUtil.makePageRequestFromPageAndSortRequirements(bookingOfferSummaryFindAllQueryRequest.pageRequirement, bookingOfferSummaryFindAllQueryRequest.sortRequirementList)
 
@@ -117,13 +247,7 @@ class BookingOfferSummaryQueryHandlerService {
         bookingOfferSummaryViewJpaRepository.findAllByBookingOfferIdsAndCustomerId(foundBookingOfferIds, bookingOfferSummaryFindAllQueryRequest.customerId)
 
     BookingOfferSummaryFindAllQueryResponse bookingOfferSummaryFindAllQueryResponse = new BookingOfferSummaryFindAllQueryResponse().tap {
-      pageContent = foundBookingOfferIds
-          .collect({ UUID bookingOfferId ->
-            BookingOfferSummaryJpaEntity myBookingOfferSummaryJpaEntity = foundBookingOfferSummaryJpaEntities
-                .find({ BookingOfferSummaryJpaEntity foundBookingOfferSummaryJpaEntity -> foundBookingOfferSummaryJpaEntity.bookingOfferId == bookingOfferId })
-
-            new BookingOfferSummaryFindByIdQueryResponse(fetchBookingOfferSummaryJpaEntityProperties(myBookingOfferSummaryJpaEntity))
-          })
+      pageContent = BookingOfferSummaryHydrationUtil.makePageContent(foundBookingOfferIds, foundBookingOfferSummaryJpaEntities)
 
       pageInfo = QueryHandlerSpringDataJpaUtil
           .makePageInfoFromPage(pageOfBookingOfferIds, bookingOfferSummaryFindAllQueryRequest.pageRequirement, bookingOfferSummaryFindAllQueryRequest.sortRequirementList)
@@ -132,6 +256,63 @@ class BookingOfferSummaryQueryHandlerService {
     return bookingOfferSummaryFindAllQueryResponse
   }
 
+  protected BookingOfferSummaryFindAllQueryResponse handleBookingOfferSummaryFindAllQueryRequestWithKeysetPaging(BookingOfferSummaryFindAllQueryRequest bookingOfferSummaryFindAllQueryRequest) {
+    KeysetPageRequest keysetPageRequest =
+        BookingOfferSummaryKeysetPagingUtil.makeKeysetPageRequest(bookingOfferSummaryFindAllQueryRequest.pageRequirement, bookingOfferSummaryFindAllQueryRequest.sortRequirementList)
+
+    List<UUID> foundBookingOfferIds =
+        bookingOfferSummaryViewJpaRepository.findKeysetPageOfBookingOfferIdByCustomerId(bookingOfferSummaryFindAllQueryRequest.customerId, keysetPageRequest)
+
+    Long totalElementsCount = bookingOfferSummaryFindAllQueryRequest.pageRequirement.totalCountRequired
+        ? bookingOfferSummaryViewJpaRepository.countByCustomerId(bookingOfferSummaryFindAllQueryRequest.customerId)
+        : null
+
+    KeysetPageContent keysetPageContent = fetchKeysetPageContent(foundBookingOfferIds, keysetPageRequest, bookingOfferSummaryFindAllQueryRequest.customerId)
+
+    BookingOfferSummaryFindAllQueryResponse bookingOfferSummaryFindAllQueryResponse = new BookingOfferSummaryFindAllQueryResponse().tap {
+      pageContent = keysetPageContent.pageContent
+      pageInfo = QueryHandlerSpringDataJpaUtil.makePageInfoFromKeysetPage(
+          keysetPageRequest, keysetPageContent.pageContent.size(), keysetPageContent.nextCursor, totalElementsCount,
+          bookingOfferSummaryFindAllQueryRequest.pageRequirement, bookingOfferSummaryFindAllQueryRequest.sortRequirementList
+      )
+    }
+
+    return bookingOfferSummaryFindAllQueryResponse
+  }
+
+  /**
+   * Fetches booking offer summaries for identifiers of a keyset page and creates the cursor of the following page.
+   * <p/>
+   * Found identifiers are expected to contain a single lookahead identifier beyond the requested page size if the following page exists. Identifiers whose entities disappeared in the meantime
+   * (i.e., were deleted or reassigned between the identifier and the entity query) are skipped, and the cursor is created from the last identifier that still has an entity.
+   */
+  protected KeysetPageContent fetchKeysetPageContent(List<UUID> foundBookingOfferIdsWithLookahead, KeysetPageRequest keysetPageRequest, String customerId) {
+    boolean hasNextPage = foundBookingOfferIdsWithLookahead.size() > keysetPageRequest.size
+    List<UUID> foundBookingOfferIds = hasNextPage ? foundBookingOfferIdsWithLookahead.take(keysetPageRequest.size) : foundBookingOfferIdsWithLookahead
+    if (foundBookingOfferIds.isEmpty()) {
+      return new KeysetPageContent([], null)
+    }
+
+    List<BookingOfferSummaryJpaEntity> foundBookingOfferSummaryJpaEntities = bookingOfferSummaryViewJpaRepository.findAllByBookingOfferIdsAndCustomerId(foundBookingOfferIds, customerId)
+    Map<UUID, BookingOfferSummaryJpaEntity> foundBookingOfferSummaryJpaEntityMap = BookingOfferSummaryHydrationUtil.makeBookingOfferSummaryJpaEntityMap(foundBookingOfferSummaryJpaEntities)
+
+    List<BookingOfferSummaryFindByIdQueryResponse> pageContent = BookingOfferSummaryHydrationUtil.makePageContent(foundBookingOfferIds, foundBookingOfferSummaryJpaEntityMap)
+
+    BookingOfferSummaryJpaEntity lastFoundBookingOfferSummaryJpaEntity = foundBookingOfferIds.reverse()
+        .findResult({ UUID bookingOfferId -> foundBookingOfferSummaryJpaEntityMap.get(bookingOfferId) })
+
+    String nextCursor = hasNextPage && lastFoundBookingOfferSummaryJpaEntity != null
+        ? BookingOfferSummaryKeysetPagingUtil.makeNextCursor(keysetPageRequest, lastFoundBookingOfferSummaryJpaEntity)
+        : null
+    return new KeysetPageContent(pageContent, nextCursor)
+  }
+
+  @TupleConstructor
+  static class KeysetPageContent {
+    List<BookingOfferSummaryFindByIdQueryResponse> pageContent
+    String nextCursor
+  }
+
   @TupleConstructor
   static class BookingOfferIdDto {
     UUID bookingOfferId
@@ -139,17 +320,12 @@ class BookingOfferSummaryQueryHandlerService {
 
   @QueryHandler
   BookingOfferSummarySearchAllQueryResponse handleBookingOfferSummarySearchAllQueryRequest(BookingOfferSummarySearchAllQueryRequest bookingOfferSummarySearchAllQueryRequest) {
-    SearchConfiguration<BookingOfferSummaryJpaEntity, BookingOfferIdDto, BookingOfferSummarySearchAllQueryRequest> searchConfiguration = SearchConfiguration
-        .<BookingOfferSummaryJpaEntity, BookingOfferIdDto, BookingOfferSummarySearchAllQueryRequest>builder()
-        .resultClass(BookingOfferIdDto)
-        .anyMatch(false)
-        .searchPropertyConfiguration(
-            SearchPropertyConfiguration
-                .defaultSearchPropertyConfiguration()
-                .tap({ searchIgnoredPropertyList = ["customerId", "totalCommodityWeightFromIncluding", "totalCommodityWeightToIncluding"] })
-        )
-        .additionalRestrictionResolverList([new BookingOfferSummaryJpaEntityAdditionalRestrictionResolver()] as List<AdditionalRestrictionResolver>) // codenarc-disable-line UnnecessaryCast
-        .build()
+    if (bookingOfferSummarySearchAllQueryRequest.pageRequirement.keyset) {
+      return handleBookingOfferSummarySearchAllQueryRequestWithKeysetPaging(bookingOfferSummarySearchAllQueryRequest)
+    }
+
+    SearchConfiguration<BookingOfferSummaryJpaEntity, BookingOfferIdDto, BookingOfferSummarySearchAllQueryRequest> searchConfiguration =
+        makeBookingOfferSummarySearchConfiguration([new BookingOfferSummaryJpaEntityAdditionalRestrictionResolver()] as List<AdditionalRestrictionResolver>) // codenarc-disable-line UnnecessaryCast
 
     PageRequest pageRequest =
         QueryHandlerSpringDataJpaUtil.makePageRequestFromPageAndSortRequirements(bookingOfferSummarySearchAllQueryRequest.pageRequirement, bookingOfferSummarySearchAllQueryRequest.sortRequirementList)
@@ -167,13 +343,7 @@ class BookingOfferSummaryQueryHandlerService {
         bookingOfferSummaryViewJpaRepository.findAllByBookingOfferIdsAndCustomerId(foundBookingOfferIds, bookingOfferSummarySearchAllQueryRequest.customerId)
 
     BookingOfferSummarySearchAllQueryResponse bookingOfferSummarySearchAllQueryResponse = new BookingOfferSummarySearchAllQueryResponse().tap {
-      pageContent = foundBookingOfferIds
-          .collect({ UUID bookingOfferId ->
-            BookingOfferSummaryJpaEntity myBookingOfferSummaryJpaEntity = foundBookingOfferSummaryJpaEntities
-                .find({ BookingOfferSummaryJpaEntity foundBookingOfferSummaryJpaEntity -> foundBookingOfferSummaryJpaEntity.bookingOfferId == bookingOfferId })
-
-            new BookingOfferSummaryFindByIdQueryResponse(fetchBookingOfferSummaryJpaEntityProperties(myBookingOfferSummaryJpaEntity))
-          })
+      pageContent = BookingOfferSummaryHydrationUtil.makePageContent(foundBookingOfferIds, foundBookingOfferSummaryJpaEntities)
 
       pageInfo = QueryHandlerSpringDataJpaUtil
           .makePageInfoFromPage(pageOfBookingOfferIdDtos, bookingOfferSummarySearchAllQueryRequest.pageRequirement, bookingOfferSummarySearchAllQueryRequest.sortRequirementList)
@@ -181,4 +351,68 @@ class BookingOfferSummaryQueryHandlerService {
 
     return bookingOfferSummarySearchAllQueryResponse
   }
+
+  protected BookingOfferSummarySearchAllQueryResponse handleBookingOfferSummarySearchAllQueryRequestWithKeysetPaging(
+      BookingOfferSummarySearchAllQueryRequest bookingOfferSummarySearchAllQueryRequest)
+  {
+    KeysetPageRequest keysetPageRequest =
+        BookingOfferSummaryKeysetPagingUtil.makeKeysetPageRequest(bookingOfferSummarySearchAllQueryRequest.pageRequirement, bookingOfferSummarySearchAllQueryRequest.sortRequirementList)
+
+    List<AdditionalRestrictionResolver> additionalRestrictionResolverList = [
+        new BookingOfferSummaryJpaEntityAdditionalRestrictionResolver(),
+        new BookingOfferSummaryJpaEntityKeysetAdditionalRestrictionResolver(keysetPageRequest)
+    ] as List<AdditionalRestrictionResolver> // codenarc-disable-line UnnecessaryCast
+
+    SearchConfiguration<BookingOfferSummaryJpaEntity, BookingOfferIdDto, BookingOfferSummarySearchAllQueryRequest> searchConfiguration =
+        makeBookingOfferSummarySearchConfiguration(additionalRestrictionResolverList)
+
+    List<BookingOfferIdDto> foundBookingOfferIdDtos =
+        bookingOfferSummaryViewJpaRepository.findKeysetPageBySearchRequest(bookingOfferSummarySearchAllQueryRequest, searchConfiguration, keysetPageRequest)
+    List<UUID> foundBookingOfferIds = foundBookingOfferIdDtos.collect({ BookingOfferIdDto dto -> dto.bookingOfferId })
+
+    Long totalElementsCount = null
+    if (bookingOfferSummarySearchAllQueryRequest.pageRequirement.totalCountRequired) {
+      SearchConfiguration<BookingOfferSummaryJpaEntity, BookingOfferIdDto, BookingOfferSummarySearchAllQueryRequest> countSearchConfiguration =
+          makeBookingOfferSummarySearchConfiguration([new BookingOfferSummaryJpaEntityAdditionalRestrictionResolver()] as List<AdditionalRestrictionResolver>) // codenarc-disable-line UnnecessaryCast
+
+      totalElementsCount = bookingOfferSummaryViewJpaRepository.count(bookingOfferSummarySearchAllQueryRequest, countSearchConfiguration)
+    }
+
+    KeysetPageContent keysetPageContent = fetchKeysetPageContent(foundBookingOfferIds, keysetPageRequest, bookingOfferSummarySearchAllQueryRequest.customerId)
+
+    BookingOfferSummarySearchAllQueryResponse bookingOfferSummarySearchAllQueryResponse = new BookingOfferSummarySearchAllQueryResponse().tap {
+      pageContent = keysetPageContent.pageContent
+      pageInfo = QueryHandlerSpringDataJpaUtil.makePageInfoFromKeysetPage(
+          keysetPageRequest, keysetPageContent.pageContent.size(), keysetPageContent.nextCursor, totalElementsCount,
+          bookingOfferSummarySearchAllQueryRequest.pageRequirement, bookingOfferSummarySearchAllQueryRequest.sortRequirementList
+      )
+    }
+
+    return bookingOfferSummarySearchAllQueryResponse
+  }
+
+  protected SearchConfiguration<BookingOfferSummaryJpaEntity, BookingOfferIdDto, BookingOfferSummarySearchAllQueryRequest> makeBookingOfferSummarySearchConfiguration(
+      List<AdditionalRestrictionResolver> additionalRestrictionResolverList)
+  {
+    SearchConfiguration<BookingOfferSummaryJpaEntity, BookingOfferIdDto, BookingOfferSummarySearchAllQueryRequest> searchConfiguration = SearchConfiguration
+        .<BookingOfferSummaryJpaEntity, BookingOfferIdDto, BookingOfferSummarySearchAllQueryRequest>builder()
+        .resultClass(BookingOfferIdDto)
+        .anyMatch(false)
+        .searchPropertyConfiguration(makeBookingOfferSummarySearchPropertyConfiguration())
+        .additionalRestrictionResolverList(additionalRestrictionResolverList)
+        .build()
+
+    return searchConfiguration
+  }
+
+  /**
+   * Creates search property configuration for searching booking offer summaries with {@link BookingOfferSummarySearchAllQueryRequest}.
+   * <p/>
+   * Ignored request properties are either resolved by additional restriction resolvers or are replaced with corresponding properties prepared by the application service.
+   */
+  static SearchPropertyConfiguration makeBookingOfferSummarySearchPropertyConfiguration() {
+    return SearchPropertyConfiguration
+        .defaultSearchPropertyConfiguration()
+        .tap({ searchIgnoredPropertyList = ["customerId", "totalCommodityWeightFromIncluding", "totalCommodityWeightToIncluding"] })
+  }
 }
@@ -30,7 +30,8 @@ import org.springframework.data.repository.query.Param
 @SuppressWarnings("CodeNarc.BracesForClass")
 @CompileStatic
 interface BookingOfferSummaryViewJpaRepository extends
-    JpaRepository<BookingOfferSummaryJpaEntity, UUID>, SearchExecutor<BookingOfferSummaryJpaEntity>, ReadOnlyJpaRepository<BookingOfferSummaryJpaEntity>
+    JpaRepository<BookingOfferSummaryJpaEntity, UUID>, SearchExecutor<BookingOfferSummaryJpaEntity>, ReadOnlyJpaRepository<BookingOfferSummaryJpaEntity>,
+    BookingOfferSummaryKeysetViewJpaRepository
 {
   @Query("""
       SELECT b FROM BookingOfferSummaryJpaEntity b
@@ -70,4 +71,7 @@ interface BookingOfferSummaryViewJpaRepository extends
         AND b.customerId = :customerId
   """)
   List<BookingOfferSummaryJpaEntity> findAllByBookingOfferIdsAndCustomerId(@Param("bookingOfferIds") List<UUID> bookingOfferIds, @Param("customerId") String customerId)
+
+  // Intended to be used with keyset paging when the total count is requested. Offset paging uses the count query of findPageOfBookingOfferIdByCustomerId instead.
+  long countByCustomerId(String customerId)
 }
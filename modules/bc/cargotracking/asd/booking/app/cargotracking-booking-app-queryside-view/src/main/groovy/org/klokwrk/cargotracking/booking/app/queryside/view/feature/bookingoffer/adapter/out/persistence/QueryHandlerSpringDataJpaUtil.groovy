@@ -18,6 +18,7 @@
 package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
 
 import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryKeysetPagingUtil.KeysetPageRequest
 import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.QueryException
 import org.klokwrk.cargotracking.lib.boundary.api.domain.violation.ViolationInfo
 import org.klokwrk.cargotracking.lib.boundary.query.api.paging.PageInfo
@@ -38,12 +39,16 @@ class QueryHandlerSpringDataJpaUtil {
   private static final String INVALID_PROPERTY_MESSAGE_KEY = "badRequest.query.sorting.invalidProperty"
 
   static PageRequest makePageRequestFromPageAndSortRequirements(PageRequirement pageRequirement, List<SortRequirement> sortRequirementList) {
+    Sort sort = makeSortFromSortRequirements(sortRequirementList)
+    PageRequest pageRequest = PageRequest.of(pageRequirement.ordinal, pageRequirement.size, sort)
+    return pageRequest
+  }
+
+  static Sort makeSortFromSortRequirements(List<SortRequirement> sortRequirementList) {
     List<Sort.Order> sortOrderList = sortRequirementList
         .collect({ SortRequirement sortRequirement -> new Sort.Order(Sort.Direction.fromString(sortRequirement.direction.name()), sortRequirement.propertyName) })
 
-    Sort sort = Sort.by(sortOrderList)
-    PageRequest pageRequest = PageRequest.of(pageRequirement.ordinal, pageRequirement.size, sort)
-    return pageRequest
+    return Sort.by(sortOrderList)
   }
 
   static QueryException makeQueryExceptionFromPropertyReferenceException(PropertyReferenceException propertyReferenceException) {
@@ -83,4 +88,34 @@ class QueryHandlerSpringDataJpaUtil {
 
     return pageInfo
   }
+
+  /**
+   * Creates page info for a page fetched with keyset paging.
+   *
+   * @param fetchedNextCursor the cursor of the following page, or {@code null} if the fetched page is the last one.
+   * @param fetchedTotalElementsCount the total number of elements, or {@code null} if counting was not requested.
+   */
+  static PageInfo makePageInfoFromKeysetPage(
+      KeysetPageRequest keysetPageRequest, Integer fetchedPageElementsCount, String fetchedNextCursor, Long fetchedTotalElementsCount, PageRequirement pageRequirement,
+      List<SortRequirement> sortRequirementList)
+  {
+    PageInfo pageInfo = new PageInfo().tap {
+      pageOrdinal = keysetPageRequest.pageOrdinal
+      pageElementsCount = fetchedPageElementsCount
+
+      first = keysetPageRequest.pageOrdinal == 0
+      last = fetchedNextCursor == null
+      nextCursor = fetchedNextCursor
+
+      if (fetchedTotalElementsCount != null) {
+        totalPagesCount = (fetchedTotalElementsCount + keysetPageRequest.size - 1).intdiv(keysetPageRequest.size) as Integer
+        totalElementsCount = fetchedTotalElementsCount
+      }
+
+      requestedPageRequirement = pageRequirement
+      requestedSortRequirementList = sortRequirementList
+    }
+
+    return pageInfo
+  }
 }
@@ -0,0 +1,44 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationRequest
+import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
+
+import java.util.concurrent.CompletableFuture
+
+/**
+ * Inbound port for finding a booking offer summary that reflects at least a given event of a booking offer.
+ * <p/>
+ * Intended for clients that have just issued a command and want to read its outcome without polling.
+ */
+@CompileStatic
+interface BookingOfferSummaryFindByIdAwaitQueryPortIn {
+  /**
+   * Waits until the booking offer summary reflects the requested {@code lastEventSequenceNumber} or until the await timeout expires.
+   * <p/>
+   * On timeout, the latest known booking offer summary is returned. When no booking offer summary is known, a not found failure is reported.
+   * <p/>
+   * The request is validated before returning, and validation failures are thrown directly. The calling thread is not blocked while waiting. The returned future completes with the result or with
+   * the failure, and cancelling it ends waiting.
+   */
+  CompletableFuture<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>> bookingOfferSummaryFindByIdAwaitQuery(
+      OperationRequest<BookingOfferSummaryFindByIdAwaitQueryRequest> bookingOfferSummaryFindByIdAwaitQueryOperationRequest
+  )
+}
@@ -0,0 +1,87 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in
+
+import groovy.transform.CompileStatic
+import groovy.transform.MapConstructor
+import groovy.transform.PropertyOptions
+import org.klokwrk.lib.lo.validation.constraint.RandomUuidFormatConstraint
+import org.klokwrk.lib.lo.validation.constraint.TrimmedStringConstraint
+import org.klokwrk.lib.lo.validation.group.Level1
+import org.klokwrk.lib.lo.validation.group.Level2
+import org.klokwrk.lib.lo.validation.group.Level3
+import org.klokwrk.lib.xlang.groovy.base.transform.options.RelaxedPropertyHandler
+
+import jakarta.validation.GroupSequence
+import jakarta.validation.constraints.Max
+import jakarta.validation.constraints.NotBlank
+import jakarta.validation.constraints.NotNull
+import jakarta.validation.constraints.Positive
+import jakarta.validation.constraints.PositiveOrZero
+import jakarta.validation.constraints.Size
+
+/**
+ * Request DTO parameter for {@code bookingOfferSummaryFindByIdAwaitQuery} operation from {@link BookingOfferSummaryFindByIdAwaitQueryPortIn} inbound port interface.
+ * <p/>
+ * Here we are comply to the validation ordering as explained in ADR-0013.
+ */
+@GroupSequence([BookingOfferSummaryFindByIdAwaitQueryRequest, Level1, Level2, Level3])
+@PropertyOptions(propertyHandler = RelaxedPropertyHandler)
+@MapConstructor(noArg = true)
+@CompileStatic
+class BookingOfferSummaryFindByIdAwaitQueryRequest {
+  static final long AWAIT_TIMEOUT_MILLIS_DEFAULT = 10_000L
+  static final long AWAIT_TIMEOUT_MILLIS_MAX = 30_000L
+
+  /**
+   * User identifier known to the real end user (i.e., like email)
+   * <p/>
+   * Not null and not blank.
+   */
+  @TrimmedStringConstraint(groups = [Level2])
+  @NotBlank(groups = [Level1])
+  String userId
+
+  /**
+   * Identifier of a booking offer.
+   * <p/>
+   * Not null and not blank. Must be in random uuid format.
+   */
+  @RandomUuidFormatConstraint(groups = [Level3])
+  @Size(min = 36, max = 36, groups = [Level2])
+  @NotBlank(groups = [Level1])
+  String bookingOfferId
+
+  /**
+   * Sequence number of the booking offer event that the returned booking offer summary has to reflect.
+   * <p/>
+   * Not null. Must be zero or positive. Usually, it is taken from the metadata of a command response.
+   */
+  @PositiveOrZero(groups = [Level2])
+  @NotNull(groups = [Level1])
+  Long lastEventSequenceNumber
+
+  /**
+   * Maximum time in milliseconds to wait for the booking offer summary to reflect the requested {@code lastEventSequenceNumber}.
+   * <p/>
+   * Optional. Must be positive and not greater than {@link #AWAIT_TIMEOUT_MILLIS_MAX}. When not specified, {@link #AWAIT_TIMEOUT_MILLIS_DEFAULT} is used.
+   */
+  @Max(value = AWAIT_TIMEOUT_MILLIS_MAX, groups = [Level2])
+  @Positive(groups = [Level2])
+  Long awaitTimeoutMillis
+}
@@ -0,0 +1,44 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationRequest
+import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
+
+import java.util.function.Consumer
+
+/**
+ * Inbound port for subscribing to the updates of a booking offer summary.
+ * <p/>
+ * The current booking offer summary (if it exists) is reported first, followed by the booking offer summaries reflecting subsequent changes of a booking offer. Reported summaries are ordered by their
+ * {@code lastEventSequenceNumber} and are never reported twice.
+ */
+@CompileStatic
+interface BookingOfferSummaryFindByIdSubscriptionQueryPortIn {
+  /**
+   * Subscribes to the updates of a booking offer summary.
+   * <p/>
+   * Subscription ends when the returned {@code AutoCloseable} is closed or when the failure is reported.
+   */
+  AutoCloseable bookingOfferSummaryFindByIdSubscriptionQuery(
+      OperationRequest<BookingOfferSummaryFindByIdQueryRequest> bookingOfferSummaryFindByIdQueryOperationRequest,
+      Consumer<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>> bookingOfferSummaryFindByIdQueryOperationResponseConsumer,
+      Consumer<Throwable> failureConsumer
+  )
+}
@@ -0,0 +1,40 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out
+
+import groovy.transform.CompileStatic
+
+import java.util.function.Consumer
+
+/**
+ * Deferred export of booking offer summaries prepared by {@link BookingOfferSummaryExportQueryPortOut}.
+ * <p/>
+ * Booking offer summaries are fetched and passed to the consumer one by one, only when {@link #exportTo(Consumer)} is called.
+ */
+@CompileStatic
+class BookingOfferSummaryExport {
+  private final Consumer<Consumer<BookingOfferSummaryExportRecord>> exportAction
+
+  BookingOfferSummaryExport(Consumer<Consumer<BookingOfferSummaryExportRecord>> exportAction) {
+    this.exportAction = exportAction
+  }
+
+  void exportTo(Consumer<BookingOfferSummaryExportRecord> bookingOfferSummaryExportRecordConsumer) {
+    exportAction.accept(bookingOfferSummaryExportRecordConsumer)
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.domain.model.value.CommodityType
+import org.klokwrk.cargotracking.domain.model.value.CustomerType
+import org.klokwrk.cargotracking.lib.boundary.query.api.sorting.SortRequirement
+
+import java.time.Instant
+
+/**
+ * Criteria for exporting booking offer summaries via {@link BookingOfferSummaryExportQueryPortOut}.
+ * <p/>
+ * All criteria except {@code customerId} and {@code sortRequirementList} are optional. Property names match the corresponding properties of booking offer summaries, while {@code FromIncluding}
+ * and {@code ToIncluding} suffixes denote range boundaries.
+ */
+@CompileStatic
+class BookingOfferSummaryExportCriteria {
+  String customerId
+
+  List<CustomerType> customerTypeSearchList
+
+  String originLocationName
+  String originLocationCountryName
+
+  String destinationLocationName
+  String destinationLocationCountryName
+
+  Set<CommodityType> commodityTypes
+
+  Long totalCommodityWeightKgFromIncluding
+  Long totalCommodityWeightKgToIncluding
+
+  BigDecimal totalContainerTeuCountFromIncluding
+  BigDecimal totalContainerTeuCountToIncluding
+
+  Instant firstEventRecordedAtFromIncluding
+  Instant firstEventRecordedAtToIncluding
+
+  Instant lastEventRecordedAtFromIncluding
+  Instant lastEventRecordedAtToIncluding
+
+  List<SortRequirement> sortRequirementList
+}
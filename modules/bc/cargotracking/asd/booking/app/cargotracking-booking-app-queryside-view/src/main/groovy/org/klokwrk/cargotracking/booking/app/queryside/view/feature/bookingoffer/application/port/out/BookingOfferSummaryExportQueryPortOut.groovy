@@ -0,0 +1,36 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out
+
+import groovy.transform.CompileStatic
+
+/**
+ * Outbound port for exporting all booking offer summaries matching the export criteria.
+ * <p/>
+ * Export queries are not dispatched over the Axon query bus since query bus responses are completely materialized in memory before returning. Instead, this port is implemented by the
+ * persistence adapter, which streams query results directly from the database.
+ */
+@CompileStatic
+interface BookingOfferSummaryExportQueryPortOut {
+  /**
+   * Prepares the export of booking offer summaries.
+   * <p/>
+   * Export criteria are fully validated during preparation, while booking offer summaries are fetched only when the export is performed via the returned {@link BookingOfferSummaryExport}.
+   */
+  BookingOfferSummaryExport prepareBookingOfferSummaryExport(BookingOfferSummaryExportCriteria bookingOfferSummaryExportCriteria)
+}
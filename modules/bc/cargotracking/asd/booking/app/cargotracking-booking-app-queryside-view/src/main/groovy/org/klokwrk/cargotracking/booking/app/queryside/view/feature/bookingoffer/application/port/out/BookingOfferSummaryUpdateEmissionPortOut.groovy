@@ -0,0 +1,40 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out
+
+import groovy.transform.CompileStatic
+
+/**
+ * Outbound port for requesting emission of booking offer summary updates to subscription queries.
+ * <p/>
+ * Updates are normally emitted when an event of a booking offer is observed while there are active subscription queries for it. However, the event can be observed before the subscription query is
+ * registered, while the projection does not reflect it yet. Without an explicit request, such a subscription query would not receive any update for that event.
+ */
+@CompileStatic
+interface BookingOfferSummaryUpdateEmissionPortOut {
+  /**
+   * Requests emission of booking offer summary updates for a newly registered subscription query, if its initial result does not reflect all events known for a booking offer.
+   * <p/>
+   * Known events include those already observed by the application and the awaited event, if any. When the initial result reflects all of them, nothing is requested.
+   *
+   * @param bookingOfferId booking offer identifier, as specified in the subscription query request.
+   * @param initialEventSequenceNumber sequence number of the last event reflected by the initial result of a subscription query, or {@code null} when the initial result is not found.
+   * @param awaitedEventSequenceNumber sequence number of the event awaited by the subscriber, or {@code null} when the subscriber is not awaiting a particular event.
+   */
+  void requestBookingOfferSummaryUpdateEmission(String bookingOfferId, Long initialEventSequenceNumber, Long awaitedEventSequenceNumber)
+}
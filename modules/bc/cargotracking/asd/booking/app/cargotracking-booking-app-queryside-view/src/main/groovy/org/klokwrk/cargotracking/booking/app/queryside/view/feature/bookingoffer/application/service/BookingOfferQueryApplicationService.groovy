@@ -20,31 +20,58 @@ package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffe
 import com.fasterxml.jackson.databind.ObjectMapper
 import groovy.transform.CompileStatic
 import org.axonframework.queryhandling.QueryGateway
+import org.axonframework.queryhandling.SubscriptionQueryResult
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferDetailsFindByIdQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferDetailsFindByIdQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferDetailsFindByIdQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryExportQueryPortIn
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryExportQueryResponse
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindAllQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindAllQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindAllQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdAwaitQueryPortIn
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdAwaitQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdSubscriptionQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryPortIn
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryRequest
 import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummarySearchAllQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryExport
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryExportCriteria
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryExportQueryPortOut
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryExportRecord
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.out.BookingOfferSummaryUpdateEmissionPortOut
 import org.klokwrk.cargotracking.booking.lib.out.customer.port.CustomerByUserIdPortOut
 import org.klokwrk.cargotracking.domain.model.value.Customer
 import org.klokwrk.cargotracking.lib.axon.cqrs.query.QueryGatewayAdapter
 import org.klokwrk.cargotracking.lib.boundary.api.application.metadata.response.ResponseMetaData
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationRequest
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
+import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.QueryException
+import org.klokwrk.cargotracking.lib.boundary.api.domain.violation.ViolationCode
+import org.klokwrk.cargotracking.lib.boundary.api.domain.violation.ViolationInfo
 import org.klokwrk.lib.hi.validation.springboot.ValidationService
 import org.springframework.stereotype.Service
+import reactor.core.Disposable
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.core.publisher.SignalType
 import tech.units.indriya.unit.Units
 
 import javax.measure.Quantity
 import javax.measure.quantity.Mass
 import java.math.RoundingMode
+import java.time.Duration
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+import java.util.function.Consumer
+import java.util.function.Function
+import java.util.function.Predicate
+import java.util.function.Supplier
 
 import static org.hamcrest.Matchers.notNullValue
 
@@ -52,18 +79,26 @@ import static org.hamcrest.Matchers.notNullValue
 @Service
 @CompileStatic
 class BookingOfferQueryApplicationService
-    implements BookingOfferSummaryFindByIdQueryPortIn, BookingOfferSummaryFindAllQueryPortIn, BookingOfferSummarySearchAllQueryPortIn, BookingOfferDetailsFindByIdQueryPortIn
+    implements BookingOfferSummaryFindByIdQueryPortIn, BookingOfferSummaryFindAllQueryPortIn, BookingOfferSummarySearchAllQueryPortIn, BookingOfferSummaryExportQueryPortIn,
+        BookingOfferDetailsFindByIdQueryPortIn, BookingOfferSummaryFindByIdSubscriptionQueryPortIn, BookingOfferSummaryFindByIdAwaitQueryPortIn
 {
   private final QueryGatewayAdapter queryGatewayAdapter
   private final ValidationService validationService
   private final CustomerByUserIdPortOut customerByUserIdPortOut
   private final ObjectMapper objectMapper
+  private final BookingOfferSummaryExportQueryPortOut bookingOfferSummaryExportQueryPortOut
+  private final BookingOfferSummaryUpdateEmissionPortOut bookingOfferSummaryUpdateEmissionPortOut
 
-  BookingOfferQueryApplicationService(ValidationService validationService, QueryGateway queryGateway, CustomerByUserIdPortOut customerByUserIdPortOut, ObjectMapper objectMapper) {
+  BookingOfferQueryApplicationService(
+      ValidationService validationService, QueryGateway queryGateway, CustomerByUserIdPortOut customerByUserIdPortOut, ObjectMapper objectMapper,
+      BookingOfferSummaryExportQueryPortOut bookingOfferSummaryExportQueryPortOut, BookingOfferSummaryUpdateEmissionPortOut bookingOfferSummaryUpdateEmissionPortOut)
+  {
     this.validationService = validationService
     this.queryGatewayAdapter = new QueryGatewayAdapter(queryGateway)
     this.customerByUserIdPortOut = customerByUserIdPortOut
     this.objectMapper = objectMapper
+    this.bookingOfferSummaryExportQueryPortOut = bookingOfferSummaryExportQueryPortOut
+    this.bookingOfferSummaryUpdateEmissionPortOut = bookingOfferSummaryUpdateEmissionPortOut
   }
 
   @Override
@@ -82,6 +117,115 @@ class BookingOfferQueryApplicationService
     return operationResponseFromQueryResponse(bookingOfferSummaryFindByIdQueryResponse)
   }
 
+  @Override
+  AutoCloseable bookingOfferSummaryFindByIdSubscriptionQuery(
+      OperationRequest<BookingOfferSummaryFindByIdQueryRequest> bookingOfferSummaryFindByIdQueryOperationRequest,
+      Consumer<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>> bookingOfferSummaryFindByIdQueryOperationResponseConsumer,
+      Consumer<Throwable> failureConsumer)
+  {
+    requireMatch(bookingOfferSummaryFindByIdQueryOperationRequest, notNullValue())
+    requireMatch(bookingOfferSummaryFindByIdQueryOperationResponseConsumer, notNullValue())
+    requireMatch(failureConsumer, notNullValue())
+    validationService.validate(bookingOfferSummaryFindByIdQueryOperationRequest.payload)
+
+    Customer customer = customerByUserIdPortOut.findCustomerByUserId(bookingOfferSummaryFindByIdQueryOperationRequest.payload.userId)
+    bookingOfferSummaryFindByIdQueryOperationRequest.payload.customerId = customer.customerId.identifier
+
+    SubscriptionQueryResult<BookingOfferSummaryFindByIdQueryResponse, BookingOfferSummaryFindByIdQueryResponse> subscriptionQueryResult =
+        queryGatewayAdapter.subscriptionQuery(bookingOfferSummaryFindByIdQueryOperationRequest, BookingOfferSummaryFindByIdQueryResponse)
+
+    Disposable subscription = makeBookingOfferSummaryFindByIdQueryResponseFlux(
+        subscriptionQueryResult, bookingOfferSummaryFindByIdQueryOperationRequest.payload.bookingOfferId, null
+    ).subscribe(
+        { BookingOfferSummaryFindByIdQueryResponse queryResponse ->
+          bookingOfferSummaryFindByIdQueryOperationResponseConsumer.accept(operationResponseFromQueryResponse(queryResponse))
+        } as Consumer<BookingOfferSummaryFindByIdQueryResponse>,
+        { Throwable throwable -> failureConsumer.accept(throwable) } as Consumer<Throwable>
+    )
+
+    return { ->
+      subscription.dispose()
+      subscriptionQueryResult.cancel()
+    } as AutoCloseable
+  }
+
+  @Override
+  CompletableFuture<OperationResponse<BookingOfferSummaryFindByIdQueryResponse>> bookingOfferSummaryFindByIdAwaitQuery(
+      OperationRequest<BookingOfferSummaryFindByIdAwaitQueryRequest> bookingOfferSummaryFindByIdAwaitQueryOperationRequest)
+  {
+    requireMatch(bookingOfferSummaryFindByIdAwaitQueryOperationRequest, notNullValue())
+    validationService.validate(bookingOfferSummaryFindByIdAwaitQueryOperationRequest.payload)
+
+    BookingOfferSummaryFindByIdAwaitQueryRequest awaitQueryRequest = bookingOfferSummaryFindByIdAwaitQueryOperationRequest.payload
+    Customer customer = customerByUserIdPortOut.findCustomerByUserId(awaitQueryRequest.userId)
+    BookingOfferSummaryFindByIdQueryRequest bookingOfferSummaryFindByIdQueryRequest = new BookingOfferSummaryFindByIdQueryRequest(
+        userId: awaitQueryRequest.userId, customerId: customer.customerId.identifier, bookingOfferId: awaitQueryRequest.bookingOfferId
+    )
+    Duration awaitTimeout = Duration.ofMillis(awaitQueryRequest.awaitTimeoutMillis ?: BookingOfferSummaryFindByIdAwaitQueryRequest.AWAIT_TIMEOUT_MILLIS_DEFAULT)
+
+    SubscriptionQueryResult<BookingOfferSummaryFindByIdQueryResponse, BookingOfferSummaryFindByIdQueryResponse> subscriptionQueryResult =
+        queryGatewayAdapter.subscriptionQuery(bookingOfferSummaryFindByIdQueryRequest, bookingOfferSummaryFindByIdAwaitQueryOperationRequest.metaData, BookingOfferSummaryFindByIdQueryResponse)
+
+    // Implementation notes:
+    // The result is not awaited on the calling thread. The subscription query is cancelled when the result is known, or when the returned future is cancelled.
+    AtomicReference<BookingOfferSummaryFindByIdQueryResponse> latestQueryResponse = new AtomicReference<>()
+    return makeBookingOfferSummaryFindByIdQueryResponseFlux(subscriptionQueryResult, awaitQueryRequest.bookingOfferId, awaitQueryRequest.lastEventSequenceNumber)
+        .doOnNext({ BookingOfferSummaryFindByIdQueryResponse queryResponse -> latestQueryResponse.set(queryResponse) } as Consumer<BookingOfferSummaryFindByIdQueryResponse>)
+        .filter({ BookingOfferSummaryFindByIdQueryResponse queryResponse ->
+          queryResponse.lastEventSequenceNumber >= awaitQueryRequest.lastEventSequenceNumber
+        } as Predicate<BookingOfferSummaryFindByIdQueryResponse>)
+        .next()
+        .timeout(awaitTimeout, Mono.<BookingOfferSummaryFindByIdQueryResponse>empty())
+        .switchIfEmpty(Mono.fromCallable({ latestQueryResponse.get() } as Callable<BookingOfferSummaryFindByIdQueryResponse>))
+        .switchIfEmpty(Mono.<BookingOfferSummaryFindByIdQueryResponse>error({ new QueryException(ViolationInfo.NOT_FOUND) } as Supplier<Throwable>))
+        .map({ BookingOfferSummaryFindByIdQueryResponse queryResponse ->
+          operationResponseFromQueryResponse(queryResponse)
+        } as Function<BookingOfferSummaryFindByIdQueryResponse, OperationResponse<BookingOfferSummaryFindByIdQueryResponse>>)
+        .doFinally({ SignalType signalType -> subscriptionQueryResult.cancel() } as Consumer<SignalType>)
+        .toFuture()
+  }
+
+  /**
+   * Makes a flux of booking offer summaries from the result of a booking offer summary subscription query.
+   * <p/>
+   * The initial result is followed by updates. When the booking offer summary is not found initially (i.e., it is not projected yet), the flux continues with updates. Booking offer summaries that
+   * do not reflect a newer event than the previously published one are skipped, which removes duplicates and out-of-order updates. The returned flux is intended for a single subscriber.
+   * <p/>
+   * Once the initial result is known, the emission of updates is requested via {@link BookingOfferSummaryUpdateEmissionPortOut}. This way, updates are not lost for events observed before the
+   * subscription query is registered, but not yet reflected by the initial result.
+   */
+  protected Flux<BookingOfferSummaryFindByIdQueryResponse> makeBookingOfferSummaryFindByIdQueryResponseFlux(
+      SubscriptionQueryResult<BookingOfferSummaryFindByIdQueryResponse, BookingOfferSummaryFindByIdQueryResponse> subscriptionQueryResult, String bookingOfferId,
+      Long awaitedEventSequenceNumber)
+  {
+    AtomicLong lastPublishedEventSequenceNumber = new AtomicLong(-1)
+
+    return subscriptionQueryResult
+        .initialResult()
+        .onErrorResume(
+            { Throwable throwable -> isNotFoundQueryException(throwable) } as Predicate<Throwable>,
+            { Throwable throwable -> Mono.<BookingOfferSummaryFindByIdQueryResponse>empty() } as Function<Throwable, Mono<BookingOfferSummaryFindByIdQueryResponse>>
+        )
+        .doOnSuccess({ BookingOfferSummaryFindByIdQueryResponse initialQueryResponse ->
+          bookingOfferSummaryUpdateEmissionPortOut.requestBookingOfferSummaryUpdateEmission(bookingOfferId, initialQueryResponse?.lastEventSequenceNumber, awaitedEventSequenceNumber)
+        } as Consumer<BookingOfferSummaryFindByIdQueryResponse>)
+        .concatWith(subscriptionQueryResult.updates())
+        .filter({ BookingOfferSummaryFindByIdQueryResponse queryResponse ->
+          Long eventSequenceNumber = queryResponse.lastEventSequenceNumber
+          if (eventSequenceNumber == null || eventSequenceNumber <= lastPublishedEventSequenceNumber.get()) {
+            return false
+          }
+
+          lastPublishedEventSequenceNumber.set(eventSequenceNumber)
+          return true
+        } as Predicate<BookingOfferSummaryFindByIdQueryResponse>)
+  }
+
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected static boolean isNotFoundQueryException(Throwable throwable) {
+    return throwable instanceof QueryException && (throwable as QueryException).violationInfo.violationCode.code == ViolationCode.NOT_FOUND.code
+  }
+
   @Override
   OperationResponse<BookingOfferSummaryFindAllQueryResponse> bookingOfferSummaryFindAllQuery(
       OperationRequest<BookingOfferSummaryFindAllQueryRequest> bookingOfferSummaryFindAllQueryOperationRequest)
@@ -112,6 +256,85 @@ class BookingOfferQueryApplicationService
     return operationResponseFromQueryResponse(queryResponse)
   }
 
+  @Override
+  OperationResponse<BookingOfferSummaryExportQueryResponse> bookingOfferSummaryExportQuery(
+      OperationRequest<BookingOfferSummarySearchAllQueryRequest> bookingOfferSummaryExportQueryOperationRequest)
+  {
+    requireMatch(bookingOfferSummaryExportQueryOperationRequest, notNullValue())
+    validationService.validate(bookingOfferSummaryExportQueryOperationRequest.payload)
+
+    Customer customer = customerByUserIdPortOut.findCustomerByUserId(bookingOfferSummaryExportQueryOperationRequest.payload.userId)
+    bookingOfferSummaryExportQueryOperationRequest.payload.customerId = customer.customerId.identifier
+
+    BookingOfferSummaryExportCriteria bookingOfferSummaryExportCriteria =
+        makeBookingOfferSummaryExportCriteria(prepareBookingOfferSummarySearchAllQueryRequest(bookingOfferSummaryExportQueryOperationRequest).payload)
+    BookingOfferSummaryExport bookingOfferSummaryExport = bookingOfferSummaryExportQueryPortOut.prepareBookingOfferSummaryExport(bookingOfferSummaryExportCriteria)
+
+    BookingOfferSummaryExportQueryResponse queryResponse = new BookingOfferSummaryExportQueryResponse({ Consumer<BookingOfferSummaryFindByIdQueryResponse> bookingOfferSummaryConsumer ->
+      bookingOfferSummaryExport.exportTo({ BookingOfferSummaryExportRecord bookingOfferSummaryExportRecord ->
+        bookingOfferSummaryConsumer.accept(makeBookingOfferSummaryFindByIdQueryResponse(bookingOfferSummaryExportRecord))
+      } as Consumer<BookingOfferSummaryExportRecord>)
+    } as Consumer<Consumer<BookingOfferSummaryFindByIdQueryResponse>>)
+
+    return operationResponseFromQueryResponse(queryResponse)
+  }
+
+  protected static BookingOfferSummaryExportCriteria makeBookingOfferSummaryExportCriteria(BookingOfferSummarySearchAllQueryRequest bookingOfferSummarySearchAllQueryRequest) {
+    BookingOfferSummaryExportCriteria bookingOfferSummaryExportCriteria = new BookingOfferSummaryExportCriteria()
+
+    bookingOfferSummaryExportCriteria.customerId = bookingOfferSummarySearchAllQueryRequest.customerId
+    bookingOfferSummaryExportCriteria.customerTypeSearchList = bookingOfferSummarySearchAllQueryRequest.customerTypeSearchList
+
+    bookingOfferSummaryExportCriteria.originLocationName = bookingOfferSummarySearchAllQueryRequest.originLocationName
+    bookingOfferSummaryExportCriteria.originLocationCountryName = bookingOfferSummarySearchAllQueryRequest.originLocationCountryName
+    bookingOfferSummaryExportCriteria.destinationLocationName = bookingOfferSummarySearchAllQueryRequest.destinationLocationName
+    bookingOfferSummaryExportCriteria.destinationLocationCountryName = bookingOfferSummarySearchAllQueryRequest.destinationLocationCountryName
+
+    bookingOfferSummaryExportCriteria.commodityTypes = bookingOfferSummarySearchAllQueryRequest.commodityTypes
+    bookingOfferSummaryExportCriteria.totalCommodityWeightKgFromIncluding = bookingOfferSummarySearchAllQueryRequest.totalCommodityWeightKgFromIncluding
+    bookingOfferSummaryExportCriteria.totalCommodityWeightKgToIncluding = bookingOfferSummarySearchAllQueryRequest.totalCommodityWeightKgToIncluding
+    bookingOfferSummaryExportCriteria.totalContainerTeuCountFromIncluding = bookingOfferSummarySearchAllQueryRequest.totalContainerTeuCountFromIncluding
+    bookingOfferSummaryExportCriteria.totalContainerTeuCountToIncluding = bookingOfferSummarySearchAllQueryRequest.totalContainerTeuCountToIncluding
+
+    bookingOfferSummaryExportCriteria.firstEventRecordedAtFromIncluding = bookingOfferSummarySearchAllQueryRequest.firstEventRecordedAtFromIncluding
+    bookingOfferSummaryExportCriteria.firstEventRecordedAtToIncluding = bookingOfferSummarySearchAllQueryRequest.firstEventRecordedAtToIncluding
+    bookingOfferSummaryExportCriteria.lastEventRecordedAtFromIncluding = bookingOfferSummarySearchAllQueryRequest.lastEventRecordedAtFromIncluding
+    bookingOfferSummaryExportCriteria.lastEventRecordedAtToIncluding = bookingOfferSummarySearchAllQueryRequest.lastEventRecordedAtToIncluding
+
+    bookingOfferSummaryExportCriteria.sortRequirementList = bookingOfferSummarySearchAllQueryRequest.sortRequirementList
+
+    return bookingOfferSummaryExportCriteria
+  }
+
+  protected static BookingOfferSummaryFindByIdQueryResponse makeBookingOfferSummaryFindByIdQueryResponse(BookingOfferSummaryExportRecord bookingOfferSummaryExportRecord) {
+    BookingOfferSummaryFindByIdQueryResponse bookingOfferSummaryFindByIdQueryResponse = new BookingOfferSummaryFindByIdQueryResponse()
+
+    bookingOfferSummaryFindByIdQueryResponse.bookingOfferId = bookingOfferSummaryExportRecord.bookingOfferId
+    bookingOfferSummaryFindByIdQueryResponse.customerType = bookingOfferSummaryExportRecord.customerType
+
+    bookingOfferSummaryFindByIdQueryResponse.originLocationUnLoCode = bookingOfferSummaryExportRecord.originLocationUnLoCode
+    bookingOfferSummaryFindByIdQueryResponse.originLocationName = bookingOfferSummaryExportRecord.originLocationName
+    bookingOfferSummaryFindByIdQueryResponse.originLocationCountryName = bookingOfferSummaryExportRecord.originLocationCountryName
+
+    bookingOfferSummaryFindByIdQueryResponse.destinationLocationUnLoCode = bookingOfferSummaryExportRecord.destinationLocationUnLoCode
+    bookingOfferSummaryFindByIdQueryResponse.destinationLocationName = bookingOfferSummaryExportRecord.destinationLocationName
+    bookingOfferSummaryFindByIdQueryResponse.destinationLocationCountryName = bookingOfferSummaryExportRecord.destinationLocationCountryName
+
+    bookingOfferSummaryFindByIdQueryResponse.departureEarliestTime = bookingOfferSummaryExportRecord.departureEarliestTime
+    bookingOfferSummaryFindByIdQueryResponse.departureLatestTime = bookingOfferSummaryExportRecord.departureLatestTime
+    bookingOfferSummaryFindByIdQueryResponse.arrivalLatestTime = bookingOfferSummaryExportRecord.arrivalLatestTime
+
+    bookingOfferSummaryFindByIdQueryResponse.commodityTypes = bookingOfferSummaryExportRecord.commodityTypes
+    bookingOfferSummaryFindByIdQueryResponse.totalCommodityWeight = bookingOfferSummaryExportRecord.totalCommodityWeight
+    bookingOfferSummaryFindByIdQueryResponse.totalContainerTeuCount = bookingOfferSummaryExportRecord.totalContainerTeuCount
+
+    bookingOfferSummaryFindByIdQueryResponse.firstEventRecordedAt = bookingOfferSummaryExportRecord.firstEventRecordedAt
+    bookingOfferSummaryFindByIdQueryResponse.lastEventRecordedAt = bookingOfferSummaryExportRecord.lastEventRecordedAt
+    bookingOfferSummaryFindByIdQueryResponse.lastEventSequenceNumber = bookingOfferSummaryExportRecord.lastEventSequenceNumber
+
+    return bookingOfferSummaryFindByIdQueryResponse
+  }
+
   protected OperationRequest<BookingOfferSummarySearchAllQueryRequest> prepareBookingOfferSummarySearchAllQueryRequest(
       OperationRequest<BookingOfferSummarySearchAllQueryRequest> bookingOfferSummarySearchAllQueryRequest)
   {
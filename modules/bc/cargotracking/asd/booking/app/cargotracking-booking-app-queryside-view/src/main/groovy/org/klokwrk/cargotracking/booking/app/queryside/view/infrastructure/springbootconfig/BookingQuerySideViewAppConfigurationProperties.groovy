@@ -0,0 +1,93 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.infrastructure.springbootconfig
+
+import groovy.transform.CompileStatic
+import org.hibernate.validator.constraints.time.DurationMin
+import org.springframework.boot.context.properties.ConfigurationProperties
+import org.springframework.validation.annotation.Validated
+
+import jakarta.validation.Valid
+import jakarta.validation.constraints.Min
+import jakarta.validation.constraints.NotNull
+import java.time.Duration
+
+/**
+ * Spring Boot configuration properties of the queryside view app.
+ * <p/>
+ * Properties are validated on startup, so the app does not start with invalid values.
+ */
+@SuppressWarnings("ConfigurationProperties")
+@ConfigurationProperties(prefix = "cargotracking")
+@Validated
+@CompileStatic
+class BookingQuerySideViewAppConfigurationProperties {
+  @SuppressWarnings("unused")
+  @Valid
+  BookingOfferSummaryCache bookingOfferSummaryCache = new BookingOfferSummaryCache()
+
+  class BookingOfferSummaryCache {
+    /**
+     * The maximum number of cached booking offer summary responses.
+     * <p/>
+     * Default value is <code>10000</code>.
+     */
+    @NotNull
+    @Min(1L)
+    Long maximumSize = 10_000L
+
+    /**
+     * Duration after which a cached booking offer summary response expires, even if no invalidating event is observed.
+     * <p/>
+     * Default value is 10 minutes.
+     */
+    @NotNull
+    @DurationMin(millis = 1L)
+    Duration timeToLive = Duration.ofMinutes(10)
+  }
+
+  @SuppressWarnings("unused")
+  @Valid
+  BookingOfferSummaryExport bookingOfferSummaryExport = new BookingOfferSummaryExport()
+
+  class BookingOfferSummaryExport {
+    /**
+     * The maximum duration of a single booking offer summary export.
+     * <p/>
+     * Default value is 30 minutes.
+     */
+    @NotNull
+    @DurationMin(millis = 1L)
+    Duration timeout = Duration.ofMinutes(30)
+  }
+
+  @SuppressWarnings("unused")
+  @Valid
+  BookingOfferSummaryUpdates bookingOfferSummaryUpdates = new BookingOfferSummaryUpdates()
+
+  class BookingOfferSummaryUpdates {
+    /**
+     * The maximum duration of a single booking offer summary updates stream. After the timeout, the client can reconnect and continue from the last received event.
+     * <p/>
+     * Default value is 30 minutes.
+     */
+    @NotNull
+    @DurationMin(millis = 1L)
+    Duration timeout = Duration.ofMinutes(30)
+  }
+}
@@ -18,12 +18,27 @@
 package org.klokwrk.cargotracking.booking.app.queryside.view.infrastructure.springbootconfig
 
 import groovy.transform.CompileStatic
+import io.micrometer.core.instrument.MeterRegistry
+import org.axonframework.common.transaction.NoTransactionManager
 import org.axonframework.common.transaction.TransactionManager
+import org.axonframework.config.Configuration as AxonConfiguration
+import org.axonframework.config.Configurer
+import org.axonframework.config.ConfigurerModule
+import org.axonframework.config.EventProcessingConfigurer
+import org.axonframework.eventhandling.TrackedEventMessage
+import org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore
+import org.axonframework.messaging.StreamableMessageSource
 import org.axonframework.messaging.annotation.HandlerEnhancerDefinition
 import org.axonframework.spring.messaging.unitofwork.SpringTransactionManager
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web.BookingOfferQueryWebSettings
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryCacheInvalidationEventHandler
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryFindByIdQueryResponseCache
 import org.klokwrk.cargotracking.booking.lib.out.customer.adapter.InMemoryCustomerRegistryService
 import org.klokwrk.cargotracking.lib.axon.cqrs.query.QueryHandlerExceptionInterceptor
 import org.klokwrk.cargotracking.lib.axon.logging.LoggingQueryHandlerEnhancerDefinition
+import org.klokwrk.cargotracking.lib.axon.logging.MetricsQueryHandlerEnhancerDefinition
+import org.klokwrk.cargotracking.lib.web.spring.mvc.ResponseFormattingOperationResponseFactory
 import org.klokwrk.lib.hi.datasourceproxy.springboot.DataSourceProxyBeanPostProcessor
 import org.klokwrk.lib.hi.datasourceproxy.springboot.DataSourceProxyConfigurationProperties
 import org.klokwrk.lib.hi.jackson.springboot.EssentialJacksonCustomizer
@@ -39,13 +54,17 @@ import org.springframework.transaction.PlatformTransactionManager
 import org.springframework.transaction.TransactionDefinition
 import org.springframework.transaction.support.DefaultTransactionDefinition
 
-@EnableConfigurationProperties([DataSourceProxyConfigurationProperties, EssentialJacksonCustomizerConfigurationProperties, ValidationConfigurationProperties])
+@EnableConfigurationProperties([
+    BookingQuerySideViewAppConfigurationProperties, DataSourceProxyConfigurationProperties, EssentialJacksonCustomizerConfigurationProperties, ValidationConfigurationProperties
+])
 @Configuration(proxyBeanMethods = false)
 @CompileStatic
 class SpringBootConfig {
   @Bean
-  static BeanPostProcessor dataSourceProxyBeanPostProcessor(ObjectProvider<DataSourceProxyConfigurationProperties> dataSourceProxyConfigurationPropertiesObjectProvider) {
-    return new DataSourceProxyBeanPostProcessor(dataSourceProxyConfigurationPropertiesObjectProvider)
+  static BeanPostProcessor dataSourceProxyBeanPostProcessor(
+      ObjectProvider<DataSourceProxyConfigurationProperties> dataSourceProxyConfigurationPropertiesObjectProvider, ObjectProvider<MeterRegistry> meterRegistryObjectProvider)
+  {
+    return new DataSourceProxyBeanPostProcessor(dataSourceProxyConfigurationPropertiesObjectProvider, meterRegistryObjectProvider)
   }
 
   @Bean
@@ -58,6 +77,11 @@ class SpringBootConfig {
     return new LoggingQueryHandlerEnhancerDefinition()
   }
 
+  @Bean
+  HandlerEnhancerDefinition metricsQueryHandlerEnhancerDefinition(MeterRegistry meterRegistry) {
+    return new MetricsQueryHandlerEnhancerDefinition(meterRegistry)
+  }
+
   @Bean
   QueryHandlerExceptionInterceptor queryHandlerExceptionInterceptor() {
     return new QueryHandlerExceptionInterceptor()
@@ -88,8 +112,63 @@ class SpringBootConfig {
     return new ValidationService(validationConfigurationProperties)
   }
 
+  @Bean
+  ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory() {
+    return new ResponseFormattingOperationResponseFactory()
+  }
+
   @Bean
   InMemoryCustomerRegistryService inMemoryCustomerRegistryService() {
     return new InMemoryCustomerRegistryService()
   }
+
+  @Bean
+  BookingOfferQueryWebSettings bookingOfferQueryWebSettings(BookingQuerySideViewAppConfigurationProperties bookingQuerySideViewAppConfigurationProperties) {
+    return new BookingOfferQueryWebSettings(
+        bookingOfferSummaryExportTimeout: bookingQuerySideViewAppConfigurationProperties.bookingOfferSummaryExport.timeout,
+        bookingOfferSummaryUpdatesTimeout: bookingQuerySideViewAppConfigurationProperties.bookingOfferSummaryUpdates.timeout
+    )
+  }
+
+  /**
+   * Creates a cache for booking offer summary responses.
+   * <p/>
+   * Default size is chosen to keep all hot booking offers in memory while bounding heap usage to a few megabytes. Time-to-live bounds the staleness in a case an invalidating event is missed, i.e.,
+   * while the application is disconnected from the event store.
+   */
+  @Bean
+  BookingOfferSummaryFindByIdQueryResponseCache bookingOfferSummaryFindByIdQueryResponseCache(BookingQuerySideViewAppConfigurationProperties bookingQuerySideViewAppConfigurationProperties) {
+    return new BookingOfferSummaryFindByIdQueryResponseCache(
+        bookingQuerySideViewAppConfigurationProperties.bookingOfferSummaryCache.maximumSize, bookingQuerySideViewAppConfigurationProperties.bookingOfferSummaryCache.timeToLive
+    )
+  }
+
+  /**
+   * Configures the event processor used for invalidating booking offer summary cache.
+   * <p/>
+   * The processor keeps its tokens in memory and starts from the head of the event stream as it is only interested in events published while the application (and its cache) is alive. Since it
+   * does not access the database, it does not need a transaction manager either.
+   */
+  @Bean
+  ConfigurerModule bookingOfferSummaryCacheInvalidationConfigurerModule() {
+    String processingGroupName = BookingOfferSummaryCacheInvalidationEventHandler.PROCESSING_GROUP_NAME
+
+    return { Configurer configurer ->
+      configurer
+          .eventProcessing({ EventProcessingConfigurer eventProcessingConfigurer ->
+            eventProcessingConfigurer
+                .registerPooledStreamingEventProcessor(
+                    processingGroupName,
+                    { AxonConfiguration configuration -> configuration.eventStore() },
+                    { AxonConfiguration configuration, PooledStreamingEventProcessor.Builder builder ->
+                      builder
+                          .initialSegmentCount(1)
+                          .initialToken({ StreamableMessageSource<TrackedEventMessage<?>> messageSource -> messageSource.createHeadToken() })
+                          .transactionManager(NoTransactionManager.INSTANCE)
+                    }
+                )
+                .registerTokenStore(processingGroupName, { AxonConfiguration configuration -> new InMemoryTokenStore() })
+          })
+    }
+  }
 }
@@ -58,22 +58,33 @@ class BookingQuerySideViewAppDependenciesSpecification extends Specification {
         "org.codehaus.groovy..",
         "groovy..",
 
+        "com.github.benmanes.caffeine..",
+        "io.micrometer.core..",
+
         "jakarta.validation..",
         "jakarta.persistence..",
+        "jakarta.servlet..",
 
         "javax.measure..",
 
+        "com.fasterxml.jackson.core..",
         "com.fasterxml.jackson.databind..",
 
         "net.croz.nrich.search..",
 
         "io.opentelemetry..",
+        "org.axonframework.common..",
+        "org.axonframework.config..",
+        "org.axonframework.eventhandling..",
         "org.axonframework.messaging..",
+        "org.axonframework.queryhandling..",
         "org.axonframework.spring..",
         "org.axonframework.tracing..",
         "org.hamcrest",
         "org.springframework..",
 
+        "reactor.core..",
+
         "tech.units.indriya.unit.."
     ]
 
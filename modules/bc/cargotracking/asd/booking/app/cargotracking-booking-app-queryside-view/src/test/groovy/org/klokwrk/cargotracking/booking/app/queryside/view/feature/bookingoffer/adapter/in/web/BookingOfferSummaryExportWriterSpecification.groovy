@@ -0,0 +1,99 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import groovy.json.JsonSlurper
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryExportQueryResponse
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryResponse
+import org.klokwrk.cargotracking.domain.model.value.CommodityType
+import org.klokwrk.cargotracking.domain.model.value.CustomerType
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+import java.util.function.Consumer
+
+class BookingOfferSummaryExportWriterSpecification extends Specification {
+  static BookingOfferSummaryExportQueryResponse makeExportQueryResponse(List<BookingOfferSummaryFindByIdQueryResponse> bookingOfferSummaryList) {
+    return new BookingOfferSummaryExportQueryResponse({ Consumer<BookingOfferSummaryFindByIdQueryResponse> consumer ->
+      bookingOfferSummaryList.each({ consumer.accept(it) })
+    } as Consumer<Consumer<BookingOfferSummaryFindByIdQueryResponse>>)
+  }
+
+  static String write(BookingOfferSummaryExportFormat exportFormat, List<BookingOfferSummaryFindByIdQueryResponse> bookingOfferSummaryList) {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream()
+    new BookingOfferSummaryExportWriter(new ObjectMapper().registerModule(new JavaTimeModule()))
+        .write(exportFormat, makeExportQueryResponse(bookingOfferSummaryList), outputStream)
+
+    return outputStream.toString(StandardCharsets.UTF_8)
+  }
+
+  List<BookingOfferSummaryFindByIdQueryResponse> bookingOfferSummaryList = [
+      new BookingOfferSummaryFindByIdQueryResponse(
+          bookingOfferId: "00000000-0000-4000-8000-000000000001", customerType: CustomerType.STANDARD, originLocationName: "Rijeka", commodityTypes: [CommodityType.FROZEN, CommodityType.DRY] as Set,
+          totalContainerTeuCount: 2.50G, lastEventRecordedAt: Instant.parse("2024-01-02T10:00:00Z"), lastEventSequenceNumber: 1
+      ),
+      new BookingOfferSummaryFindByIdQueryResponse(
+          bookingOfferId: "00000000-0000-4000-8000-000000000002", customerType: CustomerType.GOLD, originLocationName: 'Some "quoted", name', lastEventSequenceNumber: 0
+      )
+  ]
+
+  void "write - should write NDJSON with a single booking offer summary per line"() {
+    when:
+    String ndjson = write(BookingOfferSummaryExportFormat.NDJSON, bookingOfferSummaryList)
+    List<String> lineList = ndjson.readLines()
+
+    then:
+    ndjson.endsWith("\n")
+    lineList.size() == 2
+    lineList.collect({ String line -> (new JsonSlurper().parseText(line) as Map).bookingOfferId }) == bookingOfferSummaryList*.bookingOfferId
+  }
+
+  void "write - should write CSV with header and escaped values"() {
+    when:
+    List<String> lineList = write(BookingOfferSummaryExportFormat.CSV, bookingOfferSummaryList).split("\r\n") as List<String>
+
+    then:
+    lineList.size() == 3
+    lineList[0] == BookingOfferSummaryExportWriter.CSV_HEADER_LIST.join(",")
+    lineList[1] == "00000000-0000-4000-8000-000000000001,STANDARD,,Rijeka,,,,,,,,DRY|FROZEN,,2.50,,2024-01-02T10:00:00Z,1"
+    lineList[2] == '00000000-0000-4000-8000-000000000002,GOLD,,"Some ""quoted"", name",,,,,,,,,,,,,0'
+  }
+
+  void "write - should write only CSV header when there is nothing to export"() {
+    expect:
+    write(BookingOfferSummaryExportFormat.CSV, []) == BookingOfferSummaryExportWriter.CSV_HEADER_LIST.join(",") + "\r\n"
+    write(BookingOfferSummaryExportFormat.NDJSON, []) == ""
+  }
+
+  void "escapeCsvValue - should escape only values requiring it"() {
+    expect:
+    BookingOfferSummaryExportWriter.escapeCsvValue(valueParam) == escapedValueParam
+
+    where:
+    valueParam        | escapedValueParam
+    "plain"           | "plain"
+    ""                | ""
+    "a,b"             | '"a,b"'
+    'a"b'             | '"a""b"'
+    "a\nb"            | '"a\nb"'
+    "a\rb"            | '"a\rb"'
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryResponse
+import spock.lang.Specification
+
+import java.time.Duration
+
+class BookingOfferSummaryFindByIdQueryResponseCacheSpecification extends Specification {
+  static final String BOOKING_OFFER_ID = "00000000-0000-4000-8000-000000000000"
+
+  BookingOfferSummaryFindByIdQueryResponseCache bookingOfferSummaryFindByIdQueryResponseCache
+
+  void setup() {
+    bookingOfferSummaryFindByIdQueryResponseCache = new BookingOfferSummaryFindByIdQueryResponseCache(100, Duration.ofMinutes(10))
+  }
+
+  void "fetchOrLoad - should load response only once for the same booking offer and customer"() {
+    given:
+    BookingOfferSummaryFindByIdQueryResponse response = new BookingOfferSummaryFindByIdQueryResponse(bookingOfferId: BOOKING_OFFER_ID, lastEventSequenceNumber: 0)
+    Integer loadCount = 0
+
+    when:
+    BookingOfferSummaryFindByIdQueryResponse firstResponse = bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { loadCount++; response })
+    BookingOfferSummaryFindByIdQueryResponse secondResponse = bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { loadCount++; response })
+
+    then:
+    loadCount == 1
+    firstResponse.is(response)
+    secondResponse.is(response)
+  }
+
+  void "fetchOrLoad - should not serve cached response to a different customer"() {
+    given:
+    BookingOfferSummaryFindByIdQueryResponse response = new BookingOfferSummaryFindByIdQueryResponse(bookingOfferId: BOOKING_OFFER_ID, lastEventSequenceNumber: 0)
+    bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { response })
+
+    when:
+    bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "otherCustomerId", { throw new IllegalStateException("not found") })
+
+    then:
+    thrown(IllegalStateException)
+  }
+
+  void "fetchOrLoad - should not cache anything when loader throws"() {
+    given:
+    Integer loadCount = 0
+
+    when:
+    bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { loadCount++; throw new IllegalStateException("not found") })
+
+    then:
+    thrown(IllegalStateException)
+
+    when:
+    bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { loadCount++; throw new IllegalStateException("not found") })
+
+    then:
+    thrown(IllegalStateException)
+    loadCount == 2
+  }
+
+  void "invalidate - should evict response older than the observed event"() {
+    given:
+    Integer loadCount = 0
+    BookingOfferSummaryFindByIdQueryResponse response = new BookingOfferSummaryFindByIdQueryResponse(bookingOfferId: BOOKING_OFFER_ID, lastEventSequenceNumber: 1)
+    bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { loadCount++; response })
+
+    when:
+    bookingOfferSummaryFindByIdQueryResponseCache.invalidate(BOOKING_OFFER_ID, eventSequenceNumberParam)
+    bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { loadCount++; response })
+
+    then:
+    loadCount == loadCountParam
+
+    where:
+    eventSequenceNumberParam | loadCountParam
+    0                        | 1
+    1                        | 1
+    2                        | 2
+  }
+
+  void "fetchOrLoad - should not cache response loaded from a projection lagging behind observed events"() {
+    given:
+    Integer loadCount = 0
+    BookingOfferSummaryFindByIdQueryResponse staleResponse = new BookingOfferSummaryFindByIdQueryResponse(bookingOfferId: BOOKING_OFFER_ID, lastEventSequenceNumber: 1)
+    BookingOfferSummaryFindByIdQueryResponse freshResponse = new BookingOfferSummaryFindByIdQueryResponse(bookingOfferId: BOOKING_OFFER_ID, lastEventSequenceNumber: 2)
+    bookingOfferSummaryFindByIdQueryResponseCache.invalidate(BOOKING_OFFER_ID, 2)
+
+    when:
+    BookingOfferSummaryFindByIdQueryResponse firstResponse = bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { loadCount++; staleResponse })
+    BookingOfferSummaryFindByIdQueryResponse secondResponse = bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { loadCount++; freshResponse })
+    BookingOfferSummaryFindByIdQueryResponse thirdResponse = bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { loadCount++; freshResponse })
+
+    then:
+    loadCount == 2
+    firstResponse.is(staleResponse)
+    secondResponse.is(freshResponse)
+    thirdResponse.is(freshResponse)
+  }
+
+  void "bindTo - should publish hit and miss metrics"() {
+    given:
+    MeterRegistry meterRegistry = new SimpleMeterRegistry()
+    bookingOfferSummaryFindByIdQueryResponseCache.bindTo(meterRegistry)
+    BookingOfferSummaryFindByIdQueryResponse response = new BookingOfferSummaryFindByIdQueryResponse(bookingOfferId: BOOKING_OFFER_ID, lastEventSequenceNumber: 0)
+
+    when:
+    3.times {
+      bookingOfferSummaryFindByIdQueryResponseCache.fetchOrLoad(BOOKING_OFFER_ID, "customerId", { response })
+    }
+
+    then:
+    meterRegistry.get("cache.gets").tag("cache", BookingOfferSummaryFindByIdQueryResponseCache.CACHE_NAME).tag("result", "hit").functionCounter().count() == 2
+    meterRegistry.get("cache.gets").tag("cache", BookingOfferSummaryFindByIdQueryResponseCache.CACHE_NAME).tag("result", "miss").functionCounter().count() == 1
+  }
+}
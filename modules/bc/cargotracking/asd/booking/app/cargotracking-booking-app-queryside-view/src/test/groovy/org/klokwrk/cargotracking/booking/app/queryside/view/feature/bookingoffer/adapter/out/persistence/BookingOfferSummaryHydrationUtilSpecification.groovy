@@ -0,0 +1,126 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.BookingOfferSummaryFindByIdQueryResponse
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
+import org.klokwrk.cargotracking.domain.model.value.CommodityType
+import org.klokwrk.cargotracking.domain.model.value.CustomerType
+import spock.lang.Specification
+
+import java.time.Instant
+
+class BookingOfferSummaryHydrationUtilSpecification extends Specification {
+  static BookingOfferSummaryJpaEntity makeBookingOfferSummaryJpaEntity(UUID bookingOfferId, String totalCommodityWeight = null) {
+    return new BookingOfferSummaryJpaEntity(
+        bookingOfferId: bookingOfferId, customerId: "someCustomerId", customerType: CustomerType.STANDARD, inboundChannelName: "someChannel", inboundChannelType: "someChannelType",
+        firstEventRecordedAt: Instant.parse("2024-01-01T10:00:00Z"), lastEventRecordedAt: Instant.parse("2024-01-02T10:00:00Z"), lastEventSequenceNumber: 1,
+        totalCommodityWeight: totalCommodityWeight
+    )
+  }
+
+  void "makeBookingOfferSummaryFindByIdQueryResponse - should populate all response properties"() {
+    given:
+    UUID bookingOfferId = UUID.randomUUID()
+    BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity = new BookingOfferSummaryJpaEntity(
+        bookingOfferId: bookingOfferId, customerId: "someCustomerId", customerType: CustomerType.GOLD,
+        originLocationUnLoCode: "HRRJK", originLocationName: "Rijeka", originLocationCountryName: "Croatia",
+        destinationLocationUnLoCode: "NLRTM", destinationLocationName: "Rotterdam", destinationLocationCountryName: "Netherlands",
+        departureEarliestTime: Instant.parse("2024-01-03T10:00:00Z"), departureLatestTime: Instant.parse("2024-01-04T10:00:00Z"), arrivalLatestTime: Instant.parse("2024-01-05T10:00:00Z"),
+        commodityTypes: [CommodityType.DRY, CommodityType.CHILLED] as Set<CommodityType>, totalCommodityWeight: "45000 kg", totalCommodityWeightKg: 45000, totalContainerTeuCount: 2.00G,
+        inboundChannelName: "someChannel", inboundChannelType: "someChannelType",
+        firstEventRecordedAt: Instant.parse("2024-01-01T10:00:00Z"), lastEventRecordedAt: Instant.parse("2024-01-02T10:00:00Z"), lastEventSequenceNumber: 1
+    )
+
+    when:
+    BookingOfferSummaryFindByIdQueryResponse response = BookingOfferSummaryHydrationUtil.makeBookingOfferSummaryFindByIdQueryResponse(bookingOfferSummaryJpaEntity)
+
+    then:
+    response.bookingOfferId == bookingOfferId.toString()
+    verifyAll(response) {
+      customerType == CustomerType.GOLD
+
+      originLocationUnLoCode == "HRRJK"
+      originLocationName == "Rijeka"
+      originLocationCountryName == "Croatia"
+
+      destinationLocationUnLoCode == "NLRTM"
+      destinationLocationName == "Rotterdam"
+      destinationLocationCountryName == "Netherlands"
+
+      departureEarliestTime == Instant.parse("2024-01-03T10:00:00Z")
+      departureLatestTime == Instant.parse("2024-01-04T10:00:00Z")
+      arrivalLatestTime == Instant.parse("2024-01-05T10:00:00Z")
+
+      commodityTypes == [CommodityType.DRY, CommodityType.CHILLED] as Set<CommodityType>
+      totalCommodityWeight == 45000.kg
+      totalContainerTeuCount == 2.00G
+
+      firstEventRecordedAt == Instant.parse("2024-01-01T10:00:00Z")
+      lastEventRecordedAt == Instant.parse("2024-01-02T10:00:00Z")
+      lastEventSequenceNumber == 1
+    }
+  }
+
+  void "makeBookingOfferSummaryFindByIdQueryResponse - should leave total commodity weight empty when it is not available"() {
+    when:
+    BookingOfferSummaryFindByIdQueryResponse response = BookingOfferSummaryHydrationUtil.makeBookingOfferSummaryFindByIdQueryResponse(makeBookingOfferSummaryJpaEntity(UUID.randomUUID()))
+
+    then:
+    response.totalCommodityWeight == null
+    response.commodityTypes == null
+  }
+
+  void "parseTotalCommodityWeight - should reuse parsed quantity for the same formatted value"() {
+    expect:
+    BookingOfferSummaryHydrationUtil.parseTotalCommodityWeight("1000 kg") == 1000.kg
+    BookingOfferSummaryHydrationUtil.parseTotalCommodityWeight("1000 kg").is(BookingOfferSummaryHydrationUtil.parseTotalCommodityWeight("1000 kg"))
+    BookingOfferSummaryHydrationUtil.parseTotalCommodityWeight("") == null
+    BookingOfferSummaryHydrationUtil.parseTotalCommodityWeight(null) == null
+  }
+
+  void "makePageContent - should order responses as identifiers regardless of order of entities"() {
+    given:
+    List<UUID> bookingOfferIdList = (1..5).collect({ UUID.randomUUID() })
+    List<BookingOfferSummaryJpaEntity> bookingOfferSummaryJpaEntityList = bookingOfferIdList.reverse().collect({ UUID bookingOfferId -> makeBookingOfferSummaryJpaEntity(bookingOfferId) })
+
+    when:
+    List<BookingOfferSummaryFindByIdQueryResponse> pageContent = BookingOfferSummaryHydrationUtil.makePageContent(bookingOfferIdList, bookingOfferSummaryJpaEntityList)
+
+    then:
+    pageContent*.bookingOfferId == bookingOfferIdList*.toString()
+  }
+
+  void "makePageContent - should skip identifiers without fetched entity"() {
+    given:
+    UUID firstBookingOfferId = UUID.randomUUID()
+    UUID secondBookingOfferId = UUID.randomUUID()
+
+    when:
+    List<BookingOfferSummaryFindByIdQueryResponse> pageContent =
+        BookingOfferSummaryHydrationUtil.makePageContent([firstBookingOfferId, secondBookingOfferId], [makeBookingOfferSummaryJpaEntity(secondBookingOfferId)])
+
+    then:
+    pageContent*.bookingOfferId == [secondBookingOfferId.toString()]
+  }
+
+  void "makePageContent - should return empty list for empty page"() {
+    expect:
+    BookingOfferSummaryHydrationUtil.makePageContent([], []) == []
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence
+
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryKeysetPagingUtil.KeysetPageRequest
+import org.klokwrk.cargotracking.booking.lib.queryside.model.rdbms.jpa.BookingOfferSummaryJpaEntity
+import org.klokwrk.cargotracking.domain.model.value.CustomerType
+import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.QueryException
+import org.klokwrk.cargotracking.lib.boundary.query.api.paging.PageRequirement
+import org.klokwrk.cargotracking.lib.boundary.query.api.sorting.SortDirection
+import org.klokwrk.cargotracking.lib.boundary.query.api.sorting.SortRequirement
+import org.springframework.data.domain.Sort
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+
+class BookingOfferSummaryKeysetPagingUtilSpecification extends Specification {
+  static final UUID BOOKING_OFFER_ID = UUID.fromString("00000000-0000-4000-8000-000000000001")
+  static final Instant FIRST_EVENT_RECORDED_AT = Instant.parse("2024-01-01T10:00:00Z")
+  static final Instant LAST_EVENT_RECORDED_AT = Instant.parse("2024-01-02T10:00:00.123456Z")
+
+  BookingOfferSummaryJpaEntity bookingOfferSummaryJpaEntity = new BookingOfferSummaryJpaEntity(
+      bookingOfferId: BOOKING_OFFER_ID, customerId: "someCustomerId", customerType: CustomerType.STANDARD, inboundChannelName: "someChannel", inboundChannelType: "someChannelType",
+      firstEventRecordedAt: FIRST_EVENT_RECORDED_AT, lastEventRecordedAt: LAST_EVENT_RECORDED_AT, lastEventSequenceNumber: 0
+  )
+
+  void "makeKeysetPageRequest - should append bookingOfferId sort order when it is not present"() {
+    when:
+    KeysetPageRequest keysetPageRequest = BookingOfferSummaryKeysetPagingUtil.makeKeysetPageRequest(new PageRequirement(size: 10, keyset: true), sortRequirementListParam)
+
+    then:
+    keysetPageRequest.sortOrderList == sortOrderListParam
+    keysetPageRequest.size == 10
+    keysetPageRequest.pageOrdinal == 0
+    keysetPageRequest.cursorKeyValueList == null
+
+    where:
+    sortRequirementListParam                                                                                                                         | sortOrderListParam
+    [new SortRequirement(propertyName: "lastEventRecordedAt", direction: SortDirection.DESC)]                                                        | [Sort.Order.desc("lastEventRecordedAt"), Sort.Order.desc("bookingOfferId")]
+    [new SortRequirement(propertyName: "firstEventRecordedAt", direction: SortDirection.ASC)]                                                        | [Sort.Order.asc("firstEventRecordedAt"), Sort.Order.asc("bookingOfferId")]
+    [new SortRequirement(propertyName: "bookingOfferId", direction: SortDirection.DESC)]                                                             | [Sort.Order.desc("bookingOfferId")]
+    [new SortRequirement(propertyName: "bookingOfferId"), new SortRequirement(propertyName: "lastEventRecordedAt", direction: SortDirection.DESC)] | [Sort.Order.asc("bookingOfferId"), Sort.Order.desc("lastEventRecordedAt")]
+  }
+
+  void "makeKeysetPageRequest - should throw for unsupported sort property"() {
+    when:
+    BookingOfferSummaryKeysetPagingUtil.makeKeysetPageRequest(new PageRequirement(size: 10, keyset: true), [new SortRequirement(propertyName: "originLocationName")])
+
+    then:
+    QueryException queryException = thrown()
+    queryException.violationInfo.violationCode.resolvableMessageKey == "badRequest.query.sorting.keysetUnsupportedProperty"
+    queryException.violationInfo.violationCode.resolvableMessageParameters == ["originLocationName"]
+  }
+
+  void "makeNextCursor - should create cursor decodable into the request of the next page"() {
+    given:
+    List<SortRequirement> sortRequirementList = [
+        new SortRequirement(propertyName: "lastEventRecordedAt", direction: SortDirection.DESC),
+        new SortRequirement(propertyName: "firstEventRecordedAt", direction: SortDirection.ASC)
+    ]
+
+    KeysetPageRequest firstKeysetPageRequest = BookingOfferSummaryKeysetPagingUtil.makeKeysetPageRequest(new PageRequirement(size: 10, keyset: true), sortRequirementList)
+
+    when:
+    String nextCursor = BookingOfferSummaryKeysetPagingUtil.makeNextCursor(firstKeysetPageRequest, bookingOfferSummaryJpaEntity)
+    KeysetPageRequest nextKeysetPageRequest = BookingOfferSummaryKeysetPagingUtil.makeKeysetPageRequest(new PageRequirement(size: 10, keyset: true, cursor: nextCursor), sortRequirementList)
+
+    then:
+    nextKeysetPageRequest.sortOrderList == firstKeysetPageRequest.sortOrderList
+    nextKeysetPageRequest.pageOrdinal == 1
+    nextKeysetPageRequest.cursorKeyValueList == [LAST_EVENT_RECORDED_AT, FIRST_EVENT_RECORDED_AT, BOOKING_OFFER_ID]
+  }
+
+  void "makeKeysetPageRequest - should throw for invalid cursor"() {
+    given:
+    List<SortRequirement> sortRequirementList = [new SortRequirement(propertyName: "lastEventRecordedAt", direction: SortDirection.DESC)]
+
+    when:
+    BookingOfferSummaryKeysetPagingUtil.makeKeysetPageRequest(new PageRequirement(size: 10, keyset: true, cursor: cursorParam), sortRequirementList)
+
+    then:
+    QueryException queryException = thrown()
+    queryException.violationInfo.violationCode.resolvableMessageKey == "badRequest.query.paging.invalidCursor"
+
+    where:
+    cursorParam                                                                                           | _
+    "not a base64 cursor"                                                                                 | _
+    encode("1|lastEventRecordedAt:DESC,bookingOfferId:DESC|2024-01-02T10:00:00Z")                         | _
+    encode("1|lastEventRecordedAt:ASC,bookingOfferId:ASC|2024-01-02T10:00:00Z|${ BOOKING_OFFER_ID }")     | _
+    encode("one|lastEventRecordedAt:DESC,bookingOfferId:DESC|2024-01-02T10:00:00Z|${ BOOKING_OFFER_ID }") | _
+    encode("1|lastEventRecordedAt:DESC,bookingOfferId:DESC|yesterday|${ BOOKING_OFFER_ID }")              | _
+    encode("1|lastEventRecordedAt:DESC,bookingOfferId:DESC|2024-01-02T10:00:00Z|not-a-uuid")              | _
+  }
+
+  private static String encode(String decodedCursor) {
+    return Base64.urlEncoder.withoutPadding().encodeToString(decodedCursor.getBytes(StandardCharsets.UTF_8))
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in
+
+import org.klokwrk.lib.hi.validation.springboot.ValidationConfigurationProperties
+import org.klokwrk.lib.hi.validation.springboot.ValidationService
+import org.klokwrk.lib.lo.validation.constraint.RandomUuidFormatConstraint
+import org.klokwrk.lib.lo.validation.constraint.TrimmedStringConstraint
+import spock.lang.Shared
+import spock.lang.Specification
+
+import jakarta.validation.ConstraintViolationException
+import jakarta.validation.constraints.Max
+import jakarta.validation.constraints.NotBlank
+import jakarta.validation.constraints.NotNull
+import jakarta.validation.constraints.Positive
+import jakarta.validation.constraints.PositiveOrZero
+import jakarta.validation.constraints.Size
+
+class BookingOfferSummaryFindByIdAwaitQueryRequestSpecification extends Specification {
+  @Shared
+  ValidationService validationService
+
+  void setupSpec() {
+    validationService = new ValidationService(new ValidationConfigurationProperties())
+    validationService.afterPropertiesSet()
+  }
+
+  void "should pass validation for valid data"() {
+    given:
+    BookingOfferSummaryFindByIdAwaitQueryRequest bookingOfferSummaryFindByIdAwaitQueryRequest = new BookingOfferSummaryFindByIdAwaitQueryRequest(
+        bookingOfferId: "00000000-0000-4000-8000-000000000000", userId: "someUserId", lastEventSequenceNumber: lastEventSequenceNumberParam, awaitTimeoutMillis: awaitTimeoutMillisParam
+    )
+
+    when:
+    validationService.validate(bookingOfferSummaryFindByIdAwaitQueryRequest)
+
+    then:
+    notThrown(ConstraintViolationException)
+
+    where:
+    lastEventSequenceNumberParam | awaitTimeoutMillisParam
+    0L                           | null
+    0L                           | 1L
+    5L                           | 30_000L
+  }
+
+  void "should not pass validation for invalid data"() {
+    given:
+    BookingOfferSummaryFindByIdAwaitQueryRequest bookingOfferSummaryFindByIdAwaitQueryRequest = new BookingOfferSummaryFindByIdAwaitQueryRequest(
+        bookingOfferId: bookingOfferIdParam, userId: userIdParam, lastEventSequenceNumber: lastEventSequenceNumberParam, awaitTimeoutMillis: awaitTimeoutMillisParam
+    )
+
+    when:
+    validationService.validate(bookingOfferSummaryFindByIdAwaitQueryRequest)
+
+    then:
+    ConstraintViolationException constraintViolationException = thrown()
+
+    constraintViolationException.constraintViolations.size() == 1
+    constraintViolationException.constraintViolations[0].constraintDescriptor.annotation.annotationType() == constraintTypeParam
+
+    where:
+    bookingOfferIdParam                    | userIdParam   | lastEventSequenceNumberParam | awaitTimeoutMillisParam | constraintTypeParam
+    null                                   | "someUserId"  | 0L                           | null                    | NotBlank
+    "123"                                  | "someUserId"  | 0L                           | null                    | Size
+    "00000000=0000=0000=0000=000000000000" | "someUserId"  | 0L                           | null                    | RandomUuidFormatConstraint
+
+    "00000000-0000-4000-8000-000000000000" | null          | 0L                           | null                    | NotBlank
+    "00000000-0000-4000-8000-000000000000" | " someUserId" | 0L                           | null                    | TrimmedStringConstraint
+
+    "00000000-0000-4000-8000-000000000000" | "someUserId"  | null                         | null                    | NotNull
+    "00000000-0000-4000-8000-000000000000" | "someUserId"  | -1L                          | null                    | PositiveOrZero
+
+    "00000000-0000-4000-8000-000000000000" | "someUserId"  | 0L                           | 0L                      | Positive
+    "00000000-0000-4000-8000-000000000000" | "someUserId"  | 0L                           | 30_001L                 | Max
+  }
+}
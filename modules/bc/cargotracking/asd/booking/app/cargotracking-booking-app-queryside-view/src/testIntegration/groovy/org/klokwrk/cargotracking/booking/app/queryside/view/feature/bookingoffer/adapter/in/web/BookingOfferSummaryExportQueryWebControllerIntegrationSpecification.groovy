@@ -0,0 +1,160 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web
+
+import groovy.json.JsonSlurper
+import groovy.sql.Sql
+import org.axonframework.eventhandling.EventBus
+import org.klokwrk.cargotracking.booking.app.queryside.view.test.base.AbstractQuerySide_forFindAllAndSearchAllTests_IntegrationSpecification
+import org.spockframework.spring.EnableSharedInjection
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.boot.test.context.TestConfiguration
+import org.springframework.context.annotation.Bean
+import org.springframework.http.HttpHeaders
+import org.springframework.http.MediaType
+import org.springframework.test.context.ActiveProfiles
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.MvcResult
+import org.springframework.web.context.WebApplicationContext
+import spock.lang.Shared
+
+import javax.sql.DataSource
+import java.nio.charset.Charset
+import java.time.Instant
+
+import static org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.fixture.BookingOfferSummarySearchAllQueryRequestJsonFixtureBuilder.bookingOfferSummarySearchAllQueryRequest_standardCustomer
+import static org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.fixture.data.SortRequirementJsonFixtureBuilder.sortRequirement_default
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestRequestHelpers.bookingOfferSummarySearchAll_succeeded
+import static org.klokwrk.cargotracking.test.support.assertion.MetaDataAssertion.assertResponseHasMetaDataThat
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup
+
+@EnableSharedInjection
+@SpringBootTest
+@ActiveProfiles("testIntegration")
+class BookingOfferSummaryExportQueryWebControllerIntegrationSpecification extends AbstractQuerySide_forFindAllAndSearchAllTests_IntegrationSpecification {
+  static final String BOOKING_OFFER_SUMMARY_EXPORT_URL_PATH = "/booking-offer/booking-offer-summary-export"
+
+  @TestConfiguration
+  static class TestSpringBootConfiguration {
+    @Bean
+    Sql groovySql(DataSource dataSource) {
+      return new Sql(dataSource)
+    }
+  }
+
+  @Shared
+  @Autowired
+  EventBus eventBus
+
+  @Shared
+  @Autowired
+  Sql groovySql
+
+  @Autowired
+  WebApplicationContext webApplicationContext
+
+  MockMvc mockMvc
+
+  void setupSpec() {
+    setupProjection_forFindAllAndSearchAllTests(eventBus, groovySql)
+  }
+
+  void setup() {
+    mockMvc ?= webAppContextSetup(webApplicationContext).defaultResponseCharacterEncoding(Charset.forName("UTF-8")).build()
+  }
+
+  MvcResult makeExportRequest(String webRequestBody, String formatParam) {
+    MvcResult mvcResult = mockMvc.perform(
+        post(BOOKING_OFFER_SUMMARY_EXPORT_URL_PATH)
+            .queryParam("format", formatParam)
+            .content(webRequestBody)
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.ACCEPT_CHARSET, "utf-8")
+            .header(HttpHeaders.ACCEPT_LANGUAGE, "en")
+    ).andReturn()
+
+    if (mvcResult.request.asyncStarted) {
+      mvcResult = mockMvc.perform(asyncDispatch(mvcResult)).andReturn()
+    }
+
+    return mvcResult
+  }
+
+  void "should export all booking offer summaries of a customer as NDJSON"() {
+    given:
+    String webRequestBody = bookingOfferSummarySearchAllQueryRequest_standardCustomer().buildAsJsonString()
+    Map searchAllResponseMap = bookingOfferSummarySearchAll_succeeded(webRequestBody, "en", mockMvc)
+
+    when:
+    MvcResult mvcResult = makeExportRequest(webRequestBody, "NDJSON")
+    List<Map> exportedBookingOfferSummaryList = mvcResult.response.contentAsString.readLines().collect({ String line -> new JsonSlurper().parseText(line) as Map })
+
+    then:
+    mvcResult.response.status == 200
+    mvcResult.response.contentType.startsWith("application/x-ndjson")
+
+    // Note: Export is not paged, so all booking offer summaries matching the search request are exported.
+    exportedBookingOfferSummaryList.size() == searchAllResponseMap.payload.pageInfo.totalElementsCount
+    exportedBookingOfferSummaryList.every({ Map bookingOfferSummary -> bookingOfferSummary.customerType == "STANDARD" })
+    exportedBookingOfferSummaryList*.bookingOfferId.toSet().size() == exportedBookingOfferSummaryList.size()
+
+    List<Instant> lastEventRecordedAtList = exportedBookingOfferSummaryList.collect({ Map bookingOfferSummary -> Instant.parse(bookingOfferSummary.lastEventRecordedAt as String) })
+    lastEventRecordedAtList == lastEventRecordedAtList.toSorted().reverse()
+  }
+
+  void "should export the same booking offer summaries as CSV"() {
+    given:
+    String webRequestBody = bookingOfferSummarySearchAllQueryRequest_standardCustomer().buildAsJsonString()
+    List<String> ndjsonLineList = makeExportRequest(webRequestBody, "NDJSON").response.contentAsString.readLines()
+
+    when:
+    MvcResult mvcResult = makeExportRequest(webRequestBody, "CSV")
+    List<String> csvLineList = mvcResult.response.contentAsString.readLines()
+
+    then:
+    mvcResult.response.status == 200
+    mvcResult.response.contentType.startsWith("text/csv")
+
+    csvLineList[0] == BookingOfferSummaryExportWriter.CSV_HEADER_LIST.join(",")
+    csvLineList.size() == ndjsonLineList.size() + 1
+    csvLineList.drop(1)*.split(",")*.getAt(0) == ndjsonLineList.collect({ String line -> (new JsonSlurper().parseText(line) as Map).bookingOfferId })
+  }
+
+  void "should fail before streaming for invalid property name in sort requirements"() {
+    when:
+    MvcResult mvcResult = makeExportRequest(
+        bookingOfferSummarySearchAllQueryRequest_standardCustomer()
+            .sortRequirementList([sortRequirement_default().propertyName("nonExistingProperty")])
+            .buildAsJsonString(),
+        "NDJSON"
+    )
+    Map responseMap = new JsonSlurper().parseText(mvcResult.response.contentAsString) as Map
+
+    then:
+    mvcResult.response.status == 400
+    mvcResult.response.contentType == MediaType.APPLICATION_JSON_VALUE
+
+    assertResponseHasMetaDataThat(responseMap) {
+      isViolationOfDomain_badRequest()
+      has_violation_message("Can't sort by property with name 'nonExistingProperty'. Property name does not exist.")
+    }
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web
+
+import groovy.json.JsonOutput
+import groovy.sql.Sql
+import org.awaitility.Awaitility
+import org.axonframework.eventhandling.EventBus
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.out.persistence.BookingOfferSummaryFindByIdQueryResponseCache
+import org.klokwrk.cargotracking.booking.app.queryside.view.test.base.AbstractQuerySideIntegrationSpecification
+import org.klokwrk.cargotracking.domain.model.event.BookingOfferCreatedEvent
+import org.klokwrk.cargotracking.domain.model.event.BookingOfferCreatedEventFixtureBuilder
+import org.klokwrk.cargotracking.domain.model.event.RouteSpecificationAddedEvent
+import org.klokwrk.cargotracking.domain.model.event.RouteSpecificationAddedEventFixtureBuilder
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.boot.test.context.TestConfiguration
+import org.springframework.context.annotation.Bean
+import org.springframework.test.context.ActiveProfiles
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.MvcResult
+import org.springframework.web.context.WebApplicationContext
+
+import javax.sql.DataSource
+import java.nio.charset.Charset
+import java.time.Duration
+
+import static org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.assertion.BookingOfferSummaryFindByIdQueryResponseContentPayloadAssertion.assertResponseHasPayloadThat
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestProjectionHelpers.waitProjectionBookingOfferSummary_forPartialBookingOfferCreation_withCustomer
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestRequestHelpers.bookingOfferSummaryFindByIdAwait_completed
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestRequestHelpers.bookingOfferSummaryFindByIdAwait_failed
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestRequestHelpers.bookingOfferSummaryFindByIdAwait_failedNotFound
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestRequestHelpers.bookingOfferSummaryFindByIdAwait_started
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestRequestHelpers.bookingOfferSummaryFindByIdAwait_succeeded
+import static org.klokwrk.cargotracking.booking.lib.boundary.web.metadata.WebMetaDataFixtureBuilder.webMetaData_booking_default
+import static org.klokwrk.cargotracking.booking.test.support.queryside.axon.GenericDomainEventMessageFactory.makeEventMessage
+import static org.klokwrk.cargotracking.test.support.assertion.MetaDataAssertion.assertResponseHasMetaDataThat
+import static org.springframework.http.HttpStatus.OK
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup
+
+@SpringBootTest
+@ActiveProfiles("testIntegration")
+class BookingOfferSummaryFindByIdAwaitQueryWebControllerIntegrationSpecification extends AbstractQuerySideIntegrationSpecification {
+  @TestConfiguration
+  static class TestSpringBootConfiguration {
+    @Bean
+    Sql groovySql(DataSource dataSource) {
+      return new Sql(dataSource)
+    }
+  }
+
+  @Autowired
+  EventBus eventBus
+
+  @Autowired
+  Sql groovySql
+
+  @Autowired
+  BookingOfferSummaryFindByIdQueryResponseCache bookingOfferSummaryFindByIdQueryResponseCache
+
+  @Autowired
+  WebApplicationContext webApplicationContext
+
+  MockMvc mockMvc
+
+  void setup() {
+    mockMvc ?= webAppContextSetup(webApplicationContext).defaultResponseCharacterEncoding(Charset.forName("UTF-8")).build()
+  }
+
+  static String makeAwaitWebRequestBody(String bookingOfferId, Long lastEventSequenceNumber, Long awaitTimeoutMillis = 10_000) {
+    return JsonOutput.toJson([
+        userId: "standard-customer@cargotracking.com", bookingOfferId: bookingOfferId, lastEventSequenceNumber: lastEventSequenceNumber, awaitTimeoutMillis: awaitTimeoutMillis
+    ])
+  }
+
+  void "should return booking offer summary as soon as it is projected - booking offer is not projected at the time of request"() {
+    given:
+    BookingOfferCreatedEvent bookingOfferCreatedEvent = BookingOfferCreatedEventFixtureBuilder.bookingOfferCreatedEvent_default().build()
+    String myBookingOfferId = bookingOfferCreatedEvent.bookingOfferId
+    eventBus.publish(makeEventMessage(bookingOfferCreatedEvent, webMetaData_booking_default().build(), 0L))
+
+    when:
+    Map responseMap = bookingOfferSummaryFindByIdAwait_succeeded(makeAwaitWebRequestBody(myBookingOfferId, 0L), acceptLanguageParam, mockMvc)
+
+    then:
+    assertResponseHasMetaDataThat(responseMap) {
+      isSuccessful()
+      has_general_locale(localeStringParam)
+    }
+
+    assertResponseHasPayloadThat(responseMap) {
+      isSuccessful_partialBookingOffer_customer()
+      hasBookingOfferId(myBookingOfferId)
+    }
+
+    where:
+    acceptLanguageParam | localeStringParam
+    "hr-HR"             | "hr_HR"
+    "en"                | "en"
+  }
+
+  void "should return booking offer summary as soon as it is projected - event is observed before awaiting, but projected only after awaiting has started"() {
+    given:
+    BookingOfferCreatedEvent bookingOfferCreatedEvent = BookingOfferCreatedEventFixtureBuilder.bookingOfferCreatedEvent_default().build()
+    String myBookingOfferId = bookingOfferCreatedEvent.bookingOfferId
+
+    // Projection app is paused, so the event is observed by this app while the projection can not reflect it.
+    querySideProjectionRdbmsApp.dockerClient.pauseContainerCmd(querySideProjectionRdbmsApp.containerId).exec()
+    MvcResult startedMvcResult
+    try {
+      eventBus.publish(makeEventMessage(bookingOfferCreatedEvent, webMetaData_booking_default().build(), 0L))
+      Awaitility.await().atMost(Duration.ofSeconds(10)).until({ bookingOfferSummaryFindByIdQueryResponseCache.findLastObservedEventSequenceNumber(myBookingOfferId) == 0L })
+
+      startedMvcResult = bookingOfferSummaryFindByIdAwait_started(makeAwaitWebRequestBody(myBookingOfferId, 0L), "en", mockMvc)
+    }
+    finally {
+      querySideProjectionRdbmsApp.dockerClient.unpauseContainerCmd(querySideProjectionRdbmsApp.containerId).exec()
+    }
+
+    when:
+    Map responseMap = bookingOfferSummaryFindByIdAwait_completed(startedMvcResult, OK.value(), mockMvc)
+
+    then:
+    assertResponseHasMetaDataThat(responseMap) {
+      isSuccessful()
+      has_general_locale("en")
+    }
+
+    assertResponseHasPayloadThat(responseMap) {
+      isSuccessful_partialBookingOffer_customer()
+      hasBookingOfferId(myBookingOfferId)
+    }
+  }
+
+  void "should return booking offer summary as soon as it reflects awaited event - booking offer is already projected at the time of request"() {
+    given:
+    String myBookingOfferId = waitProjectionBookingOfferSummary_forPartialBookingOfferCreation_withCustomer(eventBus, groovySql)
+
+    RouteSpecificationAddedEvent routeSpecificationAddedEvent = RouteSpecificationAddedEventFixtureBuilder.routeSpecificationAddedEvent_default()
+        .bookingOfferId(myBookingOfferId)
+        .build()
+    eventBus.publish(makeEventMessage(routeSpecificationAddedEvent, webMetaData_booking_default().build(), 1L))
+
+    when:
+    Map responseMap = bookingOfferSummaryFindByIdAwait_succeeded(makeAwaitWebRequestBody(myBookingOfferId, 1L), "en", mockMvc)
+
+    then:
+    assertResponseHasMetaDataThat(responseMap) {
+      isSuccessful()
+      has_general_locale("en")
+    }
+
+    assertResponseHasPayloadThat(responseMap) {
+      isSuccessful_partialBookingOffer_customerAndRouteSpecification()
+      hasBookingOfferId(myBookingOfferId)
+    }
+
+    (responseMap.payload as Map).lastEventSequenceNumber == 1
+  }
+
+  void "should return latest booking offer summary when awaited event is not reflected before timeout"() {
+    given:
+    String myBookingOfferId = waitProjectionBookingOfferSummary_forPartialBookingOfferCreation_withCustomer(eventBus, groovySql)
+
+    when:
+    Map responseMap = bookingOfferSummaryFindByIdAwait_succeeded(makeAwaitWebRequestBody(myBookingOfferId, 5L, 200L), "en", mockMvc)
+
+    then:
+    assertResponseHasMetaDataThat(responseMap) {
+      isSuccessful()
+      has_general_locale("en")
+    }
+
+    assertResponseHasPayloadThat(responseMap) {
+      isSuccessful_partialBookingOffer_customer()
+      hasBookingOfferId(myBookingOfferId)
+    }
+
+    (responseMap.payload as Map).lastEventSequenceNumber == 0
+  }
+
+  void "should return expected response when request is not valid - validation failure"() {
+    when:
+    Map responseMap = bookingOfferSummaryFindByIdAwait_failed(makeAwaitWebRequestBody(UUID.randomUUID().toString(), null), "en", mockMvc)
+
+    then:
+    assertResponseHasMetaDataThat(responseMap) {
+      isViolationOfValidation()
+      has_general_locale("en")
+    }
+
+    verifyAll(responseMap.metaData.violation.validationReport as Map) {
+      root.type == "bookingOfferSummaryFindByIdAwaitQueryRequest"
+
+      verifyAll(constraintViolations as List<Map>) {
+        size() == 1
+        it.find({ it.path == "lastEventSequenceNumber" }).type == "notNull"
+      }
+    }
+
+    assertResponseHasPayloadThat(responseMap)
+        .isEmpty()
+  }
+
+  void "should return expected response when BookingOfferSummary cannot be found before timeout - domain failure"() {
+    when:
+    Map responseMap = bookingOfferSummaryFindByIdAwait_failedNotFound(makeAwaitWebRequestBody(UUID.randomUUID().toString(), 0L, 200L), acceptLanguageParam, mockMvc)
+
+    then:
+    assertResponseHasMetaDataThat(responseMap) {
+      isViolationOfDomain_notFound()
+      has_general_locale(localeStringParam)
+      has_violation_message(myViolationMessageParam)
+    }
+
+    assertResponseHasPayloadThat(responseMap)
+        .isEmpty()
+
+    where:
+    acceptLanguageParam | localeStringParam | myViolationMessageParam
+    "hr-HR"             | "hr_HR"           | "Sumarni izvještaj za željenu ponudu za rezervaciju nije pronađen."
+    "en"                | "en"              | "Summary report for specified booking offer is not found."
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web
+
+import groovy.sql.Sql
+import org.awaitility.Awaitility
+import org.axonframework.eventhandling.EventBus
+import org.klokwrk.cargotracking.booking.app.queryside.view.test.base.AbstractQuerySideIntegrationSpecification
+import org.klokwrk.cargotracking.domain.model.event.RouteSpecificationAddedEvent
+import org.klokwrk.cargotracking.domain.model.event.RouteSpecificationAddedEventFixtureBuilder
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.boot.test.context.TestConfiguration
+import org.springframework.context.annotation.Bean
+import org.springframework.test.context.ActiveProfiles
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.MvcResult
+import org.springframework.web.context.WebApplicationContext
+
+import javax.sql.DataSource
+import java.nio.charset.Charset
+import java.time.Duration
+
+import static org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.assertion.BookingOfferSummaryFindByIdQueryResponseContentPayloadAssertion.assertResponseHasPayloadThat
+import static org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.application.port.in.fixture.BookingOfferSummaryFindByIdQueryRequestJsonFixtureBuilder.bookingOfferSummaryFindByIdQueryRequest_standardCustomer
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestProjectionHelpers.waitProjectionBookingOfferSummary_forPartialBookingOfferCreation_withCustomer
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestRequestHelpers.bookingOfferSummaryFindByIdUpdates_failed
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestRequestHelpers.bookingOfferSummaryFindByIdUpdates_started
+import static org.klokwrk.cargotracking.booking.app.queryside.view.test.util.BookingOfferQueryTestRequestHelpers.makeServerSentEventList
+import static org.klokwrk.cargotracking.booking.lib.boundary.web.metadata.WebMetaDataFixtureBuilder.webMetaData_booking_default
+import static org.klokwrk.cargotracking.booking.test.support.queryside.axon.GenericDomainEventMessageFactory.makeEventMessage
+import static org.klokwrk.cargotracking.test.support.assertion.MetaDataAssertion.assertResponseHasMetaDataThat
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup
+
+@SpringBootTest
+@ActiveProfiles("testIntegration")
+class BookingOfferSummaryFindByIdSubscriptionQueryWebControllerIntegrationSpecification extends AbstractQuerySideIntegrationSpecification {
+  @TestConfiguration
+  static class TestSpringBootConfiguration {
+    @Bean
+    Sql groovySql(DataSource dataSource) {
+      return new Sql(dataSource)
+    }
+  }
+
+  @Autowired
+  EventBus eventBus
+
+  @Autowired
+  Sql groovySql
+
+  @Autowired
+  WebApplicationContext webApplicationContext
+
+  MockMvc mockMvc
+
+  void setup() {
+    mockMvc ?= webAppContextSetup(webApplicationContext).defaultResponseCharacterEncoding(Charset.forName("UTF-8")).build()
+  }
+
+  static List<Map> awaitServerSentEventList(MvcResult mvcResult, Integer expectedServerSentEventCount) {
+    Awaitility.await().atMost(Duration.ofSeconds(10)).until({ makeServerSentEventList(mvcResult).size() >= expectedServerSentEventCount })
+    return makeServerSentEventList(mvcResult)
+  }
+
+  static void awaitNoServerSentEvents(MvcResult mvcResult) {
+    Awaitility.await().during(Duration.ofSeconds(1)).atMost(Duration.ofSeconds(2)).until({ makeServerSentEventList(mvcResult).isEmpty() })
+  }
+
+  void "should stream initial booking offer summary and its update"() {
+    given:
+    String myBookingOfferId = waitProjectionBookingOfferSummary_forPartialBookingOfferCreation_withCustomer(eventBus, groovySql)
+
+    MvcResult mvcResult = bookingOfferSummaryFindByIdUpdates_started(
+        bookingOfferSummaryFindByIdQueryRequest_standardCustomer()
+            .bookingOfferId(myBookingOfferId)
+            .buildAsJsonString(),
+        "en",
+        mockMvc
+    )
+
+    when:
+    Map initialServerSentEvent = awaitServerSentEventList(mvcResult, 1)[0]
+
+    then:
+    verifyAll(initialServerSentEvent) {
+      event == "bookingOfferSummary"
+      id == "0"
+    }
+
+    assertResponseHasMetaDataThat(initialServerSentEvent.data as Map) {
+      isSuccessful()
+      has_general_locale("en")
+    }
+
+    assertResponseHasPayloadThat(initialServerSentEvent.data as Map) {
+      isSuccessful_partialBookingOffer_customer()
+      hasBookingOfferId(myBookingOfferId)
+    }
+
+    when:
+    RouteSpecificationAddedEvent routeSpecificationAddedEvent = RouteSpecificationAddedEventFixtureBuilder.routeSpecificationAddedEvent_default()
+        .bookingOfferId(myBookingOfferId)
+        .build()
+    eventBus.publish(makeEventMessage(routeSpecificationAddedEvent, webMetaData_booking_default().build(), 1L))
+
+    List<Map> serverSentEventList = awaitServerSentEventList(mvcResult, 2)
+
+    then:
+    serverSentEventList.size() == 2
+
+    verifyAll(serverSentEventList[1]) {
+      event == "bookingOfferSummary"
+      id == "1"
+    }
+
+    assertResponseHasMetaDataThat(serverSentEventList[1].data as Map) {
+      isSuccessful()
+      has_general_locale("en")
+    }
+
+    assertResponseHasPayloadThat(serverSentEventList[1].data as Map) {
+      isSuccessful_partialBookingOffer_customerAndRouteSpecification()
+      hasBookingOfferId(myBookingOfferId)
+    }
+
+    cleanup:
+    mvcResult?.request?.asyncContext?.complete()
+  }
+
+  void "should not stream anything while booking offer summary cannot be found - not found"() {
+    given:
+    MvcResult mvcResult = bookingOfferSummaryFindByIdUpdates_started(
+        bookingOfferSummaryFindByIdQueryRequest_standardCustomer()
+            .bookingOfferId(UUID.randomUUID().toString())
+            .buildAsJsonString(),
+        "en",
+        mockMvc
+    )
+
+    when:
+    awaitNoServerSentEvents(mvcResult)
+
+    then:
+    mvcResult.request.asyncStarted
+
+    cleanup:
+    mvcResult?.request?.asyncContext?.complete()
+  }
+
+  void "should not stream anything, including updates, when booking offer summary is owned by another customer - not found"() {
+    given:
+    String myBookingOfferId = waitProjectionBookingOfferSummary_forPartialBookingOfferCreation_withCustomer(eventBus, groovySql)
+
+    MvcResult mvcResult = bookingOfferSummaryFindByIdUpdates_started(
+        bookingOfferSummaryFindByIdQueryRequest_standardCustomer()
+            .bookingOfferId(myBookingOfferId)
+            .userId("gold-customer@cargotracking.com")
+            .buildAsJsonString(),
+        "en",
+        mockMvc
+    )
+
+    when:
+    RouteSpecificationAddedEvent routeSpecificationAddedEvent = RouteSpecificationAddedEventFixtureBuilder.routeSpecificationAddedEvent_default()
+        .bookingOfferId(myBookingOfferId)
+        .build()
+    eventBus.publish(makeEventMessage(routeSpecificationAddedEvent, webMetaData_booking_default().build(), 1L))
+
+    awaitNoServerSentEvents(mvcResult)
+
+    then:
+    mvcResult.request.asyncStarted
+
+    cleanup:
+    mvcResult?.request?.asyncContext?.complete()
+  }
+
+  void "should return expected response when request is not valid - validation failure"() {
+    when:
+    Map responseMap = bookingOfferSummaryFindByIdUpdates_failed(
+        bookingOfferSummaryFindByIdQueryRequest_standardCustomer()
+            .bookingOfferId(null)
+            .buildAsJsonString(),
+        "en",
+        mockMvc
+    )
+
+    then:
+    assertResponseHasMetaDataThat(responseMap) {
+      isViolationOfValidation()
+      has_general_locale("en")
+    }
+
+    verifyAll(responseMap.metaData.violation.validationReport as Map) {
+      root.type == "bookingOfferSummaryFindByIdQueryRequest"
+
+      verifyAll(constraintViolations as List<Map>) {
+        size() == 1
+        it.find({ it.path == "bookingOfferId" }).type == "notBlank"
+      }
+    }
+
+    assertResponseHasPayloadThat(responseMap)
+        .isEmpty()
+  }
+}
@@ -90,7 +90,7 @@ class BookingOfferSummaryFindAllQueryApplicationServiceIntegrationSpecification
 
     then:
     verifyAll(operationResponse.payload.pageInfo) {
-      propertiesFiltered.size() == 8
+      propertiesFiltered.size() == 9
 
       pageOrdinal == 0
       pageElementsCount == 25
@@ -144,7 +144,7 @@ class BookingOfferSummaryFindAllQueryApplicationServiceIntegrationSpecification
 
     then:
     verifyAll(operationResponse.payload.pageInfo) {
-      propertiesFiltered.size() == 8
+      propertiesFiltered.size() == 9
 
       pageOrdinal == 0
       pageElementsCount == 3
@@ -158,6 +158,90 @@ class BookingOfferSummaryFindAllQueryApplicationServiceIntegrationSpecification
     operationResponse.payload.pageContent.size() as Long == 3
   }
 
+  void "should work for keyset paging through all pages"() {
+    given:
+    List<SortRequirement> sortRequirementList = makeSortRequirementList(sortParam)
+
+    // With keyset paging, bookingOfferId is implicitly used as the last sort property. Therefore, for comparison of results, we must use it explicitly with offset paging.
+    List<SortRequirement> offsetSortRequirementList = sortRequirementList + makeSortRequirementList(["bookingOfferId:${ sortRequirementList.last().direction.name() }".toString()])
+    List<String> expectedBookingOfferIds = fetchBookingOfferIds(new PageRequirement(ordinal: 0, size: 100), offsetSortRequirementList)
+
+    List<Map> pageInfoList = []
+    List<String> pagedBookingOfferIds = []
+    String cursor = null
+
+    when:
+    while (true) {
+      BookingOfferSummaryFindAllQueryResponse response = fetchBookingOfferSummaryFindAllQueryResponse(new PageRequirement(size: 10, keyset: true, cursor: cursor), sortRequirementList)
+      pageInfoList << [pageOrdinal: response.pageInfo.pageOrdinal, pageElementsCount: response.pageInfo.pageElementsCount, first: response.pageInfo.first, last: response.pageInfo.last]
+      pagedBookingOfferIds.addAll(response.pageContent*.bookingOfferId)
+
+      assert response.pageInfo.totalElementsCount == -1
+      assert response.pageInfo.totalPagesCount == -1
+
+      cursor = response.pageInfo.nextCursor
+      if (cursor == null) {
+        break
+      }
+    }
+
+    then:
+    pageInfoList == [
+        [pageOrdinal: 0, pageElementsCount: 10, first: true, last: false],
+        [pageOrdinal: 1, pageElementsCount: 10, first: false, last: false],
+        [pageOrdinal: 2, pageElementsCount: 5, first: false, last: true]
+    ]
+
+    pagedBookingOfferIds == expectedBookingOfferIds
+
+    where:
+    sortParam                                                | _
+    ["lastEventRecordedAt:DESC"]                             | _
+    ["lastEventRecordedAt:ASC"]                              | _
+    ["firstEventRecordedAt:ASC"]                             | _
+    ["lastEventRecordedAt:DESC", "firstEventRecordedAt:ASC"] | _
+  }
+
+  void "should calculate total counts for keyset paging when requested"() {
+    when:
+    BookingOfferSummaryFindAllQueryResponse response = fetchBookingOfferSummaryFindAllQueryResponse(
+        new PageRequirement(size: 10, keyset: true, totalCountRequired: true), [new SortRequirement(propertyName: "lastEventRecordedAt", direction: SortDirection.DESC)]
+    )
+
+    then:
+    verifyAll(response.pageInfo) {
+      pageOrdinal == 0
+      pageElementsCount == 10
+      first
+      !last
+      nextCursor != null
+      totalElementsCount == 25
+      totalPagesCount == 3
+    }
+  }
+
+  void "should fail for keyset paging with unsupported sort property or invalid cursor"() {
+    when:
+    fetchBookingOfferSummaryFindAllQueryResponse(new PageRequirement(size: 10, keyset: true, cursor: cursorParam), [new SortRequirement(propertyName: propertyNameParam)])
+
+    then:
+    QueryException queryException = thrown()
+
+    queryException.message == "Bad Request"
+    verifyAll(queryException.violationInfo, {
+      severity == Severity.WARNING
+      violationCode.code == ViolationCode.BAD_REQUEST.code
+      violationCode.resolvableMessageKey == resolvableMessageKeyParam
+      violationCode.resolvableMessageParameters == resolvableMessageParametersParam
+    })
+
+    where:
+    propertyNameParam     | cursorParam                                                   | resolvableMessageKeyParam                              | resolvableMessageParametersParam
+    "originLocationName"  | null                                                          | "badRequest.query.sorting.keysetUnsupportedProperty"   | ["originLocationName"]
+    "lastEventRecordedAt" | "invalid cursor"                                              | "badRequest.query.paging.invalidCursor"                | []
+    "lastEventRecordedAt" | Base64.urlEncoder.encodeToString("1|foo:ASC|bar".bytes)       | "badRequest.query.paging.invalidCursor"                | []
+  }
+
   void "should fail for invalid sort requirements list"() {
     given:
     BookingOfferSummaryFindAllQueryRequest bookingOfferSummaryFindAllQueryRequest = new BookingOfferSummaryFindAllQueryRequest(
@@ -288,4 +372,24 @@ class BookingOfferSummaryFindAllQueryApplicationServiceIntegrationSpecification
     cleanup:
     logger.detachAppender(listAppender)
   }
+
+  private BookingOfferSummaryFindAllQueryResponse fetchBookingOfferSummaryFindAllQueryResponse(PageRequirement pageRequirement, List<SortRequirement> sortRequirementList) {
+    OperationRequest<BookingOfferSummaryFindAllQueryRequest> operationRequest = new OperationRequest(
+        payload: new BookingOfferSummaryFindAllQueryRequest(userId: "standard-customer@cargotracking.com", pageRequirement: pageRequirement, sortRequirementList: sortRequirementList),
+        metaData: [(MetaDataConstant.INBOUND_CHANNEL_REQUEST_LOCALE_KEY): Locale.forLanguageTag("en")]
+    )
+
+    return bookingOfferSummaryFindAllQueryPortIn.bookingOfferSummaryFindAllQuery(operationRequest).payload
+  }
+
+  private static List<SortRequirement> makeSortRequirementList(List<String> sortList) {
+    return sortList.collect({ String sort ->
+      List<String> sortParts = sort.tokenize(":")
+      new SortRequirement(propertyName: sortParts[0], direction: SortDirection.valueOf(sortParts[1]))
+    })
+  }
+
+  private List<String> fetchBookingOfferIds(PageRequirement pageRequirement, List<SortRequirement> sortRequirementList) {
+    return fetchBookingOfferSummaryFindAllQueryResponse(pageRequirement, sortRequirementList).pageContent*.bookingOfferId
+  }
 }
@@ -84,7 +84,7 @@ class BookingOfferSummarySearchAllQueryApplicationServiceIntegrationSpecificatio
 
     then:
     verifyAll(operationResponse.payload.pageInfo) {
-      propertiesFiltered.size() == 8
+      propertiesFiltered.size() == 9
       pageOrdinal == 0
       pageElementsCount >= 8
       first
@@ -131,7 +131,7 @@ class BookingOfferSummarySearchAllQueryApplicationServiceIntegrationSpecificatio
 
     then:
     verifyAll(operationResponse.payload.pageInfo) {
-      propertiesFiltered.size() == 8
+      propertiesFiltered.size() == 9
       pageOrdinal == 0
       pageElementsCount >= 8
       first
@@ -180,7 +180,7 @@ class BookingOfferSummarySearchAllQueryApplicationServiceIntegrationSpecificatio
 
     then:
     verifyAll(operationResponse.payload.pageInfo) {
-      propertiesFiltered.size() == 8
+      propertiesFiltered.size() == 9
       pageOrdinal == 0
       pageElementsCount >= 5
       first
@@ -216,7 +216,7 @@ class BookingOfferSummarySearchAllQueryApplicationServiceIntegrationSpecificatio
 
     then:
     verifyAll(operationResponse.payload.pageInfo) {
-      propertiesFiltered.size() == 8
+      propertiesFiltered.size() == 9
       pageOrdinal == 0
       pageElementsCount >= 3
       first
@@ -236,6 +236,40 @@ class BookingOfferSummarySearchAllQueryApplicationServiceIntegrationSpecificatio
     }
   }
 
+  void "should work for keyset paging through all pages of search results"() {
+    given:
+    List<SortRequirement> sortRequirementList = [new SortRequirement(propertyName: "lastEventRecordedAt", direction: SortDirection.DESC)]
+    List<SortRequirement> offsetSortRequirementList = sortRequirementList + [new SortRequirement(propertyName: "bookingOfferId", direction: SortDirection.DESC)]
+
+    BookingOfferSummarySearchAllQueryResponse offsetResponse = fetchBookingOfferSummarySearchAllQueryResponse(new PageRequirement(ordinal: 0, size: 1000), offsetSortRequirementList)
+    List<String> expectedBookingOfferIds = offsetResponse.pageContent*.bookingOfferId
+
+    List<String> pagedBookingOfferIds = []
+    Long totalElementsCount = null
+    String cursor = null
+
+    when:
+    while (true) {
+      BookingOfferSummarySearchAllQueryResponse response =
+          fetchBookingOfferSummarySearchAllQueryResponse(new PageRequirement(size: 3, keyset: true, cursor: cursor, totalCountRequired: true), sortRequirementList)
+
+      assert response.pageInfo.first == (cursor == null)
+      pagedBookingOfferIds.addAll(response.pageContent*.bookingOfferId)
+      totalElementsCount = response.pageInfo.totalElementsCount
+
+      cursor = response.pageInfo.nextCursor
+      if (cursor == null) {
+        assert response.pageInfo.last
+        break
+      }
+    }
+
+    then:
+    expectedBookingOfferIds.size() >= 3
+    pagedBookingOfferIds == expectedBookingOfferIds
+    totalElementsCount == offsetResponse.pageInfo.totalElementsCount
+  }
+
   void "should fail for invalid sort requirements list"() {
     given:
     OperationRequest<BookingOfferSummarySearchAllQueryRequest> operationRequest = new OperationRequest(
@@ -287,4 +321,18 @@ class BookingOfferSummarySearchAllQueryApplicationServiceIntegrationSpecificatio
       violationCode.resolvableMessageParameters == ["nonExistingProperty"]
     })
   }
+
+  private BookingOfferSummarySearchAllQueryResponse fetchBookingOfferSummarySearchAllQueryResponse(PageRequirement pageRequirement, List<SortRequirement> sortRequirementList) {
+    OperationRequest<BookingOfferSummarySearchAllQueryRequest> operationRequest = new OperationRequest(
+        payload: new BookingOfferSummarySearchAllQueryRequest(
+            userId: "standard-customer@cargotracking.com",
+            originLocationName: "Rijeka",
+            pageRequirement: pageRequirement,
+            sortRequirementList: sortRequirementList
+        ),
+        metaData: [(MetaDataConstant.INBOUND_CHANNEL_REQUEST_LOCALE_KEY): Locale.forLanguageTag("en")]
+    )
+
+    return bookingOfferSummarySearchAllQueryPortIn.bookingOfferSummarySearchAllQuery(operationRequest).payload
+  }
 }
@@ -32,6 +32,7 @@ import spock.lang.Specification
 abstract class AbstractQuerySideIntegrationSpecification extends Specification {
   static GenericContainer axonServer
   static PostgreSQLContainer postgresqlServer
+  static GenericContainer querySideProjectionRdbmsApp
   static Network klokwrkNetwork
 
   static {
@@ -41,7 +42,7 @@ abstract class AbstractQuerySideIntegrationSpecification extends Specification {
     RdbmsManagementAppTestcontainersFactory.makeAndStartRdbmsManagementApp(klokwrkNetwork, postgresqlServer)
 
     axonServer = AxonServerTestcontainersFactory.makeAndStartAxonServer(klokwrkNetwork)
-    QuerySideProjectionRdbmsAppTestcontainersFactory.makeAndStartQuerySideProjectionRdbmsApp(klokwrkNetwork, axonServer, postgresqlServer)
+    querySideProjectionRdbmsApp = QuerySideProjectionRdbmsAppTestcontainersFactory.makeAndStartQuerySideProjectionRdbmsApp(klokwrkNetwork, axonServer, postgresqlServer)
   }
 
   @DynamicPropertySource
@@ -19,6 +19,7 @@ package org.klokwrk.cargotracking.booking.app.queryside.view.test.util
 
 import groovy.json.JsonSlurper
 import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.booking.app.queryside.view.feature.bookingoffer.adapter.in.web.BookingOfferQueryWebController
 import org.springframework.http.HttpHeaders
 import org.springframework.http.MediaType
 import org.springframework.test.web.servlet.MockMvc
@@ -27,11 +28,14 @@ import org.springframework.test.web.servlet.MvcResult
 import static org.springframework.http.HttpStatus.BAD_REQUEST
 import static org.springframework.http.HttpStatus.NOT_FOUND
 import static org.springframework.http.HttpStatus.OK
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post
 
 @CompileStatic
 class BookingOfferQueryTestRequestHelpers {
   static final String BOOKING_OFFER_SUMMARY_FIND_BY_ID_URL_PATH = "/booking-offer/booking-offer-summary-find-by-id"
+  static final String BOOKING_OFFER_SUMMARY_FIND_BY_ID_AWAIT_URL_PATH = "/booking-offer/booking-offer-summary-find-by-id-await"
+  static final String BOOKING_OFFER_SUMMARY_FIND_BY_ID_UPDATES_URL_PATH = "/booking-offer/booking-offer-summary-find-by-id-updates"
   static final String BOOKING_OFFER_SUMMARY_FIND_ALL_URL_PATH = "/booking-offer/booking-offer-summary-find-all"
   static final String BOOKING_OFFER_SUMMARY_SEARCH_ALL_URL_PATH = "/booking-offer/booking-offer-summary-search-all"
 
@@ -63,6 +67,92 @@ class BookingOfferQueryTestRequestHelpers {
     return makeRequestAndReturnResponseContentMap(webRequestBody, BOOKING_OFFER_SUMMARY_FIND_BY_ID_URL_PATH, acceptLanguageHeaderValue, NOT_FOUND.value(), mockMvc)
   }
 
+  static Map bookingOfferSummaryFindByIdAwait_succeeded(String webRequestBody, String acceptLanguageHeaderValue, MockMvc mockMvc) {
+    return bookingOfferSummaryFindByIdAwait_completed(bookingOfferSummaryFindByIdAwait_started(webRequestBody, acceptLanguageHeaderValue, mockMvc), OK.value(), mockMvc)
+  }
+
+  static Map bookingOfferSummaryFindByIdAwait_failed(String webRequestBody, String acceptLanguageHeaderValue, MockMvc mockMvc) {
+    return makeRequestAndReturnResponseContentMap(webRequestBody, BOOKING_OFFER_SUMMARY_FIND_BY_ID_AWAIT_URL_PATH, acceptLanguageHeaderValue, BAD_REQUEST.value(), mockMvc)
+  }
+
+  static Map bookingOfferSummaryFindByIdAwait_failedNotFound(String webRequestBody, String acceptLanguageHeaderValue, MockMvc mockMvc) {
+    return bookingOfferSummaryFindByIdAwait_completed(bookingOfferSummaryFindByIdAwait_started(webRequestBody, acceptLanguageHeaderValue, mockMvc), NOT_FOUND.value(), mockMvc)
+  }
+
+  /**
+   * Starts awaiting of booking offer summary and returns the result without waiting for the response, which can be obtained later via {@link #bookingOfferSummaryFindByIdAwait_completed}.
+   */
+  static MvcResult bookingOfferSummaryFindByIdAwait_started(String webRequestBody, String acceptLanguageHeaderValue, MockMvc mockMvc) {
+    MvcResult mvcResult = makeRequest(webRequestBody, BOOKING_OFFER_SUMMARY_FIND_BY_ID_AWAIT_URL_PATH, acceptLanguageHeaderValue, mockMvc)
+
+    assert mvcResult.request.asyncStarted
+    return mvcResult
+  }
+
+  /**
+   * Waits for the response of started awaiting of booking offer summary and returns its content.
+   */
+  static Map bookingOfferSummaryFindByIdAwait_completed(MvcResult startedMvcResult, Integer expectedResponseStatus, MockMvc mockMvc) {
+    startedMvcResult.getAsyncResult(BookingOfferQueryWebController.BOOKING_OFFER_SUMMARY_AWAIT_ASYNC_REQUEST_TIMEOUT_MILLIS)
+    MvcResult mvcResult = mockMvc.perform(asyncDispatch(startedMvcResult)).andReturn()
+
+    assert mvcResult.response.status == expectedResponseStatus
+    assert mvcResult.response.contentType == MediaType.APPLICATION_JSON_VALUE
+
+    Map responseContentMap = new JsonSlurper().parseText(mvcResult.response.contentAsString) as Map
+    return responseContentMap
+  }
+
+  /**
+   * Starts streaming of booking offer summary updates and returns the result whose response content grows as server-sent events arrive.
+   * <p/>
+   * The stream is never completed by the server, so the caller should complete it with {@code mvcResult.request.asyncContext.complete()}, which also closes the subscription.
+   */
+  static MvcResult bookingOfferSummaryFindByIdUpdates_started(String webRequestBody, String acceptLanguageHeaderValue, MockMvc mockMvc) {
+    MvcResult mvcResult = makeRequest(webRequestBody, BOOKING_OFFER_SUMMARY_FIND_BY_ID_UPDATES_URL_PATH, acceptLanguageHeaderValue, mockMvc, [MediaType.TEXT_EVENT_STREAM])
+
+    assert mvcResult.request.asyncStarted
+    assert mvcResult.response.status == OK.value()
+    assert mvcResult.response.contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)
+
+    return mvcResult
+  }
+
+  static Map bookingOfferSummaryFindByIdUpdates_failed(String webRequestBody, String acceptLanguageHeaderValue, MockMvc mockMvc) {
+    MvcResult mvcResult =
+        makeRequest(webRequestBody, BOOKING_OFFER_SUMMARY_FIND_BY_ID_UPDATES_URL_PATH, acceptLanguageHeaderValue, mockMvc, [MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON])
+
+    assert mvcResult.response.status == BAD_REQUEST.value()
+    assert mvcResult.response.contentType == MediaType.APPLICATION_JSON_VALUE
+
+    Map responseContentMap = new JsonSlurper().parseText(mvcResult.response.contentAsString) as Map
+    return responseContentMap
+  }
+
+  /**
+   * Parses server-sent events received so far into a list of maps with event's {@code event}, {@code id} and {@code data} fields, where {@code data} is parsed from JSON.
+   */
+  static List<Map> makeServerSentEventList(MvcResult mvcResult) {
+    String responseContent = mvcResult.response.contentAsString
+    int completeEventsEndIndex = responseContent.lastIndexOf("\n\n")
+    if (completeEventsEndIndex < 0) {
+      return []
+    }
+
+    List<Map> serverSentEventList = responseContent.substring(0, completeEventsEndIndex).split("\n\n").collect({ String serverSentEventText ->
+      Map<String, String> serverSentEventFieldMap = [:]
+      serverSentEventText.eachLine({ String serverSentEventLine ->
+        String fieldName = serverSentEventLine.takeBefore(":")
+        String fieldValue = serverSentEventLine.takeAfter(":")
+        serverSentEventFieldMap.put(fieldName, serverSentEventFieldMap.containsKey(fieldName) ? "${ serverSentEventFieldMap.get(fieldName) }\n$fieldValue".toString() : fieldValue)
+      })
+
+      return [event: serverSentEventFieldMap.event, id: serverSentEventFieldMap.id, data: new JsonSlurper().parseText(serverSentEventFieldMap.data) as Map] as Map
+    })
+
+    return serverSentEventList
+  }
+
   private static Map makeRequestAndReturnResponseContentMap(String webRequestBody, String urlPath, String acceptLanguageHeaderValue, Integer expectedResponseStatus, MockMvc mockMvc) {
     MvcResult mvcResult = makeRequest(webRequestBody, urlPath, acceptLanguageHeaderValue, mockMvc)
 
@@ -73,12 +163,14 @@ class BookingOfferQueryTestRequestHelpers {
     return responseContentMap
   }
 
-  private static MvcResult makeRequest(String webRequestBody, String urlPath, String acceptLanguageHeaderValue, MockMvc mockMvc) {
+  private static MvcResult makeRequest(
+      String webRequestBody, String urlPath, String acceptLanguageHeaderValue, MockMvc mockMvc, List<MediaType> acceptMediaTypeList = [MediaType.APPLICATION_JSON])
+  {
     MvcResult mvcResult = mockMvc.perform(
         post(urlPath)
             .content(webRequestBody)
             .contentType(MediaType.APPLICATION_JSON)
-            .accept(MediaType.APPLICATION_JSON)
+            .accept(acceptMediaTypeList as MediaType[])
             .header(HttpHeaders.ACCEPT_CHARSET, "utf-8")
             .header(HttpHeaders.ACCEPT_LANGUAGE, acceptLanguageHeaderValue)
     ).andReturn()
@@ -0,0 +1,24 @@
+--
+-- SPDX-License-Identifier: Apache-2.0
+--
+-- Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     https://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- Composite indexes supporting keyset (seek) paging over booking offer summaries of a single customer. Every index starts with customer_id (equality predicate), continues with the sort column,
+-- and ends with booking_offer_id (the tie-breaker appended to every keyset sort). Therefore, fetching any page is a single index range scan in either direction, without sorting.
+-- Index on (customer_id, booking_offer_id) also supports counting of customer's booking offers with an index-only scan.
+CREATE INDEX ix__booking_offer_summary__customer_id__booking_offer_id ON booking_offer_summary (customer_id, booking_offer_id);
+CREATE INDEX ix__booking_offer_summary__customer_id__first_event_recorded_at ON booking_offer_summary (customer_id, first_event_recorded_at, booking_offer_id);
+CREATE INDEX ix__booking_offer_summary__customer_id__last_event_recorded_at ON booking_offer_summary (customer_id, last_event_recorded_at, booking_offer_id);
@@ -26,6 +26,7 @@ import org.axonframework.messaging.MetaData
 import org.axonframework.modelling.command.AggregateCreationPolicy
 import org.axonframework.modelling.command.AggregateIdentifier
 import org.axonframework.modelling.command.CreationPolicy
+import org.axonframework.serialization.Revision
 import org.axonframework.spring.stereotype.Aggregate
 import org.klokwrk.cargotracking.domain.model.command.CreateBookingOfferCommand
 import org.klokwrk.cargotracking.domain.model.command.data.CargoCommandData
@@ -44,18 +45,16 @@ import org.klokwrk.cargotracking.domain.model.value.RouteSpecification
 import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.CommandException
 import org.klokwrk.lib.xlang.groovy.base.transform.options.RelaxedPropertyHandler
 
-import javax.measure.Quantity
-import javax.measure.quantity.Mass
-
 import static org.axonframework.modelling.command.AggregateLifecycle.apply
-import static org.klokwrk.cargotracking.domain.model.aggregate.BookingOfferCargos.calculateTotalsForCargoCollectionAddition
-import static org.klokwrk.cargotracking.domain.model.aggregate.BookingOfferCargos.canAcceptCargoCollectionAddition
 import static org.klokwrk.cargotracking.domain.model.aggregate.BookingOfferCargos.consolidateCargoCollectionsForCargoAddition
 import static org.klokwrk.cargotracking.lib.boundary.api.domain.violation.ViolationInfo.makeForBadRequestWithCustomCodeKey
 
 @PropertyOptions(propertyHandler = RelaxedPropertyHandler)
 @MapConstructor(noArg = true)
-@Aggregate
+// Note: Snapshot trigger definition and cache are referenced by bean names. Corresponding beans have to be configured by the application hosting the aggregate.
+//       When changing the structure of BookingOfferAggregateSnapshot in an incompatible way, the revision has to be increased.
+@Aggregate(snapshotTriggerDefinition = "bookingOfferAggregateSnapshotTriggerDefinition", cache = "bookingOfferAggregateCache")
+@Revision("1")
 @CompileStatic
 class BookingOfferAggregate {
   BookingOfferId bookingOfferId
@@ -92,13 +91,6 @@ class BookingOfferAggregate {
     List<CargoAddedEvent> cargoAddedEventList = []
     if (createBookingOfferCommand.cargos) {
       Collection<Cargo> inputConsolidatedCargoCollection = makeInputConsolidatedCargoCollection(createBookingOfferCommand.cargos, cargoCreatorService)
-      Collection<Cargo> existingConsolidatedCargoCollection = bookingOfferCargos.bookingOfferCargoCollection // existingConsolidatedCargoCollection is an empty list for the new aggregate
-
-      if (!canAcceptCargoCollectionAddition(existingConsolidatedCargoCollection, inputConsolidatedCargoCollection, maxAllowedTeuCountPolicy)) {
-        throw new CommandException(
-            makeForBadRequestWithCustomCodeKey("bookingOfferAggregate.bookingOfferCargos.cannotAcceptCargo", [maxAllowedTeuCountPolicy.maxAllowedTeuCount.trunc(0).toBigInteger().toString()])
-        )
-      }
 
       // For each consolidated input cargo we want to create independent CargoAddedEvent. The order of handling input cargos is not important but the order of created events is significant.
       // This is because each CargoAddedEvent contains totalCommodityWeight and totalContainerTeuCount at the point of event creation, where totalCommodityWeight and totalContainerTeuCount are
@@ -106,23 +98,28 @@ class BookingOfferAggregate {
       // (or applying) events must be the same as the order of their creation.
       // That way, when we have multiple consolidated input cargos during booking offer creation, we will end up with multiple CargoAddedEvent with increasing totalCommodityWeight and
       // totalContainerTeuCount
-
-      Collection<Cargo> intermediateCargoCollection = []
+      //
+      // To calculate totals, input cargos are accumulated one by one in a copy of the current aggregate's cargos (which is empty for the new aggregate). As input cargos are already consolidated,
+      // this gives the same totals as consolidating existing cargos with all input cargos handled so far, but without recalculating previously handled cargos.
+      BookingOfferCargos bookingOfferCargosWithAdditions = bookingOfferCargos.copy()
       inputConsolidatedCargoCollection.each((Cargo cargo) -> {
-        intermediateCargoCollection << cargo
-        Tuple2<Quantity<Mass>, BigDecimal> preCalculatedTotals = calculateTotalsForCargoCollectionAddition(existingConsolidatedCargoCollection, intermediateCargoCollection)
-        Quantity<Mass> bookingTotalCommodityWeight = preCalculatedTotals.v1
-        BigDecimal bookingTotalContainerTeuCount = preCalculatedTotals.v2
+        bookingOfferCargosWithAdditions.storeCargoCollectionAddition([cargo])
 
         CargoAddedEvent cargoAddedEvent = new CargoAddedEvent(
             bookingOfferId: createBookingOfferCommand.bookingOfferId.identifier,
             cargo: CargoEventData.fromCargo(cargo),
-            totalCommodityWeight: bookingTotalCommodityWeight,
-            totalContainerTeuCount: bookingTotalContainerTeuCount
+            totalCommodityWeight: bookingOfferCargosWithAdditions.totalCommodityWeight,
+            totalContainerTeuCount: bookingOfferCargosWithAdditions.totalContainerTeuCount
         )
 
         cargoAddedEventList << cargoAddedEvent
       })
+
+      if (!maxAllowedTeuCountPolicy.isTeuCountAllowed(bookingOfferCargosWithAdditions.totalContainerTeuCount)) {
+        throw new CommandException(
+            makeForBadRequestWithCustomCodeKey("bookingOfferAggregate.bookingOfferCargos.cannotAcceptCargo", [maxAllowedTeuCountPolicy.maxAllowedTeuCount.trunc(0).toBigInteger().toString()])
+        )
+      }
     }
 
     apply(bookingOfferCreatedEvent, metaData)
@@ -149,6 +146,46 @@ class BookingOfferAggregate {
     return inputConsolidatedCargoCollection
   }
 
+  /**
+   * Creates a compact snapshot of the aggregate state.
+   * <p/>
+   * The application hosting the aggregate is responsible for serializing the snapshot instead of the aggregate when Axon stores the aggregate snapshot.
+   */
+  BookingOfferAggregateSnapshot toSnapshot() {
+    return new BookingOfferAggregateSnapshot(
+        bookingOfferId: bookingOfferId?.identifier,
+        lastEventSequenceNumber: lastEventSequenceNumber,
+        customer: customer == null ? null : CustomerEventData.fromCustomer(customer),
+        routeSpecification: routeSpecification == null ? null : RouteSpecificationEventData.fromRouteSpecification(routeSpecification),
+        bookingOfferCargos: CargoEventData.fromCargoCollection(bookingOfferCargos.bookingOfferCargoCollection) as List<CargoEventData>,
+        totalCommodityWeight: bookingOfferCargos.totalCommodityWeight,
+        totalContainerTeuCount: bookingOfferCargos.totalContainerTeuCount
+    )
+  }
+
+  /**
+   * Restores the aggregate from a snapshot created by {@link #toSnapshot()}.
+   * <p/>
+   * The application hosting the aggregate uses it when Axon loads a stored aggregate snapshot.
+   */
+  @SuppressWarnings("CodeNarc.FactoryMethodName")
+  static BookingOfferAggregate fromSnapshot(BookingOfferAggregateSnapshot bookingOfferAggregateSnapshot) {
+    BookingOfferCargos restoredBookingOfferCargos = new BookingOfferCargos()
+    restoredBookingOfferCargos.restoreConsolidatedCargoCollection(
+        CargoEventData.toCargoCollection(bookingOfferAggregateSnapshot.bookingOfferCargos ?: [] as List<CargoEventData>),
+        bookingOfferAggregateSnapshot.totalCommodityWeight,
+        bookingOfferAggregateSnapshot.totalContainerTeuCount
+    )
+
+    return new BookingOfferAggregate(
+        bookingOfferId: bookingOfferAggregateSnapshot.bookingOfferId == null ? null : BookingOfferId.make(bookingOfferAggregateSnapshot.bookingOfferId),
+        lastEventSequenceNumber: bookingOfferAggregateSnapshot.lastEventSequenceNumber,
+        customer: bookingOfferAggregateSnapshot.customer?.toCustomer(),
+        routeSpecification: bookingOfferAggregateSnapshot.routeSpecification?.toRouteSpecification(),
+        bookingOfferCargos: restoredBookingOfferCargos
+    )
+  }
+
   @EventSourcingHandler
   void onBookingOfferCreatedEvent(BookingOfferCreatedEvent bookingOfferCreatedEvent) {
     bookingOfferId = BookingOfferId.make(bookingOfferCreatedEvent.bookingOfferId)
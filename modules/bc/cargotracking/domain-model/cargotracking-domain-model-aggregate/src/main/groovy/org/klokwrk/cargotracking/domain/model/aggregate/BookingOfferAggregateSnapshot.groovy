@@ -0,0 +1,48 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.domain.model.aggregate
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.domain.model.event.data.CargoEventData
+import org.klokwrk.cargotracking.domain.model.event.data.CustomerEventData
+import org.klokwrk.cargotracking.domain.model.event.data.RouteSpecificationEventData
+import org.klokwrk.lib.xlang.groovy.base.transform.KwrkImmutable
+
+import javax.measure.Quantity
+import javax.measure.quantity.Mass
+
+/**
+ * Compact, serialization friendly representation of the {@link BookingOfferAggregate} state used for aggregate snapshots.
+ * <p/>
+ * Instead of serializing the aggregate's value objects directly, the snapshot reuses event data classes that are already de/serialized as parts of the aggregate's events. Consolidated cargos are
+ * stored together with their precalculated totals, so the aggregate can be restored without recalculating cargo consolidation.
+ * <p/>
+ * The snapshot structure is versioned through the {@code Revision} annotation on the {@link BookingOfferAggregate}. Whenever the structure of this class changes in an incompatible way, the revision
+ * has to be increased. Snapshots with non-matching revision are ignored, and the aggregate is rehydrated from events.
+ */
+@KwrkImmutable(knownImmutableClasses = [Quantity])
+@CompileStatic
+class BookingOfferAggregateSnapshot {
+  String bookingOfferId
+  Integer lastEventSequenceNumber
+  CustomerEventData customer
+  RouteSpecificationEventData routeSpecification
+  List<CargoEventData> bookingOfferCargos
+  Quantity<Mass> totalCommodityWeight
+  BigDecimal totalContainerTeuCount
+}
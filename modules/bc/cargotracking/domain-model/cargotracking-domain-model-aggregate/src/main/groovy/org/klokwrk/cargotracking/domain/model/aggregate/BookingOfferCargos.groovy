@@ -21,6 +21,7 @@ import groovy.transform.CompileStatic
 import org.klokwrk.cargotracking.domain.model.service.MaxAllowedTeuCountPolicy
 import org.klokwrk.cargotracking.domain.model.value.Cargo
 import org.klokwrk.cargotracking.domain.model.value.Commodity
+import tech.units.indriya.unit.Units
 
 import javax.measure.Quantity
 import javax.measure.quantity.Mass
@@ -43,61 +44,24 @@ import javax.measure.quantity.Mass
  * Why are we using cargo consolidation at all? In the context of a booking offer, we are not interested in multiple submissions of the equivalent cargos that are different only in their weight.
  * Instead, we are consolidating all such requests with a single record of equivalent cargo with correctly summed up container weight and other derived properties like
  * {@code maxRecommendedWeightPerContainerKg}, {@code containerCount}, and {@code containerTeuCount}.
+ * <p/>
+ * Internally, consolidated cargos are indexed by their {@code BookingOfferCargoEquality} in insertion order, while totals are maintained incrementally in canonical units (kilograms and TEUs). That
+ * way, cargo addition, lookup and totals do not depend on the number of cargos already stored.
  */
 @CompileStatic
 class BookingOfferCargos {
 
+  /**
+   * Consolidates the addition of {@code cargosToAdd} into {@code existingConsolidatedCargos}.
+   * <p/>
+   * Returned cargos are ordered by their first addition. An existing cargo that gets consolidated with added equivalent cargos keeps its original position, while cargos without existing equivalents
+   * are appended at the end.
+   */
   static Collection<Cargo> consolidateCargoCollectionsForCargoAddition(Collection<Cargo> existingConsolidatedCargos, Collection<Cargo> cargosToAdd) {
-    Collection<Cargo> myExistingConsolidatedCargos = existingConsolidatedCargos ?: [] as Collection<Cargo>
-
-    if (!cargosToAdd) {
-      return myExistingConsolidatedCargos
-    }
-
-    checkIfCargoCollectionIsConsolidated(myExistingConsolidatedCargos)
-    Map<BookingOfferCargoEquality, List<Cargo>> existingConsolidatedCargosMap = myExistingConsolidatedCargos.groupBy({ Cargo cargo -> BookingOfferCargoEquality.fromCargo(cargo) })
-
-    Map<BookingOfferCargoEquality, Cargo> allConsolidatedCargosMap = [:]
-
-    // Note: Besides determining resultant consolidated map, we are also using cargosToAddMap as a base for determining maxAllowedWeightPerContainer to use
-    Map<BookingOfferCargoEquality, List<Cargo>> cargosToAddMap = cargosToAdd.groupBy({ Cargo cargo -> BookingOfferCargoEquality.fromCargo(cargo) })
-
-    // First, add new entries that have equivalents (by BookingOfferCargoEquality) in the existing cargos
-    cargosToAddMap.keySet().each({ BookingOfferCargoEquality bookingOfferCargoEqualityToAdd ->
-      Collection<Quantity<Mass>> cargoCommodityWeightQuantities = cargosToAddMap.get(bookingOfferCargoEqualityToAdd)*.commodity.weight
-      if (existingConsolidatedCargosMap.get(bookingOfferCargoEqualityToAdd) != null) {
-        cargoCommodityWeightQuantities.addAll(existingConsolidatedCargosMap.get(bookingOfferCargoEqualityToAdd)*.commodity.weight as Collection<Quantity<Mass>>)
-      }
-
-      Quantity<Mass> totalCargoCommodityWeightQuantity = 0.kg
-      cargoCommodityWeightQuantities.each { Quantity<Mass> cargoCommodityWeightQuantity -> totalCargoCommodityWeightQuantity = totalCargoCommodityWeightQuantity + cargoCommodityWeightQuantity }
-
-      // Note: Selecting the cargoConsolidationBase element is significant because it determines maxAllowedWeightPerContainer to use with consolidated cargo. The maxAllowedWeightPerContainer must
-      //       be aligned and produced by currently active MaxAllowedWeightPerContainerPolicy. Here we assume that all Cargo instances in input collection cargosToAdd are created with currently
-      //       active MaxAllowedWeightPerContainerPolicy. The current MaxAllowedWeightPerContainerPolicy is used by CargoCreatorService when the command handlers of the aggregate convert input DTOs
-      //       into real Cargo value objects.
-      //       Also see the inline comment a few lines bellow related to the assumptions about policy changes.
-      Cargo cargoConsolidationBase = cargosToAddMap.get(bookingOfferCargoEqualityToAdd).first()
-
-      Commodity consolidatedCommodity = Commodity.make(cargoConsolidationBase.commodity.commodityType, totalCargoCommodityWeightQuantity, cargoConsolidationBase.commodity.requestedStorageTemperature)
-      Cargo consolidatedCargo = Cargo.make(cargoConsolidationBase.containerType, consolidatedCommodity, cargoConsolidationBase.maxAllowedWeightPerContainer)
-      allConsolidatedCargosMap.put(bookingOfferCargoEqualityToAdd, consolidatedCargo)
-    })
-
-    // Second, add starting point entries that are not changed because there are no equivalents to add
-    existingConsolidatedCargosMap.keySet().each({ BookingOfferCargoEquality bookingOfferCargoEqualityStartingPoint ->
-      if (!allConsolidatedCargosMap.containsKey(bookingOfferCargoEqualityStartingPoint)) {
-        // Note: For not-changed cargos, we are not updating maxAllowedWeightPerContainer based on current MaxAllowedWeightPerContainerPolicy. This is ok as long as the active
-        //       MaxAllowedWeightPerContainerPolicy does not change. If it does changes, any further modifications (through commands) of the BookingOfferAggregate should be prevented, and aggregate
-        //       should go into effectively dormant state. However, there should be option for the user to create a new BookingOfferAggregate based on the dormant one, where all data should be copied
-        //       but now with updated max allowed weights for each cargo type. Therefore, for the active BookingOfferAggregates, we are assuming that policies do not change and stay the same as they
-        //       were during aggregate creation.
-        allConsolidatedCargosMap.put(bookingOfferCargoEqualityStartingPoint, existingConsolidatedCargosMap.get(bookingOfferCargoEqualityStartingPoint).first())
-      }
-    })
+    BookingOfferCargos bookingOfferCargos = fromConsolidatedCargoCollection(existingConsolidatedCargos ?: [] as Collection<Cargo>)
+    bookingOfferCargos.storeCargoCollectionAddition(cargosToAdd)
 
-    Collection<Cargo> consolidatedCargoCollection = allConsolidatedCargosMap.values()
-    return consolidatedCargoCollection
+    return bookingOfferCargos.bookingOfferCargoCollection
   }
 
   // TODO dmurat: commented code - will need this when support for cargo removal is added. Leaving it commented for now.
@@ -167,12 +131,10 @@ class BookingOfferCargos {
       return true
     }
 
-    Collection<Cargo> cargoCollectionWithAdditions = consolidateCargoCollectionsForCargoAddition(existingConsolidatedCargoCollection, cargoCollectionToAdd)
+    BookingOfferCargos bookingOfferCargosWithAdditions = fromConsolidatedCargoCollection(existingConsolidatedCargoCollection ?: [] as Collection<Cargo>)
+    bookingOfferCargosWithAdditions.storeCargoCollectionAddition(cargoCollectionToAdd)
 
-    BigDecimal newTotalContainerTeuCount = 0
-    cargoCollectionWithAdditions.each({ Cargo cargo -> newTotalContainerTeuCount = newTotalContainerTeuCount + cargo.containerTeuCount })
-
-    return maxAllowedTeuCountPolicy.isTeuCountAllowed(newTotalContainerTeuCount)
+    return maxAllowedTeuCountPolicy.isTeuCountAllowed(bookingOfferCargosWithAdditions.totalContainerTeuCount)
   }
 
   /**
@@ -184,22 +146,10 @@ class BookingOfferCargos {
    * {@link #canAcceptCargoCollectionAddition(Collection, Collection, MaxAllowedTeuCountPolicy)} for that purpose.
    */
   static Tuple2<Quantity<Mass>, BigDecimal> calculateTotalsForCargoCollectionAddition(Collection<Cargo> existingConsolidatedCargoCollection, Collection<Cargo> cargoCollectionToAdd) {
-    Collection<Cargo> myCargoCollectionToAdd = cargoCollectionToAdd
-    if (myCargoCollectionToAdd == null) {
-      myCargoCollectionToAdd = []
-    }
-
-    Collection<Cargo> cargoCollectionWithAdditions = consolidateCargoCollectionsForCargoAddition(existingConsolidatedCargoCollection, myCargoCollectionToAdd)
-
-    Quantity<Mass> newTotalCommodityWeight = 0.kg
-    BigDecimal newTotalContainerTeuCount = 0
+    BookingOfferCargos bookingOfferCargosWithAdditions = fromConsolidatedCargoCollection(existingConsolidatedCargoCollection ?: [] as Collection<Cargo>)
+    bookingOfferCargosWithAdditions.storeCargoCollectionAddition(cargoCollectionToAdd)
 
-    cargoCollectionWithAdditions.each({ Cargo consolidatedCargo ->
-      newTotalCommodityWeight = newTotalCommodityWeight + consolidatedCargo.commodity.weight
-      newTotalContainerTeuCount = newTotalContainerTeuCount + consolidatedCargo.containerTeuCount
-    })
-
-    return new Tuple2<Quantity<Mass>, BigDecimal>(newTotalCommodityWeight, newTotalContainerTeuCount)
+    return new Tuple2<Quantity<Mass>, BigDecimal>(bookingOfferCargosWithAdditions.totalCommodityWeight, bookingOfferCargosWithAdditions.totalContainerTeuCount)
   }
 
   static void checkIfCargoCollectionIsConsolidated(Collection<Cargo> existingConsolidatedCargoCollection) {
@@ -210,26 +160,75 @@ class BookingOfferCargos {
         .each({ Map.Entry<BookingOfferCargoEquality, List<Cargo>> mapEntry -> assert mapEntry.value.size() == 1 })
   }
 
-  Collection<Cargo> bookingOfferCargoCollection = [] as Collection<Cargo>
-  private Quantity<Mass> totalCommodityWeight = 0.kg
+  /**
+   * Creates a new instance from already consolidated cargo collection by summing up its totals.
+   * <p/>
+   * Throws {@code AssertionError} if provided cargo collection is not consolidated.
+   */
+  static BookingOfferCargos fromConsolidatedCargoCollection(Collection<Cargo> existingConsolidatedCargoCollection) {
+    assert existingConsolidatedCargoCollection != null
+
+    BigDecimal existingTotalCommodityWeightKg = 0
+    BigDecimal existingTotalContainerTeuCount = 0
+    existingConsolidatedCargoCollection.each({ Cargo existingCargo ->
+      existingTotalCommodityWeightKg = existingTotalCommodityWeightKg + commodityWeightKg(existingCargo)
+      existingTotalContainerTeuCount = existingTotalContainerTeuCount + existingCargo.containerTeuCount
+    })
+
+    BookingOfferCargos bookingOfferCargos = new BookingOfferCargos()
+    bookingOfferCargos.restoreConsolidatedCargoCollection(existingConsolidatedCargoCollection, existingTotalCommodityWeightKg.kg, existingTotalContainerTeuCount)
+
+    return bookingOfferCargos
+  }
+
+  private static BigDecimal commodityWeightKg(Cargo cargo) {
+    // Note: Commodity's invariants guarantee the weight in kilograms without a fractional part.
+    return cargo.commodity.weight.value.toBigDecimal()
+  }
+
+  private final Map<BookingOfferCargoEquality, Cargo> bookingOfferCargoMap = new LinkedHashMap<BookingOfferCargoEquality, Cargo>()
+  private BigDecimal totalCommodityWeightKg = 0
   private BigDecimal totalContainerTeuCount = 0 // should be constrained to the max of, say 5000
 
+  /**
+   * Returns consolidated cargos in the order of their first addition.
+   * <p/>
+   * Returned collection is a copy, and its modifications do not affect the internal state.
+   */
+  Collection<Cargo> getBookingOfferCargoCollection() {
+    return new ArrayList<Cargo>(bookingOfferCargoMap.values())
+  }
+
   Cargo findCargoByExample(Cargo cargoExample) {
     return findCargoByEquality(BookingOfferCargoEquality.fromCargo(cargoExample))
   }
 
   Cargo findCargoByEquality(BookingOfferCargoEquality cargoEquality) {
-    return bookingOfferCargoCollection.find({ Cargo existingCargo -> BookingOfferCargoEquality.fromCargo(existingCargo) == cargoEquality })
+    return bookingOfferCargoMap.get(cargoEquality)
   }
 
   Quantity<Mass> getTotalCommodityWeight() {
-    return totalCommodityWeight
+    return totalCommodityWeightKg.kg
   }
 
   BigDecimal getTotalContainerTeuCount() {
     return totalContainerTeuCount
   }
 
+  /**
+   * Creates an independent copy of this instance.
+   * <p/>
+   * Intended for command handlers that need to calculate the outcome of cargo additions (i.e., totals for each event to be published) without changing the aggregate state.
+   */
+  BookingOfferCargos copy() {
+    BookingOfferCargos bookingOfferCargosCopy = new BookingOfferCargos()
+    bookingOfferCargosCopy.bookingOfferCargoMap.putAll(bookingOfferCargoMap)
+    bookingOfferCargosCopy.totalCommodityWeightKg = totalCommodityWeightKg
+    bookingOfferCargosCopy.totalContainerTeuCount = totalContainerTeuCount
+
+    return bookingOfferCargosCopy
+  }
+
   // use this one in eventSourcingHandler to store past events unconditionally, regardless of potential change in previous business logic
   /**
    * Stores the cargo collection addition in the internal map by replacing any previously stored equivalent cargos.
@@ -238,13 +237,66 @@ class BookingOfferCargos {
    * rehydration of the aggregate from previous events. We should do all invariant checking in the aggregate's command handler.
    */
   void storeCargoCollectionAddition(Collection<Cargo> cargoCollectionToAdd) {
-    Tuple2<Quantity<Mass>, BigDecimal> totalsTuple = calculateTotalsForCargoCollectionAddition(bookingOfferCargoCollection, cargoCollectionToAdd)
-    totalCommodityWeight = totalsTuple.v1
-    totalContainerTeuCount = totalsTuple.v2
-
-    Collection<Cargo> existingConsolidatedCargoCollection = bookingOfferCargoCollection
-    Collection<Cargo> consolidatedCargoCollection = consolidateCargoCollectionsForCargoAddition(existingConsolidatedCargoCollection, cargoCollectionToAdd)
-    bookingOfferCargoCollection.clear()
-    bookingOfferCargoCollection.addAll(consolidatedCargoCollection)
+    if (!cargoCollectionToAdd) {
+      return
+    }
+
+    // Note: Besides grouping equivalent cargos to add, we are using cargosToAddMap as a base for determining maxAllowedWeightPerContainer to use
+    Map<BookingOfferCargoEquality, List<Cargo>> cargosToAddMap = cargoCollectionToAdd.groupBy({ Cargo cargo -> BookingOfferCargoEquality.fromCargo(cargo) })
+    cargosToAddMap.each({ BookingOfferCargoEquality bookingOfferCargoEqualityToAdd, List<Cargo> equivalentCargosToAdd ->
+      storeEquivalentCargosAddition(bookingOfferCargoEqualityToAdd, equivalentCargosToAdd)
+    })
+  }
+
+  /**
+   * Restores the internal state from already consolidated cargo collection and its corresponding totals.
+   * <p/>
+   * We should use this method only when restoring the aggregate from a snapshot. Like {@link #storeCargoCollectionAddition(Collection)}, it changes the state unconditionally. However, it does not
+   * recalculate consolidation or totals as they are already calculated at the time of snapshot creation.
+   */
+  void restoreConsolidatedCargoCollection(Collection<Cargo> consolidatedCargoCollection, Quantity<Mass> consolidatedTotalCommodityWeight, BigDecimal consolidatedTotalContainerTeuCount) {
+    assert consolidatedCargoCollection != null
+
+    bookingOfferCargoMap.clear()
+    consolidatedCargoCollection.each({ Cargo consolidatedCargo -> indexConsolidatedCargo(consolidatedCargo) })
+    totalCommodityWeightKg = consolidatedTotalCommodityWeight.to(Units.KILOGRAM).value.toBigDecimal()
+    totalContainerTeuCount = consolidatedTotalContainerTeuCount
+  }
+
+  private void indexConsolidatedCargo(Cargo consolidatedCargo) {
+    Cargo previousCargo = bookingOfferCargoMap.put(BookingOfferCargoEquality.fromCargo(consolidatedCargo), consolidatedCargo)
+    assert previousCargo == null
+  }
+
+  private void storeEquivalentCargosAddition(BookingOfferCargoEquality bookingOfferCargoEqualityToAdd, List<Cargo> equivalentCargosToAdd) {
+    BigDecimal addedCommodityWeightKg = 0
+    equivalentCargosToAdd.each({ Cargo cargoToAdd -> addedCommodityWeightKg = addedCommodityWeightKg + commodityWeightKg(cargoToAdd) })
+
+    Cargo existingCargo = bookingOfferCargoMap.get(bookingOfferCargoEqualityToAdd)
+    BigDecimal consolidatedCommodityWeightKg = addedCommodityWeightKg
+    BigDecimal existingContainerTeuCount = 0
+    if (existingCargo != null) {
+      consolidatedCommodityWeightKg = consolidatedCommodityWeightKg + commodityWeightKg(existingCargo)
+      existingContainerTeuCount = existingCargo.containerTeuCount
+    }
+
+    // Note: Selecting the cargoConsolidationBase element is significant because it determines maxAllowedWeightPerContainer to use with consolidated cargo. The maxAllowedWeightPerContainer must
+    //       be aligned and produced by currently active MaxAllowedWeightPerContainerPolicy. Here we assume that all Cargo instances to add are created with currently active
+    //       MaxAllowedWeightPerContainerPolicy. The current MaxAllowedWeightPerContainerPolicy is used by CargoCreatorService when the command handlers of the aggregate convert input DTOs into real
+    //       Cargo value objects.
+    //       For existing cargos that are not changed, we are not updating maxAllowedWeightPerContainer based on current MaxAllowedWeightPerContainerPolicy. This is ok as long as the active
+    //       MaxAllowedWeightPerContainerPolicy does not change. If it does changes, any further modifications (through commands) of the BookingOfferAggregate should be prevented, and aggregate
+    //       should go into effectively dormant state. However, there should be option for the user to create a new BookingOfferAggregate based on the dormant one, where all data should be copied
+    //       but now with updated max allowed weights for each cargo type. Therefore, for the active BookingOfferAggregates, we are assuming that policies do not change and stay the same as they
+    //       were during aggregate creation.
+    Cargo cargoConsolidationBase = equivalentCargosToAdd.first()
+
+    Commodity consolidatedCommodity = Commodity.make(cargoConsolidationBase.commodity.commodityType, consolidatedCommodityWeightKg.kg, cargoConsolidationBase.commodity.requestedStorageTemperature)
+    Cargo consolidatedCargo = Cargo.make(cargoConsolidationBase.containerType, consolidatedCommodity, cargoConsolidationBase.maxAllowedWeightPerContainer)
+
+    // Note: Putting the consolidated cargo under the existing key keeps its original position in the index.
+    bookingOfferCargoMap.put(bookingOfferCargoEqualityToAdd, consolidatedCargo)
+    totalCommodityWeightKg = totalCommodityWeightKg + addedCommodityWeightKg
+    totalContainerTeuCount = totalContainerTeuCount - existingContainerTeuCount + consolidatedCargo.containerTeuCount
   }
 }
@@ -232,4 +232,69 @@ class BookingOfferAggregateSpecification extends Specification {
 
     (resultValidator.actualException as CommandException).violationInfo.violationCode.resolvableMessageKey == "bookingOfferAggregate.bookingOfferCargos.cannotAcceptCargo"
   }
+
+  void "should restore aggregate state from snapshot"() {
+    given:
+    CreateBookingOfferCommand createBookingOfferCommand = CreateBookingOfferCommandFixtureBuilder
+        .createBookingOfferCommand_default()
+        .cargos([
+            CargoCommandDataFixtureBuilder.createCargoCommandData_default().commodity(Commodity.make(CommodityType.DRY, 10_000)).build(),
+            CargoCommandDataFixtureBuilder.createCargoCommandData_default().commodity(Commodity.make(CommodityType.DRY, 30_000)).build()
+        ])
+        .build()
+
+    ResultValidator<BookingOfferAggregate> resultValidator = aggregateTestFixture.givenNoPriorActivity().when(createBookingOfferCommand)
+    BookingOfferAggregate bookingOfferAggregate = resultValidator.state.get().wrappedAggregate.aggregateRoot as BookingOfferAggregate
+
+    when:
+    BookingOfferAggregateSnapshot bookingOfferAggregateSnapshot = bookingOfferAggregate.toSnapshot()
+    BookingOfferAggregate restoredBookingOfferAggregate = BookingOfferAggregate.fromSnapshot(bookingOfferAggregateSnapshot)
+
+    then:
+    verifyAll(bookingOfferAggregateSnapshot) {
+      bookingOfferId == createBookingOfferCommand.bookingOfferId.identifier
+      lastEventSequenceNumber == 2
+      customer == CustomerEventData.fromCustomer(createBookingOfferCommand.customer)
+      routeSpecification == RouteSpecificationEventData.fromRouteSpecification(createBookingOfferCommand.routeSpecification)
+      bookingOfferCargos.size() == 1
+      totalCommodityWeight == 40_000.kg
+      totalContainerTeuCount == bookingOfferAggregate.bookingOfferCargos.totalContainerTeuCount
+    }
+
+    verifyAll(restoredBookingOfferAggregate) {
+      bookingOfferId == bookingOfferAggregate.bookingOfferId
+      lastEventSequenceNumber == bookingOfferAggregate.lastEventSequenceNumber
+      customer == bookingOfferAggregate.customer
+      routeSpecification == bookingOfferAggregate.routeSpecification
+      bookingOfferCargos.bookingOfferCargoCollection == bookingOfferAggregate.bookingOfferCargos.bookingOfferCargoCollection
+      bookingOfferCargos.totalCommodityWeight == bookingOfferAggregate.bookingOfferCargos.totalCommodityWeight
+      bookingOfferCargos.totalContainerTeuCount == bookingOfferAggregate.bookingOfferCargos.totalContainerTeuCount
+    }
+  }
+
+  void "should restore aggregate state from snapshot of aggregate without route specification and cargos"() {
+    given:
+    CreateBookingOfferCommand createBookingOfferCommand = CreateBookingOfferCommandFixtureBuilder
+        .createBookingOfferCommand_default()
+        .routeSpecification(null)
+        .cargos(null)
+        .build()
+
+    ResultValidator<BookingOfferAggregate> resultValidator = aggregateTestFixture.givenNoPriorActivity().when(createBookingOfferCommand)
+    BookingOfferAggregate bookingOfferAggregate = resultValidator.state.get().wrappedAggregate.aggregateRoot as BookingOfferAggregate
+
+    when:
+    BookingOfferAggregate restoredBookingOfferAggregate = BookingOfferAggregate.fromSnapshot(bookingOfferAggregate.toSnapshot())
+
+    then:
+    verifyAll(restoredBookingOfferAggregate) {
+      bookingOfferId == bookingOfferAggregate.bookingOfferId
+      lastEventSequenceNumber == 0
+      customer == bookingOfferAggregate.customer
+      routeSpecification == null
+      bookingOfferCargos.bookingOfferCargoCollection.isEmpty()
+      bookingOfferCargos.totalCommodityWeight == 0.kg
+      bookingOfferCargos.totalContainerTeuCount == 0
+    }
+  }
 }
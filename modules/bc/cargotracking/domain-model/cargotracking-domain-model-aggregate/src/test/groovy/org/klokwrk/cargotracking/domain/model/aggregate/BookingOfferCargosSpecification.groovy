@@ -196,6 +196,25 @@ class BookingOfferCargosSpecification extends Specification {
     })
   }
 
+  void "consolidateCargoCollectionsForCargoAddition() should keep existing cargos in their positions and append new cargos at the end"() {
+    given:
+    Cargo cargoDry = CargoFixtureBuilder.cargo_dry().build()
+    Cargo cargoAirCooled = CargoFixtureBuilder.cargo_airCooled().build()
+    Cargo cargoChilled = CargoFixtureBuilder.cargo_chilled().build()
+
+    Collection<Cargo> existingConsolidatedCargos = [cargoDry, cargoAirCooled]
+    Collection<Cargo> cargosToAdd = [cargoChilled, CargoFixtureBuilder.cargo_airCooled().build()]
+
+    when:
+    Collection<Cargo> consolidatedCargos = BookingOfferCargos.consolidateCargoCollectionsForCargoAddition(existingConsolidatedCargos, cargosToAdd)
+
+    then:
+    consolidatedCargos.collect({ Cargo cargo -> BookingOfferCargoEquality.fromCargo(cargo) }) == [
+        BookingOfferCargoEquality.fromCargo(cargoDry), BookingOfferCargoEquality.fromCargo(cargoAirCooled), BookingOfferCargoEquality.fromCargo(cargoChilled)
+    ]
+    consolidatedCargos[1].commodity.weight == cargoAirCooled.commodity.weight * 2
+  }
+
   void "consolidateCargoCollectionsForCargoAddition() should work as expected - varying requested storage temperature"() {
     given:
     Cargo cargoToAddTemp1 = CargoFixtureBuilder.cargo_airCooled().build()
@@ -619,4 +638,104 @@ class BookingOfferCargosSpecification extends Specification {
     then:
     thrown(AssertionError)
   }
+
+  void "storeCargoCollectionAddition() should keep cargos in order of their first addition"() {
+    given:
+    Cargo cargoDry = Cargo.make(ContainerType.TYPE_ISO_22G1, Commodity.make(CommodityType.DRY, 1000), 21_500.kg)
+    Cargo cargoAirCooled = Cargo.make(ContainerType.TYPE_ISO_22R1_STANDARD_REEFER, Commodity.make(CommodityType.AIR_COOLED, 1000), 21_500.kg)
+    BookingOfferCargos bookingOfferCargos = new BookingOfferCargos()
+
+    when:
+    bookingOfferCargos.storeCargoCollectionAddition([cargoDry])
+    bookingOfferCargos.storeCargoCollectionAddition([cargoAirCooled])
+    bookingOfferCargos.storeCargoCollectionAddition([cargoDry])
+
+    then:
+    bookingOfferCargos.bookingOfferCargoCollection*.commodity*.commodityType == [CommodityType.DRY, CommodityType.AIR_COOLED]
+    bookingOfferCargos.findCargoByExample(cargoDry).commodity.weight == 2000.kg
+    bookingOfferCargos.totalCommodityWeight == 3000.kg
+    bookingOfferCargos.totalContainerTeuCount == 2
+  }
+
+  void "storeCargoCollectionAddition() should correctly update totals when consolidated cargo requires more containers"() {
+    given:
+    Cargo cargo = Cargo.make(ContainerType.TYPE_ISO_22G1, Commodity.make(CommodityType.DRY, 15_000), 20_000.kg)
+    BookingOfferCargos bookingOfferCargos = new BookingOfferCargos()
+
+    when:
+    bookingOfferCargos.storeCargoCollectionAddition([cargo])
+
+    then:
+    bookingOfferCargos.totalContainerTeuCount == 1
+
+    when:
+    bookingOfferCargos.storeCargoCollectionAddition([cargo])
+
+    then:
+    verifyAll(bookingOfferCargos) {
+      totalCommodityWeight == 30_000.kg
+      totalContainerTeuCount == 2
+      bookingOfferCargoCollection.size() == 1
+      findCargoByExample(cargo).containerCount == 2
+    }
+  }
+
+  void "bookingOfferCargoCollection should be a copy of internal state"() {
+    given:
+    BookingOfferCargos bookingOfferCargos = new BookingOfferCargos()
+    bookingOfferCargos.storeCargoCollectionAddition([CargoFixtureBuilder.cargo_dry().build()])
+
+    when:
+    bookingOfferCargos.bookingOfferCargoCollection.clear()
+
+    then:
+    bookingOfferCargos.bookingOfferCargoCollection.size() == 1
+  }
+
+  void "copy() should create independent instance"() {
+    given:
+    Cargo cargo = CargoFixtureBuilder.cargo_dry().build()
+    BookingOfferCargos bookingOfferCargos = new BookingOfferCargos()
+    bookingOfferCargos.storeCargoCollectionAddition([cargo])
+
+    when:
+    BookingOfferCargos bookingOfferCargosCopy = bookingOfferCargos.copy()
+    bookingOfferCargosCopy.storeCargoCollectionAddition([cargo, CargoFixtureBuilder.cargo_airCooled().build()])
+
+    then:
+    verifyAll(bookingOfferCargos) {
+      bookingOfferCargoCollection.size() == 1
+      totalCommodityWeight == cargo.commodity.weight
+      totalContainerTeuCount == cargo.containerTeuCount
+    }
+
+    verifyAll(bookingOfferCargosCopy) {
+      bookingOfferCargoCollection.size() == 2
+      findCargoByExample(cargo).commodity.weight == cargo.commodity.weight * 2
+    }
+  }
+
+  void "fromConsolidatedCargoCollection() should calculate totals"() {
+    given:
+    Cargo cargoDry = CargoFixtureBuilder.cargo_dry().build()
+    Cargo cargoAirCooled = CargoFixtureBuilder.cargo_airCooled().build()
+
+    when:
+    BookingOfferCargos bookingOfferCargos = BookingOfferCargos.fromConsolidatedCargoCollection([cargoDry, cargoAirCooled])
+
+    then:
+    verifyAll(bookingOfferCargos) {
+      bookingOfferCargoCollection == [cargoDry, cargoAirCooled]
+      totalCommodityWeight == cargoDry.commodity.weight + cargoAirCooled.commodity.weight
+      totalContainerTeuCount == cargoDry.containerTeuCount + cargoAirCooled.containerTeuCount
+    }
+  }
+
+  void "fromConsolidatedCargoCollection() should throw for non-consolidated collection"() {
+    when:
+    BookingOfferCargos.fromConsolidatedCargoCollection([CargoFixtureBuilder.cargo_dry().build(), CargoFixtureBuilder.cargo_dry().build()])
+
+    then:
+    thrown(AssertionError)
+  }
 }
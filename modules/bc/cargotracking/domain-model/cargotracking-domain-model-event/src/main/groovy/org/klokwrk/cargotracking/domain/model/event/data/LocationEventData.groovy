@@ -18,8 +18,8 @@
 package org.klokwrk.cargotracking.domain.model.event.data
 
 import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.domain.model.value.CanonicalLocationPool
 import org.klokwrk.cargotracking.domain.model.value.Location
-import org.klokwrk.cargotracking.domain.model.value.PortCapabilities
 import org.klokwrk.cargotracking.domain.model.value.PortCapabilityType
 import org.klokwrk.lib.xlang.groovy.base.transform.KwrkImmutable
 
@@ -44,7 +44,10 @@ class LocationEventData {
     )
   }
 
+  /**
+   * Returns the shared canonical location instance (see {@link CanonicalLocationPool}), since locations are rebuilt from event data over and over again while aggregates are rehydrated.
+   */
   Location toLocation() {
-    return Location.make(unLoCode, name, countryName, unLoCodeFunction, unLoCodeCoordinates, new PortCapabilities(capabilities: portCapabilities))
+    return CanonicalLocationPool.INSTANCE.findOrMake(unLoCode, name, countryName, unLoCodeFunction, unLoCodeCoordinates, portCapabilities)
   }
 }
@@ -59,4 +59,13 @@ class LocationEventDataSpecification extends Specification {
     LocationEventDataFixtureBuilder.location_losAngeles().build() | LocationFixtureBuilder.location_losAngeles().build()
     LocationEventDataFixtureBuilder.location_newYork().build()    | LocationFixtureBuilder.location_newYork().build()
   }
+
+  void "toLocation() should return the same canonical location for equal event data"() {
+    when:
+    Location firstLocation = LocationEventDataFixtureBuilder.location_rijeka().build().toLocation()
+    Location secondLocation = LocationEventDataFixtureBuilder.location_rijeka().build().toLocation()
+
+    then:
+    firstLocation.is(secondLocation)
+  }
 }
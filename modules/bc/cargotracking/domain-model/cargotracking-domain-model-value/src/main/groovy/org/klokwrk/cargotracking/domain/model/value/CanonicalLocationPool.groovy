@@ -0,0 +1,179 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.domain.model.value
+
+import groovy.transform.CompileStatic
+import org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase
+
+import java.util.concurrent.ConcurrentHashMap
+
+import static org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase.requireTrueBase
+
+/**
+ * Bounded pool of canonical (shared) {@link Location} instances.
+ * <p/>
+ * Locations are rebuilt from their encoded forms over and over again (i.e. while event-sourced aggregates are rehydrated from events, or while projections handle events), although there are only a
+ * few thousands of distinct locations. Since {@link Location} and all of its parts are immutable, a single instance can be safely shared for all equal encoded forms.
+ * <p/>
+ * The pool is keyed by the complete encoded location tuple (UN/LOCODE, name, country name, function, coordinates and port capabilities). For each distinct tuple, location is created and validated
+ * only once, and its coordinates in degrees are calculated upfront. All later requests for the same tuple return the shared instance without any validation. A lookup allocates only a single
+ * compact key with the hash calculated upfront. The pool is bounded by {@code poolMaxSize}. When it gets full, arbitrary locations other than the newly pooled one are evicted, while all
+ * other locations stay pooled. With {@code poolMaxSize} of zero, pooling is disabled.
+ * <p/>
+ * The pool relies only on the JDK, so the domain value model does not depend on any caching library.
+ */
+@CompileStatic
+class CanonicalLocationPool {
+  static final Integer POOL_MAX_SIZE_DEFAULT = 8192
+  static final CanonicalLocationPool INSTANCE = new CanonicalLocationPool()
+
+  private final Integer poolMaxSize
+  private final ConcurrentHashMap<CanonicalLocationKey, Location> canonicalLocationMap
+
+  CanonicalLocationPool(Integer poolMaxSize = POOL_MAX_SIZE_DEFAULT) {
+    requireTrueBase(poolMaxSize != null && poolMaxSize >= 0, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: poolMaxSize != null && poolMaxSize >= 0]")
+
+    this.poolMaxSize = poolMaxSize
+    this.canonicalLocationMap = poolMaxSize > 0 ? new ConcurrentHashMap<CanonicalLocationKey, Location>(poolMaxSize) : null
+  }
+
+  /**
+   * Returns the canonical location for the given encoded location tuple, either from the pool or freshly created (and validated).
+   */
+  @SuppressWarnings("CodeNarc.ParameterCount")
+  Location findOrMake(
+      String unLoCode, String name, String countryName, String unLoCodeFunction, String unLoCodeCoordinates, Set<PortCapabilityType> portCapabilities)
+  {
+    Location canonicalLocation = canonicalLocationMap?.get(
+        new CanonicalLocationKey(unLoCode, name, countryName, unLoCodeFunction, unLoCodeCoordinates, portCapabilities)
+    )
+    if (canonicalLocation != null) {
+      return canonicalLocation
+    }
+
+    Location location = Location.make(unLoCode, name, countryName, unLoCodeFunction, unLoCodeCoordinates, new PortCapabilities(capabilities: portCapabilities))
+    location.unLoCodeCoordinates.precalculateDegrees()
+
+    if (canonicalLocationMap == null) {
+      return location
+    }
+
+    // NOTE: port capabilities of the created location are used in the pooled key since the caller is free to change the provided set afterward.
+    CanonicalLocationKey canonicalLocationKey = new CanonicalLocationKey(unLoCode, name, countryName, unLoCodeFunction, unLoCodeCoordinates, location.portCapabilities.capabilities)
+    canonicalLocation = canonicalLocationMap.putIfAbsent(canonicalLocationKey, location)
+    if (canonicalLocation != null) {
+      return canonicalLocation
+    }
+
+    evictExcessLocations(canonicalLocationKey)
+    return location
+  }
+
+  /**
+   * Removes arbitrary pooled locations, except the one with the given key, until the pool size is within {@code poolMaxSize} again.
+   */
+  protected void evictExcessLocations(CanonicalLocationKey keptCanonicalLocationKey) {
+    Iterator<CanonicalLocationKey> canonicalLocationKeyIterator = canonicalLocationMap.keySet().iterator()
+    while (canonicalLocationMap.size() > poolMaxSize && canonicalLocationKeyIterator.hasNext()) {
+      if (canonicalLocationKeyIterator.next() != keptCanonicalLocationKey) {
+        canonicalLocationKeyIterator.remove()
+      }
+    }
+  }
+
+  /**
+   * Returns the current number of canonical locations in the pool.
+   */
+  Integer getSize() {
+    return canonicalLocationMap?.size() ?: 0
+  }
+
+  /**
+   * Removes all canonical locations from the pool.
+   */
+  void clear() {
+    canonicalLocationMap?.clear()
+  }
+
+  /**
+   * Pool key consisting of all parts of the encoded location tuple, with the hash calculated upfront.
+   */
+  @CompileStatic
+  protected static final class CanonicalLocationKey {
+    final String unLoCode
+    final String name
+    final String countryName
+    final String unLoCodeFunction
+    final String unLoCodeCoordinates
+    final Set<PortCapabilityType> portCapabilities
+    private final int hash
+
+    @SuppressWarnings("CodeNarc.ParameterCount")
+    CanonicalLocationKey(String unLoCode, String name, String countryName, String unLoCodeFunction, String unLoCodeCoordinates, Set<PortCapabilityType> portCapabilities) {
+      this.unLoCode = unLoCode
+      this.name = name
+      this.countryName = countryName
+      this.unLoCodeFunction = unLoCodeFunction
+      this.unLoCodeCoordinates = unLoCodeCoordinates
+      this.portCapabilities = portCapabilities
+      this.hash = calculateHash(unLoCode, name, countryName, unLoCodeFunction, unLoCodeCoordinates, portCapabilities)
+    }
+
+    /**
+     * Calculates the hash in the same way as {@code Objects.hash()}, but without allocating the varargs array.
+     */
+    @SuppressWarnings("CodeNarc.ParameterCount")
+    protected static int calculateHash(
+        String unLoCode, String name, String countryName, String unLoCodeFunction, String unLoCodeCoordinates, Set<PortCapabilityType> portCapabilities)
+    {
+      int hash = 1
+      hash = 31 * hash + Objects.hashCode(unLoCode)
+      hash = 31 * hash + Objects.hashCode(name)
+      hash = 31 * hash + Objects.hashCode(countryName)
+      hash = 31 * hash + Objects.hashCode(unLoCodeFunction)
+      hash = 31 * hash + Objects.hashCode(unLoCodeCoordinates)
+      hash = 31 * hash + Objects.hashCode(portCapabilities)
+      return hash
+    }
+
+    @Override
+    boolean equals(Object other) {
+      if (this.is(other)) {
+        return true
+      }
+
+      if (!(other instanceof CanonicalLocationKey)) {
+        return false
+      }
+
+      CanonicalLocationKey otherKey = other as CanonicalLocationKey
+      return hash == otherKey.hash &&
+             unLoCode == otherKey.unLoCode &&
+             name == otherKey.name &&
+             countryName == otherKey.countryName &&
+             unLoCodeFunction == otherKey.unLoCodeFunction &&
+             unLoCodeCoordinates == otherKey.unLoCodeCoordinates &&
+             portCapabilities == otherKey.portCapabilities
+    }
+
+    @Override
+    int hashCode() {
+      return hash
+    }
+  }
+}
@@ -198,4 +198,18 @@ class UnLoCodeCoordinates implements PostMapConstructorCheckable {
     internalCoordinatesCache[1] = calculateLongitudeDegrees(coordinatesEncoded)
     return internalCoordinatesCache[1]
   }
+
+  /**
+   * Calculates and caches latitude and longitude in degrees upfront, so that later reads of {@code latitudeInDegrees} and {@code longitudeInDegrees} do not calculate anything.
+   * <p/>
+   * Useful for instances that are shared and read many times (see {@link CanonicalLocationPool}).
+   */
+  UnLoCodeCoordinates precalculateDegrees() {
+    if (this !== UNKNOWN_UN_LO_CODE_COORDINATES) {
+      internalCoordinatesCache[0] = calculateLatitudeDegrees(coordinatesEncoded)
+      internalCoordinatesCache[1] = calculateLongitudeDegrees(coordinatesEncoded)
+    }
+
+    return this
+  }
 }
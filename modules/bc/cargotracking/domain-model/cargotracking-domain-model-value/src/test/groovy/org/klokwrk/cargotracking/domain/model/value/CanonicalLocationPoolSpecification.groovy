@@ -0,0 +1,160 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.domain.model.value
+
+import spock.lang.Specification
+
+class CanonicalLocationPoolSpecification extends Specification {
+  static final Set<PortCapabilityType> SEA_CONTAINER_PORT_CAPABILITY_SET = PortCapabilities.SEA_CONTAINER_PORT_CAPABILITIES.capabilities
+
+  void "constructor should fail for invalid poolMaxSize"() {
+    when:
+    new CanonicalLocationPool(poolMaxSizeParam)
+
+    then:
+    AssertionError assertionError = thrown()
+    assertionError.message.contains("poolMaxSize != null && poolMaxSize >= 0")
+
+    where:
+    poolMaxSizeParam | _
+    null             | _
+    -1               | _
+  }
+
+  void "findOrMake() should return the same instance for equal encoded locations"() {
+    given:
+    CanonicalLocationPool canonicalLocationPool = new CanonicalLocationPool()
+
+    when:
+    Location firstLocation = canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", new HashSet<>(SEA_CONTAINER_PORT_CAPABILITY_SET))
+    Location secondLocation = canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", new HashSet<>(SEA_CONTAINER_PORT_CAPABILITY_SET))
+
+    then:
+    verifyAll {
+      firstLocation.is(secondLocation)
+      firstLocation == Location.make("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", PortCapabilities.SEA_CONTAINER_PORT_CAPABILITIES)
+      canonicalLocationPool.size == 1
+    }
+  }
+
+  void "findOrMake() should return different instances for different encoded locations"() {
+    given:
+    CanonicalLocationPool canonicalLocationPool = new CanonicalLocationPool()
+
+    when:
+    Location firstLocation = canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", SEA_CONTAINER_PORT_CAPABILITY_SET)
+    Location secondLocation = canonicalLocationPool.findOrMake("HRZAG", "Zagreb", "Croatia", "-2345---", "4548N 01600E", PortCapabilities.NO_PORT_CAPABILITIES.capabilities)
+
+    then:
+    verifyAll {
+      !firstLocation.is(secondLocation)
+      firstLocation != secondLocation
+      canonicalLocationPool.size == 2
+    }
+  }
+
+  void "findOrMake() should precalculate coordinates of canonical location"() {
+    given:
+    CanonicalLocationPool canonicalLocationPool = new CanonicalLocationPool()
+
+    when:
+    Location location = canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", SEA_CONTAINER_PORT_CAPABILITY_SET)
+
+    then:
+    verifyAll {
+      location.unLoCodeCoordinates.internalCoordinatesCache[0] != null
+      location.unLoCodeCoordinates.internalCoordinatesCache[1] != null
+      location.unLoCodeCoordinates.latitudeInDegrees == UnLoCodeCoordinates.calculateLatitudeDegrees("4520N 01424E")
+      location.unLoCodeCoordinates.longitudeInDegrees == UnLoCodeCoordinates.calculateLongitudeDegrees("4520N 01424E")
+    }
+  }
+
+  void "findOrMake() should not be affected by later changes of provided port capabilities"() {
+    given:
+    CanonicalLocationPool canonicalLocationPool = new CanonicalLocationPool()
+    Set<PortCapabilityType> portCapabilitySet = new HashSet<>(SEA_CONTAINER_PORT_CAPABILITY_SET)
+
+    when:
+    Location firstLocation = canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", portCapabilitySet)
+    portCapabilitySet.clear()
+    Location secondLocation = canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", SEA_CONTAINER_PORT_CAPABILITY_SET)
+
+    then:
+    verifyAll {
+      firstLocation.is(secondLocation)
+      firstLocation.portCapabilities == PortCapabilities.SEA_CONTAINER_PORT_CAPABILITIES
+    }
+  }
+
+  void "findOrMake() should fail for invalid encoded location and should not pool anything"() {
+    given:
+    CanonicalLocationPool canonicalLocationPool = new CanonicalLocationPool()
+
+    when:
+    canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "0-------", "4520N 01424E", SEA_CONTAINER_PORT_CAPABILITY_SET)
+
+    then:
+    AssertionError assertionError = thrown()
+    assertionError.message.contains("item: unLoCodeFunction.isPort(), expected: is(portCapabilities.isPort())")
+    canonicalLocationPool.size == 0
+  }
+
+  void "findOrMake() should evict locations when the pool gets full"() {
+    given:
+    CanonicalLocationPool canonicalLocationPool = new CanonicalLocationPool(2)
+
+    when:
+    canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", SEA_CONTAINER_PORT_CAPABILITY_SET)
+    canonicalLocationPool.findOrMake("HRZAG", "Zagreb", "Croatia", "-2345---", "4548N 01600E", PortCapabilities.NO_PORT_CAPABILITIES.capabilities)
+    Location newestLocation = canonicalLocationPool.findOrMake("NLRTM", "Rotterdam", "Netherlands", "12345---", "5155N 00430E", SEA_CONTAINER_PORT_CAPABILITY_SET)
+
+    then:
+    verifyAll {
+      canonicalLocationPool.size == 2
+      canonicalLocationPool.findOrMake("NLRTM", "Rotterdam", "Netherlands", "12345---", "5155N 00430E", SEA_CONTAINER_PORT_CAPABILITY_SET).is(newestLocation)
+    }
+  }
+
+  void "findOrMake() should not pool anything when poolMaxSize is 0"() {
+    given:
+    CanonicalLocationPool canonicalLocationPool = new CanonicalLocationPool(0)
+
+    when:
+    Location firstLocation = canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", SEA_CONTAINER_PORT_CAPABILITY_SET)
+    Location secondLocation = canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", SEA_CONTAINER_PORT_CAPABILITY_SET)
+
+    then:
+    verifyAll {
+      !firstLocation.is(secondLocation)
+      firstLocation == secondLocation
+      canonicalLocationPool.size == 0
+    }
+  }
+
+  void "clear() should remove all pooled locations"() {
+    given:
+    CanonicalLocationPool canonicalLocationPool = new CanonicalLocationPool()
+    canonicalLocationPool.findOrMake("HRRJK", "Rijeka", "Croatia", "1234----", "4520N 01424E", SEA_CONTAINER_PORT_CAPABILITY_SET)
+
+    when:
+    canonicalLocationPool.clear()
+
+    then:
+    canonicalLocationPool.size == 0
+  }
+}
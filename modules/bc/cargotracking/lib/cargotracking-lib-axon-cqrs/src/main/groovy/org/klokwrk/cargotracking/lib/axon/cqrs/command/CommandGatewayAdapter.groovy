@@ -22,6 +22,9 @@ import org.axonframework.commandhandling.CommandExecutionException
 import org.axonframework.commandhandling.gateway.CommandGateway
 import org.axonframework.messaging.MetaData
 
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+
 import static org.hamcrest.Matchers.notNullValue
 
 /**
@@ -82,4 +85,63 @@ class CommandGatewayAdapter {
 
     return commandResponse
   }
+
+  /**
+   * Delegates calls to the <code>CommandGateway.send()</code> method with null metaData.
+   *
+   * @param command The command to dispatch.
+   * @param <R> The type of result expected from command execution.
+   * @return the future completed with the result of command execution.
+   * @see #send(java.lang.Object, java.util.Map)
+   */
+  @SuppressWarnings("GrUnnecessaryPublicModifier")
+  public <R, C> CompletableFuture<R> send(C command) {
+    CompletableFuture<R> commandResponseFuture = send(command, null)
+    return commandResponseFuture
+  }
+
+  /**
+   * Delegates calls to the non-blocking <code>CommandGateway.send()</code> method.
+   * <p/>
+   * When command execution fails, returned future is completed exceptionally with the same exception that {@link #sendAndWait(java.lang.Object, java.util.Map)} would throw, i.e., with the details
+   * exception of <code>CommandExecutionException</code> (if available), or with <code>CommandExecutionException</code> itself otherwise.
+   *
+   * @param command The command to dispatch.
+   * @param metaData The metadata map to dispatch with the command.
+   * @param <R> The type of result expected from command execution.
+   * @return the future completed with the result of command execution.
+   * @throws AssertionError when command is null.
+   */
+  @SuppressWarnings("GrUnnecessaryPublicModifier")
+  public <R, C> CompletableFuture<R> send(C command, Map metaData) {
+    requireMatch(command, notNullValue())
+
+    CompletableFuture<R> commandResponseFuture = commandGateway.send(command, MetaData.from(metaData))
+    return commandResponseFuture.exceptionallyCompose({ Throwable throwable ->
+      CompletableFuture.<R>failedFuture(unwrapCommandExecutionException(throwable))
+    })
+  }
+
+  /**
+   * Unwraps the exception with which the <code>CommandGateway.send()</code> future has been completed.
+   * <p/>
+   * For <code>CommandExecutionException</code> with available details, returns the details exception. Otherwise, returns the exception itself (stripped from eventual
+   * <code>CompletionException</code> wrapper).
+   */
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected static Throwable unwrapCommandExecutionException(Throwable throwable) {
+    Throwable unwrappedThrowable = throwable
+    if (unwrappedThrowable instanceof CompletionException && unwrappedThrowable.cause != null) {
+      unwrappedThrowable = unwrappedThrowable.cause
+    }
+
+    if (unwrappedThrowable instanceof CommandExecutionException) {
+      CommandExecutionException commandExecutionException = unwrappedThrowable as CommandExecutionException
+      if (commandExecutionException.details.isPresent()) {
+        return commandExecutionException.details.get() as Throwable
+      }
+    }
+
+    return unwrappedThrowable
+  }
 }
@@ -18,13 +18,17 @@
 package org.klokwrk.cargotracking.lib.axon.cqrs.query
 
 import groovy.transform.CompileStatic
+import org.axonframework.common.Registration
 import org.axonframework.messaging.GenericMessage
 import org.axonframework.messaging.responsetypes.ResponseTypes
+import org.axonframework.queryhandling.DefaultSubscriptionQueryResult
 import org.axonframework.queryhandling.QueryExecutionException
 import org.axonframework.queryhandling.QueryGateway
+import org.axonframework.queryhandling.SubscriptionQueryResult
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationRequest
 
 import java.util.concurrent.CompletionException
+import java.util.function.Function
 
 import static org.hamcrest.Matchers.notNullValue
 
@@ -91,4 +95,72 @@ class QueryGatewayAdapter {
 
     return queryResponse
   }
+
+  /**
+   * Delegates calls to the <code>QueryGateway.subscriptionQuery()</code> method.
+   * <p/>
+   * Errors signaled by the initial result or by updates are unwrapped in the same way as exceptions thrown from <code>query()</code> methods.
+   *
+   * @see #subscriptionQuery(java.lang.Object, java.util.Map, java.lang.Class)
+   */
+  @SuppressWarnings("GrUnnecessaryPublicModifier")
+  public <R, Q> SubscriptionQueryResult<R, R> subscriptionQuery(OperationRequest<Q> queryOperationRequest, Class<R> queryResponseClass) {
+    return subscriptionQuery(queryOperationRequest.payload, queryOperationRequest.metaData, queryResponseClass)
+  }
+
+  /**
+   * Delegates calls to the <code>QueryGateway.subscriptionQuery()</code> method.
+   * <p/>
+   * Both, the initial result and the updates, are expected to be of the same type. When the initial result or updates complete with an error, the error is unwrapped before being
+   * signaled to the subscriber. For <code>QueryExecutionException</code> with available details, the details exception is signaled. Otherwise, the exception itself (stripped from
+   * eventual <code>CompletionException</code> wrapper) is signaled.
+   * <p/>
+   * The caller is responsible for cancelling returned subscription query result when it is no longer interested in updates.
+   *
+   * @param query The query to be executed.
+   * @param metaData The metadata to dispatch with the query.
+   * @param <R> The type of initial result and updates.
+   * @return the subscription query result.
+   * @throws AssertionError when query is null.
+   */
+  @SuppressWarnings("GrUnnecessaryPublicModifier")
+  public <R, Q> SubscriptionQueryResult<R, R> subscriptionQuery(Q query, Map<String, ?> metaData, Class<R> queryResponseClass) {
+    requireMatch(query, notNullValue())
+
+    GenericMessage queryMessage = new GenericMessage(query, metaData)
+
+    SubscriptionQueryResult<R, R> subscriptionQueryResult = queryGateway.subscriptionQuery(
+        query.getClass().name, queryMessage, ResponseTypes.instanceOf(queryResponseClass), ResponseTypes.instanceOf(queryResponseClass)
+    )
+
+    Function<Throwable, Throwable> errorMapper = { Throwable throwable -> unwrapQueryExecutionException(throwable) } as Function<Throwable, Throwable>
+    return new DefaultSubscriptionQueryResult<R, R>(
+        subscriptionQueryResult.initialResult().onErrorMap(errorMapper),
+        subscriptionQueryResult.updates().onErrorMap(errorMapper),
+        { -> subscriptionQueryResult.cancel() } as Registration
+    )
+  }
+
+  /**
+   * Unwraps the exception signaled by the <code>QueryGateway.subscriptionQuery()</code> result.
+   * <p/>
+   * For <code>QueryExecutionException</code> with available details, returns the details exception. Otherwise, returns the exception itself (stripped from eventual
+   * <code>CompletionException</code> wrapper).
+   */
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected static Throwable unwrapQueryExecutionException(Throwable throwable) {
+    Throwable unwrappedThrowable = throwable
+    if (unwrappedThrowable instanceof CompletionException && unwrappedThrowable.cause != null) {
+      unwrappedThrowable = unwrappedThrowable.cause
+    }
+
+    if (unwrappedThrowable instanceof QueryExecutionException) {
+      QueryExecutionException queryExecutionException = unwrappedThrowable as QueryExecutionException
+      if (queryExecutionException.details.isPresent()) {
+        return queryExecutionException.details.get() as Throwable
+      }
+    }
+
+    return unwrappedThrowable
+  }
 }
@@ -23,6 +23,10 @@ import org.axonframework.messaging.MetaData
 import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.CommandException
 import spock.lang.Specification
 
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutionException
+
 class CommandGatewayAdapterSpecification extends Specification {
 
   CommandGateway commandGatewayMock
@@ -129,4 +133,97 @@ class CommandGatewayAdapterSpecification extends Specification {
     new MyException("my exception") | _
     new CommandException()          | _
   }
+
+  void "send(command) - should behave same as send(command, null)"() {
+    given:
+    def command = "command"
+
+    when:
+    commandGatewayAdapter.send(command)
+
+    then:
+    1 * commandGatewayMock.send({ def commandParam -> commandParam instanceof String }, { def metaDataParam -> metaDataParam === MetaData.emptyInstance() }) >> CompletableFuture.completedFuture(null)
+  }
+
+  void "send(command, metaData) - should fail for null command"() {
+    given:
+    def command = null
+    Map<String, ?> metaData = [:]
+
+    when:
+    commandGatewayAdapter.send(command, metaData)
+
+    then:
+    thrown(AssertionError)
+  }
+
+  void "send(command, metaData) - should delegate to the command gateway and complete with command result"() {
+    given:
+    def command = "command"
+    Map<String, ?> metaData = [someKey: "someValue"]
+
+    when:
+    CompletableFuture<String> commandResponseFuture = commandGatewayAdapter.send(command, metaData)
+
+    then:
+    1 * commandGatewayMock.send({ def commandParam -> commandParam instanceof String }, { def metaDataParam -> metaDataParam == metaData }) >> CompletableFuture.completedFuture("commandResult")
+    commandResponseFuture.get() == "commandResult"
+  }
+
+  void "send(command, metaData) - should complete exceptionally with CommandExecutionException when details exception is not available"() {
+    given:
+    CommandExecutionException commandExecutionException = new CommandExecutionException("Command execution failed", null)
+
+    CommandGateway commandGatewayStub = Stub()
+    commandGatewayStub.send(_ as Object, _ as MetaData) >> CompletableFuture.failedFuture(commandExecutionException)
+
+    CommandGatewayAdapter commandGatewayAdapter = new CommandGatewayAdapter(commandGatewayStub)
+
+    when:
+    commandGatewayAdapter.send("command", [:]).get()
+
+    then:
+    ExecutionException executionException = thrown()
+    executionException.cause === commandExecutionException
+  }
+
+  void "send(command, metaData) - should complete exceptionally with details exception when details are available [details exception class: #exceptionDetailsParam.getClass().simpleName]"() {
+    given:
+    CommandExecutionException commandExecutionException = new CommandExecutionException("Command execution failed", null, exceptionDetailsParam)
+
+    CommandGateway commandGatewayStub = Stub()
+    commandGatewayStub.send(_ as Object, _ as MetaData) >> CompletableFuture.failedFuture(commandExecutionException)
+
+    CommandGatewayAdapter commandGatewayAdapter = new CommandGatewayAdapter(commandGatewayStub)
+
+    when:
+    commandGatewayAdapter.send("command", [:]).get()
+
+    then:
+    ExecutionException executionException = thrown()
+    executionException.cause === exceptionDetailsParam
+
+    where:
+    exceptionDetailsParam           | _
+    new MyException("my exception") | _
+    new CommandException()          | _
+  }
+
+  void "send(command, metaData) - should unwrap details exception from CommandExecutionException wrapped in CompletionException"() {
+    given:
+    MyException myException = new MyException("my exception")
+    CommandExecutionException commandExecutionException = new CommandExecutionException("Command execution failed", null, myException)
+
+    CommandGateway commandGatewayStub = Stub()
+    commandGatewayStub.send(_ as Object, _ as MetaData) >> CompletableFuture.failedFuture(new CompletionException(commandExecutionException))
+
+    CommandGatewayAdapter commandGatewayAdapter = new CommandGatewayAdapter(commandGatewayStub)
+
+    when:
+    commandGatewayAdapter.send("command", [:]).join()
+
+    then:
+    CompletionException completionException = thrown()
+    completionException.cause === myException
+  }
 }
@@ -17,13 +17,18 @@
  */
 package org.klokwrk.cargotracking.lib.axon.cqrs.query
 
+import org.axonframework.common.Registration
 import org.axonframework.messaging.GenericMessage
 import org.axonframework.messaging.MetaData
 import org.axonframework.messaging.responsetypes.ResponseType
+import org.axonframework.queryhandling.DefaultSubscriptionQueryResult
 import org.axonframework.queryhandling.QueryExecutionException
 import org.axonframework.queryhandling.QueryGateway
+import org.axonframework.queryhandling.SubscriptionQueryResult
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationRequest
 import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.QueryException
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
 import spock.lang.Specification
 
 import java.util.concurrent.CompletableFuture
@@ -207,4 +212,85 @@ class QueryGatewayAdapterSpecification extends Specification {
     new MyException("my exception") | _
     new QueryException()            | _
   }
+
+  void "subscriptionQuery(operationRequest, responseClass) - should behave same as subscriptionQuery(query, metaData, responseClass)"() {
+    given:
+    def query = "query"
+    Map<String, ?> metaData = [someKey: "someValue"]
+
+    when:
+    queryGatewayAdapter.subscriptionQuery(new OperationRequest(payload: query, metaData: metaData), String)
+
+    then:
+    1 * queryGatewayMock.subscriptionQuery(
+        String.name,
+        { def queryMessage ->
+          verifyAll {
+            queryMessage instanceof GenericMessage
+            queryMessage.payload == query
+            queryMessage.metaData == metaData
+          }
+        },
+        _ as ResponseType,
+        _ as ResponseType
+    ) >> new DefaultSubscriptionQueryResult<String, String>(Mono.just("initial"), Flux.empty(), { -> true } as Registration)
+  }
+
+  void "subscriptionQuery(query, metaData, responseClass) - should fail for null query"() {
+    when:
+    queryGatewayAdapter.subscriptionQuery(null, [:], String)
+
+    then:
+    thrown(AssertionError)
+  }
+
+  void "subscriptionQuery(query, metaData, responseClass) - should delegate to the query gateway and expose initial result and updates"() {
+    given:
+    Registration registrationMock = Mock()
+
+    QueryGateway queryGatewayStub = Stub()
+    queryGatewayStub.subscriptionQuery(_ as String, _, _ as ResponseType, _ as ResponseType) >>
+        new DefaultSubscriptionQueryResult<String, String>(Mono.just("initial"), Flux.just("update 1", "update 2"), registrationMock)
+
+    QueryGatewayAdapter queryGatewayAdapter = new QueryGatewayAdapter(queryGatewayStub)
+
+    when:
+    SubscriptionQueryResult<String, String> subscriptionQueryResult = queryGatewayAdapter.subscriptionQuery("query", [:], String)
+
+    then:
+    subscriptionQueryResult.initialResult().block() == "initial"
+    subscriptionQueryResult.updates().collectList().block() == ["update 1", "update 2"]
+
+    when:
+    subscriptionQueryResult.cancel()
+
+    then:
+    1 * registrationMock.cancel() >> true
+  }
+
+  void "subscriptionQuery(query, metaData, responseClass) - should unwrap errors of initial result and updates [error class: #errorParam.getClass().simpleName]"() {
+    given:
+    QueryGateway queryGatewayStub = Stub()
+    queryGatewayStub.subscriptionQuery(_ as String, _, _ as ResponseType, _ as ResponseType) >>
+        new DefaultSubscriptionQueryResult<String, String>(Mono.error(errorParam), Flux.error(errorParam), { -> true } as Registration)
+
+    QueryGatewayAdapter queryGatewayAdapter = new QueryGatewayAdapter(queryGatewayStub)
+
+    when:
+    SubscriptionQueryResult<String, String> subscriptionQueryResult = queryGatewayAdapter.subscriptionQuery("query", [:], String)
+    Throwable initialResultError = subscriptionQueryResult.initialResult().then(Mono.<Throwable>empty()).onErrorResume({ Throwable error -> Mono.just(error) }).block()
+    Throwable updatesError = subscriptionQueryResult.updates().then(Mono.<Throwable>empty()).onErrorResume({ Throwable error -> Mono.just(error) }).block()
+
+    then:
+    initialResultError.getClass() == expectedErrorClassParam
+    updatesError.getClass() == expectedErrorClassParam
+
+    where:
+    errorParam                                                                                                            | expectedErrorClassParam
+    new QueryExecutionException("Query execution failed", null, new QueryException())                                     | QueryException
+    new CompletionException(new QueryExecutionException("Query execution failed", null, new MyException("my exception"))) | MyException
+    new QueryExecutionException("Query execution failed", null)                                                           | QueryExecutionException
+    new CompletionException(new RuntimeException())                                                                       | RuntimeException
+    new MyException("my exception")                                                                                       | MyException
+  }
 }
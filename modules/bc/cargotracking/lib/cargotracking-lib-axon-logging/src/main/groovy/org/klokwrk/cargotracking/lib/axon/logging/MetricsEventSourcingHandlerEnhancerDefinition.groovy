@@ -0,0 +1,59 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.lib.axon.logging
+
+import groovy.transform.CompileStatic
+import io.micrometer.core.instrument.MeterRegistry
+import org.axonframework.eventhandling.EventMessage
+import org.axonframework.messaging.HandlerAttributes
+import org.axonframework.messaging.annotation.HandlerEnhancerDefinition
+import org.axonframework.messaging.annotation.MessageHandlingMember
+
+/**
+ * Defines Axon's {@link HandlerEnhancerDefinition} for recording Micrometer metrics of event sourcing handler executions.
+ * <p/>
+ * For the details about recorded meters and their tags, take a look at {@link MetricsMessageHandlingMember}.
+ * <p/>
+ * To register this HandlerEnhancerDefinition, use standard means as described in Axon documentation. Usually this will require adding a simple bean declaration in the Spring Boot config.
+ */
+@CompileStatic
+class MetricsEventSourcingHandlerEnhancerDefinition implements HandlerEnhancerDefinition {
+  private final MeterRegistry meterRegistry
+
+  MetricsEventSourcingHandlerEnhancerDefinition(MeterRegistry meterRegistry) {
+    assert meterRegistry != null
+
+    this.meterRegistry = meterRegistry
+  }
+
+  @Override
+  <T> MessageHandlingMember<T> wrapHandler(MessageHandlingMember<T> originalMessageHandlingMember) {
+    // @formatter:off
+    MessageHandlingMember selectedMessageHandlingMember = originalMessageHandlingMember
+        .attribute(HandlerAttributes.MESSAGE_TYPE)
+          .filter({ Class messageType -> messageType == EventMessage })
+          .flatMap({ Class messageType -> originalMessageHandlingMember.attribute("EventSourcingHandler.payloadType") })
+          .map({ Class payloadType ->
+            new MetricsMessageHandlingMember(originalMessageHandlingMember, MetricsMessageHandlingMember.HANDLER_TYPE_EVENT_SOURCING, meterRegistry) as MessageHandlingMember
+          })
+        .orElse(originalMessageHandlingMember)
+    // @formatter:on
+
+    return selectedMessageHandlingMember
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.lib.axon.logging
+
+import groovy.transform.CompileStatic
+import io.micrometer.core.instrument.Clock
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Tags
+import io.micrometer.core.instrument.Timer
+import org.axonframework.eventhandling.EventMessage
+import org.axonframework.eventhandling.ReplayToken
+import org.axonframework.messaging.Message
+import org.axonframework.messaging.annotation.MessageHandlingMember
+import org.axonframework.messaging.annotation.WrappedMessageHandlingMember
+
+import java.lang.reflect.Constructor
+import java.lang.reflect.Executable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+import static org.klokwrk.lib.xlang.groovy.base.constant.CommonConstants.NOT_AVAILABLE
+
+/**
+ * {@link MessageHandlingMember} wrapper that records Micrometer metrics for each handler execution.
+ * <p/>
+ * Each handler execution is recorded with the {@code cargotracking.axon.handler} timer. Besides the execution time, the timer also counts executions. Timer is tagged with:
+ * <ul>
+ * <li>{@code handler.type} - one of {@code command}, {@code query}, {@code event}, or {@code event-sourcing}</li>
+ * <li>{@code handler.class} - simple name of the class declaring the handler</li>
+ * <li>{@code handler.method} - name of the handler method, or {@code constructor} for constructor command handlers</li>
+ * <li>{@code payload.type} - simple name of the handled payload type</li>
+ * <li>{@code outcome} - {@code success} or {@code failure}</li>
+ * <li>{@code exception} - simple name of the thrown exception class, or {@code none}</li>
+ * </ul>
+ * For event handlers, when event processing lag tracking is turned on, the following meters are recorded too:
+ * <ul>
+ * <li>{@code cargotracking.axon.event.processing.lag} timer - the time between event creation (event message timestamp) and its handling. It is not recorded for
+ * replayed events, since their age says nothing about the lag of live processing.</li>
+ * <li>
+ *   {@code cargotracking.axon.event.processing.global-index} gauge - global index of the last event handled by the handler. Compared with the head of the event store, it shows how far behind
+ *   the handler is.
+ * </li>
+ * </ul>
+ * All handler metadata and success meters are resolved only once, at the time of wrapping. Failure timers are registered once per exception class and cached afterward. Therefore, the
+ * per-message path does not use reflection nor builds any strings.
+ */
+@CompileStatic
+class MetricsMessageHandlingMember<T> extends WrappedMessageHandlingMember<T> {
+  static final String HANDLER_TIMER_NAME = "cargotracking.axon.handler"
+  static final String EVENT_PROCESSING_LAG_TIMER_NAME = "cargotracking.axon.event.processing.lag"
+  static final String EVENT_PROCESSING_GLOBAL_INDEX_GAUGE_NAME = "cargotracking.axon.event.processing.global-index"
+
+  static final String HANDLER_TYPE_COMMAND = "command"
+  static final String HANDLER_TYPE_QUERY = "query"
+  static final String HANDLER_TYPE_EVENT = "event"
+  static final String HANDLER_TYPE_EVENT_SOURCING = "event-sourcing"
+
+  static final String TAG_HANDLER_TYPE = "handler.type"
+  static final String TAG_HANDLER_CLASS = "handler.class"
+  static final String TAG_HANDLER_METHOD = "handler.method"
+  static final String TAG_PAYLOAD_TYPE = "payload.type"
+  static final String TAG_OUTCOME = "outcome"
+  static final String TAG_EXCEPTION = "exception"
+
+  static final String OUTCOME_SUCCESS = "success"
+  static final String OUTCOME_FAILURE = "failure"
+  static final String EXCEPTION_NONE = "none"
+  static final String HANDLER_METHOD_CONSTRUCTOR = "constructor"
+
+  private final MeterRegistry meterRegistry
+  private final Clock meterRegistryClock
+  private final Tags handlerTags
+  private final Timer successTimer
+  private final ConcurrentMap<Class<? extends Exception>, Timer> failureTimerByExceptionClassMap = new ConcurrentHashMap<>()
+  private final Timer eventProcessingLagTimer
+  private final AtomicLong lastGlobalIndex
+
+  MetricsMessageHandlingMember(MessageHandlingMember<T> messageHandlingMember, String handlerType, MeterRegistry meterRegistry, boolean isEventProcessingLagTracked = false) {
+    super(messageHandlingMember)
+
+    this.meterRegistry = meterRegistry
+    this.meterRegistryClock = meterRegistry.config().clock()
+    this.handlerTags = Tags.of(
+        TAG_HANDLER_TYPE, handlerType,
+        TAG_HANDLER_CLASS, messageHandlingMember.declaringClass().simpleName,
+        TAG_HANDLER_METHOD, resolveHandlerMethodName(messageHandlingMember),
+        TAG_PAYLOAD_TYPE, messageHandlingMember.payloadType().simpleName
+    )
+
+    this.successTimer = Timer.builder(HANDLER_TIMER_NAME)
+        .description("Execution of Axon message handlers")
+        .tags(handlerTags)
+        .tags(TAG_OUTCOME, OUTCOME_SUCCESS, TAG_EXCEPTION, EXCEPTION_NONE)
+        .register(meterRegistry)
+
+    if (isEventProcessingLagTracked) {
+      this.eventProcessingLagTimer = Timer.builder(EVENT_PROCESSING_LAG_TIMER_NAME)
+          .description("Time between event creation and its handling")
+          .tags(handlerTags)
+          .register(meterRegistry)
+
+      this.lastGlobalIndex = new AtomicLong(-1)
+      Gauge.builder(EVENT_PROCESSING_GLOBAL_INDEX_GAUGE_NAME, lastGlobalIndex, { AtomicLong globalIndex -> globalIndex.get() as double })
+           .description("Global index of the last event handled")
+           .tags(handlerTags)
+           .register(meterRegistry)
+    }
+    else {
+      this.eventProcessingLagTimer = null
+      this.lastGlobalIndex = null
+    }
+  }
+
+  private static String resolveHandlerMethodName(MessageHandlingMember<?> messageHandlingMember) {
+    return messageHandlingMember
+        .unwrap(Executable)
+        .map({ Executable executable -> executable instanceof Constructor ? HANDLER_METHOD_CONSTRUCTOR : executable.name })
+        .orElse(NOT_AVAILABLE)
+  }
+
+  @Override
+  Object handle(Message<?> message, T target) throws Exception {
+    long startTime = meterRegistryClock.monotonicTime()
+
+    Object result
+    try {
+      result = super.handle(message, target)
+    }
+    catch (Exception exception) {
+      recordFailure(meterRegistryClock.monotonicTime() - startTime, exception)
+      throw exception
+    }
+
+    successTimer.record(meterRegistryClock.monotonicTime() - startTime, TimeUnit.NANOSECONDS)
+    if (eventProcessingLagTimer != null) {
+      recordEventProcessingLag(message)
+    }
+
+    return result
+  }
+
+  private void recordFailure(long durationNanos, Exception exception) {
+    failureTimerByExceptionClassMap
+        .computeIfAbsent(exception.getClass(), { Class<? extends Exception> exceptionClass -> makeFailureTimer(exceptionClass) })
+        .record(durationNanos, TimeUnit.NANOSECONDS)
+  }
+
+  private Timer makeFailureTimer(Class<? extends Exception> exceptionClass) {
+    return Timer.builder(HANDLER_TIMER_NAME)
+                .description("Execution of Axon message handlers")
+                .tags(handlerTags)
+                .tags(TAG_OUTCOME, OUTCOME_FAILURE, TAG_EXCEPTION, exceptionClass.simpleName)
+                .register(meterRegistry)
+  }
+
+  @SuppressWarnings("CodeNarc.Instanceof")
+  private void recordEventProcessingLag(Message<?> message) {
+    if (message instanceof EventMessage && !ReplayToken.isReplay(message)) {
+      long lagMillis = meterRegistryClock.wallTime() - message.timestamp.toEpochMilli()
+      if (lagMillis >= 0) {
+        eventProcessingLagTimer.record(lagMillis, TimeUnit.MILLISECONDS)
+      }
+    }
+
+    Long globalIndex = AxonMessageHelper.fetchGlobalIndexIfPossible(message)
+    if (globalIndex != null) {
+      lastGlobalIndex.set(globalIndex)
+    }
+  }
+}
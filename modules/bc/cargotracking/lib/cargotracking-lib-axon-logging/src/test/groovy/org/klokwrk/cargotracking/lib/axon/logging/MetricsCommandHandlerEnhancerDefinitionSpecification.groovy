@@ -0,0 +1,126 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.lib.axon.logging
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.axonframework.config.Configuration
+import org.axonframework.config.Configurer
+import org.axonframework.config.DefaultConfigurer
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine
+import org.axonframework.messaging.annotation.ClasspathHandlerDefinition
+import org.axonframework.messaging.annotation.ClasspathHandlerEnhancerDefinition
+import org.axonframework.messaging.annotation.MultiHandlerDefinition
+import org.axonframework.messaging.annotation.MultiHandlerEnhancerDefinition
+import org.klokwrk.cargotracking.lib.axon.logging.stub.aggregate.MyTestAggregate
+import org.klokwrk.cargotracking.lib.axon.logging.stub.command.CreateMyTestAggregateCommand
+import org.klokwrk.cargotracking.lib.axon.logging.stub.command.UpdateMyTestAggregateCommand
+import spock.lang.Specification
+
+class MetricsCommandHandlerEnhancerDefinitionSpecification extends Specification {
+  MeterRegistry meterRegistry
+  Configuration axonConfiguration
+  CommandGateway axonCommandGateway
+
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry()
+
+    Configurer axonConfigurer = DefaultConfigurer.defaultConfiguration()
+    axonConfigurer.configureEmbeddedEventStore((Configuration axonConfiguration) -> new InMemoryEventStorageEngine())
+                  .configureAggregate(MyTestAggregate)
+                  .registerHandlerDefinition((Configuration configuration, Class inspectedClass) -> {
+                    MultiHandlerDefinition multiHandlerDefinition = MultiHandlerDefinition.ordered(
+                        MultiHandlerEnhancerDefinition.ordered(ClasspathHandlerEnhancerDefinition.forClass(inspectedClass), new MetricsCommandHandlerEnhancerDefinition(meterRegistry)),
+                        ClasspathHandlerDefinition.forClass(inspectedClass)
+                    )
+
+                    return multiHandlerDefinition
+                  })
+
+    axonConfiguration = axonConfigurer.buildConfiguration()
+    axonConfiguration.start()
+
+    axonCommandGateway = axonConfiguration.commandGateway()
+  }
+
+  void cleanup() {
+    axonConfiguration.shutdown()
+    meterRegistry.close()
+    axonCommandGateway = null
+    axonConfiguration = null
+    meterRegistry = null
+  }
+
+  void "should fail for null meter registry"() {
+    when:
+    new MetricsCommandHandlerEnhancerDefinition(null)
+
+    then:
+    thrown(AssertionError)
+  }
+
+  void "should record timer for constructor command handler"() {
+    given:
+    String aggregateIdentifier = UUID.randomUUID()
+
+    when:
+    axonCommandGateway.sendAndWait(new CreateMyTestAggregateCommand(aggregateIdentifier: aggregateIdentifier, name: "bla"))
+    axonCommandGateway.sendAndWait(new CreateMyTestAggregateCommand(aggregateIdentifier: UUID.randomUUID().toString(), name: "bla"))
+
+    then:
+    Timer timer = meterRegistry.find("cargotracking.axon.handler")
+                               .tags(
+                                   "handler.type", "command", "handler.class", "MyTestAggregate", "handler.method", "constructor", "payload.type", "CreateMyTestAggregateCommand",
+                                   "outcome", "success", "exception", "none"
+                               )
+                               .timer()
+
+    timer != null
+    timer.count() == 2
+  }
+
+  void "should record timer for method command handler"() {
+    given:
+    String aggregateIdentifier = UUID.randomUUID()
+
+    when:
+    axonCommandGateway.sendAndWait(new CreateMyTestAggregateCommand(aggregateIdentifier: aggregateIdentifier, name: "bla"))
+    axonCommandGateway.sendAndWait(new UpdateMyTestAggregateCommand(aggregateIdentifier: aggregateIdentifier, sequenceNumber: 0, name: "ble"))
+
+    then:
+    Timer timer = meterRegistry.find("cargotracking.axon.handler")
+                               .tags("handler.type", "command", "handler.class", "MyTestAggregate", "handler.method", "update", "payload.type", "UpdateMyTestAggregateCommand", "outcome", "success")
+                               .timer()
+
+    timer != null
+    timer.count() == 1
+  }
+
+  void "should not record timers for non-command handlers"() {
+    given:
+    String aggregateIdentifier = UUID.randomUUID()
+
+    when:
+    axonCommandGateway.sendAndWait(new CreateMyTestAggregateCommand(aggregateIdentifier: aggregateIdentifier, name: "bla"))
+
+    then:
+    meterRegistry.find("cargotracking.axon.handler").timers().every({ Timer timer -> timer.id.getTag("handler.type") == "command" })
+  }
+}
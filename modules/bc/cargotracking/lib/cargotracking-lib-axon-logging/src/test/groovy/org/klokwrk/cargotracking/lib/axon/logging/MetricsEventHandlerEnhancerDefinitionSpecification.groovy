@@ -0,0 +1,120 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.lib.axon.logging
+
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.axonframework.commandhandling.gateway.CommandGateway
+import org.axonframework.config.Configuration
+import org.axonframework.config.Configurer
+import org.axonframework.config.DefaultConfigurer
+import org.axonframework.config.EventProcessingModule
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine
+import org.axonframework.messaging.annotation.ClasspathHandlerDefinition
+import org.axonframework.messaging.annotation.ClasspathHandlerEnhancerDefinition
+import org.axonframework.messaging.annotation.MultiHandlerDefinition
+import org.axonframework.messaging.annotation.MultiHandlerEnhancerDefinition
+import org.klokwrk.cargotracking.lib.axon.logging.stub.aggregate.MyTestAggregate
+import org.klokwrk.cargotracking.lib.axon.logging.stub.command.CreateMyTestAggregateCommand
+import org.klokwrk.cargotracking.lib.axon.logging.stub.command.UpdateMyTestAggregateCommand
+import org.klokwrk.cargotracking.lib.axon.logging.stub.projection.MyTestProjection
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+class MetricsEventHandlerEnhancerDefinitionSpecification extends Specification {
+  MeterRegistry meterRegistry
+  Configuration axonConfiguration
+  CommandGateway axonCommandGateway
+
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry()
+
+    EventProcessingModule eventProcessingModule = new EventProcessingModule()
+    eventProcessingModule.registerEventHandler((Configuration axonConfiguration) -> new MyTestProjection())
+
+    Configurer axonConfigurer = DefaultConfigurer.defaultConfiguration()
+    axonConfigurer.configureEmbeddedEventStore((Configuration axonConfiguration) -> new InMemoryEventStorageEngine())
+                  .configureAggregate(MyTestAggregate)
+                  .registerModule(eventProcessingModule)
+                  .registerHandlerDefinition((Configuration configuration, Class inspectedClass) -> {
+                    MultiHandlerDefinition multiHandlerDefinition = MultiHandlerDefinition.ordered(
+                        MultiHandlerEnhancerDefinition.ordered(ClasspathHandlerEnhancerDefinition.forClass(inspectedClass), new MetricsEventHandlerEnhancerDefinition(meterRegistry)),
+                        ClasspathHandlerDefinition.forClass(inspectedClass)
+                    )
+
+                    return multiHandlerDefinition
+                  })
+
+    axonConfiguration = axonConfigurer.buildConfiguration()
+    axonConfiguration.start()
+
+    axonCommandGateway = axonConfiguration.commandGateway()
+  }
+
+  void cleanup() {
+    axonConfiguration.shutdown()
+    meterRegistry.close()
+    axonCommandGateway = null
+    axonConfiguration = null
+    meterRegistry = null
+  }
+
+  void "should record timers, processing lag and global index for event handlers"() {
+    given:
+    String aggregateIdentifier = UUID.randomUUID()
+
+    when:
+    axonCommandGateway.sendAndWait(new CreateMyTestAggregateCommand(aggregateIdentifier: aggregateIdentifier, name: "bla"))
+    axonCommandGateway.sendAndWait(new UpdateMyTestAggregateCommand(aggregateIdentifier: aggregateIdentifier, sequenceNumber: 0, name: "ble"))
+
+    then:
+    new PollingConditions(timeout: 5, initialDelay: 0.5, delay: 0.5).eventually {
+      Timer updatedEventTimer = meterRegistry.find("cargotracking.axon.handler")
+                                             .tags("handler.type", "event", "handler.class", "MyTestProjection", "handler.method", "handle", "payload.type", "MyTestAggregateUpdatedEvent")
+                                             .timer()
+      updatedEventTimer != null
+      updatedEventTimer.count() == 1
+
+      Timer updatedEventLagTimer = meterRegistry.find("cargotracking.axon.event.processing.lag").tags("payload.type", "MyTestAggregateUpdatedEvent").timer()
+      updatedEventLagTimer != null
+      updatedEventLagTimer.count() == 1
+
+      Gauge createdEventGlobalIndexGauge = meterRegistry.find("cargotracking.axon.event.processing.global-index").tags("payload.type", "MyTestAggregateCreatedEvent").gauge()
+      createdEventGlobalIndexGauge.value() == 0
+
+      Gauge updatedEventGlobalIndexGauge = meterRegistry.find("cargotracking.axon.event.processing.global-index").tags("payload.type", "MyTestAggregateUpdatedEvent").gauge()
+      updatedEventGlobalIndexGauge.value() == 1
+    }
+  }
+
+  void "should not record timers for event sourcing handlers"() {
+    given:
+    String aggregateIdentifier = UUID.randomUUID()
+
+    when:
+    axonCommandGateway.sendAndWait(new CreateMyTestAggregateCommand(aggregateIdentifier: aggregateIdentifier, name: "bla"))
+
+    then:
+    new PollingConditions(timeout: 5, initialDelay: 0.5, delay: 0.5).eventually {
+      meterRegistry.find("cargotracking.axon.handler").tags("handler.type", "event").timer()?.count() == 1
+    }
+    meterRegistry.find("cargotracking.axon.handler").tags("handler.class", "MyTestAggregate").timer() == null
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.lib.axon.logging
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.axonframework.config.Configuration
+import org.axonframework.config.Configurer
+import org.axonframework.config.DefaultConfigurer
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine
+import org.axonframework.messaging.annotation.ClasspathHandlerDefinition
+import org.axonframework.messaging.annotation.ClasspathHandlerEnhancerDefinition
+import org.axonframework.messaging.annotation.MultiHandlerDefinition
+import org.axonframework.messaging.annotation.MultiHandlerEnhancerDefinition
+import org.axonframework.queryhandling.QueryGateway
+import org.klokwrk.cargotracking.lib.axon.logging.stub.query.MyTestQuery
+import org.klokwrk.cargotracking.lib.axon.logging.stub.query.MyTestQueryHandler
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class MetricsQueryHandlerEnhancerDefinitionSpecification extends Specification {
+  MeterRegistry meterRegistry
+  Configuration axonConfiguration
+  QueryGateway axonQueryGateway
+
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry()
+
+    Configurer axonConfigurer = DefaultConfigurer.defaultConfiguration()
+    axonConfigurer.configureEmbeddedEventStore((Configuration axonConfiguration) -> new InMemoryEventStorageEngine())
+                  .registerQueryHandler((Configuration configuration) -> new MyTestQueryHandler())
+                  .registerHandlerDefinition((Configuration configuration, Class inspectedClass) -> {
+                    MultiHandlerDefinition multiHandlerDefinition = MultiHandlerDefinition.ordered(
+                        MultiHandlerEnhancerDefinition.ordered(ClasspathHandlerEnhancerDefinition.forClass(inspectedClass), new MetricsQueryHandlerEnhancerDefinition(meterRegistry)),
+                        ClasspathHandlerDefinition.forClass(inspectedClass)
+                    )
+
+                    return multiHandlerDefinition
+                  })
+
+    axonConfiguration = axonConfigurer.buildConfiguration()
+    axonConfiguration.start()
+
+    axonQueryGateway = axonConfiguration.queryGateway()
+  }
+
+  void cleanup() {
+    axonConfiguration.shutdown()
+    meterRegistry.close()
+    axonQueryGateway = null
+    axonConfiguration = null
+    meterRegistry = null
+  }
+
+  void "should record timer for query handler"() {
+    when:
+    axonQueryGateway.query(new MyTestQuery(query: "123"), Map).join()
+    axonQueryGateway.query(new MyTestQuery(query: "456"), Map).join()
+
+    then:
+    Timer timer = meterRegistry.find("cargotracking.axon.handler")
+                               .tags(
+                                   "handler.type", "query", "handler.class", "MyTestQueryHandler", "handler.method", "handleSomeQuery", "payload.type", "MyTestQuery",
+                                   "outcome", "success", "exception", "none"
+                               )
+                               .timer()
+
+    timer != null
+    timer.count() == 2
+    timer.totalTime(TimeUnit.NANOSECONDS) > 0
+  }
+}
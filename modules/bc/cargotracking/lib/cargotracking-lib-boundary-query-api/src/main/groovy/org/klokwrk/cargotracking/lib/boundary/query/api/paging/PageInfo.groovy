@@ -55,17 +55,24 @@ class PageInfo {
   /**
    * The total number of all available pages.
    * <p/>
-   * If data source does not support paging (or the paging was not requested), it is -1. Default is -1.
+   * If data source does not support paging (or the paging was not requested, or the counting was not requested with keyset paging), it is -1. Default is -1.
    */
   Integer totalPagesCount = -1
 
   /**
    * The total number of all data elements available for paging.
    * <p/>
-   * If data source does not support paging (or the paging was not requested), it is -1. Default is -1.
+   * If data source does not support paging (or the paging was not requested, or the counting was not requested with keyset paging), it is -1. Default is -1.
    */
   Long totalElementsCount = -1
 
+  /**
+   * The cursor for requesting the next page with keyset paging.
+   * <p/>
+   * It is {@code null} for the last page, and when offset paging is used.
+   */
+  String nextCursor
+
   /**
    * The page requirement sent when this page was requested.
    */
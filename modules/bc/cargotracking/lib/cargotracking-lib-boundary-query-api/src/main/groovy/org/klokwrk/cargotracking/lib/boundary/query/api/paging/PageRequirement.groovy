@@ -30,6 +30,11 @@ import jakarta.validation.constraints.NotNull
  * Specifies requirements for desired paged results of a query.
  * <p/>
  * We have specifications for the desired page's ordinal number (default is 0) and size (default is 25) as specified by the api client.
+ * <p/>
+ * By default, offset paging is used, where the requested page is determined by its ordinal number. With offset paging, the cost of fetching a page grows with its ordinal number, and each page
+ * also requires counting of all available elements. When {@code keyset} is set to {@code true}, keyset (seek) paging is used instead. With keyset paging, the page following the previous one is
+ * determined by an opaque {@code cursor} returned in {@code PageInfo.nextCursor} of the previous page. The cost of fetching any page is the same as for the first one. With keyset paging, the
+ * {@code ordinal} is ignored, and the counting of all available elements is performed only if explicitly requested via {@code totalCountRequired}.
  */
 @GroupSequence([PageRequirement, Level1, Level2])
 @EqualsAndHashCode
@@ -55,4 +60,26 @@ class PageRequirement {
   @Min(value = 1L, groups = [Level2])
   @NotNull(groups = [Level1])
   Integer size = PAGE_REQUIREMENT_SIZE_DEFAULT
+
+  /**
+   * Whether keyset paging is requested.
+   * <p/>
+   * Can be {@code null}. When {@code null} or {@code false}, offset paging is used.
+   */
+  Boolean keyset
+
+  /**
+   * The cursor pointing to the requested page when keyset paging is used.
+   * <p/>
+   * Can be {@code null}, which requests the first page. Otherwise, it must be a value of {@code PageInfo.nextCursor} as returned for the previous page requested with the same sort requirements.
+   * Ignored with offset paging.
+   */
+  String cursor
+
+  /**
+   * Whether the total number of available elements should be calculated when keyset paging is used.
+   * <p/>
+   * Can be {@code null}, which is equivalent to {@code false}. Ignored with offset paging, where the total number of elements is always calculated.
+   */
+  Boolean totalCountRequired
 }
@@ -30,6 +30,7 @@ import org.klokwrk.cargotracking.lib.boundary.api.application.operation.Operatio
 import org.klokwrk.cargotracking.lib.boundary.api.domain.severity.Severity
 import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaData
 import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaDataHttpPart
+import org.klokwrk.lib.hi.spring.context.CachingMessageSourceResolvableResolver
 import org.klokwrk.lib.hi.spring.context.MessageSourceResolvableHelper
 import org.klokwrk.lib.hi.spring.context.MessageSourceResolvableSpecification
 import org.springframework.context.MessageSource
@@ -101,11 +102,11 @@ import java.time.Instant
  */
 @CompileStatic
 class ResponseFormattingConstraintViolationExceptionHandler implements MessageSourceAware {
-  private MessageSource messageSource
+  private CachingMessageSourceResolvableResolver messageSourceResolvableResolver
 
   @Override
   void setMessageSource(MessageSource messageSource) {
-    this.messageSource = messageSource
+    this.messageSourceResolvableResolver = new CachingMessageSourceResolvableResolver(messageSource)
   }
 
   @ExceptionHandler
@@ -180,11 +181,7 @@ class ResponseFormattingConstraintViolationExceptionHandler implements MessageSo
         severity: Severity.WARNING.name().toLowerCase()
     )
 
-    httpResponseMetaData.violation.message = MessageSourceResolvableHelper.resolveMessageCodeList(
-        locale,
-        messageSource,
-        MessageSourceResolvableHelper.makeMessageCodeListForViolationMessageOfValidationFailure(resolvableMessageSpecificationForViolationMessage)
-    )
+    httpResponseMetaData.violation.message = messageSourceResolvableResolver.resolveViolationMessageOfValidationFailure(locale, resolvableMessageSpecificationForViolationMessage)
 
     // constraintList
     httpResponseMetaData.violation.validationReport.constraintViolations.each { ValidationReportConstraintViolation validationReportConstraintViolation ->
@@ -199,14 +196,8 @@ class ResponseFormattingConstraintViolationExceptionHandler implements MessageSo
           constraintViolationType: validationReportConstraintViolation.type
       )
 
-      validationReportConstraintViolation.message = MessageSourceResolvableHelper.resolveMessageCodeList(
-          locale,
-          messageSource,
-          MessageSourceResolvableHelper.makeMessageCodeListForConstraintViolationMessageOfValidationFailure(
-              resolvableMessageSpecificationForConstraintViolation, validationReportConstraintViolation.message
-          ),
-          [],
-          validationReportConstraintViolation.message
+      validationReportConstraintViolation.message = messageSourceResolvableResolver.resolveConstraintViolationMessageOfValidationFailure(
+          locale, resolvableMessageSpecificationForConstraintViolation, validationReportConstraintViolation.message
       )
     }
 
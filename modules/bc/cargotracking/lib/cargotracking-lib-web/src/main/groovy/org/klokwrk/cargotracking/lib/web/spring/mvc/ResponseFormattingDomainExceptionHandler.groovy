@@ -26,6 +26,7 @@ import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.DomainExcepti
 import org.klokwrk.cargotracking.lib.boundary.api.domain.violation.ViolationCode
 import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaData
 import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaDataHttpPart
+import org.klokwrk.lib.hi.spring.context.CachingMessageSourceResolvableResolver
 import org.klokwrk.lib.hi.spring.context.MessageSourceResolvableHelper
 import org.klokwrk.lib.hi.spring.context.MessageSourceResolvableSpecification
 import org.springframework.context.MessageSource
@@ -96,11 +97,11 @@ import java.time.Instant
  */
 @CompileStatic
 class ResponseFormattingDomainExceptionHandler implements MessageSourceAware {
-  private MessageSource messageSource
+  private CachingMessageSourceResolvableResolver messageSourceResolvableResolver
 
   @Override
   void setMessageSource(MessageSource messageSource) {
-    this.messageSource = messageSource
+    this.messageSourceResolvableResolver = new CachingMessageSourceResolvableResolver(messageSource)
   }
 
   @ExceptionHandler
@@ -186,10 +187,9 @@ class ResponseFormattingDomainExceptionHandler implements MessageSourceAware {
         severity: domainException.violationInfo.severity.name().toLowerCase()
     )
 
-    String httpResponseMetaDataViolationMessage = MessageSourceResolvableHelper.resolveMessageCodeList(
+    String httpResponseMetaDataViolationMessage = messageSourceResolvableResolver.resolveViolationMessageOfDomainFailure(
         locale,
-        messageSource,
-        MessageSourceResolvableHelper.makeMessageCodeListForViolationMessageOfDomainFailure(resolvableMessageSpecification),
+        resolvableMessageSpecification,
         domainException.violationInfo.violationCode.resolvableMessageParameters
     )
 
@@ -0,0 +1,136 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.lib.web.spring.mvc
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.lib.boundary.api.application.metadata.response.ResponseMetaDataGeneralPart
+import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
+import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.DomainException
+import org.klokwrk.cargotracking.lib.boundary.api.domain.severity.Severity
+import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaData
+import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaDataHttpPart
+import org.springframework.context.MessageSource
+import org.springframework.context.MessageSourceAware
+import org.springframework.http.HttpStatus
+import org.springframework.web.method.HandlerMethod
+
+import jakarta.validation.ConstraintViolationException
+import java.time.Instant
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Creates formatted {@link OperationResponse} instances outside of Spring MVC request handling, i.e., for responses that are streamed or pushed to the client.
+ * <p/>
+ * Created responses have the same shape as responses formatted by {@link ResponseFormattingResponseBodyAdvice} (for successful results) and by response formatting exception handlers (for failures).
+ * Failures are rendered and localized by delegating to its own non-component instances of {@link ResponseFormattingDomainExceptionHandler},
+ * {@link ResponseFormattingConstraintViolationExceptionHandler} and {@link ResponseFormattingUnknownExceptionHandler}. Therefore, it does not depend on controller advice components being present in
+ * the Spring context.
+ * <p/>
+ * When used from Spring Boot application, it should be registered as a bean, so that the message source gets injected:
+ * <pre>
+ * &#64;Configuration
+ * class SpringBootConfig {
+ *   &#64;Bean
+ *   ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory() {
+ *     return new ResponseFormattingOperationResponseFactory()
+ *   }
+ * }
+ * </pre>
+ * The "<code>http</code>" part of successful metadata depends only on the response status, so it is created once per status and shared between responses.
+ */
+@CompileStatic
+class ResponseFormattingOperationResponseFactory implements MessageSourceAware {
+  private final ConcurrentHashMap<Integer, HttpResponseMetaDataHttpPart> httpResponseMetaDataHttpPartCache = new ConcurrentHashMap<>()
+
+  private final ResponseFormattingDomainExceptionHandler responseFormattingDomainExceptionHandler = new ResponseFormattingDomainExceptionHandler()
+  private final ResponseFormattingConstraintViolationExceptionHandler responseFormattingConstraintViolationExceptionHandler = new ResponseFormattingConstraintViolationExceptionHandler()
+  private final ResponseFormattingUnknownExceptionHandler responseFormattingUnknownExceptionHandler = new ResponseFormattingUnknownExceptionHandler()
+
+  @Override
+  void setMessageSource(MessageSource messageSource) {
+    responseFormattingDomainExceptionHandler.messageSource = messageSource
+    responseFormattingConstraintViolationExceptionHandler.messageSource = messageSource
+    responseFormattingUnknownExceptionHandler.messageSource = messageSource
+  }
+
+  /**
+   * Creates successful {@link OperationResponse} with {@code 200 OK} metadata for provided payload.
+   */
+  OperationResponse makeSuccessOperationResponse(Object payload, Locale locale) {
+    return new OperationResponse(payload: payload, metaData: makeSuccessMetaDataMap(HttpStatus.OK, locale))
+  }
+
+  /**
+   * Creates "<code>metaData</code>" map of successful response with provided status.
+   */
+  Map<String, ?> makeSuccessMetaDataMap(HttpStatus httpStatus, Locale locale) {
+    return makeMetaDataMap(makeSuccessHttpResponseMetaData(httpStatus, locale))
+  }
+
+  /**
+   * Creates failed {@link OperationResponse} for provided failure.
+   * <p/>
+   * Handler method and locale are used for resolving localized failure messages in the same way as it is done for failures thrown directly from the handler method.
+   */
+  @SuppressWarnings("CodeNarc.Instanceof")
+  OperationResponse makeFailureOperationResponse(Throwable failure, HandlerMethod handlerMethod, Locale locale) {
+    Object failureResponseBody
+    if (failure instanceof DomainException) {
+      failureResponseBody = responseFormattingDomainExceptionHandler.handleDomainException(failure as DomainException, handlerMethod, locale).body
+    }
+    else if (failure instanceof ConstraintViolationException) {
+      failureResponseBody = responseFormattingConstraintViolationExceptionHandler.handleConstraintViolationException(failure as ConstraintViolationException, handlerMethod, locale).body
+    }
+    else {
+      failureResponseBody = responseFormattingUnknownExceptionHandler.handleUnknownException(failure, handlerMethod, locale).body
+    }
+
+    return failureResponseBody as OperationResponse
+  }
+
+  protected HttpResponseMetaData makeSuccessHttpResponseMetaData(HttpStatus httpStatus, Locale locale) {
+    HttpResponseMetaData httpResponseMetaData = new HttpResponseMetaData(
+        general: new ResponseMetaDataGeneralPart(timestamp: Instant.now(), severity: Severity.INFO.name().toLowerCase(), locale: locale),
+        http: findOrMakeHttpResponseMetaDataPart(httpStatus)
+    )
+
+    return httpResponseMetaData
+  }
+
+  /**
+   * Returns cached {@link HttpResponseMetaDataHttpPart} for a response status, or creates and caches a new one.
+   * <p/>
+   * Cached instances are shared between responses, so they must not be modified after creation.
+   */
+  protected HttpResponseMetaDataHttpPart findOrMakeHttpResponseMetaDataPart(HttpStatus httpStatus) {
+    return httpResponseMetaDataHttpPartCache.computeIfAbsent(httpStatus.value(), { Integer httpStatusValue -> makeHttpResponseMetaDataPart(httpStatus) })
+  }
+
+  protected HttpResponseMetaDataHttpPart makeHttpResponseMetaDataPart(HttpStatus httpStatus) {
+    HttpResponseMetaDataHttpPart httpResponseMetaDataPart = new HttpResponseMetaDataHttpPart(status: httpStatus.value().toString(), message: httpStatus.reasonPhrase)
+    return httpResponseMetaDataPart
+  }
+
+  /**
+   * Creates "<code>metaData</code>" map with the same content as {@code httpResponseMetaData.propertiesFiltered} would produce, but without reflection.
+   */
+  protected Map<String, ?> makeMetaDataMap(HttpResponseMetaData httpResponseMetaData) {
+    Map<String, ?> metaDataMap = [general: httpResponseMetaData.general, violation: httpResponseMetaData.violation, http: httpResponseMetaData.http] as Map<String, ?>
+    return metaDataMap
+  }
+}
@@ -18,11 +18,8 @@
 package org.klokwrk.cargotracking.lib.web.spring.mvc
 
 import groovy.transform.CompileStatic
-import org.klokwrk.cargotracking.lib.boundary.api.application.metadata.response.ResponseMetaDataGeneralPart
 import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
-import org.klokwrk.cargotracking.lib.boundary.api.domain.severity.Severity
 import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaData
-import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaDataHttpPart
 import org.springframework.beans.BeansException
 import org.springframework.context.ApplicationContext
 import org.springframework.context.ApplicationContextAware
@@ -38,7 +35,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice
 
 import jakarta.servlet.http.HttpServletRequest
 import jakarta.servlet.http.HttpServletResponse
-import java.time.Instant
+import java.util.function.Supplier
 
 /**
  * Handles shaping and internationalization of the body in HTTP JSON responses when successful result of controller execution is {@link OperationResponse} instance.
@@ -79,14 +76,22 @@ import java.time.Instant
  *   }
  * }
  * </pre>
+ * Since this advice is executed for every successful response, it avoids repeated work where possible. "<code>metaData</code>" map is created by {@link ResponseFormattingOperationResponseFactory},
+ * which shares the "<code>http</code>" part of metadata between responses with the same status, and assembles the map directly instead of collecting it reflectively from
+ * {@link HttpResponseMetaData} properties. When {@link ResponseFormattingOperationResponseFactory} bean is present in the application context, the advice uses it, so there is only one per-status
+ * cache in the application. Otherwise, the advice uses its own factory instance.
  */
 @CompileStatic
 class ResponseFormattingResponseBodyAdvice implements ResponseBodyAdvice<OperationResponse<?>>, ApplicationContextAware {
   private ApplicationContext applicationContext
+  private ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory = new ResponseFormattingOperationResponseFactory()
 
   @Override
   void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
     this.applicationContext = applicationContext
+    this.responseFormattingOperationResponseFactory = applicationContext
+        .getBeanProvider(ResponseFormattingOperationResponseFactory)
+        .getIfAvailable({ responseFormattingOperationResponseFactory } as Supplier<ResponseFormattingOperationResponseFactory>)
   }
 
   @Override
@@ -102,25 +107,15 @@ class ResponseFormattingResponseBodyAdvice implements ResponseBodyAdvice<Operati
     HttpServletRequest httpServletRequest = (serverHttpRequest as ServletServerHttpRequest).servletRequest
     HttpServletResponse httpServletResponse = (serverHttpResponse as ServletServerHttpResponse).servletResponse
 
-    HttpResponseMetaData httpResponseMetaData = makeHttpResponseMetaData(httpServletResponse, httpServletRequest)
-    operationResponseBody.metaData = httpResponseMetaData.propertiesFiltered
+    operationResponseBody.metaData = makeMetaDataMap(httpServletResponse, httpServletRequest)
 
     return operationResponseBody
   }
 
-  protected HttpResponseMetaData makeHttpResponseMetaData(HttpServletResponse httpServletResponse, HttpServletRequest httpServletRequest) {
-    HttpStatus httpStatus = HttpStatus.resolve(httpServletResponse.status)
-
-    HttpResponseMetaData httpResponseMetaData = new HttpResponseMetaData(
-        general: new ResponseMetaDataGeneralPart(timestamp: Instant.now(), severity: Severity.INFO.name().toLowerCase(), locale: httpServletRequest.locale),
-        http: makeHttpResponseMetaDataPart(httpStatus)
-    )
-
-    return httpResponseMetaData
-  }
-
-  protected HttpResponseMetaDataHttpPart makeHttpResponseMetaDataPart(HttpStatus httpStatus) {
-    HttpResponseMetaDataHttpPart httpResponseMetaDataPart = new HttpResponseMetaDataHttpPart(status: httpStatus.value().toString(), message: httpStatus.reasonPhrase)
-    return httpResponseMetaDataPart
+  /**
+   * Creates "<code>metaData</code>" map of successful response via {@link ResponseFormattingOperationResponseFactory}, so it has the same content as metadata of streamed or pushed responses.
+   */
+  protected Map<String, ?> makeMetaDataMap(HttpServletResponse httpServletResponse, HttpServletRequest httpServletRequest) {
+    return responseFormattingOperationResponseFactory.makeSuccessMetaDataMap(HttpStatus.resolve(httpServletResponse.status), httpServletRequest.locale)
   }
 }
@@ -25,6 +25,7 @@ import org.klokwrk.cargotracking.lib.boundary.api.application.operation.Operatio
 import org.klokwrk.cargotracking.lib.boundary.api.domain.severity.Severity
 import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaData
 import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaDataHttpPart
+import org.klokwrk.lib.hi.spring.context.CachingMessageSourceResolvableResolver
 import org.klokwrk.lib.hi.spring.context.MessageSourceResolvableHelper
 import org.klokwrk.lib.hi.spring.context.MessageSourceResolvableSpecification
 import org.slf4j.Logger
@@ -101,11 +102,11 @@ import java.time.Instant
 class ResponseFormattingSpringMvcExceptionHandler extends ResponseEntityExceptionHandler implements MessageSourceAware {
   static private final Logger log = LoggerFactory.getLogger(ResponseFormattingSpringMvcExceptionHandler)
 
-  private MessageSource messageSource
+  private CachingMessageSourceResolvableResolver messageSourceResolvableResolver
 
   @Override
   void setMessageSource(MessageSource messageSource) {
-    this.messageSource = messageSource
+    this.messageSourceResolvableResolver = new CachingMessageSourceResolvableResolver(messageSource)
   }
 
   @SuppressWarnings("CodeNarc.Instanceof")
@@ -184,11 +185,7 @@ class ResponseFormattingSpringMvcExceptionHandler extends ResponseEntityExceptio
         severity: severity.name().toLowerCase()
     )
 
-    httpResponseMetaData.violation.message = MessageSourceResolvableHelper.resolveMessageCodeList(
-        locale,
-        messageSource,
-        MessageSourceResolvableHelper.makeMessageCodeListForViolationMessageOfInfrastructureWebFailure(resolvableMessageSpecification)
-    )
+    httpResponseMetaData.violation.message = messageSourceResolvableResolver.resolveViolationMessageOfInfrastructureWebFailure(locale, resolvableMessageSpecification)
 
     return httpResponseMetaData
   }
@@ -26,6 +26,7 @@ import org.klokwrk.cargotracking.lib.boundary.api.application.operation.Operatio
 import org.klokwrk.cargotracking.lib.boundary.api.domain.severity.Severity
 import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaData
 import org.klokwrk.cargotracking.lib.web.metadata.response.HttpResponseMetaDataHttpPart
+import org.klokwrk.lib.hi.spring.context.CachingMessageSourceResolvableResolver
 import org.klokwrk.lib.hi.spring.context.MessageSourceResolvableHelper
 import org.klokwrk.lib.hi.spring.context.MessageSourceResolvableSpecification
 import org.slf4j.Logger
@@ -92,11 +93,11 @@ import java.time.Instant
 class ResponseFormattingUnknownExceptionHandler implements MessageSourceAware {
   static private final Logger log = LoggerFactory.getLogger(ResponseFormattingUnknownExceptionHandler)
 
-  private MessageSource messageSource
+  private CachingMessageSourceResolvableResolver messageSourceResolvableResolver
 
   @Override
   void setMessageSource(MessageSource messageSource) {
-    this.messageSource = messageSource
+    this.messageSourceResolvableResolver = new CachingMessageSourceResolvableResolver(messageSource)
   }
 
   @ExceptionHandler
@@ -147,11 +148,7 @@ class ResponseFormattingUnknownExceptionHandler implements MessageSourceAware {
         severity: Severity.ERROR.name().toLowerCase()
     )
 
-    httpResponseMetaData.violation.message = MessageSourceResolvableHelper.resolveMessageCodeList(
-        locale,
-        messageSource,
-        MessageSourceResolvableHelper.makeMessageCodeListForViolationMessageOfUnknownFailure(resolvableMessageSpecification)
-    )
+    httpResponseMetaData.violation.message = messageSourceResolvableResolver.resolveViolationMessageOfUnknownFailure(locale, resolvableMessageSpecification)
 
     return httpResponseMetaData
   }
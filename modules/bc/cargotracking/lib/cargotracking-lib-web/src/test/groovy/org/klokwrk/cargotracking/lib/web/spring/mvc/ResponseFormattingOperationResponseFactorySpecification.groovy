@@ -0,0 +1,128 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.cargotracking.lib.web.spring.mvc
+
+import org.klokwrk.cargotracking.lib.boundary.api.application.metadata.response.ViolationType
+import org.klokwrk.cargotracking.lib.boundary.api.application.operation.OperationResponse
+import org.klokwrk.cargotracking.lib.boundary.api.domain.exception.DomainException
+import org.klokwrk.cargotracking.lib.boundary.api.domain.severity.Severity
+import org.klokwrk.cargotracking.lib.boundary.api.domain.violation.ViolationInfo
+import org.springframework.context.support.ResourceBundleMessageSource
+import org.springframework.http.HttpStatus
+import org.springframework.web.method.HandlerMethod
+import spock.lang.Specification
+
+import jakarta.validation.ConstraintViolationException
+import jakarta.validation.Validation
+import jakarta.validation.constraints.NotNull
+import java.lang.reflect.Method
+
+class ResponseFormattingOperationResponseFactorySpecification extends Specification {
+  static class TestController {
+    @SuppressWarnings("unused")
+    OperationResponse<Map> testControllerMethod() {
+      return new OperationResponse<Map>(payload: [someData: "Testing data"])
+    }
+  }
+
+  static class TestRootObject {
+    @NotNull
+    String stringProperty
+  }
+
+  Locale locale
+  ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory
+  HandlerMethod handlerMethod
+
+  void setup() {
+    locale = new Locale("en")
+    ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource()
+    messageSource.defaultEncoding = "UTF-8"
+    messageSource.setBasenames("responseFormattingDefaultMessages", "responseFormattingTestMessages")
+
+    responseFormattingOperationResponseFactory = new ResponseFormattingOperationResponseFactory()
+    responseFormattingOperationResponseFactory.messageSource = messageSource
+
+    TestController testController = new TestController()
+    Method testControllerMethod = TestController.declaredMethods.find({ Method method -> method.name == "testControllerMethod" })
+    handlerMethod = new HandlerMethod(testController, testControllerMethod)
+  }
+
+  private static ConstraintViolationException makeConstraintViolationException() {
+    return new ConstraintViolationException(Validation.buildDefaultValidatorFactory().validator.validate(new TestRootObject()))
+  }
+
+  void "makeSuccessOperationResponse() should create expected response structure"() {
+    when:
+    OperationResponse operationResponse = responseFormattingOperationResponseFactory.makeSuccessOperationResponse([data: "Some testing data"], locale)
+    Map metadata = operationResponse.metaData
+
+    then:
+    verifyAll {
+      operationResponse.payload == [data: "Some testing data"]
+
+      metadata.general.propertiesFiltered.size() == 3
+      metadata.general.timestamp
+      metadata.general.severity == Severity.INFO.name().toLowerCase()
+      metadata.general.locale == new Locale("en")
+
+      metadata.violation == null
+
+      metadata.http.propertiesFiltered.size() == 2
+      metadata.http.status == "200"
+      metadata.http.message == "OK"
+    }
+  }
+
+  void "makeSuccessMetaDataMap() should share http part between responses with the same status"() {
+    when:
+    Map<String, ?> firstMetaDataMap = responseFormattingOperationResponseFactory.makeSuccessMetaDataMap(HttpStatus.OK, locale)
+    Map<String, ?> secondMetaDataMap = responseFormattingOperationResponseFactory.makeSuccessMetaDataMap(HttpStatus.OK, locale)
+    Map<String, ?> createdMetaDataMap = responseFormattingOperationResponseFactory.makeSuccessMetaDataMap(HttpStatus.CREATED, locale)
+
+    then:
+    verifyAll {
+      firstMetaDataMap.http.is(secondMetaDataMap.http)
+      !firstMetaDataMap.general.is(secondMetaDataMap.general)
+
+      createdMetaDataMap.http.status == "201"
+      createdMetaDataMap.http.message == "Created"
+    }
+  }
+
+  void "makeFailureOperationResponse() should format failures as corresponding exception handlers do"() {
+    when:
+    OperationResponse operationResponse = responseFormattingOperationResponseFactory.makeFailureOperationResponse(failureParam, handlerMethod, locale)
+    Map metadata = operationResponse.metaData
+
+    then:
+    verifyAll {
+      operationResponse.payload == [:]
+
+      metadata.general.severity == severityParam
+      metadata.violation.type == violationTypeParam
+      metadata.http.status == httpStatusParam
+    }
+
+    where:
+    failureParam                                 | severityParam                         | violationTypeParam                            | httpStatusParam
+    new DomainException(ViolationInfo.NOT_FOUND) | Severity.WARNING.name().toLowerCase() | ViolationType.DOMAIN.name().toLowerCase()     | "404"
+    makeConstraintViolationException()           | Severity.WARNING.name().toLowerCase() | ViolationType.VALIDATION.name().toLowerCase() | "400"
+    new IllegalStateException("Testing failure") | Severity.ERROR.name().toLowerCase()   | ViolationType.UNKNOWN.name().toLowerCase()    | "500"
+  }
+}
@@ -28,6 +28,7 @@ import org.springframework.http.HttpStatus
 import org.springframework.http.MediaType
 import org.springframework.test.context.ContextConfiguration
 import org.springframework.test.context.web.WebAppConfiguration
+import org.springframework.test.util.ReflectionTestUtils
 import org.springframework.test.web.servlet.MockMvc
 import org.springframework.test.web.servlet.MvcResult
 import org.springframework.test.web.servlet.setup.MockMvcBuilders
@@ -81,6 +82,11 @@ class ResponseFormattingResponseBodyAdviceSpecification extends Specification {
       return new ResponseFormattingResponseBodyAdviceControllerAdvice()
     }
 
+    @Bean
+    ResponseFormattingOperationResponseFactory responseFormattingOperationResponseFactory() {
+      return new ResponseFormattingOperationResponseFactory()
+    }
+
     @Bean
     MessageSource messageSource() {
       ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource()
@@ -157,4 +163,12 @@ class ResponseFormattingResponseBodyAdviceSpecification extends Specification {
       bodyText == ""
     }
   }
+
+  void "should use response formatting operation response factory from application context"() {
+    when:
+    ResponseFormattingResponseBodyAdviceControllerAdvice responseFormattingResponseBodyAdvice = webApplicationContext.getBean(ResponseFormattingResponseBodyAdviceControllerAdvice)
+
+    then:
+    ReflectionTestUtils.getField(responseFormattingResponseBodyAdvice, "responseFormattingOperationResponseFactory").is(webApplicationContext.getBean(ResponseFormattingOperationResponseFactory))
+  }
 }
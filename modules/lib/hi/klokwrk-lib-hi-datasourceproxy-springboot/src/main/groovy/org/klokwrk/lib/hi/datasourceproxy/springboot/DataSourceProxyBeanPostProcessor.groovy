@@ -18,6 +18,8 @@
 package org.klokwrk.lib.hi.datasourceproxy.springboot
 
 import groovy.transform.CompileStatic
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Metrics
 import net.ttddyy.dsproxy.support.ProxyDataSource
 import org.springframework.aop.framework.ProxyFactory
 import org.springframework.beans.factory.ObjectProvider
@@ -35,8 +37,10 @@ import javax.sql.DataSource
  * &#64;Configuration
  * class SpringBootConfig {
  *   &#64;Bean
- *   static BeanPostProcessor dataSourceProxyBeanPostProcessor(ObjectProvider&lt;DataSourceProxyConfigurationProperties&gt; dataSourceProxyConfigurationPropertiesObjectProvider) {
- *     return new DataSourceProxyBeanPostProcessor(dataSourceProxyConfigurationPropertiesObjectProvider)
+ *   static BeanPostProcessor dataSourceProxyBeanPostProcessor(
+ *       ObjectProvider&lt;DataSourceProxyConfigurationProperties&gt; dataSourceProxyConfigurationPropertiesObjectProvider, ObjectProvider&lt;MeterRegistry&gt; meterRegistryObjectProvider)
+ *   {
+ *     return new DataSourceProxyBeanPostProcessor(dataSourceProxyConfigurationPropertiesObjectProvider, meterRegistryObjectProvider)
  *   }
  * }
  * </pre>
@@ -56,6 +60,9 @@ import javax.sql.DataSource
  *   ^update token_entry.*$
  * </pre>
  * This 'filterable query logging' feature is implemented in <code>org.klokwrk.lib.lo.datasourceproxy.Slf4jFilterableQueryLoggingListener</code>.
+ * <p/>
+ * In addition, the query profiler (<code>org.klokwrk.lib.lo.datasourceproxy.QueryProfilingListener</code>) is enabled by default. It records per-statement-fingerprint Micrometer meters in the
+ * application's {@link MeterRegistry} (when available), and reports slow queries and N+1 patterns via <code>klokwrk.datasourceproxy.queryProfiler</code> logger.
  *
  * @see DataSourceProxyConfigurationProperties
  * @see DataSourceProxyInterceptor
@@ -63,9 +70,13 @@ import javax.sql.DataSource
 @CompileStatic
 class DataSourceProxyBeanPostProcessor implements BeanPostProcessor {
   ObjectProvider<DataSourceProxyConfigurationProperties> dataSourceProxyConfigurationPropertiesObjectProvider
+  ObjectProvider<MeterRegistry> meterRegistryObjectProvider
 
-  DataSourceProxyBeanPostProcessor(ObjectProvider<DataSourceProxyConfigurationProperties> dataSourceProxyConfigurationPropertiesObjectProvider) {
+  DataSourceProxyBeanPostProcessor(
+      ObjectProvider<DataSourceProxyConfigurationProperties> dataSourceProxyConfigurationPropertiesObjectProvider, ObjectProvider<MeterRegistry> meterRegistryObjectProvider = null)
+  {
     this.dataSourceProxyConfigurationPropertiesObjectProvider = dataSourceProxyConfigurationPropertiesObjectProvider
+    this.meterRegistryObjectProvider = meterRegistryObjectProvider
   }
 
   @SuppressWarnings("CodeNarc.Instanceof")
@@ -79,11 +90,16 @@ class DataSourceProxyBeanPostProcessor implements BeanPostProcessor {
 
       ProxyFactory aopProxyFactory = new ProxyFactory(bean)
       aopProxyFactory.proxyTargetClass = true
-      aopProxyFactory.addAdvice(new DataSourceProxyInterceptor(beanName, bean, dataSourceProxyConfigurationProperties))
+      aopProxyFactory.addAdvice(new DataSourceProxyInterceptor(beanName, bean, dataSourceProxyConfigurationProperties, resolveMeterRegistry()))
 
       return aopProxyFactory.proxy
     }
 
     return bean
   }
+
+  protected MeterRegistry resolveMeterRegistry() {
+    MeterRegistry meterRegistry = meterRegistryObjectProvider?.getIfAvailable()
+    return meterRegistry ?: Metrics.globalRegistry
+  }
 }
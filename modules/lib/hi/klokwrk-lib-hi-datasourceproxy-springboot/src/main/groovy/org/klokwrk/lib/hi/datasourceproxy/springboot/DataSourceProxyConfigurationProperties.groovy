@@ -19,6 +19,9 @@ package org.klokwrk.lib.hi.datasourceproxy.springboot
 
 import groovy.transform.CompileStatic
 import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel
+import org.klokwrk.lib.lo.datasourceproxy.CombinedPatternMatcher
+import org.klokwrk.lib.lo.datasourceproxy.QueryProfilingListener
+import org.klokwrk.lib.lo.datasourceproxy.SqlFingerprinter
 import org.springframework.boot.context.properties.ConfigurationProperties
 
 import java.time.Duration
@@ -73,6 +76,13 @@ class DataSourceProxyConfigurationProperties {
      * Do note that filtered out entries are still logged if query logger's log level is configured to <code>TRACE</code>.
      */
     List<String> filteringOutRegularExpressionList = []
+
+    /**
+     * The maximum number of cached filtering decisions per distinct query string.
+     * <p/>
+     * Default value is <code>1024</code>. When set to <code>0</code>, decisions are not cached.
+     */
+    Integer filteringOutDecisionCacheMaxSize = CombinedPatternMatcher.DECISION_CACHE_MAX_SIZE_DEFAULT
   }
 
   @SuppressWarnings("unused")
@@ -100,4 +110,56 @@ class DataSourceProxyConfigurationProperties {
      */
     Duration threshold = Duration.ofMillis(1000)
   }
+
+  @SuppressWarnings("unused")
+  QueryProfiler queryProfiler = new QueryProfiler()
+
+  class QueryProfiler {
+    /**
+     * By default query profiler is enabled. Set to <code>false</code> to disable it.
+     */
+    boolean enabled = true
+
+    /**
+     * The name of query profiler logger as it will be seen in the log. The logger reports slow queries and N+1 patterns at <code>WARN</code> level.
+     * <p/>
+     * Default value is <code>'klokwrk.datasourceproxy.queryProfiler'</code>.
+     */
+    String name = QueryProfilingListener.LOGGER_NAME_DEFAULT
+
+    /**
+     * Duration that represents a threshold after which completed query is reported as slow query.
+     * <p/>
+     * Default value is 500 millis.
+     */
+    Duration slowQueryThreshold = QueryProfilingListener.SLOW_QUERY_THRESHOLD_DEFAULT
+
+    /**
+     * The number of executions of the same select statement fingerprint over the same connection after which N+1 pattern is reported.
+     * <p/>
+     * Default value is <code>10</code>. When set to <code>0</code>, N+1 detection is turned off.
+     */
+    Integer repeatedQueryThreshold = QueryProfilingListener.REPEATED_QUERY_THRESHOLD_DEFAULT
+
+    /**
+     * The maximum number of distinct fingerprints for which meters are maintained. All further fingerprints are recorded under the <code>other</code> fingerprint.
+     * <p/>
+     * Default value is <code>500</code>.
+     */
+    Integer maxFingerprintCount = QueryProfilingListener.MAX_FINGERPRINT_COUNT_DEFAULT
+
+    /**
+     * The maximum number of cached fingerprints per distinct query string.
+     * <p/>
+     * Default value is <code>2048</code>.
+     */
+    Integer fingerprintCacheMaxSize = SqlFingerprinter.CACHE_MAX_SIZE_DEFAULT
+
+    /**
+     * Whether query timers publish percentile histograms.
+     * <p/>
+     * Default value is <code>true</code>.
+     */
+    boolean publishPercentileHistogram = true
+  }
 }
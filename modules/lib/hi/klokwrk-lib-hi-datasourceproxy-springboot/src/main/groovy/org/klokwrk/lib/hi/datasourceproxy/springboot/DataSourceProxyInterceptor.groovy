@@ -18,10 +18,14 @@
 package org.klokwrk.lib.hi.datasourceproxy.springboot
 
 import groovy.transform.CompileStatic
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Metrics
 import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder
 import org.aopalliance.intercept.MethodInterceptor
 import org.aopalliance.intercept.MethodInvocation
+import org.klokwrk.lib.lo.datasourceproxy.QueryProfilingListener
 import org.klokwrk.lib.lo.datasourceproxy.Slf4jFilterableQueryLoggingListener
+import org.slf4j.LoggerFactory
 import org.springframework.util.ReflectionUtils
 
 import javax.sql.DataSource
@@ -33,6 +37,9 @@ import java.util.concurrent.TimeUnit
  * <p/>
  * Some aspects of datasourceproxy features can be configured via {@link DataSourceProxyConfigurationProperties}.
  * <p/>
+ * When query profiler is enabled, meters of the <code>QueryProfilingListener</code> are registered in the supplied {@link MeterRegistry}. If meter registry is not supplied, Micrometer's global
+ * registry is used.
+ * <p/>
  * Integration with Spring Boot application is implemented via {@link DataSourceProxyBeanPostProcessor}
  *
  * @see DataSourceProxyConfigurationProperties
@@ -42,14 +49,18 @@ import java.util.concurrent.TimeUnit
 class DataSourceProxyInterceptor implements MethodInterceptor {
   DataSource dataSource
 
-  DataSourceProxyInterceptor(String originalDataSourceBeanName, DataSource dataSource, DataSourceProxyConfigurationProperties dataSourceProxyConfigurationProperties) {
-    Slf4jFilterableQueryLoggingListener slf4jFilterableQueryLoggingListener =
-        new Slf4jFilterableQueryLoggingListener(dataSourceProxyConfigurationProperties.queryLogger.filteringOutRegularExpressionList)
+  DataSourceProxyInterceptor(
+      String originalDataSourceBeanName, DataSource dataSource, DataSourceProxyConfigurationProperties dataSourceProxyConfigurationProperties,
+      MeterRegistry meterRegistry = Metrics.globalRegistry)
+  {
+    Slf4jFilterableQueryLoggingListener slf4jFilterableQueryLoggingListener = new Slf4jFilterableQueryLoggingListener(
+        dataSourceProxyConfigurationProperties.queryLogger.filteringOutRegularExpressionList, dataSourceProxyConfigurationProperties.queryLogger.filteringOutDecisionCacheMaxSize
+    )
 
     slf4jFilterableQueryLoggingListener.logLevel = dataSourceProxyConfigurationProperties.queryLogger.logLevel
     slf4jFilterableQueryLoggingListener.logger = dataSourceProxyConfigurationProperties.queryLogger.name
 
-    this.dataSource = ProxyDataSourceBuilder
+    ProxyDataSourceBuilder proxyDataSourceBuilder = ProxyDataSourceBuilder
         .create(dataSource)
         .name("${dataSourceProxyConfigurationProperties.dataSourceNamePrefix}${originalDataSourceBeanName}")
         .listener(slf4jFilterableQueryLoggingListener)
@@ -58,7 +69,24 @@ class DataSourceProxyInterceptor implements MethodInterceptor {
             dataSourceProxyConfigurationProperties.slowQueryLogger.logLevel,
             dataSourceProxyConfigurationProperties.slowQueryLogger.name
         )
-        .build()
+
+    if (dataSourceProxyConfigurationProperties.queryProfiler.enabled) {
+      proxyDataSourceBuilder.listener(makeQueryProfilingListener(dataSourceProxyConfigurationProperties.queryProfiler, meterRegistry))
+    }
+
+    this.dataSource = proxyDataSourceBuilder.build()
+  }
+
+  protected static QueryProfilingListener makeQueryProfilingListener(DataSourceProxyConfigurationProperties.QueryProfiler queryProfilerProperties, MeterRegistry meterRegistry) {
+    QueryProfilingListener queryProfilingListener = new QueryProfilingListener(
+        meterRegistry, queryProfilerProperties.maxFingerprintCount, queryProfilerProperties.fingerprintCacheMaxSize, queryProfilerProperties.publishPercentileHistogram
+    )
+
+    queryProfilingListener.logger = LoggerFactory.getLogger(queryProfilerProperties.name)
+    queryProfilingListener.slowQueryThreshold = queryProfilerProperties.slowQueryThreshold
+    queryProfilingListener.repeatedQueryThreshold = queryProfilerProperties.repeatedQueryThreshold
+
+    return queryProfilingListener
   }
 
   @Override
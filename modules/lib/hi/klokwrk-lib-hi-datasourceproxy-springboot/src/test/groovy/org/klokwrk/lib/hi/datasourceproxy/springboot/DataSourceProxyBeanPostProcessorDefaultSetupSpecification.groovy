@@ -21,7 +21,11 @@ import ch.qos.logback.classic.Level
 import ch.qos.logback.classic.Logger
 import ch.qos.logback.classic.spi.ILoggingEvent
 import ch.qos.logback.core.read.ListAppender
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import net.ttddyy.dsproxy.support.ProxyDataSource
+import org.klokwrk.lib.lo.datasourceproxy.SqlFingerprinter
 import org.slf4j.LoggerFactory
 import org.springframework.beans.factory.ObjectFactory
 import org.springframework.beans.factory.ObjectProvider
@@ -44,6 +48,9 @@ class DataSourceProxyBeanPostProcessorDefaultSetupSpecification extends Specific
   @Autowired
   JdbcTemplate jdbcTemplate
 
+  @Autowired
+  MeterRegistry meterRegistry
+
   private List configureLoggerAndListAppender(Level loggerLevel, Logger logger = LoggerFactory.getLogger("klokwrk.datasourceproxy.queryLogger") as Logger) {
     logger.level = loggerLevel
     ListAppender<ILoggingEvent> listAppender = new ListAppender<>()
@@ -155,4 +162,36 @@ class DataSourceProxyBeanPostProcessorDefaultSetupSpecification extends Specific
     cleanup:
     cleanupLogger(logger, listAppender)
   }
+
+  void "queryProfiler - should record query meters in application's meter registry"() {
+    when:
+    jdbcTemplate.query("select * from person where id = 1", new ColumnMapRowMapper())
+    jdbcTemplate.query("select * from person where id = 2", new ColumnMapRowMapper())
+
+    then:
+    Timer timer = meterRegistry.find("klokwrk.datasourceproxy.query").tags("query.fingerprint.id", SqlFingerprinter.fingerprintId("select * from person where id = ?"), "query.type", "select").timer()
+    timer != null
+    timer.count() == 2
+  }
+
+  void "queryProfiler - should not be enabled when configured so"() {
+    given:
+    ObjectProvider<DataSourceProxyConfigurationProperties> objectProvider = applicationContext.getBeanProvider(DataSourceProxyConfigurationProperties)
+    objectProvider.object.queryProfiler.enabled = false
+    MeterRegistry localMeterRegistry = new SimpleMeterRegistry()
+    ObjectProvider<MeterRegistry> meterRegistryObjectProvider = Stub(ObjectProvider) {
+      getIfAvailable() >> localMeterRegistry
+    }
+    DataSourceProxyBeanPostProcessor dataSourceProxyBeanPostProcessor = new DataSourceProxyBeanPostProcessor(objectProvider, meterRegistryObjectProvider)
+    DataSource plainDataSource = dataSourceProxyBeanPostProcessor.postProcessAfterInitialization(makePlainDataSource(), "plainDataSource") as DataSource
+
+    when:
+    new JdbcTemplate(plainDataSource).query("select 1", new ColumnMapRowMapper())
+
+    then:
+    localMeterRegistry.meters.isEmpty()
+
+    cleanup:
+    objectProvider.object.queryProfiler.enabled = true
+  }
 }
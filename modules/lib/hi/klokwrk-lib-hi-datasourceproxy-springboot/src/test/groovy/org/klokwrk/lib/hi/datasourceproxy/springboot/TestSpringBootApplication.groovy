@@ -17,6 +17,8 @@
  */
 package org.klokwrk.lib.hi.datasourceproxy.springboot
 
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.springframework.beans.factory.ObjectProvider
 import org.springframework.beans.factory.config.BeanPostProcessor
 import org.springframework.boot.SpringApplication
@@ -32,7 +34,14 @@ class TestSpringBootApplication {
   }
 
   @Bean
-  static BeanPostProcessor dataSourceProxyBeanPostProcessor(ObjectProvider<DataSourceProxyConfigurationProperties> dataSourceProxyConfigurationPropertiesObjectProvider) {
-    return new DataSourceProxyBeanPostProcessor(dataSourceProxyConfigurationPropertiesObjectProvider)
+  static BeanPostProcessor dataSourceProxyBeanPostProcessor(
+      ObjectProvider<DataSourceProxyConfigurationProperties> dataSourceProxyConfigurationPropertiesObjectProvider, ObjectProvider<MeterRegistry> meterRegistryObjectProvider)
+  {
+    return new DataSourceProxyBeanPostProcessor(dataSourceProxyConfigurationPropertiesObjectProvider, meterRegistryObjectProvider)
+  }
+
+  @Bean
+  MeterRegistry meterRegistry() {
+    return new SimpleMeterRegistry()
   }
 }
@@ -0,0 +1,223 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.hi.spring.context
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import groovy.transform.CompileStatic
+import groovy.transform.EqualsAndHashCode
+import groovy.transform.TupleConstructor
+import org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase
+import org.springframework.context.MessageSource
+
+import static org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase.requireTrueBase
+
+/**
+ * Resolves messages for message code lists created by {@link MessageSourceResolvableHelper} while caching resolution results by specification and locale.
+ * <p/>
+ * Without caching, each resolution creates a complete message code list (many string concatenations) and then probes the {@link MessageSource} code by code until the first match. When the same
+ * failure repeats (i.e. misbehaving client sending the same invalid request over and over again), all that work produces the same result every time.
+ * <p/>
+ * Therefore, for each combination of message code list kind, {@link MessageSourceResolvableSpecification}, locale and default message, the resolver remembers the winning message code. When there are
+ * no message parameters, the resolved message is also remembered, so that repeated resolutions do not touch the {@link MessageSource} at all. With message parameters, the message is formatted by
+ * {@link MessageSource} from the winning code only, which reuses {@link MessageSource}'s own cache of compiled {@link java.text.MessageFormat} instances. On a cache miss, the winning code is found
+ * first, and the message is formatted from it, so the message code list is probed only once.
+ * <p/>
+ * Caching assumes that messages of the underlying {@link MessageSource} do not change at runtime (which is the case for default Spring Boot setup). The cache is bounded by {@code cacheMaxSize}, and
+ * it evicts the least valuable entries when it gets full. With {@code cacheMaxSize} of zero, caching is disabled.
+ */
+@CompileStatic
+class CachingMessageSourceResolvableResolver {
+  static final Integer CACHE_MAX_SIZE_DEFAULT = 2048
+
+  private final MessageSource messageSource
+  private final Cache<ResolutionKey, Resolution> resolutionCache
+
+  CachingMessageSourceResolvableResolver(MessageSource messageSource, Integer cacheMaxSize = CACHE_MAX_SIZE_DEFAULT) {
+    requireTrueBase(messageSource != null, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: messageSource != null]")
+    requireTrueBase(cacheMaxSize != null && cacheMaxSize >= 0, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: cacheMaxSize != null && cacheMaxSize >= 0]")
+
+    this.messageSource = messageSource
+    this.resolutionCache = cacheMaxSize > 0 ? Caffeine.newBuilder().maximumSize(cacheMaxSize).build() : null
+  }
+
+  /**
+   * Resolves {@code metaData.violation.message} for {@code domain} failures.
+   *
+   * @see MessageSourceResolvableHelper#makeMessageCodeListForViolationMessageOfDomainFailure(MessageSourceResolvableSpecification)
+   */
+  String resolveViolationMessageOfDomainFailure(Locale locale, MessageSourceResolvableSpecification specification, List<String> messageParameters = []) {
+    return resolve(MessageCodeListKind.VIOLATION_MESSAGE_OF_DOMAIN_FAILURE, locale, specification, messageParameters, null)
+  }
+
+  /**
+   * Resolves {@code metaData.violation.message} for {@code infrastructure_web} failures.
+   *
+   * @see MessageSourceResolvableHelper#makeMessageCodeListForViolationMessageOfInfrastructureWebFailure(MessageSourceResolvableSpecification)
+   */
+  String resolveViolationMessageOfInfrastructureWebFailure(Locale locale, MessageSourceResolvableSpecification specification) {
+    return resolve(MessageCodeListKind.VIOLATION_MESSAGE_OF_INFRASTRUCTURE_WEB_FAILURE, locale, specification, [], null)
+  }
+
+  /**
+   * Resolves {@code metaData.violation.message} for {@code unknown} failures.
+   *
+   * @see MessageSourceResolvableHelper#makeMessageCodeListForViolationMessageOfUnknownFailure(MessageSourceResolvableSpecification)
+   */
+  String resolveViolationMessageOfUnknownFailure(Locale locale, MessageSourceResolvableSpecification specification) {
+    return resolve(MessageCodeListKind.VIOLATION_MESSAGE_OF_UNKNOWN_FAILURE, locale, specification, [], null)
+  }
+
+  /**
+   * Resolves {@code metaData.violation.message} for {@code validation} failures.
+   *
+   * @see MessageSourceResolvableHelper#makeMessageCodeListForViolationMessageOfValidationFailure(MessageSourceResolvableSpecification)
+   */
+  String resolveViolationMessageOfValidationFailure(Locale locale, MessageSourceResolvableSpecification specification) {
+    return resolve(MessageCodeListKind.VIOLATION_MESSAGE_OF_VALIDATION_FAILURE, locale, specification, [], null)
+  }
+
+  /**
+   * Resolves {@code metaData.violation.validationReport.constraintViolations[].message} for {@code validation} failures.
+   * <p/>
+   * The {@code resolvedDefaultMessage} is a message already resolved by the validation framework. It is returned when none of the message codes can be resolved.
+   *
+   * @see MessageSourceResolvableHelper#makeMessageCodeListForConstraintViolationMessageOfValidationFailure(MessageSourceResolvableSpecification, String)
+   */
+  String resolveConstraintViolationMessageOfValidationFailure(Locale locale, MessageSourceResolvableSpecification specification, String resolvedDefaultMessage) {
+    return resolve(MessageCodeListKind.CONSTRAINT_VIOLATION_MESSAGE_OF_VALIDATION_FAILURE, locale, specification, [], resolvedDefaultMessage)
+  }
+
+  /**
+   * Removes all cached resolutions. Useful when messages of the underlying {@link MessageSource} are changed at runtime.
+   */
+  void clearCache() {
+    resolutionCache?.invalidateAll()
+  }
+
+  protected String resolve(
+      MessageCodeListKind messageCodeListKind, Locale locale, MessageSourceResolvableSpecification specification, List<String> messageParameters, String defaultMessage)
+  {
+    Resolution cachedResolution = resolutionCache?.getIfPresent(new ResolutionKey(messageCodeListKind, locale, specification, defaultMessage))
+    if (cachedResolution != null) {
+      return resolveFromResolution(cachedResolution, locale, messageParameters)
+    }
+
+    List<String> messageCodeList = makeMessageCodeList(messageCodeListKind, specification, defaultMessage)
+    String winningMessageCode = findWinningMessageCode(messageCodeList, locale)
+    String message = resolveFromResolution(new Resolution(winningMessageCode, messageCodeList, defaultMessage, null), locale, messageParameters)
+
+    if (resolutionCache != null) {
+      // NOTE: specification is copied since the caller is free to change it afterward
+      ResolutionKey resolutionKey = new ResolutionKey(messageCodeListKind, locale, copySpecification(specification), defaultMessage)
+      resolutionCache.put(resolutionKey, new Resolution(winningMessageCode, messageCodeList, defaultMessage, messageParameters ? null : message))
+    }
+
+    return message
+  }
+
+  /**
+   * Resolves the message from the winning message code of the resolution, or from the message remembered by the resolution when there are no message parameters.
+   */
+  protected String resolveFromResolution(Resolution resolution, Locale locale, List<String> messageParameters) {
+    if (!messageParameters && resolution.message != null) {
+      return resolution.message
+    }
+
+    if (resolution.winningMessageCode != null) {
+      return messageSource.getMessage(resolution.winningMessageCode, messageParameters.toArray(), locale)
+    }
+
+    // NOTE: none of the codes can be resolved, so we let the MessageSource render the default message (or fail) in the same way as without caching.
+    return MessageSourceResolvableHelper.resolveMessageCodeList(locale, messageSource, resolution.messageCodeList, messageParameters, resolution.defaultMessage)
+  }
+
+  /**
+   * Finds the first message code that can be resolved without a default message, or {@code null} if there is no such code.
+   */
+  protected String findWinningMessageCode(List<String> messageCodeList, Locale locale) {
+    String winningMessageCode = messageCodeList.find({ String messageCode -> messageSource.getMessage(messageCode, null, null, locale) != null })
+    return winningMessageCode
+  }
+
+  protected static List<String> makeMessageCodeList(MessageCodeListKind messageCodeListKind, MessageSourceResolvableSpecification specification, String defaultMessage) {
+    List<String> messageCodeList
+    switch (messageCodeListKind) {
+      case MessageCodeListKind.VIOLATION_MESSAGE_OF_DOMAIN_FAILURE:
+        messageCodeList = MessageSourceResolvableHelper.makeMessageCodeListForViolationMessageOfDomainFailure(specification)
+        break
+      case MessageCodeListKind.VIOLATION_MESSAGE_OF_INFRASTRUCTURE_WEB_FAILURE:
+        messageCodeList = MessageSourceResolvableHelper.makeMessageCodeListForViolationMessageOfInfrastructureWebFailure(specification)
+        break
+      case MessageCodeListKind.VIOLATION_MESSAGE_OF_UNKNOWN_FAILURE:
+        messageCodeList = MessageSourceResolvableHelper.makeMessageCodeListForViolationMessageOfUnknownFailure(specification)
+        break
+      case MessageCodeListKind.VIOLATION_MESSAGE_OF_VALIDATION_FAILURE:
+        messageCodeList = MessageSourceResolvableHelper.makeMessageCodeListForViolationMessageOfValidationFailure(specification)
+        break
+      default:
+        messageCodeList = MessageSourceResolvableHelper.makeMessageCodeListForConstraintViolationMessageOfValidationFailure(specification, defaultMessage)
+        break
+    }
+
+    return messageCodeList
+  }
+
+  protected static MessageSourceResolvableSpecification copySpecification(MessageSourceResolvableSpecification specification) {
+    MessageSourceResolvableSpecification specificationCopy = new MessageSourceResolvableSpecification(
+        controllerSimpleName: specification.controllerSimpleName,
+        controllerMethodName: specification.controllerMethodName,
+        messageCategory: specification.messageCategory,
+        messageType: specification.messageType,
+        messageSubType: specification.messageSubType,
+        messageSubTypeDetails: specification.messageSubTypeDetails,
+        severity: specification.severity,
+        constraintViolationPropertyPath: specification.constraintViolationPropertyPath,
+        constraintViolationType: specification.constraintViolationType
+    )
+
+    return specificationCopy
+  }
+
+  protected static enum MessageCodeListKind {
+    VIOLATION_MESSAGE_OF_DOMAIN_FAILURE,
+    VIOLATION_MESSAGE_OF_INFRASTRUCTURE_WEB_FAILURE,
+    VIOLATION_MESSAGE_OF_UNKNOWN_FAILURE,
+    VIOLATION_MESSAGE_OF_VALIDATION_FAILURE,
+    CONSTRAINT_VIOLATION_MESSAGE_OF_VALIDATION_FAILURE
+  }
+
+  @EqualsAndHashCode
+  @TupleConstructor
+  @CompileStatic
+  protected static class ResolutionKey {
+    final MessageCodeListKind messageCodeListKind
+    final Locale locale
+    final MessageSourceResolvableSpecification specification
+    final String defaultMessage
+  }
+
+  @TupleConstructor
+  @CompileStatic
+  protected static class Resolution {
+    final String winningMessageCode
+    final List<String> messageCodeList
+    final String defaultMessage
+    final String message
+  }
+}
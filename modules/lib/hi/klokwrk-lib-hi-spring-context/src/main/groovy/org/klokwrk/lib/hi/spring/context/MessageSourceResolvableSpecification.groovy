@@ -18,6 +18,7 @@
 package org.klokwrk.lib.hi.spring.context
 
 import groovy.transform.CompileStatic
+import groovy.transform.EqualsAndHashCode
 
 /**
  * Data structure (a record) that defines the specification for creating message codes suitable for resolving messages against resource bundle.
@@ -26,7 +27,10 @@ import groovy.transform.CompileStatic
  * specialized to localize parts of JSON responses whose structure is defined by {@code ResponseFormatting*} interceptors from {@code org.klokwrk.cargotracking.lib.web.spring.mvc} package.
  * <p/>
  * Be aware that actual implementations of message resolvers can choose to ignore any property from this specification.
+ * <p/>
+ * Specification has value-based equality, which allows using it as a part of a cache key (see {@code org.klokwrk.lib.hi.spring.context.CachingMessageSourceResolvableResolver}).
  */
+@EqualsAndHashCode
 @CompileStatic
 class MessageSourceResolvableSpecification {
   /**
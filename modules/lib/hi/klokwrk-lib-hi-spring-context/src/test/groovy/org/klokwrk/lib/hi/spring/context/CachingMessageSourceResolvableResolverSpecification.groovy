@@ -0,0 +1,174 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.hi.spring.context
+
+import org.springframework.context.NoSuchMessageException
+import org.springframework.context.support.StaticMessageSource
+import spock.lang.Specification
+
+class CachingMessageSourceResolvableResolverSpecification extends Specification {
+  StaticMessageSource messageSource
+  MessageSourceResolvableSpecification domainFailureSpecification
+
+  void setup() {
+    messageSource = new StaticMessageSource()
+    domainFailureSpecification = new MessageSourceResolvableSpecification(
+        controllerSimpleName: "testController",
+        controllerMethodName: "testControllerMethod",
+        messageCategory: "failure",
+        messageType: "domain",
+        messageSubType: "notFound",
+        severity: "warning"
+    )
+  }
+
+  void "should resolve the same message as non-caching resolution"() {
+    given:
+    messageSource.addMessage("default.failure.domain.notFound", Locale.ENGLISH, "Not found.")
+    CachingMessageSourceResolvableResolver resolver = new CachingMessageSourceResolvableResolver(messageSource)
+
+    when:
+    String message = resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification)
+
+    then:
+    message == "Not found."
+    message == MessageSourceResolvableHelper.resolveMessageCodeList(
+        Locale.ENGLISH, messageSource, MessageSourceResolvableHelper.makeMessageCodeListForViolationMessageOfDomainFailure(domainFailureSpecification)
+    )
+  }
+
+  void "should return cached message for repeated resolution with equal specification"() {
+    given:
+    messageSource.addMessage("default.failure.domain.notFound", Locale.ENGLISH, "Not found.")
+    CachingMessageSourceResolvableResolver resolver = new CachingMessageSourceResolvableResolver(messageSource)
+    resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification)
+
+    messageSource.addMessage("testController.testControllerMethod.failure.domain.notFound", Locale.ENGLISH, "Specific not found.")
+
+    MessageSourceResolvableSpecification equalSpecification = new MessageSourceResolvableSpecification(
+        controllerSimpleName: "testController",
+        controllerMethodName: "testControllerMethod",
+        messageCategory: "failure",
+        messageType: "domain",
+        messageSubType: "notFound",
+        severity: "warning"
+    )
+
+    when:
+    String message = resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, equalSpecification)
+
+    then:
+    message == "Not found."
+  }
+
+  void "should not be affected by changes of specification after resolution"() {
+    given:
+    messageSource.addMessage("default.failure.domain.notFound", Locale.ENGLISH, "Not found.")
+    messageSource.addMessage("default.failure.domain.badRequest", Locale.ENGLISH, "Bad request.")
+    CachingMessageSourceResolvableResolver resolver = new CachingMessageSourceResolvableResolver(messageSource)
+    resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification)
+
+    when:
+    domainFailureSpecification.messageSubType = "badRequest"
+    String message = resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification)
+
+    then:
+    message == "Bad request."
+  }
+
+  void "should resolve fresh message after clearing the cache"() {
+    given:
+    messageSource.addMessage("default.failure.domain.notFound", Locale.ENGLISH, "Not found.")
+    CachingMessageSourceResolvableResolver resolver = new CachingMessageSourceResolvableResolver(messageSource)
+    resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification)
+
+    messageSource.addMessage("testController.testControllerMethod.failure.domain.notFound", Locale.ENGLISH, "Specific not found.")
+
+    when:
+    resolver.clearCache()
+    String message = resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification)
+
+    then:
+    message == "Specific not found."
+  }
+
+  void "should not cache when cacheMaxSize is zero"() {
+    given:
+    messageSource.addMessage("default.failure.domain.notFound", Locale.ENGLISH, "Not found.")
+    CachingMessageSourceResolvableResolver resolver = new CachingMessageSourceResolvableResolver(messageSource, 0)
+    resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification)
+
+    messageSource.addMessage("testController.testControllerMethod.failure.domain.notFound", Locale.ENGLISH, "Specific not found.")
+
+    when:
+    String message = resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification)
+
+    then:
+    message == "Specific not found."
+  }
+
+  void "should format message parameters for each resolution"() {
+    given:
+    messageSource.addMessage("default.failure.domain.notFound", Locale.ENGLISH, "Item {0} not found.")
+    CachingMessageSourceResolvableResolver resolver = new CachingMessageSourceResolvableResolver(messageSource)
+
+    when:
+    String firstMessage = resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification, ["first"])
+    String secondMessage = resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification, ["second"])
+
+    then:
+    firstMessage == "Item first not found."
+    secondMessage == "Item second not found."
+  }
+
+  void "should return default message of constraint violation when none of message codes can be resolved"() {
+    given:
+    MessageSourceResolvableSpecification constraintViolationSpecification = new MessageSourceResolvableSpecification(
+        controllerSimpleName: "testController",
+        controllerMethodName: "testControllerMethod",
+        messageCategory: "failure",
+        messageType: "validation",
+        messageSubType: "testRequest",
+        severity: "warning",
+        constraintViolationPropertyPath: "someProperty",
+        constraintViolationType: "notNull"
+    )
+    CachingMessageSourceResolvableResolver resolver = new CachingMessageSourceResolvableResolver(messageSource)
+
+    when:
+    String firstMessage = resolver.resolveConstraintViolationMessageOfValidationFailure(Locale.ENGLISH, constraintViolationSpecification, "must not be null")
+    String secondMessage = resolver.resolveConstraintViolationMessageOfValidationFailure(Locale.ENGLISH, constraintViolationSpecification, "must not be null")
+    String otherMessage = resolver.resolveConstraintViolationMessageOfValidationFailure(Locale.ENGLISH, constraintViolationSpecification, "must be provided")
+
+    then:
+    firstMessage == "must not be null"
+    secondMessage == "must not be null"
+    otherMessage == "must be provided"
+  }
+
+  void "should fail when none of message codes can be resolved and there is no default message"() {
+    given:
+    CachingMessageSourceResolvableResolver resolver = new CachingMessageSourceResolvableResolver(messageSource)
+
+    when:
+    resolver.resolveViolationMessageOfDomainFailure(Locale.ENGLISH, domainFailureSpecification)
+
+    then:
+    thrown(NoSuchMessageException)
+  }
+}
@@ -56,4 +56,15 @@ class ValidationConfigurationProperties {
    * its subpackages.
    */
   String[] validatorImplementationPackages = ["org.klokwrk.lib.lo.validation.validator.."]
+
+  /**
+   * By default, validator implementations are registered from the static index generated at build time, and the classpath is scanned only for validator packages not covered by any index. Set to
+   * <code>false</code> to scan the classpath for all validator packages.
+   */
+  boolean validatorIndexEnabled = true
+
+  /**
+   * The list of classes for which Hibernate Validator metadata is built at startup. Typically, these are request classes validated by the application. By default, it is empty.
+   */
+  Class[] warmUpBeanClasses = []
 }
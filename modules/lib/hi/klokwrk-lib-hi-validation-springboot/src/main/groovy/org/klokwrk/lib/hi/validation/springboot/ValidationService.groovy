@@ -51,12 +51,23 @@ import jakarta.validation.Validator
   *   }
   * }
   * </pre>
+ * Validator implementations from {@code validatorImplementationPackagesToScan} are registered from the static index ({@link #CONSTRAINT_VALIDATOR_INDEX_RESOURCE_PATH}) generated at build time.
+ * Each index declares packages it completely covers ({@link #CONSTRAINT_VALIDATOR_INDEX_COVERED_PACKAGES_PROPERTY_NAME}). The classpath is scanned only for configured packages not covered by any
+ * index. When all configured packages are covered, the classpath is not scanned at all.
+ * <p/>
+ * After the validator is created, Hibernate Validator metadata is built for all configured {@code warmUpBeanClasses}. This way, the first validation of such classes does not pay the price of
+ * metadata building.
  */
 @CompileStatic
 class ValidationService implements InitializingBean {
+  static final String CONSTRAINT_VALIDATOR_INDEX_RESOURCE_PATH = "META-INF/klokwrk/constraint-validator-index.properties"
+  static final String CONSTRAINT_VALIDATOR_INDEX_COVERED_PACKAGES_PROPERTY_NAME = "klokwrk.constraint-validator-index.covered-packages"
+
   boolean enabled
   String[] messageSourceBaseNames
   String[] validatorImplementationPackagesToScan
+  boolean validatorIndexEnabled
+  Class[] warmUpBeanClasses
 
   Validator validator
 
@@ -64,6 +75,8 @@ class ValidationService implements InitializingBean {
     this.enabled = validationConfigurationProperties.enabled
     this.messageSourceBaseNames = validationConfigurationProperties.messageSourceBaseNames
     this.validatorImplementationPackagesToScan = validationConfigurationProperties.validatorImplementationPackages
+    this.validatorIndexEnabled = validationConfigurationProperties.validatorIndexEnabled
+    this.warmUpBeanClasses = validationConfigurationProperties.warmUpBeanClasses
   }
 
   @Override
@@ -79,6 +92,17 @@ class ValidationService implements InitializingBean {
     localValidatorFactoryBean.afterPropertiesSet()
 
     this.validator = localValidatorFactoryBean
+
+    warmUp(this.validator, this.warmUpBeanClasses)
+  }
+
+  /**
+   * Builds and caches Hibernate Validator metadata for provided classes.
+   */
+  protected void warmUp(Validator validator, Class[] warmUpBeanClasses) {
+    warmUpBeanClasses.each { Class warmUpBeanClass ->
+      validator.getConstraintsForClass(warmUpBeanClass)
+    }
   }
 
   protected MessageSource makeMessageSource(String[] messageSourceBaseNames) {
@@ -92,6 +116,91 @@ class ValidationService implements InitializingBean {
   protected Map<Class, Set<Class>> makeConstraintAnnotationToValidatorImplementationListMapping(String[] validatorImplementationPackagesToScan) {
     Map<Class, Set<Class>> constraintAnnotationToValidatorImplementationListMapping = [:]
 
+    String[] uncoveredValidatorImplementationPackages = validatorImplementationPackagesToScan
+    if (validatorIndexEnabled) {
+      Set<String> indexCoveredPackageSet = loadConstraintAnnotationToValidatorImplementationListMapping(validatorImplementationPackagesToScan, constraintAnnotationToValidatorImplementationListMapping)
+      uncoveredValidatorImplementationPackages = validatorImplementationPackagesToScan.findAll({ String packageToScan -> !isPackageCoveredByIndex(packageToScan, indexCoveredPackageSet) }) as String[]
+    }
+
+    if (uncoveredValidatorImplementationPackages.length > 0) {
+      scanConstraintAnnotationToValidatorImplementationListMapping(uncoveredValidatorImplementationPackages, constraintAnnotationToValidatorImplementationListMapping)
+    }
+
+    return constraintAnnotationToValidatorImplementationListMapping
+  }
+
+  /**
+   * Populates the mapping from all constraint validator indexes found on the classpath.
+   * <p/>
+   * Only validators belonging to one of the {@code validatorImplementationPackagesToScan} (or their subpackages) are registered.
+   *
+   * @return packages declared as covered (via {@link #CONSTRAINT_VALIDATOR_INDEX_COVERED_PACKAGES_PROPERTY_NAME}) by any of the found indexes.
+   */
+  protected Set<String> loadConstraintAnnotationToValidatorImplementationListMapping(
+      String[] validatorImplementationPackagesToScan, Map<Class, Set<Class>> constraintAnnotationToValidatorImplementationListMapping)
+  {
+    Set<String> indexCoveredPackageSet = [] as Set
+    ClassLoader classLoader = Thread.currentThread().contextClassLoader ?: ValidationService.classLoader
+
+    Collections.list(classLoader.getResources(CONSTRAINT_VALIDATOR_INDEX_RESOURCE_PATH)).each { URL constraintValidatorIndexUrl ->
+      Properties constraintValidatorIndex = new Properties()
+      constraintValidatorIndexUrl.withInputStream { InputStream inputStream -> constraintValidatorIndex.load(inputStream) }
+
+      indexCoveredPackageSet.addAll(constraintValidatorIndex.getProperty(CONSTRAINT_VALIDATOR_INDEX_COVERED_PACKAGES_PROPERTY_NAME, "").tokenize(",")*.trim())
+
+      constraintValidatorIndex.stringPropertyNames().each { String validatorClassName ->
+        if (validatorClassName == CONSTRAINT_VALIDATOR_INDEX_COVERED_PACKAGES_PROPERTY_NAME) {
+          return
+        }
+
+        String matchingPackageToScan = validatorImplementationPackagesToScan.find({ String packageToScan -> isClassInPackage(validatorClassName, packageToScan) })
+        if (matchingPackageToScan == null) {
+          return
+        }
+
+        Class validatorClass = Class.forName(validatorClassName, false, classLoader)
+        Class constraintAnnotationClass = Class.forName(constraintValidatorIndex.getProperty(validatorClassName), false, classLoader)
+
+        Set<Class> validatorImplementationList = constraintAnnotationToValidatorImplementationListMapping.get(constraintAnnotationClass, [] as Set)
+        validatorImplementationList.add(validatorClass)
+      }
+    }
+
+    return indexCoveredPackageSet
+  }
+
+  /**
+   * Returns {@code true} if the package to scan is equal to, or is a subpackage of, any of the packages covered by indexes. Package can be specified in ClassGraph format with trailing dots (i.e.
+   * {@code org.example..}), while packages with wildcards are never covered.
+   */
+  protected static boolean isPackageCoveredByIndex(String packageToScan, Set<String> indexCoveredPackageSet) {
+    if (packageToScan.contains("*")) {
+      return false
+    }
+
+    String packageName = packageToScan.replaceAll(/\.+$/, "")
+    return indexCoveredPackageSet.any({ String indexCoveredPackage -> packageName == indexCoveredPackage || packageName.startsWith(indexCoveredPackage + ".") })
+  }
+
+  /**
+   * Returns {@code true} if the class belongs to the package or any of its subpackages. Package can be specified in ClassGraph format with trailing dots (i.e. {@code org.example..}), while
+   * packages with wildcards are never matched.
+   */
+  protected static boolean isClassInPackage(String className, String packageToScan) {
+    if (packageToScan.contains("*")) {
+      return false
+    }
+
+    String packagePrefix = packageToScan.replaceAll(/\.+$/, "") + "."
+    return className.startsWith(packagePrefix)
+  }
+
+  /**
+   * Populates the mapping by scanning the classpath for validator implementations in {@code validatorImplementationPackagesToScan}.
+   */
+  protected void scanConstraintAnnotationToValidatorImplementationListMapping(
+      String[] validatorImplementationPackagesToScan, Map<Class, Set<Class>> constraintAnnotationToValidatorImplementationListMapping)
+  {
     ClassGraph validatorImplementationClassGraph = new ClassGraph()
         .enableClassInfo()
         .acceptPackages(validatorImplementationPackagesToScan)
@@ -112,8 +221,6 @@ class ValidationService implements InitializingBean {
         validatorImplementationList.add(validatorClass)
       }
     }
-
-    return constraintAnnotationToValidatorImplementationListMapping
   }
 
   /**
@@ -0,0 +1,36 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.hi.validation.springboot
+
+import groovy.transform.CompileStatic
+import org.springframework.aot.hint.RuntimeHints
+import org.springframework.aot.hint.RuntimeHintsRegistrar
+
+/**
+ * Registers GraalVM native image hints required by {@link ValidationService}.
+ * <p/>
+ * Without them, constraint validator indexes ({@link ValidationService#CONSTRAINT_VALIDATOR_INDEX_RESOURCE_PATH}) are not included in the native image. {@link ValidationService} then does not find
+ * any validators covered by indexes, and falls back to scanning the classpath for all configured validator packages. Registrar is picked up by Spring AOT processing via {@code META-INF/spring/aot.factories}.
+ */
+@CompileStatic
+class ValidationServiceRuntimeHints implements RuntimeHintsRegistrar {
+  @Override
+  void registerHints(RuntimeHints runtimeHints, ClassLoader classLoader) {
+    runtimeHints.resources().registerPattern(ValidationService.CONSTRAINT_VALIDATOR_INDEX_RESOURCE_PATH)
+  }
+}
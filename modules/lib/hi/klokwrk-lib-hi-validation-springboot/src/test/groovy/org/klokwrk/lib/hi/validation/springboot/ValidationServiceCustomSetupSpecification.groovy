@@ -28,6 +28,7 @@ import org.springframework.test.context.support.DefaultBootstrapContext
 import spock.lang.Specification
 import spock.util.environment.RestoreSystemProperties
 
+import jakarta.validation.ConstraintViolationException
 import jakarta.validation.constraints.NotNull
 import jakarta.validation.constraints.Size
 
@@ -69,6 +70,40 @@ class ValidationServiceCustomSetupSpecification extends Specification {
     applicationContext.getBean("validationService").enabled == false
   }
 
+  @RestoreSystemProperties
+  void "should scan for validators when validator index is disabled"() {
+    given:
+    System.setProperty("klokwrk.validation.validator-index-enabled", "false")
+    ApplicationContext applicationContext = makeNewTestApplicationContext()
+    ValidationService validationService = applicationContext.getBean("validationService")
+
+    TestObject invalidTestObject = new TestObject(stringProperty: "bla ")
+
+    when:
+    validationService.validate(invalidTestObject)
+
+    then:
+    !validationService.validatorIndexEnabled
+    thrown(ConstraintViolationException)
+  }
+
+  @RestoreSystemProperties
+  void "should warm up configured bean classes"() {
+    given:
+    System.setProperty("klokwrk.validation.warm-up-bean-classes", TestObject.name)
+    ApplicationContext applicationContext = makeNewTestApplicationContext()
+    ValidationService validationService = applicationContext.getBean("validationService")
+
+    TestObject invalidTestObject = new TestObject(stringProperty: "bla ")
+
+    when:
+    validationService.validate(invalidTestObject)
+
+    then:
+    validationService.warmUpBeanClasses == [TestObject] as Class[]
+    thrown(ConstraintViolationException)
+  }
+
   @RestoreSystemProperties
   void "should not throw for valid object when disabled"() {
     given:
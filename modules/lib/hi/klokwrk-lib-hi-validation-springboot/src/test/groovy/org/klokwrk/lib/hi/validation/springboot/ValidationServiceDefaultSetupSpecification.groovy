@@ -49,6 +49,93 @@ class ValidationServiceDefaultSetupSpecification extends Specification {
     validationService.enabled
     validationService.messageSourceBaseNames == ["klokwrkValidationConstraintMessages"] as String[]
     validationService.validatorImplementationPackagesToScan == ["org.klokwrk.lib.lo.validation.validator.."] as String[]
+    validationService.validatorIndexEnabled
+    validationService.warmUpBeanClasses == [] as Class[]
+  }
+
+  void "constraint validator index should cover default validator package"() {
+    given:
+    String[] validatorImplementationPackages = ["org.klokwrk.lib.lo.validation.validator.."] as String[]
+    Map<Class, Set<Class>> indexMapping = [:]
+    Map<Class, Set<Class>> scanningMapping = [:]
+
+    when:
+    Set<String> indexCoveredPackageSet = validationService.loadConstraintAnnotationToValidatorImplementationListMapping(validatorImplementationPackages, indexMapping)
+    validationService.scanConstraintAnnotationToValidatorImplementationListMapping(validatorImplementationPackages, scanningMapping)
+
+    then:
+    indexCoveredPackageSet == ["org.klokwrk.lib.lo.validation.validator"] as Set
+    indexMapping.get(TrimmedStringConstraint)*.simpleName == ["TrimmedStringConstraintValidator"]
+    indexMapping == scanningMapping
+  }
+
+  void "combined index and scanning mapping should be the same as full scanning mapping"() {
+    given:
+    String[] validatorImplementationPackages = ["org.klokwrk.lib.lo.validation.validator..", "org.klokwrk.lib.hi.validation.springboot.."] as String[]
+    Map<Class, Set<Class>> scanningMapping = [:]
+
+    when:
+    Map<Class, Set<Class>> combinedMapping = validationService.makeConstraintAnnotationToValidatorImplementationListMapping(validatorImplementationPackages)
+    validationService.scanConstraintAnnotationToValidatorImplementationListMapping(validatorImplementationPackages, scanningMapping)
+
+    then:
+    combinedMapping == scanningMapping
+  }
+
+  void "should not scan the classpath when index covers all validator packages"() {
+    given:
+    ValidationService spiedValidationService = Spy(ValidationService, constructorArgs: [new ValidationConfigurationProperties()])
+
+    when:
+    spiedValidationService.afterPropertiesSet()
+
+    then:
+    0 * spiedValidationService.scanConstraintAnnotationToValidatorImplementationListMapping(_, _)
+
+    and:
+    spiedValidationService.validator.getConstraintsForClass(TestObject)
+        .getConstraintsForProperty("stringProperty")
+        .constraintDescriptors*.annotation*.annotationType()
+        .contains(TrimmedStringConstraint)
+  }
+
+  void "should scan the classpath only for validator packages not covered by index"() {
+    given:
+    ValidationService spiedValidationService = Spy(ValidationService, constructorArgs: [new ValidationConfigurationProperties()])
+    String[] validatorImplementationPackages = ["org.klokwrk.lib.lo.validation.validator..", "org.klokwrk.lib.hi.validation.springboot.."] as String[]
+
+    when:
+    spiedValidationService.makeConstraintAnnotationToValidatorImplementationListMapping(validatorImplementationPackages)
+
+    then:
+    1 * spiedValidationService.scanConstraintAnnotationToValidatorImplementationListMapping(["org.klokwrk.lib.hi.validation.springboot.."] as String[], _)
+  }
+
+  void "isPackageCoveredByIndex() should work as expected"() {
+    expect:
+    ValidationService.isPackageCoveredByIndex(packageToScanParam, ["org.example"] as Set) == resultExpected
+
+    where:
+    packageToScanParam  | resultExpected
+    "org.example"       | true
+    "org.example.."     | true
+    "org.example.sub.." | true
+    "org"               | false
+    "org.examples"      | false
+    "org.example.*"     | false
+  }
+
+  void "isClassInPackage() should work as expected"() {
+    expect:
+    ValidationService.isClassInPackage(classNameParam, packageToScanParam) == resultExpected
+
+    where:
+    classNameParam       | packageToScanParam | resultExpected
+    "org.example.A"      | "org.example"      | true
+    "org.example.A"      | "org.example.."    | true
+    "org.example.sub.A"  | "org.example.."    | true
+    "org.examples.A"     | "org.example"      | false
+    "org.example.A"      | "org.*"            | false
   }
 
   void "should not throw for valid object"() {
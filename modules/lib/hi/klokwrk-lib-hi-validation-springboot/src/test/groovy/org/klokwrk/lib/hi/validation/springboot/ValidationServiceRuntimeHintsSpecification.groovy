@@ -0,0 +1,48 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.hi.validation.springboot
+
+import org.springframework.aot.hint.RuntimeHints
+import org.springframework.aot.hint.RuntimeHintsRegistrar
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates
+import spock.lang.Specification
+
+class ValidationServiceRuntimeHintsSpecification extends Specification {
+  void "should register constraint validator index resource"() {
+    given:
+    RuntimeHints runtimeHints = new RuntimeHints()
+
+    when:
+    new ValidationServiceRuntimeHints().registerHints(runtimeHints, getClass().classLoader)
+
+    then:
+    RuntimeHintsPredicates.resource().forResource(ValidationService.CONSTRAINT_VALIDATOR_INDEX_RESOURCE_PATH).test(runtimeHints)
+  }
+
+  void "should be registered in aot.factories"() {
+    when:
+    List<String> registrarClassNameList = Collections.list(getClass().classLoader.getResources("META-INF/spring/aot.factories")).collectMany({ URL aotFactoriesUrl ->
+      Properties aotFactories = new Properties()
+      aotFactoriesUrl.withInputStream({ InputStream inputStream -> aotFactories.load(inputStream) })
+      return aotFactories.getProperty(RuntimeHintsRegistrar.name, "").tokenize(",")*.trim()
+    })
+
+    then:
+    registrarClassNameList.contains(ValidationServiceRuntimeHints.name)
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.lo.datasourceproxy
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import groovy.transform.CompileStatic
+import org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase
+
+import java.util.function.Function
+import java.util.regex.Pattern
+
+import static org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase.requireTrueBase
+
+/**
+ * Matches input strings against a list of regular expression patterns by using a single combined pattern and a bounded cache of already made decisions.
+ * <p/>
+ * Instead of running each pattern in turn against the input, all patterns are combined into a single alternation (<code>(?:p1)|(?:p2)|...</code>) which is then searched for with
+ * {@link java.util.regex.Matcher#find()}. This is semantically equivalent to searching each pattern separately and stopping at the first match. Do note that numbered back-references are not
+ * supported in combined patterns since combining shifts group numbers.
+ * <p/>
+ * Since matched inputs are usually SQL strings of prepared statements, the same input strings repeat all the time. Therefore, decisions are cached by input string. The cache is bounded by
+ * <code>decisionCacheMaxSize</code>, where Caffeine evicts rarely used entries when the cache gets full. Cache of size <code>0</code> turns off caching.
+ */
+@CompileStatic
+class CombinedPatternMatcher {
+  static final Integer DECISION_CACHE_MAX_SIZE_DEFAULT = 1024
+
+  private final Pattern combinedPattern
+  private final Cache<String, Boolean> decisionCache
+  private final Function<String, Boolean> decisionFunction = { String input -> combinedPattern.matcher(input).find() } as Function<String, Boolean>
+
+  CombinedPatternMatcher(List<Pattern> patternList, Integer decisionCacheMaxSize = DECISION_CACHE_MAX_SIZE_DEFAULT) {
+    requireTrueBase(patternList != null, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: patternList != null]")
+    requireTrueBase(decisionCacheMaxSize != null && decisionCacheMaxSize >= 0, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: decisionCacheMaxSize != null && decisionCacheMaxSize >= 0]")
+
+    this.combinedPattern = patternList.isEmpty() ? null : Pattern.compile(patternList.collect({ Pattern pattern -> "(?:${ pattern.pattern() })".toString() }).join("|"))
+    this.decisionCache = decisionCacheMaxSize > 0 ? Caffeine.newBuilder().maximumSize(decisionCacheMaxSize).build() : null
+  }
+
+  /**
+   * Returns <code>true</code> if any of configured patterns can be found in the input string.
+   */
+  boolean matches(String input) {
+    if (combinedPattern == null || input == null) {
+      return false
+    }
+
+    if (decisionCache == null) {
+      return decisionFunction.apply(input)
+    }
+
+    return decisionCache.get(input, decisionFunction)
+  }
+}
@@ -0,0 +1,296 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.lo.datasourceproxy
+
+import groovy.transform.CompileStatic
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.DistributionSummary
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import net.ttddyy.dsproxy.ExecutionInfo
+import net.ttddyy.dsproxy.QueryInfo
+import net.ttddyy.dsproxy.listener.QueryExecutionListener
+import org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+import static org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase.requireTrueBase
+
+/**
+ * DataSourceProxy's {@link QueryExecutionListener} that profiles executed queries with low overhead.
+ * <p/>
+ * Each executed query is normalized into a fingerprint with {@link SqlFingerprinter}. Per fingerprint, the following Micrometer meters are maintained:
+ * <ul>
+ * <li>{@code klokwrk.datasourceproxy.query} timer - latency histogram of query executions</li>
+ * <li>{@code klokwrk.datasourceproxy.query.rows} distribution summary - the number of rows affected by insert, update, and delete statements (including batches)</li>
+ * <li>{@code klokwrk.datasourceproxy.query.n-plus-one} counter - the number of detected N+1 patterns</li>
+ * </ul>
+ * All meters are tagged with {@code query.fingerprint.id} and {@code query.type} (the first keyword of the statement). Fingerprint id is a short hash of the fingerprint (see
+ * {@link SqlFingerprinter#fingerprintId(String)}), since full SQL statements do not belong in metric tags. The mapping between fingerprint id and the fingerprint is logged at <code>INFO</code> level
+ * when meters of a fingerprint are registered. To keep the number of meters bounded, after <code>maxFingerprintCount</code> distinct fingerprints are seen, all further fingerprints are recorded
+ * under the {@code other} fingerprint id tag. Row counts of select statements are not recorded as that would require proxying
+ * of result sets and intercepting each row fetch.
+ * <p/>
+ * Besides recording meters, the listener logs (at <code>WARN</code> level):
+ * <ul>
+ * <li>
+ *   queries executed longer than <code>slowQueryThreshold</code>. In contrast to the DataSourceProxy's slow query listener, which logs queries that are still running, here the query is logged after
+ *   completion, together with its fingerprint id, fingerprint and elapsed time. A batch is evaluated and logged once, with its elapsed time, its size, and distinct fingerprint ids and
+ *   fingerprints of its queries.
+ * </li>
+ * <li>
+ *   N+1 patterns, which are detected when the same select fingerprint is executed <code>repeatedQueryThreshold</code> times over the same connection. As a connection is typically held for the whole
+ *   transaction, this corresponds to a single web request or a single event (batch) handling. Each pattern is reported only once per connection.
+ * </li>
+ * </ul>
+ */
+@CompileStatic
+class QueryProfilingListener implements QueryExecutionListener {
+  static final String QUERY_TIMER_NAME = "klokwrk.datasourceproxy.query"
+  static final String QUERY_ROWS_SUMMARY_NAME = "klokwrk.datasourceproxy.query.rows"
+  static final String QUERY_N_PLUS_ONE_COUNTER_NAME = "klokwrk.datasourceproxy.query.n-plus-one"
+
+  static final String TAG_QUERY_FINGERPRINT_ID = "query.fingerprint.id"
+  static final String TAG_QUERY_TYPE = "query.type"
+  static final String FINGERPRINT_OTHER = "other"
+  static final String QUERY_TYPE_SELECT = "select"
+  static final String QUERY_TYPE_OTHER = "other"
+
+  static final String LOGGER_NAME_DEFAULT = "klokwrk.datasourceproxy.queryProfiler"
+  static final Integer MAX_FINGERPRINT_COUNT_DEFAULT = 500
+  static final Duration SLOW_QUERY_THRESHOLD_DEFAULT = Duration.ofMillis(500)
+  static final Integer REPEATED_QUERY_THRESHOLD_DEFAULT = 10
+
+  private static final Set<String> KNOWN_QUERY_TYPE_SET = ["select", "insert", "update", "delete", "merge", "with", "call"].toSet().asImmutable()
+
+  /**
+   * Logger used for reporting slow queries and N+1 patterns.
+   */
+  Logger logger = LoggerFactory.getLogger(LOGGER_NAME_DEFAULT)
+
+  /**
+   * Duration after which completed query is reported as a slow query. Set to <code>null</code> to turn off slow query reporting.
+   */
+  Duration slowQueryThreshold = SLOW_QUERY_THRESHOLD_DEFAULT
+
+  /**
+   * The number of executions of the same select fingerprint over the same connection after which N+1 pattern is reported. Set to <code>null</code> or <code>0</code> to turn off N+1 detection.
+   */
+  Integer repeatedQueryThreshold = REPEATED_QUERY_THRESHOLD_DEFAULT
+
+  private final MeterRegistry meterRegistry
+  private final SqlFingerprinter sqlFingerprinter
+  private final Integer maxFingerprintCount
+  private final boolean isPercentileHistogramPublished
+  private final ConcurrentHashMap<String, QueryMeters> queryMetersCache = new ConcurrentHashMap<>()
+  private final ThreadLocal<ConnectionQueryCounter> connectionQueryCounterThreadLocal = ThreadLocal.withInitial({ new ConnectionQueryCounter() })
+
+  QueryProfilingListener(
+      MeterRegistry meterRegistry, Integer maxFingerprintCount = MAX_FINGERPRINT_COUNT_DEFAULT, Integer fingerprintCacheMaxSize = SqlFingerprinter.CACHE_MAX_SIZE_DEFAULT,
+      Boolean isPercentileHistogramPublished = true)
+  {
+    requireTrueBase(meterRegistry != null, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: meterRegistry != null]")
+    requireTrueBase(maxFingerprintCount != null && maxFingerprintCount > 0, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: maxFingerprintCount != null && maxFingerprintCount > 0]")
+
+    this.meterRegistry = meterRegistry
+    this.sqlFingerprinter = new SqlFingerprinter(fingerprintCacheMaxSize)
+    this.maxFingerprintCount = maxFingerprintCount
+    this.isPercentileHistogramPublished = isPercentileHistogramPublished
+  }
+
+  @Override
+  void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    // nothing to do before query
+  }
+
+  @Override
+  void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    if (queryInfoList.isEmpty()) {
+      return
+    }
+
+    long elapsedTimeMillis = execInfo.elapsedTime
+    long elapsedTimePerQueryNanos = Math.floorDiv(TimeUnit.MILLISECONDS.toNanos(elapsedTimeMillis), (long) queryInfoList.size())
+    Long affectedRowCount = queryInfoList.size() == 1 ? resolveAffectedRowCount(execInfo.result) : null
+    boolean isSlowExecution = slowQueryThreshold != null && elapsedTimeMillis >= slowQueryThreshold.toMillis() && logger.isWarnEnabled()
+    Map<String, String> slowFingerprintIdToFingerprintMap = isSlowExecution ? new LinkedHashMap<String, String>() : null
+
+    for (QueryInfo queryInfo : queryInfoList) {
+      String fingerprint = sqlFingerprinter.fingerprint(queryInfo.query)
+      QueryMeters queryMeters = resolveQueryMeters(fingerprint)
+
+      queryMeters.timer.record(elapsedTimePerQueryNanos, TimeUnit.NANOSECONDS)
+      if (affectedRowCount != null) {
+        queryMeters.rowsSummary.record(affectedRowCount)
+      }
+
+      if (queryMeters.queryType == QUERY_TYPE_SELECT && repeatedQueryThreshold) {
+        detectRepeatedQuery(execInfo.connectionId, fingerprint, queryMeters)
+      }
+
+      slowFingerprintIdToFingerprintMap?.putIfAbsent(queryMeters.fingerprintId, fingerprint)
+    }
+
+    if (isSlowExecution) {
+      logSlowExecution(elapsedTimeMillis, queryInfoList, slowFingerprintIdToFingerprintMap)
+    }
+  }
+
+  /**
+   * Logs a slow execution once. A single query is logged together with its text, while a batch is logged with its size and distinct fingerprints of its queries.
+   * <p/>
+   * The elapsed time of a batch is measured for the whole batch, so it is not attributed to any particular query of the batch.
+   */
+  protected void logSlowExecution(long elapsedTimeMillis, List<QueryInfo> queryInfoList, Map<String, String> fingerprintIdToFingerprintMap) {
+    if (queryInfoList.size() == 1) {
+      Map.Entry<String, String> fingerprintEntry = fingerprintIdToFingerprintMap.entrySet().first()
+      logger.warn(
+          "Slow query detected [elapsedTimeMillis: {}, fingerprintId: {}, fingerprint: {}, query: {}]", elapsedTimeMillis, fingerprintEntry.key, fingerprintEntry.value, queryInfoList[0].query
+      )
+      return
+    }
+
+    logger.warn(
+        "Slow query batch detected [elapsedTimeMillis: {}, batchSize: {}, fingerprintIds: {}, fingerprints: {}]",
+        elapsedTimeMillis, queryInfoList.size(), fingerprintIdToFingerprintMap.keySet(), fingerprintIdToFingerprintMap.values()
+    )
+  }
+
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected static Long resolveAffectedRowCount(Object executionResult) {
+    if (executionResult instanceof Number) {
+      return (executionResult as Number).longValue()
+    }
+
+    if (executionResult instanceof int[]) {
+      long affectedRowCount = 0
+      for (int batchRowCount : (executionResult as int[])) {
+        affectedRowCount += Math.max(batchRowCount, 0)
+      }
+
+      return affectedRowCount
+    }
+
+    if (executionResult instanceof long[]) {
+      long affectedRowCount = 0
+      for (long batchRowCount : (executionResult as long[])) {
+        affectedRowCount += Math.max(batchRowCount, 0L)
+      }
+
+      return affectedRowCount
+    }
+
+    return null
+  }
+
+  protected QueryMeters resolveQueryMeters(String fingerprint) {
+    QueryMeters queryMeters = queryMetersCache.get(fingerprint)
+    if (queryMeters != null) {
+      return queryMeters
+    }
+
+    String effectiveFingerprint = queryMetersCache.size() < maxFingerprintCount ? fingerprint : FINGERPRINT_OTHER
+    queryMeters = queryMetersCache.computeIfAbsent(effectiveFingerprint, { String fingerprintKey -> createQueryMeters(fingerprintKey) })
+
+    return queryMeters
+  }
+
+  protected QueryMeters createQueryMeters(String fingerprint) {
+    String queryType = resolveQueryType(fingerprint)
+    String fingerprintId = fingerprint == FINGERPRINT_OTHER ? FINGERPRINT_OTHER : SqlFingerprinter.fingerprintId(fingerprint)
+    if (logger.isInfoEnabled()) {
+      logger.info("Registering query meters [fingerprintId: {}, fingerprint: {}]", fingerprintId, fingerprint)
+    }
+
+    Timer timer = Timer.builder(QUERY_TIMER_NAME)
+                       .description("Execution time of database queries")
+                       .tags(TAG_QUERY_FINGERPRINT_ID, fingerprintId, TAG_QUERY_TYPE, queryType)
+                       .publishPercentileHistogram(isPercentileHistogramPublished)
+                       .minimumExpectedValue(Duration.ofMillis(1))
+                       .maximumExpectedValue(Duration.ofSeconds(30))
+                       .register(meterRegistry)
+
+    DistributionSummary rowsSummary = DistributionSummary.builder(QUERY_ROWS_SUMMARY_NAME)
+                                                         .description("The number of rows affected by database queries")
+                                                         .tags(TAG_QUERY_FINGERPRINT_ID, fingerprintId, TAG_QUERY_TYPE, queryType)
+                                                         .register(meterRegistry)
+
+    Counter repeatedQueryCounter = Counter.builder(QUERY_N_PLUS_ONE_COUNTER_NAME)
+                                          .description("The number of detected N+1 query patterns")
+                                          .tags(TAG_QUERY_FINGERPRINT_ID, fingerprintId, TAG_QUERY_TYPE, queryType)
+                                          .register(meterRegistry)
+
+    return new QueryMeters(fingerprintId: fingerprintId, queryType: queryType, timer: timer, rowsSummary: rowsSummary, repeatedQueryCounter: repeatedQueryCounter)
+  }
+
+  protected static String resolveQueryType(String fingerprint) {
+    int firstSpaceIndex = fingerprint.indexOf(" ")
+    String firstKeyword = firstSpaceIndex > 0 ? fingerprint.substring(0, firstSpaceIndex) : fingerprint
+
+    return KNOWN_QUERY_TYPE_SET.contains(firstKeyword) ? firstKeyword : QUERY_TYPE_OTHER
+  }
+
+  protected void detectRepeatedQuery(String connectionId, String fingerprint, QueryMeters queryMeters) {
+    ConnectionQueryCounter connectionQueryCounter = connectionQueryCounterThreadLocal.get()
+    Integer executionCount = connectionQueryCounter.increment(connectionId, fingerprint)
+
+    if (executionCount == repeatedQueryThreshold) {
+      queryMeters.repeatedQueryCounter.increment()
+      if (logger.isWarnEnabled()) {
+        logger.warn(
+            "Possible N+1 query pattern detected [executionCount: {}, connectionId: {}, fingerprintId: {}, fingerprint: {}]", executionCount, connectionId, queryMeters.fingerprintId, fingerprint
+        )
+      }
+    }
+  }
+
+  /**
+   * Holds meters of a single fingerprint.
+   */
+  protected static class QueryMeters {
+    String fingerprintId
+    String queryType
+    Timer timer
+    DistributionSummary rowsSummary
+    Counter repeatedQueryCounter
+  }
+
+  /**
+   * Counts executions of select fingerprints over the current connection of a thread. Counts are reset whenever the thread starts using a different connection.
+   */
+  protected static class ConnectionQueryCounter {
+    String connectionId
+    Map<String, Integer> fingerprintExecutionCountMap = new HashMap<>()
+
+    Integer increment(String currentConnectionId, String fingerprint) {
+      if (!Objects.equals(connectionId, currentConnectionId)) {
+        connectionId = currentConnectionId
+        fingerprintExecutionCountMap.clear()
+      }
+
+      Integer executionCount = (fingerprintExecutionCountMap.get(fingerprint) ?: 0) + 1
+      fingerprintExecutionCountMap.put(fingerprint, executionCount)
+
+      return executionCount
+    }
+  }
+}
@@ -37,16 +37,22 @@ import static org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase.requireT
  * Filtering queries might be very useful when there is some kind of recurring queries happening, for example when we have some kind of database polling. One good example is Axon queryside projection
  * application, where projection is projecting into RDBMS database. In that scenario, Axon continually issues <code>update token_entry</code> statements for maintaining <code>token_entry</code> table.
  * Commonly we do not want to see these statements all the time and it is convenient to be able to filter them out.
+ * <p/>
+ * Filtering is implemented with {@link CombinedPatternMatcher}, so all patterns are evaluated in a single pass, and decisions for already seen query strings are cached.
  */
 @CompileStatic
 class Slf4jFilterableQueryLoggingListener extends SLF4JQueryLoggingListener {
-  List<Pattern> filteringOutPatternList
+  final List<Pattern> filteringOutPatternList
+  private final CombinedPatternMatcher filteringOutPatternMatcher
 
-  Slf4jFilterableQueryLoggingListener(List<String> filteringOutPatternStringList = []) {
+  Slf4jFilterableQueryLoggingListener(
+      List<String> filteringOutPatternStringList = [], Integer filteringOutDecisionCacheMaxSize = CombinedPatternMatcher.DECISION_CACHE_MAX_SIZE_DEFAULT)
+  {
     super()
     requireTrueBase(filteringOutPatternStringList != null, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: filteringOutPatternStringList != null]")
 
-    this.filteringOutPatternList = filteringOutPatternStringList.collect({ String patternString -> Pattern.compile(patternString) })
+    this.filteringOutPatternList = filteringOutPatternStringList.collect({ String patternString -> Pattern.compile(patternString) }).asImmutable()
+    this.filteringOutPatternMatcher = new CombinedPatternMatcher(filteringOutPatternList, filteringOutDecisionCacheMaxSize)
   }
 
   @Override
@@ -71,17 +77,7 @@ class Slf4jFilterableQueryLoggingListener extends SLF4JQueryLoggingListener {
    */
   protected List<QueryInfo> filterOutQueryInfoList(List<QueryInfo> originalQueryInfoList) {
     List<QueryInfo> filteredQueryInfoList = originalQueryInfoList.findAll({ QueryInfo queryInfo ->
-      String databaseQueryString = queryInfo.query
-
-      Boolean matches = filteringOutPatternList.find({ Pattern pattern ->
-        return pattern.matcher(databaseQueryString)
-      }) as Boolean
-
-      if (matches) {
-        return false
-      }
-
-      return true
+      return !filteringOutPatternMatcher.matches(queryInfo.query)
     })
 
     return filteredQueryInfoList
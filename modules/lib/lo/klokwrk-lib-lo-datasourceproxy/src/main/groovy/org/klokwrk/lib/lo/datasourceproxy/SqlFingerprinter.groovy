@@ -0,0 +1,175 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.lo.datasourceproxy
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import groovy.transform.CompileStatic
+import org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase
+
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+import java.util.function.Function
+import java.util.regex.Pattern
+
+import static org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase.requireTrueBase
+
+/**
+ * Normalizes SQL statements into fingerprints, where all statements that differ only in literal values, whitespaces, letter case, or the length of <code>in</code> lists have the same fingerprint.
+ * <p/>
+ * Normalization rules are:
+ * <ul>
+ * <li>string literals (<code>'...'</code>) and numeric literals are replaced with <code>?</code></li>
+ * <li>whitespace sequences are collapsed into a single space, and leading and trailing whitespaces are removed</li>
+ * <li>all characters outside of string literals are converted to lower case</li>
+ * <li>lists of placeholders like <code>(?, ?, ?)</code> are collapsed into <code>(?)</code></li>
+ * </ul>
+ * For example, both <code>SELECT * FROM person WHERE id IN (1, 2, 3) AND name = 'John'</code> and <code>select * from person where id in (?, ?) and name = ?</code> are normalized into
+ * <code>select * from person where id in (?) and name = ?</code>.
+ * <p/>
+ * Since the same SQL strings of prepared statements are executed over and over again, calculated fingerprints are cached by SQL string. The cache is bounded by <code>cacheMaxSize</code>, where
+ * Caffeine evicts rarely used entries when the cache gets full. Cache of size <code>0</code> turns off caching.
+ * <p/>
+ * As fingerprints can be arbitrarily long, they are not suitable as metric tag values. For that purpose, {@link #fingerprintId(String)} provides a short and stable identifier of a fingerprint.
+ */
+@CompileStatic
+class SqlFingerprinter {
+  static final Integer CACHE_MAX_SIZE_DEFAULT = 2048
+  static final Integer FINGERPRINT_ID_BYTE_COUNT = 6
+
+  private static final Pattern PLACEHOLDER_LIST_PATTERN = Pattern.compile(/\(\s*\?(?:\s*,\s*\?)+\s*\)/)
+  private static final char SINGLE_QUOTE = '\'' as char
+  private static final char PLACEHOLDER = '?' as char
+  private static final char SPACE = ' ' as char
+  private static final char DOT = '.' as char
+
+  private final Cache<String, String> fingerprintCache
+  private final Function<String, String> normalizeFunction = { String sql -> normalize(sql) } as Function<String, String>
+
+  SqlFingerprinter(Integer cacheMaxSize = CACHE_MAX_SIZE_DEFAULT) {
+    requireTrueBase(cacheMaxSize != null && cacheMaxSize >= 0, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: cacheMaxSize != null && cacheMaxSize >= 0]")
+
+    this.fingerprintCache = cacheMaxSize > 0 ? Caffeine.newBuilder().maximumSize(cacheMaxSize).build() : null
+  }
+
+  /**
+   * Returns the fingerprint of a SQL statement, either from the cache or freshly calculated.
+   */
+  String fingerprint(String sql) {
+    if (fingerprintCache == null) {
+      return normalize(sql)
+    }
+
+    return fingerprintCache.get(sql, normalizeFunction)
+  }
+
+  /**
+   * Returns a short identifier of a fingerprint, made of hex encoded leading bytes of fingerprint's SHA-256 hash.
+   * <p/>
+   * The identifier does not depend on the JVM instance, so the same fingerprint has the same identifier in all application instances and across restarts.
+   */
+  static String fingerprintId(String fingerprint) {
+    requireTrueBase(fingerprint != null, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: fingerprint != null]")
+
+    byte[] fingerprintHash = MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8))
+    return HexFormat.of().formatHex(fingerprintHash, 0, FINGERPRINT_ID_BYTE_COUNT)
+  }
+
+  /**
+   * Normalizes a SQL statement into its fingerprint in a single pass over its characters (plus collapsing of placeholder lists).
+   */
+  @SuppressWarnings(["CodeNarc.CyclomaticComplexity", "CodeNarc.MethodSize"])
+  static String normalize(String sql) {
+    requireTrueBase(sql != null, "$ContractsBase.REQUIRE_TRUE_MESSAGE_DEFAULT - [condition: sql != null]")
+
+    StringBuilder fingerprintBuilder = new StringBuilder(sql.length())
+    boolean isSpacePending = false
+    int length = sql.length()
+    int index = 0
+    while (index < length) {
+      char currentChar = sql.charAt(index)
+
+      if (Character.isWhitespace(currentChar)) {
+        isSpacePending = fingerprintBuilder.length() > 0
+        index++
+        continue
+      }
+
+      if (isSpacePending) {
+        fingerprintBuilder.append(SPACE)
+        isSpacePending = false
+      }
+
+      if (currentChar == SINGLE_QUOTE) {
+        index = skipStringLiteral(sql, index)
+        fingerprintBuilder.append(PLACEHOLDER)
+        continue
+      }
+
+      if (Character.isDigit(currentChar) && !isPrecededByIdentifierPart(fingerprintBuilder)) {
+        while (index < length && (Character.isDigit(sql.charAt(index)) || sql.charAt(index) == DOT)) {
+          index++
+        }
+
+        fingerprintBuilder.append(PLACEHOLDER)
+        continue
+      }
+
+      fingerprintBuilder.append(Character.toLowerCase(currentChar))
+      index++
+    }
+
+    String fingerprint = fingerprintBuilder.toString()
+    if (fingerprint.indexOf(", ?") >= 0 || fingerprint.indexOf(",?") >= 0) {
+      fingerprint = PLACEHOLDER_LIST_PATTERN.matcher(fingerprint).replaceAll("(?)")
+    }
+
+    return fingerprint
+  }
+
+  /**
+   * Returns the index of the first character after the string literal that starts at <code>startIndex</code>. Escaped quotes (<code>''</code>) are treated as a part of the literal.
+   */
+  private static int skipStringLiteral(String sql, int startIndex) {
+    int length = sql.length()
+    int index = startIndex + 1
+    while (index < length) {
+      if (sql.charAt(index) == SINGLE_QUOTE) {
+        if (index + 1 < length && sql.charAt(index + 1) == SINGLE_QUOTE) {
+          index += 2
+          continue
+        }
+
+        return index + 1
+      }
+
+      index++
+    }
+
+    return length
+  }
+
+  private static boolean isPrecededByIdentifierPart(StringBuilder fingerprintBuilder) {
+    if (fingerprintBuilder.length() == 0) {
+      return false
+    }
+
+    char previousChar = fingerprintBuilder.charAt(fingerprintBuilder.length() - 1)
+    return Character.isLetterOrDigit(previousChar) || previousChar == ('_' as char) || previousChar == ('$' as char)
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.lo.datasourceproxy
+
+import spock.lang.Specification
+
+import java.util.regex.Pattern
+
+class CombinedPatternMatcherSpecification extends Specification {
+  void "should fail for invalid constructor arguments"() {
+    when:
+    new CombinedPatternMatcher(patternListParam, decisionCacheMaxSizeParam)
+
+    then:
+    thrown(AssertionError)
+
+    where:
+    patternListParam | decisionCacheMaxSizeParam
+    null             | 10
+    []               | null
+    []               | -1
+  }
+
+  void "should not match anything for empty pattern list"() {
+    given:
+    CombinedPatternMatcher combinedPatternMatcher = new CombinedPatternMatcher([])
+
+    expect:
+    !combinedPatternMatcher.matches("select * from person")
+    !combinedPatternMatcher.matches(null)
+  }
+
+  void "should match when any of patterns can be found in the input"() {
+    given:
+    CombinedPatternMatcher combinedPatternMatcher = new CombinedPatternMatcher([Pattern.compile(/^update token_entry.*$/), Pattern.compile(/from association_value_entry/)])
+
+    expect:
+    combinedPatternMatcher.matches(inputParam) == matchesParam
+
+    where:
+    inputParam                                                          | matchesParam
+    "update token_entry set owner=? where processor_name=?"             | true
+    "select * from association_value_entry where association_key=?"    | true
+    "select * from person"                                              | false
+    "select * from person where name = 'update token_entry'"            | false
+  }
+
+  void "should keep semantics of individual patterns including their inline flags"() {
+    given:
+    CombinedPatternMatcher combinedPatternMatcher = new CombinedPatternMatcher([Pattern.compile(/(?i)^UPDATE token_entry.*$/), Pattern.compile(/^SELECT.*$/)])
+
+    expect:
+    combinedPatternMatcher.matches("update token_entry set owner=?")
+    combinedPatternMatcher.matches("SELECT * FROM person")
+    !combinedPatternMatcher.matches("select * from person")
+  }
+
+  void "should return the same decision for cached and non-cached inputs"() {
+    given:
+    CombinedPatternMatcher cachingMatcher = new CombinedPatternMatcher([Pattern.compile(/^update token_entry.*$/)], 2)
+    CombinedPatternMatcher nonCachingMatcher = new CombinedPatternMatcher([Pattern.compile(/^update token_entry.*$/)], 0)
+    List<String> inputList = ["update token_entry set owner=?", "select * from person", "select * from other", "update token_entry set owner=?", "select * from person"]
+
+    expect:
+    inputList.collect({ String input -> cachingMatcher.matches(input) }) == [true, false, false, true, false]
+    inputList.collect({ String input -> nonCachingMatcher.matches(input) }) == [true, false, false, true, false]
+  }
+}
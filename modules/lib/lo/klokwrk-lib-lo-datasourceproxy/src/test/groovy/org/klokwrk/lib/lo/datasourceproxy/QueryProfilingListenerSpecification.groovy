@@ -0,0 +1,219 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.lo.datasourceproxy
+
+import ch.qos.logback.classic.Level
+import ch.qos.logback.classic.Logger
+import ch.qos.logback.classic.spi.ILoggingEvent
+import ch.qos.logback.core.read.ListAppender
+import io.micrometer.core.instrument.DistributionSummary
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import net.ttddyy.dsproxy.ExecutionInfo
+import net.ttddyy.dsproxy.QueryInfo
+import org.slf4j.LoggerFactory
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.TimeUnit
+
+class QueryProfilingListenerSpecification extends Specification {
+  MeterRegistry meterRegistry
+  Logger logger
+  ListAppender<ILoggingEvent> listAppender
+
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry()
+
+    logger = LoggerFactory.getLogger(QueryProfilingListener.LOGGER_NAME_DEFAULT) as Logger
+    logger.level = Level.WARN
+    listAppender = new ListAppender<>()
+    listAppender.start()
+    logger.addAppender(listAppender)
+  }
+
+  void cleanup() {
+    logger.detachAppender(listAppender)
+    meterRegistry.close()
+  }
+
+  private static ExecutionInfo makeExecutionInfo(long elapsedTimeMillis, Object result = null, String connectionId = "1") {
+    ExecutionInfo executionInfo = new ExecutionInfo()
+    executionInfo.elapsedTime = elapsedTimeMillis
+    executionInfo.result = result
+    executionInfo.connectionId = connectionId
+
+    return executionInfo
+  }
+
+  void "should fail for invalid constructor arguments"() {
+    when:
+    new QueryProfilingListener(meterRegistryParam, maxFingerprintCountParam)
+
+    then:
+    thrown(AssertionError)
+
+    where:
+    meterRegistryParam        | maxFingerprintCountParam
+    null                      | 10
+    new SimpleMeterRegistry() | null
+    new SimpleMeterRegistry() | 0
+  }
+
+  void "should record timer per fingerprint"() {
+    given:
+    QueryProfilingListener listener = new QueryProfilingListener(meterRegistry)
+
+    when:
+    listener.afterQuery(makeExecutionInfo(10), [new QueryInfo("select * from person where id = 1")])
+    listener.afterQuery(makeExecutionInfo(20), [new QueryInfo("SELECT * FROM person WHERE id = 2")])
+    listener.afterQuery(makeExecutionInfo(30), [new QueryInfo("delete from person where id = 3")])
+
+    then:
+    Timer selectTimer = meterRegistry.find(QueryProfilingListener.QUERY_TIMER_NAME).tags("query.fingerprint.id", SqlFingerprinter.fingerprintId("select * from person where id = ?"), "query.type", "select").timer()
+    selectTimer.count() == 2
+    selectTimer.totalTime(TimeUnit.MILLISECONDS) == 30
+
+    Timer deleteTimer = meterRegistry.find(QueryProfilingListener.QUERY_TIMER_NAME).tags("query.fingerprint.id", SqlFingerprinter.fingerprintId("delete from person where id = ?"), "query.type", "delete").timer()
+    deleteTimer.count() == 1
+  }
+
+  void "should not record anything for empty query info list"() {
+    given:
+    QueryProfilingListener listener = new QueryProfilingListener(meterRegistry)
+
+    when:
+    listener.afterQuery(makeExecutionInfo(10), [])
+
+    then:
+    meterRegistry.meters.isEmpty()
+  }
+
+  void "should record affected row counts"() {
+    given:
+    QueryProfilingListener listener = new QueryProfilingListener(meterRegistry)
+
+    when:
+    listener.afterQuery(makeExecutionInfo(1, 3), [new QueryInfo("update person set name = ? where lastName = ?")])
+    listener.afterQuery(makeExecutionInfo(1, [1, 1, -2] as int[]), [new QueryInfo("update person set name = ? where lastName = ?")])
+    listener.afterQuery(makeExecutionInfo(1, true), [new QueryInfo("update person set name = ? where lastName = ?")])
+
+    then:
+    DistributionSummary rowsSummary = meterRegistry.find(QueryProfilingListener.QUERY_ROWS_SUMMARY_NAME).tags("query.type", "update").summary()
+    rowsSummary.count() == 2
+    rowsSummary.totalAmount() == 5
+  }
+
+  void "should record further fingerprints as other after max fingerprint count is reached"() {
+    given:
+    QueryProfilingListener listener = new QueryProfilingListener(meterRegistry, 2)
+
+    when:
+    listener.afterQuery(makeExecutionInfo(1), [new QueryInfo("select * from first")])
+    listener.afterQuery(makeExecutionInfo(1), [new QueryInfo("select * from second")])
+    listener.afterQuery(makeExecutionInfo(1), [new QueryInfo("select * from third")])
+    listener.afterQuery(makeExecutionInfo(1), [new QueryInfo("select * from first")])
+
+    then:
+    meterRegistry.find(QueryProfilingListener.QUERY_TIMER_NAME).timers().size() == 3
+    meterRegistry.find(QueryProfilingListener.QUERY_TIMER_NAME).tags("query.fingerprint.id", SqlFingerprinter.fingerprintId("select * from first")).timer().count() == 2
+    meterRegistry.find(QueryProfilingListener.QUERY_TIMER_NAME).tags("query.fingerprint.id", "other", "query.type", "other").timer().count() == 1
+  }
+
+  void "should log slow queries"() {
+    given:
+    QueryProfilingListener listener = new QueryProfilingListener(meterRegistry)
+    listener.slowQueryThreshold = Duration.ofMillis(100)
+
+    when:
+    listener.afterQuery(makeExecutionInfo(99), [new QueryInfo("select * from person where id = 1")])
+    listener.afterQuery(makeExecutionInfo(100), [new QueryInfo("select * from person where id = 2")])
+
+    then:
+    listAppender.list.size() == 1
+    verifyAll(listAppender.list[0]) {
+      level == Level.WARN
+      formattedMessage == "Slow query detected [elapsedTimeMillis: 100, fingerprintId: ${ SqlFingerprinter.fingerprintId("select * from person where id = ?") }, " +
+                          "fingerprint: select * from person where id = ?, query: select * from person where id = 2]"
+    }
+  }
+
+  void "should log slow query batch only once"() {
+    given:
+    QueryProfilingListener listener = new QueryProfilingListener(meterRegistry)
+    listener.slowQueryThreshold = Duration.ofMillis(100)
+
+    String insertFingerprintId = SqlFingerprinter.fingerprintId("insert into person values (?)")
+    String deleteFingerprintId = SqlFingerprinter.fingerprintId("delete from person where id = ?")
+
+    when:
+    listener.afterQuery(
+        makeExecutionInfo(100, [1, 1, 1] as int[]),
+        [new QueryInfo("insert into person values (1)"), new QueryInfo("insert into person values (2)"), new QueryInfo("delete from person where id = 3")]
+    )
+
+    then:
+    listAppender.list.size() == 1
+    verifyAll(listAppender.list[0]) {
+      level == Level.WARN
+      formattedMessage == "Slow query batch detected [elapsedTimeMillis: 100, batchSize: 3, fingerprintIds: [${ insertFingerprintId }, ${ deleteFingerprintId }], " +
+                          "fingerprints: [insert into person values (?), delete from person where id = ?]]"
+    }
+  }
+
+  void "should report N+1 pattern once per connection"() {
+    given:
+    QueryProfilingListener listener = new QueryProfilingListener(meterRegistry)
+    listener.repeatedQueryThreshold = 3
+
+    when:
+    5.times({ Integer index -> listener.afterQuery(makeExecutionInfo(1, null, "1"), [new QueryInfo("select * from person where id = $index")]) })
+    2.times({ Integer index -> listener.afterQuery(makeExecutionInfo(1, null, "2"), [new QueryInfo("select * from person where id = $index")]) })
+    3.times({ Integer index -> listener.afterQuery(makeExecutionInfo(1, null, "3"), [new QueryInfo("select * from person where id = $index")]) })
+
+    then:
+    listAppender.list.size() == 2
+    verifyAll(listAppender.list[0]) {
+      level == Level.WARN
+      formattedMessage == "Possible N+1 query pattern detected [executionCount: 3, connectionId: 1, fingerprintId: ${ SqlFingerprinter.fingerprintId("select * from person where id = ?") }, " +
+                          "fingerprint: select * from person where id = ?]"
+    }
+    listAppender.list[1].formattedMessage.contains("connectionId: 3")
+
+    meterRegistry.find(QueryProfilingListener.QUERY_N_PLUS_ONE_COUNTER_NAME).tags("query.fingerprint.id", SqlFingerprinter.fingerprintId("select * from person where id = ?")).counter().count() == 2
+  }
+
+  void "should not report N+1 pattern for non-select statements or when turned off"() {
+    given:
+    QueryProfilingListener listener = new QueryProfilingListener(meterRegistry)
+    listener.repeatedQueryThreshold = repeatedQueryThresholdParam
+
+    when:
+    5.times({ Integer index -> listener.afterQuery(makeExecutionInfo(1), [new QueryInfo(queryParam)]) })
+
+    then:
+    listAppender.list.isEmpty()
+
+    where:
+    repeatedQueryThresholdParam | queryParam
+    3                           | "update person set name = ? where id = ?"
+    0                           | "select * from person where id = ?"
+    null                        | "select * from person where id = ?"
+  }
+}
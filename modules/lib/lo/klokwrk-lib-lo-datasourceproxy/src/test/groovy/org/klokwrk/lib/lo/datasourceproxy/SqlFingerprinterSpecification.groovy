@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.lo.datasourceproxy
+
+import spock.lang.Specification
+
+class SqlFingerprinterSpecification extends Specification {
+  void "should fail for invalid cache size"() {
+    when:
+    new SqlFingerprinter(-1)
+
+    then:
+    thrown(AssertionError)
+  }
+
+  void "normalize - should normalize SQL statements into expected fingerprints"() {
+    expect:
+    SqlFingerprinter.normalize(sqlParam) == fingerprintParam
+
+    where:
+    sqlParam                                                                     | fingerprintParam
+    ""                                                                           | ""
+    "select * from person"                                                       | "select * from person"
+    "  SELECT *\n  FROM   person\t"                                              | "select * from person"
+    "select * from person where id = 123"                                        | "select * from person where id = ?"
+    "select * from person where weight > 12.5"                                   | "select * from person where weight > ?"
+    "select * from person where name = 'John'"                                   | "select * from person where name = ?"
+    "select * from person where name = 'O''Brien' and lastName = 'Smith'"        | "select * from person where name = ? and lastname = ?"
+    "select * from person where name = 'unterminated"                            | "select * from person where name = ?"
+    "select * from person where id in (1, 2, 3)"                                 | "select * from person where id in (?)"
+    "select * from person where id in (?,?,?,?)"                                 | "select * from person where id in (?)"
+    "select * from person where id in (?)"                                       | "select * from person where id in (?)"
+    "select p1_0.id, p1_0.name from person p1_0 where p1_0.id = ?"               | "select p1_0.id, p1_0.name from person p1_0 where p1_0.id = ?"
+    "select * from table2 t where t.col_1 = 5"                                   | "select * from table2 t where t.col_1 = ?"
+    "insert into person (name, lastName) values ('pero', 'perić')"               | "insert into person (name, lastname) values (?)"
+  }
+
+  void "fingerprint - should return the same fingerprint for statements that differ only in literals"() {
+    given:
+    SqlFingerprinter sqlFingerprinter = new SqlFingerprinter()
+
+    expect:
+    sqlFingerprinter.fingerprint("select * from person where id = 1") == sqlFingerprinter.fingerprint("SELECT * FROM person WHERE id = 2")
+  }
+
+  void "fingerprint - should return the same fingerprint with and without cache"() {
+    given:
+    SqlFingerprinter cachingSqlFingerprinter = new SqlFingerprinter(1)
+    SqlFingerprinter nonCachingSqlFingerprinter = new SqlFingerprinter(0)
+    List<String> sqlList = ["select * from person where id = 1", "select * from other", "select * from person where id = 1"]
+
+    expect:
+    sqlList.collect({ String sql -> cachingSqlFingerprinter.fingerprint(sql) }) == sqlList.collect({ String sql -> nonCachingSqlFingerprinter.fingerprint(sql) })
+  }
+
+  void "fingerprintId - should return short and stable id of a fingerprint"() {
+    expect:
+    SqlFingerprinter.fingerprintId("select * from person where id = ?") ==~ /^[0-9a-f]{12}$/
+    SqlFingerprinter.fingerprintId("select * from person where id = ?") == SqlFingerprinter.fingerprintId(new SqlFingerprinter().fingerprint("SELECT * FROM person WHERE id = 1"))
+    SqlFingerprinter.fingerprintId("select * from person where id = ?") != SqlFingerprinter.fingerprintId("select * from other where id = ?")
+  }
+}
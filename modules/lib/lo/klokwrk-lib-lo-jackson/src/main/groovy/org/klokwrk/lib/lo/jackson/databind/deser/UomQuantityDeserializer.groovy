@@ -18,21 +18,24 @@
 package org.klokwrk.lib.lo.jackson.databind.deser
 
 import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.core.JsonToken
 import com.fasterxml.jackson.databind.BeanProperty
 import com.fasterxml.jackson.databind.DeserializationContext
+import com.fasterxml.jackson.databind.DeserializationFeature
 import com.fasterxml.jackson.databind.JavaType
 import com.fasterxml.jackson.databind.JsonDeserializer
 import com.fasterxml.jackson.databind.JsonMappingException
 import com.fasterxml.jackson.databind.JsonNode
 import com.fasterxml.jackson.databind.deser.ContextualDeserializer
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer
-import com.fasterxml.jackson.databind.node.NumericNode
-import com.fasterxml.jackson.databind.node.TextNode
+import com.fasterxml.jackson.databind.node.JsonNodeFactory
+import com.fasterxml.jackson.databind.node.ObjectNode
 import groovy.transform.CompileStatic
-import org.klokwrk.lib.lo.uom.format.KwrkSimpleUnitFormat
+import org.klokwrk.lib.lo.uom.format.KwrkUnitSymbolCache
 import tech.units.indriya.quantity.Quantities
 import tech.units.indriya.unit.UnitDimension
 
+import javax.measure.Dimension
 import javax.measure.Quantity
 import javax.measure.Unit
 import javax.measure.format.MeasurementParseException
@@ -61,64 +64,167 @@ import javax.measure.format.MeasurementParseException
  * <p/>
  * Any unsupported unit symbol will result in {@code MeasurementParseException} exception. Supported symbols and names are provided by the reference implementation of UOM JSR385
  * API (https://github.com/unitsofmeasurement/indriya).
+ * <p/>
+ * Quantity is read directly from the token stream without materializing an intermediate {@code JsonNode} tree. Parsed units are cached in {@link KwrkUnitSymbolCache}, while the dimension expected
+ * by a typed quantity property is resolved only once, when the contextual deserializer is created. The JSON tree is built only for error messages of invalid input.
  */
 @CompileStatic
 class UomQuantityDeserializer extends StdDeserializer<Quantity> implements ContextualDeserializer {
+  static final String VALUE_FIELD_NAME = "value"
+  static final String UNIT_SYMBOL_FIELD_NAME = "unitSymbol"
+
   private JavaType unitType
+  private Dimension unitTypeDimension
 
   UomQuantityDeserializer() {
     super(Quantity)
   }
 
+  protected UomQuantityDeserializer(JavaType unitType) {
+    super(Quantity)
+    this.unitType = unitType
+    this.unitTypeDimension = unitType == null ? null : UnitDimension.of(unitType.rawClass as Class<Quantity>)
+  }
+
   @Override
   JsonDeserializer<?> createContextual(DeserializationContext deserializationContext, BeanProperty property) throws JsonMappingException {
+    if (property == null) {
+      return this
+    }
+
     JavaType wrapperType = property.type
     JavaType unitType = wrapperType.containedType(0)
-    UomQuantityDeserializer deserializer = new UomQuantityDeserializer(unitType: unitType)
+    UomQuantityDeserializer deserializer = new UomQuantityDeserializer(unitType)
 
     return deserializer
   }
 
+  @SuppressWarnings("CodeNarc.AbcMetric")
   @Override
   Quantity deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) {
-    JsonNode quantityJsonNode = jsonParser.readValueAsTree() as JsonNode
+    String fieldName
+    if (jsonParser.isExpectedStartObjectToken()) {
+      fieldName = jsonParser.nextFieldName()
+    }
+    else if (jsonParser.hasToken(JsonToken.FIELD_NAME)) {
+      fieldName = jsonParser.currentName()
+    }
+    else {
+      throw new MeasurementParseException("Failed to parse Quantity from '${ deserializationContext.readTree(jsonParser) }'.")
+    }
+
+    Number value = null
+    JsonNode invalidValueJsonNode = null
+    String unitSymbol = null
+    JsonNode invalidUnitSymbolJsonNode = null
+    boolean isUnitSymbolFirst = false
+
+    while (fieldName != null) {
+      JsonToken fieldValueToken = jsonParser.nextToken()
+
+      if (fieldName == VALUE_FIELD_NAME) {
+        if (fieldValueToken == JsonToken.VALUE_NUMBER_INT || fieldValueToken == JsonToken.VALUE_NUMBER_FLOAT) {
+          value = readNumber(jsonParser, fieldValueToken, deserializationContext)
+          invalidValueJsonNode = null
+        }
+        else {
+          value = null
+          invalidValueJsonNode = deserializationContext.readTree(jsonParser)
+        }
+      }
+      else if (fieldName == UNIT_SYMBOL_FIELD_NAME) {
+        isUnitSymbolFirst = value == null && invalidValueJsonNode == null
+        if (fieldValueToken == JsonToken.VALUE_STRING) {
+          unitSymbol = jsonParser.text
+          invalidUnitSymbolJsonNode = null
+        }
+        else {
+          unitSymbol = null
+          invalidUnitSymbolJsonNode = deserializationContext.readTree(jsonParser)
+        }
+      }
+      else {
+        jsonParser.skipChildren()
+      }
+
+      fieldName = jsonParser.nextFieldName()
+    }
 
-    if (quantityJsonNode.isObject()) {
-      Quantity quantity = parseJsonNodeOfQuantity(quantityJsonNode)
-      return quantity
+    if (value == null || unitSymbol == null) {
+      String quantityJson = makeQuantityJson(deserializationContext.nodeFactory, isUnitSymbolFirst, value, invalidValueJsonNode, unitSymbol, invalidUnitSymbolJsonNode)
+      throw new MeasurementParseException("Failed to parse Quantity from '${ quantityJson }'.")
     }
 
-    throw new MeasurementParseException("Failed to parse Quantity from '${ quantityJsonNode }'.")
+    Unit unit
+    try {
+      unit = KwrkUnitSymbolCache.parse(unitSymbol)
+    }
+    catch (MeasurementParseException e) {
+      String quantityJson = makeQuantityJson(deserializationContext.nodeFactory, isUnitSymbolFirst, value, null, unitSymbol, null)
+      throw new MeasurementParseException("Failed to parse Quantity from '${ quantityJson }'. Cause message: ${ e.message }")
+    }
+
+    Quantity quantity = Quantities.getQuantity(value, unit)
+    return checkQuantityUnitJavaTypeMatching(quantity)
   }
 
-  protected Quantity parseJsonNodeOfQuantity(JsonNode quantityJsonNode) {
-    JsonNode valueJsonNode = quantityJsonNode.get("value")
-    JsonNode unitSymbolJsonNode = quantityJsonNode.get("unitSymbol")
+  protected Number readNumber(JsonParser jsonParser, JsonToken numberToken, DeserializationContext deserializationContext) {
+    if (numberToken == JsonToken.VALUE_NUMBER_FLOAT && deserializationContext.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)) {
+      return jsonParser.decimalValue
+    }
+
+    if (numberToken == JsonToken.VALUE_NUMBER_INT && deserializationContext.isEnabled(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS)) {
+      return jsonParser.bigIntegerValue
+    }
+
+    return jsonParser.numberValue
+  }
 
-    Boolean isTheTypeOfValueJsonNodeValid = valueJsonNode.isNumber()
-    Boolean isTheTypeOfUnitSymbolJsonNodeValid = unitSymbolJsonNode.isTextual()
+  /**
+   * Recreates compact JSON of the quantity for error messages. Only {@code value} and {@code unitSymbol} fields are included, in the order they were encountered.
+   */
+  @SuppressWarnings("CodeNarc.ParameterCount")
+  protected String makeQuantityJson(
+      JsonNodeFactory jsonNodeFactory, boolean isUnitSymbolFirst, Number value, JsonNode invalidValueJsonNode, String unitSymbol, JsonNode invalidUnitSymbolJsonNode)
+  {
+    JsonNode valueJsonNode = value == null ? invalidValueJsonNode : makeNumberJsonNode(jsonNodeFactory, value)
+    JsonNode unitSymbolJsonNode = unitSymbol == null ? invalidUnitSymbolJsonNode : jsonNodeFactory.textNode(unitSymbol)
+
+    ObjectNode quantityJsonNode = jsonNodeFactory.objectNode()
+    if (isUnitSymbolFirst && unitSymbolJsonNode != null) {
+      quantityJsonNode.set(UNIT_SYMBOL_FIELD_NAME, unitSymbolJsonNode)
+    }
 
-    if (isTheTypeOfValueJsonNodeValid && isTheTypeOfUnitSymbolJsonNodeValid) {
-      Quantity<? extends Quantity> quantityParsed
-      quantityParsed = parseQuantity(valueJsonNode as NumericNode, unitSymbolJsonNode as TextNode, quantityJsonNode)
+    if (valueJsonNode != null) {
+      quantityJsonNode.set(VALUE_FIELD_NAME, valueJsonNode)
+    }
 
-      return checkQuantityUnitJavaTypeMatching(quantityParsed)
+    if (!isUnitSymbolFirst && unitSymbolJsonNode != null) {
+      quantityJsonNode.set(UNIT_SYMBOL_FIELD_NAME, unitSymbolJsonNode)
     }
 
-    throw new MeasurementParseException("Failed to parse Quantity from '${ quantityJsonNode }'.")
+    return quantityJsonNode.toString()
   }
 
-  protected Quantity parseQuantity(NumericNode valueNumericJsonNode, TextNode unitSymbolTextJsonNode, JsonNode quantityJsonNode) {
-    Unit unit
-    try {
-      unit = KwrkSimpleUnitFormat.instance.parse(unitSymbolTextJsonNode.textValue().trim())
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected static JsonNode makeNumberJsonNode(JsonNodeFactory jsonNodeFactory, Number number) {
+    if (number instanceof Integer) {
+      return jsonNodeFactory.numberNode(number as Integer)
     }
-    catch (MeasurementParseException e) {
-      throw new MeasurementParseException("Failed to parse Quantity from '${ quantityJsonNode }'. Cause message: ${ e.message }")
+
+    if (number instanceof Long) {
+      return jsonNodeFactory.numberNode(number as Long)
+    }
+
+    if (number instanceof BigInteger) {
+      return jsonNodeFactory.numberNode(number as BigInteger)
+    }
+
+    if (number instanceof BigDecimal) {
+      return jsonNodeFactory.numberNode(number as BigDecimal)
     }
 
-    Quantity quantity = Quantities.getQuantity(valueNumericJsonNode.numberValue(), unit)
-    return quantity
+    return jsonNodeFactory.numberNode(number.doubleValue())
   }
 
   protected Quantity checkQuantityUnitJavaTypeMatching(Quantity quantityParsed) {
@@ -126,7 +232,7 @@ class UomQuantityDeserializer extends StdDeserializer<Quantity> implements Conte
       return quantityParsed
     }
 
-    if (quantityParsed.unit.dimension == UnitDimension.of(unitType.rawClass as Class<Quantity>)) {
+    if (quantityParsed.unit.dimension == unitTypeDimension) {
       return quantityParsed
     }
 
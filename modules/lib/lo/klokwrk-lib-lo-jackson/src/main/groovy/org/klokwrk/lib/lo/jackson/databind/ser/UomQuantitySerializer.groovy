@@ -21,11 +21,9 @@ import com.fasterxml.jackson.core.JsonGenerator
 import com.fasterxml.jackson.databind.SerializerProvider
 import com.fasterxml.jackson.databind.ser.std.StdSerializer
 import groovy.transform.CompileStatic
-import org.klokwrk.lib.lo.uom.format.KwrkSimpleUnitFormat
+import org.klokwrk.lib.lo.uom.format.KwrkUnitSymbolCache
 
 import javax.measure.Quantity
-import javax.measure.Unit
-import javax.measure.format.UnitFormat
 
 /**
  * Jackson serializer for Quantity from Units of Measurements (UOM) JSR385 API (https://github.com/unitsofmeasurement/unit-api).
@@ -67,6 +65,7 @@ import javax.measure.format.UnitFormat
  *   }
  * }
  * </pre>
+ * Unit symbols are taken from {@link KwrkUnitSymbolCache}, so they are not formatted again for every serialized quantity.
  */
 @CompileStatic
 class UomQuantitySerializer extends StdSerializer<Quantity> {
@@ -81,20 +80,31 @@ class UomQuantitySerializer extends StdSerializer<Quantity> {
 
   @Override
   void serialize(Quantity quantity, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
-    UnitFormat unitFormatter = KwrkSimpleUnitFormat.instance
+    jsonGenerator.writeStartObject()
 
-    Unit unitToSerialize = quantity.unit
-    Number valueToSerialize = quantity.value
+    jsonGenerator.writeFieldName("value")
+    writeValue(quantity.value, jsonGenerator)
 
-    jsonGenerator.with {
-      writeStartObject()
+    jsonGenerator.writeStringField("unitSymbol", KwrkUnitSymbolCache.format(quantity.unit))
 
-      writeFieldName("value")
-      writeNumber(valueToSerialize.toString())
+    jsonGenerator.writeEndObject()
+  }
 
-      writeStringField("unitSymbol", unitFormatter.format(unitToSerialize))
+  /**
+   * Writes integral values directly, without creating intermediate strings. All other values are written in their {@code toString()} representation.
+   */
+  @SuppressWarnings("CodeNarc.Instanceof")
+  protected void writeValue(Number valueToSerialize, JsonGenerator jsonGenerator) {
+    if (valueToSerialize instanceof Integer) {
+      jsonGenerator.writeNumber(valueToSerialize.intValue())
+      return
     }
 
-    jsonGenerator.writeEndObject()
+    if (valueToSerialize instanceof Long) {
+      jsonGenerator.writeNumber(valueToSerialize.longValue())
+      return
+    }
+
+    jsonGenerator.writeNumber(valueToSerialize.toString())
   }
 }
@@ -240,4 +240,61 @@ class UomQuantityDeserializerSpecification extends Specification {
     jsonMappingException.message.startsWith(/Failed to parse Quantity from '{"value":1234,"unitSymbol":"abc"}'./)
     jsonMappingException.cause instanceof MeasurementParseException
   }
+
+  void "should work for reordered and unknown fields"() {
+    given:
+    String stringToDeserialize = """
+      {
+        "name": "someName",
+        "weight": $weightParam
+      }
+      """
+
+    when:
+    MyBeanTypedQuantity deserializedMyBean = objectMapper.readValue(stringToDeserialize, MyBeanTypedQuantity)
+
+    then:
+    deserializedMyBean.name == "someName"
+    deserializedMyBean.weight == 1234.kg
+
+    where:
+    weightParam                                                        | _
+    '{"unitSymbol":"kg","value":1234}'                                 | _
+    '{"value":1234,"unknown":{"a":[1,2]},"unitSymbol":"kg"}'           | _
+    '{"unknown":"abc","unitSymbol":"kg","value":1234,"other":[1,[2]]}' | _
+  }
+
+  void "should work for root level quantity"() {
+    when:
+    Quantity quantity = objectMapper.readValue('{"value":1234,"unitSymbol":"kg"}', Quantity)
+
+    then:
+    quantity == 1234.kg
+  }
+
+  void "should throw with fields in original order for reordered json"() {
+    given:
+    String stringToDeserialize = """
+      {
+        "name": "someName",
+        "weight": $weightParam
+      }
+      """
+
+    when:
+    objectMapper.readValue(stringToDeserialize, MyBeanTypedQuantity)
+
+    then:
+    JsonMappingException jsonMappingException = thrown()
+    jsonMappingException.message.startsWith("Failed to parse Quantity from '$weightParam'.")
+    jsonMappingException.cause instanceof MeasurementParseException
+
+    where:
+    weightParam                         | _
+    '{"unitSymbol":"kg","value":null}'  | _
+    '{"unitSymbol":"abc","value":1234}' | _
+    '{"value":1234}'                    | _
+    '{"unitSymbol":"kg"}'               | _
+    '{}'                                | _
+  }
 }
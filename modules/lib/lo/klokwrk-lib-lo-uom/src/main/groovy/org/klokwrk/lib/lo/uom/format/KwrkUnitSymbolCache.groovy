@@ -0,0 +1,76 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.lo.uom.format
+
+import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.Caffeine
+import groovy.transform.CompileStatic
+
+import javax.measure.Unit
+import javax.measure.format.MeasurementParseException
+
+/**
+ * Bounded caches of parsed units and formatted unit symbols on top of {@link KwrkSimpleUnitFormat}.
+ * <p/>
+ * Intended for hot paths (i.e., JSON (de)serialization of quantities) where the same few unit symbols are parsed and formatted over and over again. Parsing with {@code KwrkSimpleUnitFormat}
+ * includes trimming and tokenizing of the symbol, while formatting always creates a new string.
+ * <p/>
+ * Parsed units are cached under trimmed unit symbols, and only after the symbol is parsed successfully. Therefore, whitespace variants and invalid symbols supplied by clients do not occupy cache
+ * entries. Both caches are bounded by {@link #CACHE_MAX_SIZE} and evict rarely used entries when full, so frequently used symbols stay cached.
+ */
+@CompileStatic
+class KwrkUnitSymbolCache {
+  static final Integer CACHE_MAX_SIZE = 512
+
+  private static final Cache<String, Unit> UNIT_BY_SYMBOL_CACHE = Caffeine.newBuilder().maximumSize(CACHE_MAX_SIZE).build()
+  private static final Cache<Unit, String> SYMBOL_BY_UNIT_CACHE = Caffeine.newBuilder().maximumSize(CACHE_MAX_SIZE).build()
+
+  /**
+   * Parses the unit symbol, ignoring leading and trailing whitespaces.
+   *
+   * @throws MeasurementParseException when unit symbol cannot be parsed
+   */
+  static Unit parse(String unitSymbol) {
+    String unitSymbolTrimmed = unitSymbol.trim()
+
+    Unit unit = UNIT_BY_SYMBOL_CACHE.getIfPresent(unitSymbolTrimmed)
+    if (unit != null) {
+      return unit
+    }
+
+    unit = KwrkSimpleUnitFormat.instance.parse(unitSymbolTrimmed)
+    UNIT_BY_SYMBOL_CACHE.put(unitSymbolTrimmed, unit)
+
+    return unit
+  }
+
+  /**
+   * Formats the unit into its symbol.
+   */
+  static String format(Unit unit) {
+    String unitSymbol = SYMBOL_BY_UNIT_CACHE.getIfPresent(unit)
+    if (unitSymbol != null) {
+      return unitSymbol
+    }
+
+    unitSymbol = KwrkSimpleUnitFormat.instance.format(unit)
+    SYMBOL_BY_UNIT_CACHE.put(unit, unitSymbol)
+
+    return unitSymbol
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.lo.uom.format
+
+import spock.lang.Specification
+import tech.units.indriya.unit.Units
+
+import javax.measure.Unit
+import javax.measure.format.MeasurementParseException
+
+import static javax.measure.MetricPrefix.KILO
+import static javax.measure.MetricPrefix.MILLI
+
+class KwrkUnitSymbolCacheSpecification extends Specification {
+  void "parse() should work as expected"() {
+    when:
+    Unit unit = KwrkUnitSymbolCache.parse(unitSymbolParam)
+
+    then:
+    unit == unitExpected
+    KwrkUnitSymbolCache.parse(unitSymbolParam).is(unit)
+
+    where:
+    unitSymbolParam | unitExpected
+    "kg"            | Units.KILOGRAM
+    " kg "          | Units.KILOGRAM
+    "m"             | Units.METRE
+    "°C"            | Units.CELSIUS
+    "m°C"           | Units.CELSIUS.prefix(MILLI)
+  }
+
+  void "parse() should cache units under trimmed unit symbols only"() {
+    when:
+    Unit unit = KwrkUnitSymbolCache.parse(unitSymbolParam)
+
+    then:
+    unit == Units.METRE
+    KwrkUnitSymbolCache.UNIT_BY_SYMBOL_CACHE.getIfPresent("m") == Units.METRE
+    KwrkUnitSymbolCache.UNIT_BY_SYMBOL_CACHE.getIfPresent(unitSymbolParam) == null
+
+    where:
+    unitSymbolParam | _
+    " m"            | _
+    "m  "           | _
+    "\tm\n"        | _
+  }
+
+  void "parse() should throw for unknown unit symbol and should not cache it"() {
+    when:
+    KwrkUnitSymbolCache.parse(" someUnknownUnit ")
+
+    then:
+    thrown(MeasurementParseException)
+    KwrkUnitSymbolCache.UNIT_BY_SYMBOL_CACHE.getIfPresent("someUnknownUnit") == null
+    KwrkUnitSymbolCache.UNIT_BY_SYMBOL_CACHE.getIfPresent(" someUnknownUnit ") == null
+  }
+
+  void "format() should work as expected"() {
+    when:
+    String unitSymbol = KwrkUnitSymbolCache.format(unitParam)
+
+    then:
+    unitSymbol == unitSymbolExpected
+    KwrkUnitSymbolCache.format(unitParam).is(unitSymbol)
+
+    where:
+    unitParam                   | unitSymbolExpected
+    Units.KILOGRAM              | "kg"
+    Units.METRE.prefix(KILO)    | "km"
+    Units.CELSIUS               | "°C"
+    Units.CELSIUS.prefix(MILLI) | "m°C"
+  }
+}
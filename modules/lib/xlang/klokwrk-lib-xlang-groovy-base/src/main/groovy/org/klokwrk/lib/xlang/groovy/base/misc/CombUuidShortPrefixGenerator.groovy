@@ -0,0 +1,167 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.xlang.groovy.base.misc
+
+import groovy.transform.CompileStatic
+import org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase
+
+import java.nio.ByteBuffer
+import java.security.SecureRandom
+import java.time.Clock
+
+/**
+ * Reusable and thread-safe generator of random (version 4, variant 2) COMB UUIDs with short prefix (https://github.com/f4b6a3/uuid-creator/wiki/2.3.-Short-Prefix-COMB).
+ * <p/>
+ * Generated UUIDs have the same layout as UUIDs created by uuid-creator's {@code ShortPrefixCombFactory}. The first 16 bits contain the current minute (modulo 2^16), while all remaining bits, except
+ * version and variant bits, are random. Therefore, generated UUIDs can be validated with {@link CombUuidShortPrefixUtils#checkIfCombShortPrefixIsBounded(java.util.UUID)}.
+ * <p/>
+ * Some implementation notes:
+ * <ul>
+ * <li>
+ *   Random bits are provided by a small fixed pool of thread-safe {@code SecureRandom} instances shared between all generators and selected by the id of the current thread. Pooled instances are
+ *   created and seeded only once. That way, generating a UUID does not pay for {@code SecureRandom} construction and seeding, even when each request runs on a new virtual thread, and concurrent
+ *   threads rarely contend on the same {@code SecureRandom} instance.
+ * </li>
+ * <li>
+ *   The prefix of the current minute is cached and recalculated only when the clock leaves the cached minute.
+ * </li>
+ * <li>
+ *   Bulk generation fetches random bytes for up to {@link #BULK_CHUNK_UUID_COUNT} UUIDs at once, and uses the same clock reading for all requested UUIDs. Fetching in chunks keeps the random
+ *   bytes buffer small and its size far from {@code int} overflow, regardless of the requested count.
+ * </li>
+ * </ul>
+ * Instances are cheap. Typically, a single instance per clock should be used. For the system UTC clock, the shared instance is available via {@link #getDefaultInstance()}.
+ */
+@CompileStatic
+class CombUuidShortPrefixGenerator {
+  static final Integer UUID_BYTES_COUNT = 16
+  static final Integer BULK_CHUNK_UUID_COUNT = 1024
+
+  private static final CombUuidShortPrefixGenerator DEFAULT_INSTANCE = new CombUuidShortPrefixGenerator(Clock.systemUTC())
+  private static final SecureRandom[] SECURE_RANDOM_POOL = makeSecureRandomPool(Runtime.runtime.availableProcessors())
+
+  private static final long PREFIX_MASK = 0xffff000000000000L
+  private static final long VERSION_CLEAR_MASK = 0xffffffffffff0fffL
+  private static final long VERSION_4_BITS = 0x0000000000004000L
+  private static final long VARIANT_CLEAR_MASK = 0x3fffffffffffffffL
+  private static final long VARIANT_2_BITS = 0x8000000000000000L
+
+  private final Clock clock
+  private volatile CachedPrefix cachedPrefix = new CachedPrefix(-1L)
+
+  /**
+   * Returns shared generator instance using the system UTC clock.
+   */
+  @SuppressWarnings("CodeNarc.GetterMethodCouldBeProperty")
+  static CombUuidShortPrefixGenerator getDefaultInstance() {
+    return DEFAULT_INSTANCE
+  }
+
+  CombUuidShortPrefixGenerator(Clock clock = Clock.systemUTC()) {
+    ContractsBase.requireTrueBase(clock != null)
+
+    this.clock = clock
+  }
+
+  /**
+   * Generates a single COMB UUID with short prefix for the current time of generator's clock.
+   */
+  UUID generate() {
+    ByteBuffer randomByteBuffer = ByteBuffer.wrap(nextRandomBytes(UUID_BYTES_COUNT))
+    return makeUuid(findPrefix(clock.millis()), randomByteBuffer.getLong(), randomByteBuffer.getLong())
+  }
+
+  /**
+   * Generates the list of {@code count} COMB UUIDs with short prefix for the current time of generator's clock.
+   * <p/>
+   * Parameter {@code count} must not be {@code null} and must not be negative.
+   */
+  List<UUID> generate(Integer count) {
+    ContractsBase.requireTrueBase(count != null)
+    ContractsBase.requireTrueBase(count >= 0)
+
+    long prefix = findPrefix(clock.millis())
+
+    List<UUID> uuidList = new ArrayList<>(count)
+    int remainingCount = count
+    while (remainingCount > 0) {
+      int chunkCount = Math.min(remainingCount, BULK_CHUNK_UUID_COUNT)
+      ByteBuffer randomByteBuffer = ByteBuffer.wrap(nextRandomBytes(chunkCount * UUID_BYTES_COUNT))
+      for (int index = 0; index < chunkCount; index++) {
+        uuidList.add(makeUuid(prefix, randomByteBuffer.getLong(), randomByteBuffer.getLong()))
+      }
+
+      remainingCount -= chunkCount
+    }
+
+    return uuidList
+  }
+
+  private static byte[] nextRandomBytes(int count) {
+    byte[] randomBytes = new byte[count]
+    SECURE_RANDOM_POOL[(int) (Thread.currentThread().threadId() & (SECURE_RANDOM_POOL.length - 1))].nextBytes(randomBytes)
+    return randomBytes
+  }
+
+  /**
+   * Creates the pool of {@code SecureRandom} instances whose size is the smallest power of two not less than {@code minimalPoolSize}, so that a pool slot can be selected with a simple bit mask.
+   */
+  private static SecureRandom[] makeSecureRandomPool(int minimalPoolSize) {
+    int poolSize = Integer.highestOneBit(Math.max(minimalPoolSize - 1, 1)) << 1
+
+    SecureRandom[] secureRandomPool = new SecureRandom[poolSize]
+    for (int index = 0; index < poolSize; index++) {
+      secureRandomPool[index] = new SecureRandom()
+    }
+
+    return secureRandomPool
+  }
+
+  private static UUID makeUuid(long prefix, long randomMostSignificantBits, long randomLeastSignificantBits) {
+    long mostSignificantBits = ((prefix | (randomMostSignificantBits & ~PREFIX_MASK)) & VERSION_CLEAR_MASK) | VERSION_4_BITS
+    long leastSignificantBits = (randomLeastSignificantBits & VARIANT_CLEAR_MASK) | VARIANT_2_BITS
+
+    return new UUID(mostSignificantBits, leastSignificantBits)
+  }
+
+  private long findPrefix(long currentTimeMillis) {
+    long currentTimeMinute = currentTimeMillis.intdiv(CombUuidShortPrefixUtils.ONE_MINUTE_MILLIS) as long
+
+    CachedPrefix cachedPrefixToUse = cachedPrefix
+    if (cachedPrefixToUse.minute != currentTimeMinute) {
+      cachedPrefixToUse = new CachedPrefix(currentTimeMinute)
+      cachedPrefix = cachedPrefixToUse
+    }
+
+    return cachedPrefixToUse.prefix
+  }
+
+  /**
+   * Immutable pair of the minute and its corresponding prefix bits, so both can be published together via a single volatile write.
+   */
+  @CompileStatic
+  private static class CachedPrefix {
+    final long minute
+    final long prefix
+
+    CachedPrefix(long minute) {
+      this.minute = minute
+      this.prefix = (minute % CombUuidShortPrefixUtils.THE_64_K) << 48
+    }
+  }
+}
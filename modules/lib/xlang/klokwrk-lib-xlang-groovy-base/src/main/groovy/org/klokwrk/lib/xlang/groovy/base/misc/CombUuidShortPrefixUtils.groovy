@@ -17,32 +17,17 @@
  */
 package org.klokwrk.lib.xlang.groovy.base.misc
 
-import com.github.f4b6a3.uuid.factory.nonstandard.ShortPrefixCombFactory
 import groovy.transform.CompileStatic
 import org.klokwrk.lib.xlang.groovy.base.contracts.ContractsBase
 
-import java.security.SecureRandom
 import java.time.Clock
 import java.time.Instant
 
 /**
  * Various helper methods for working with random (version 4, variant 2) COMB UUIDs with short prefix (https://github.com/f4b6a3/uuid-creator/wiki/2.3.-Short-Prefix-COMB).
  * <p/>
- * Some implementation notes about {@code SecureRandom} usage:
- * <ul>
- * <li>
- *   By default, {@code uuid-creator} caches random function instances. It looks like this is not necessary, as suggested by
- *   https://stackoverflow.com/questions/27622625/securerandom-with-nativeprng-vs-sha1prng/27638413#27638413 . Therefore, we are not using uuid-creator's {@code new DefaultRandomFunction()}, but
- *   rather plain {@code new SecureRandom()}. This should not affect performance, and should increase randomness.
- * </li>
- * <li>
- *   Looks like plain {@code new SecureRandom()} should be more than enough to get appropriate randomness in platform independent way as suggested by
- *   https://tersesystems.com/blog/2015/12/17/the-right-way-to-use-securerandom/
- * </li>
- * <li>
- *   If it turns out that caching random function is beneficial, we can use {@code new DefaultRandomFunction()} at the application service level as a singleton, and provide it here as a parameter.
- * </li>
- * </ul>
+ * COMB UUIDs are produced by {@link CombUuidShortPrefixGenerator}, which reuses a small pool of shared {@code SecureRandom} instances instead of creating and seeding a new one for each UUID. For generating
+ * many UUIDs, or when the same non-default clock is used repeatedly, prefer using {@link CombUuidShortPrefixGenerator} instance directly.
  */
 @CompileStatic
 class CombUuidShortPrefixUtils {
@@ -58,7 +43,8 @@ class CombUuidShortPrefixUtils {
   static UUID makeCombShortPrefix(Clock clock = Clock.systemUTC()) {
     ContractsBase.requireTrueBase(clock != null)
 
-    return new ShortPrefixCombFactory(new SecureRandom(), clock).create()
+    CombUuidShortPrefixGenerator combUuidShortPrefixGenerator = clock == Clock.systemUTC() ? CombUuidShortPrefixGenerator.defaultInstance : new CombUuidShortPrefixGenerator(clock)
+    return combUuidShortPrefixGenerator.generate()
   }
 
   /**
@@ -0,0 +1,194 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.lib.xlang.groovy.base.misc
+
+import com.github.f4b6a3.uuid.factory.nonstandard.ShortPrefixCombFactory
+import spock.lang.Specification
+
+import java.security.SecureRandom
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+class CombUuidShortPrefixGeneratorSpecification extends Specification {
+  static class AdjustableClock extends Clock {
+    Instant instant
+
+    @Override
+    ZoneId getZone() {
+      return ZoneOffset.UTC
+    }
+
+    @Override
+    Clock withZone(ZoneId zone) {
+      return this
+    }
+
+    @Override
+    Instant instant() {
+      return instant
+    }
+  }
+
+  void "generate() should work"() {
+    when:
+    UUID uuid = CombUuidShortPrefixGenerator.defaultInstance.generate()
+
+    then:
+    uuid
+    RandomUuidUtils.checkIfRandomUuid(uuid)
+    CombUuidShortPrefixUtils.checkIfCombShortPrefixIsBounded(uuid, Clock.systemUTC(), 0, 1)
+  }
+
+  void "generate() should work with provided clock"() {
+    given:
+    Clock clock = Clock.fixed(Instant.parse(instantStringParam), ZoneOffset.UTC)
+    CombUuidShortPrefixGenerator combUuidShortPrefixGenerator = new CombUuidShortPrefixGenerator(clock)
+
+    when:
+    UUID uuid = combUuidShortPrefixGenerator.generate()
+
+    then:
+    RandomUuidUtils.checkIfRandomUuid(uuid)
+    CombUuidShortPrefixUtils.checkIfCombShortPrefixIsBounded(uuid, clock, 0, 0)
+    uuid.toString().startsWith(CombUuidShortPrefixUtils.deriveCombShortPrefixHexaString(clock).padLeft(4, "0"))
+
+    where:
+    instantStringParam     | _
+    "2022-03-18T03:44:00Z" | _ // bounded minute is 0
+    "2022-03-18T03:43:59Z" | _ // bounded minute is 65535
+    "2024-05-05T10:11:12Z" | _
+  }
+
+  void "generate() should produce the same prefix as uuid-creator's ShortPrefixCombFactory"() {
+    given:
+    Clock clock = Clock.fixed(Instant.parse("2024-05-05T10:11:12Z"), ZoneOffset.UTC)
+
+    when:
+    UUID generatedUuid = new CombUuidShortPrefixGenerator(clock).generate()
+    UUID factoryCreatedUuid = new ShortPrefixCombFactory(new SecureRandom(), clock).create()
+
+    then:
+    generatedUuid.toString().take(4) == factoryCreatedUuid.toString().take(4)
+    generatedUuid.version() == factoryCreatedUuid.version()
+    generatedUuid.variant() == factoryCreatedUuid.variant()
+  }
+
+  void "generate() should follow the clock into the next minute"() {
+    given:
+    AdjustableClock clock = new AdjustableClock(instant: Instant.parse("2022-03-18T03:43:59Z"))
+    CombUuidShortPrefixGenerator combUuidShortPrefixGenerator = new CombUuidShortPrefixGenerator(clock)
+
+    when:
+    UUID firstUuid = combUuidShortPrefixGenerator.generate()
+    clock.instant = clock.instant.plusSeconds(1)
+    UUID secondUuid = combUuidShortPrefixGenerator.generate()
+
+    then:
+    firstUuid.toString().take(4) == "ffff"
+    secondUuid.toString().take(4) == "0000"
+  }
+
+  void "generate(count) should work"() {
+    given:
+    Clock clock = Clock.fixed(Instant.parse("2022-03-18T03:44:00Z"), ZoneOffset.UTC)
+    CombUuidShortPrefixGenerator combUuidShortPrefixGenerator = new CombUuidShortPrefixGenerator(clock)
+
+    when:
+    List<UUID> uuidList = combUuidShortPrefixGenerator.generate(countParam)
+
+    then:
+    uuidList.size() == countParam
+    uuidList.toSet().size() == countParam
+    uuidList.every({ UUID uuid -> RandomUuidUtils.checkIfRandomUuid(uuid) && CombUuidShortPrefixUtils.checkIfCombShortPrefixIsBounded(uuid, clock, 0, 0) })
+
+    where:
+    countParam | _
+    0          | _
+    1          | _
+    1000       | _
+    1024       | _ // exactly one chunk
+    1025       | _ // one full chunk and one partial chunk
+    5000       | _
+  }
+
+  void "generate(count) should fail for invalid parameters"() {
+    when:
+    CombUuidShortPrefixGenerator.defaultInstance.generate(countParam)
+
+    then:
+    thrown(AssertionError)
+
+    where:
+    countParam | _
+    null       | _
+    -1         | _
+  }
+
+  void "constructor should fail for invalid parameters"() {
+    when:
+    new CombUuidShortPrefixGenerator(null)
+
+    then:
+    thrown(AssertionError)
+  }
+
+  void "generate() should produce unique UUIDs when used concurrently"() {
+    given:
+    Integer threadCount = 8
+    Integer uuidCountPerThread = 1000
+    ExecutorService executorService = Executors.newFixedThreadPool(threadCount)
+
+    when:
+    List<Future<List<UUID>>> futureList = (1..threadCount).collect({
+      executorService.submit({ (1..uuidCountPerThread).collect({ CombUuidShortPrefixGenerator.defaultInstance.generate() }) } as Callable<List<UUID>>)
+    })
+    List<UUID> uuidList = futureList.collectMany({ Future<List<UUID>> future -> future.get() })
+
+    then:
+    uuidList.size() == threadCount * uuidCountPerThread
+    uuidList.toSet().size() == threadCount * uuidCountPerThread
+
+    cleanup:
+    executorService.shutdown()
+  }
+
+  void "generate() should produce unique UUIDs when used from many virtual threads"() {
+    given:
+    Integer taskCount = 1000
+    ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()
+
+    when:
+    List<Future<UUID>> futureList = (1..taskCount).collect({
+      executorService.submit({ CombUuidShortPrefixGenerator.defaultInstance.generate() } as Callable<UUID>)
+    })
+    List<UUID> uuidList = futureList.collect({ Future<UUID> future -> future.get() })
+
+    then:
+    uuidList.toSet().size() == taskCount
+    uuidList.every({ UUID uuid -> CombUuidShortPrefixUtils.checkIfCombShortPrefixIsBounded(uuid) })
+
+    cleanup:
+    executorService.close()
+  }
+}
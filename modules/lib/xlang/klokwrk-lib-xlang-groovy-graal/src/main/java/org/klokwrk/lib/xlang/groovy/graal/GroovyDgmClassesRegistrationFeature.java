@@ -15,7 +15,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package org.klokwrk.tool.gradle.source.repack.graal;
+package org.klokwrk.lib.xlang.groovy.graal;
 
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ClassInfo;
@@ -0,0 +1,90 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.benchmark.cargotracking.domain.model.aggregate
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.domain.model.aggregate.BookingOfferCargos
+import org.klokwrk.cargotracking.domain.model.service.ConstantBasedMaxAllowedTeuCountPolicy
+import org.klokwrk.cargotracking.domain.model.service.MaxAllowedTeuCountPolicy
+import org.klokwrk.cargotracking.domain.model.value.Cargo
+import org.klokwrk.cargotracking.domain.model.value.Commodity
+import org.klokwrk.cargotracking.domain.model.value.CommodityType
+import org.klokwrk.cargotracking.domain.model.value.ContainerType
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+import java.util.concurrent.TimeUnit
+
+@CompileStatic
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class BookingOfferCargosBenchmark {
+  @Param(["1", "10", "100", "500"])
+  public Integer cargoLineCount
+
+  List<Cargo> cargoList
+  BookingOfferCargos consolidatedBookingOfferCargos
+  MaxAllowedTeuCountPolicy maxAllowedTeuCountPolicy
+
+  @Setup
+  void setup() {
+    // Note: Cargo lines are spread over a limited number of booking offer cargo equalities (commodity type, container type, and storage temperature), so consolidation is exercised as well.
+    cargoList = (0..<cargoLineCount).collect({ Integer index ->
+      Commodity commodity = index % 2 == 0 ?
+          Commodity.make(CommodityType.AIR_COOLED, 1_000L + index, 2 + (index % 11)) :
+          Commodity.make(CommodityType.DRY, 1_000L + index)
+
+      ContainerType containerType = index % 2 == 0 ? ContainerType.TYPE_ISO_22R1_STANDARD_REEFER : ContainerType.TYPE_ISO_22G1
+      return Cargo.make(containerType, commodity, 21_500.kg)
+    })
+
+    consolidatedBookingOfferCargos = new BookingOfferCargos()
+    consolidatedBookingOfferCargos.storeCargoCollectionAddition(cargoList)
+
+    maxAllowedTeuCountPolicy = new ConstantBasedMaxAllowedTeuCountPolicy(1_000_000.0)
+  }
+
+  /**
+   * Simulates aggregate rehydration where each cargo line arrives with its own event.
+   */
+  @Benchmark
+  BookingOfferCargos storeCargoCollectionAdditionOneByOne() {
+    BookingOfferCargos bookingOfferCargos = new BookingOfferCargos()
+    cargoList.each({ Cargo cargo -> bookingOfferCargos.storeCargoCollectionAddition([cargo]) })
+    return bookingOfferCargos
+  }
+
+  @Benchmark
+  BookingOfferCargos storeCargoCollectionAdditionInBatch() {
+    BookingOfferCargos bookingOfferCargos = new BookingOfferCargos()
+    bookingOfferCargos.storeCargoCollectionAddition(cargoList)
+    return bookingOfferCargos
+  }
+
+  @Benchmark
+  boolean canAcceptCargoCollectionAddition() {
+    return BookingOfferCargos.canAcceptCargoCollectionAddition(consolidatedBookingOfferCargos.bookingOfferCargoCollection, cargoList, maxAllowedTeuCountPolicy)
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.benchmark.cargotracking.domain.model.value
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.domain.model.value.BookingOfferId
+import org.klokwrk.lib.xlang.groovy.base.misc.CombUuidShortPrefixUtils
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+import java.util.concurrent.TimeUnit
+
+@CompileStatic
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class BookingOfferIdBenchmark {
+  String combShortPrefixString
+
+  @Setup
+  void setup() {
+    combShortPrefixString = CombUuidShortPrefixUtils.makeCombShortPrefix()
+  }
+
+  @Benchmark
+  BookingOfferId make() {
+    return BookingOfferId.make(combShortPrefixString)
+  }
+
+  @Benchmark
+  BookingOfferId makeWithGeneratedIdentifier() {
+    return BookingOfferId.makeWithGeneratedIdentifier()
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.benchmark.cargotracking.domain.model.value
+
+import groovy.transform.CompileStatic
+import org.klokwrk.cargotracking.domain.model.value.UnLoCode
+import org.klokwrk.cargotracking.domain.model.value.UnLoCodeCoordinates
+import org.klokwrk.cargotracking.domain.model.value.UnLoCodeFunction
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Each benchmark takes its input from its own state class. This way, every benchmark is parameterized only by values it actually uses, instead of by all combinations of unrelated parameters.
+ */
+@CompileStatic
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class UnLoCodeBenchmark {
+  @State(Scope.Benchmark)
+  static class UnLoCodeState {
+    @Param(["HRRJK", "NLRTM", "USNYC"])
+    public String code
+  }
+
+  @State(Scope.Benchmark)
+  static class UnLoCodeCoordinatesState {
+    @Param(["4520N 01424E", "5155N 00430E"])
+    public String coordinatesEncoded
+  }
+
+  @State(Scope.Benchmark)
+  static class UnLoCodeFunctionState {
+    @Param(["1234----", "1-------"])
+    public String functionEncoded
+  }
+
+  @Benchmark
+  UnLoCode makeUnLoCode(UnLoCodeState unLoCodeState) {
+    return new UnLoCode(code: unLoCodeState.code)
+  }
+
+  @Benchmark
+  UnLoCodeCoordinates makeUnLoCodeCoordinates(UnLoCodeCoordinatesState unLoCodeCoordinatesState) {
+    return new UnLoCodeCoordinates(coordinatesEncoded: unLoCodeCoordinatesState.coordinatesEncoded)
+  }
+
+  @Benchmark
+  UnLoCodeFunction makeUnLoCodeFunction(UnLoCodeFunctionState unLoCodeFunctionState) {
+    return new UnLoCodeFunction(functionEncoded: unLoCodeFunctionState.functionEncoded)
+  }
+}
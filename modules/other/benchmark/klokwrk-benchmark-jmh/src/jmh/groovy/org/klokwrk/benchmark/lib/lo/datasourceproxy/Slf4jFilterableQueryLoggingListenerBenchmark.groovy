@@ -0,0 +1,79 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.benchmark.lib.lo.datasourceproxy
+
+import groovy.transform.CompileStatic
+import net.ttddyy.dsproxy.QueryInfo
+import org.klokwrk.lib.lo.datasourceproxy.Slf4jFilterableQueryLoggingListener
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+import java.util.concurrent.TimeUnit
+
+@CompileStatic
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class Slf4jFilterableQueryLoggingListenerBenchmark {
+  /**
+   * Exposes protected filtering method, so it can be measured without the logging itself.
+   */
+  static class BenchmarkedQueryLoggingListener extends Slf4jFilterableQueryLoggingListener {
+    BenchmarkedQueryLoggingListener(List<String> filteringOutPatternStringList) {
+      super(filteringOutPatternStringList)
+    }
+
+    List<QueryInfo> filterOut(List<QueryInfo> originalQueryInfoList) {
+      return filterOutQueryInfoList(originalQueryInfoList)
+    }
+  }
+
+  @Param(["1", "10", "100"])
+  public Integer queryCount
+
+  BenchmarkedQueryLoggingListener queryLoggingListener
+  List<QueryInfo> queryInfoList
+
+  @Setup
+  void setup() {
+    queryLoggingListener = new BenchmarkedQueryLoggingListener([
+        /^update token_entry.*$/,
+        /^select.*from token_entry.*$/,
+        /^select.*from association_value_entry.*$/
+    ])
+
+    queryInfoList = (0..<queryCount).collect({ Integer index ->
+      String query = index % 2 == 0 ?
+          "update token_entry set owner=?, timestamp=?, token=?, token_type=? where processor_name=? and segment=?" :
+          "select b.booking_offer_identifier, b.customer_identifier from booking_offer_summary b where b.booking_offer_identifier=?"
+
+      return new QueryInfo(query)
+    })
+  }
+
+  @Benchmark
+  List<QueryInfo> filterOutQueryInfoList() {
+    return queryLoggingListener.filterOut(queryInfoList)
+  }
+}
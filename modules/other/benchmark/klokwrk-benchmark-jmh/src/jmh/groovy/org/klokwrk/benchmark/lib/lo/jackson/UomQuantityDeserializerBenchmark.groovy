@@ -0,0 +1,118 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.benchmark.lib.lo.jackson
+
+import com.fasterxml.jackson.core.JsonParser
+import com.fasterxml.jackson.databind.BeanProperty
+import com.fasterxml.jackson.databind.DeserializationContext
+import com.fasterxml.jackson.databind.JavaType
+import com.fasterxml.jackson.databind.JsonDeserializer
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer
+import com.fasterxml.jackson.databind.module.SimpleModule
+import groovy.transform.CompileStatic
+import org.klokwrk.lib.lo.jackson.databind.deser.UomQuantityDeserializer
+import org.klokwrk.lib.lo.uom.format.KwrkSimpleUnitFormat
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import tech.units.indriya.quantity.Quantities
+import tech.units.indriya.unit.UnitDimension
+
+import javax.measure.Quantity
+import javax.measure.Unit
+import javax.measure.format.MeasurementParseException
+import javax.measure.quantity.Mass
+import java.util.concurrent.TimeUnit
+
+@CompileStatic
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class UomQuantityDeserializerBenchmark {
+  static class WeightHolder {
+    Quantity<Mass> weight
+  }
+
+  /**
+   * Reference deserializer that materializes the JSON tree and parses the unit symbol for every quantity. Used for comparison with the streaming {@link UomQuantityDeserializer}.
+   */
+  static class TreeUomQuantityDeserializer extends StdDeserializer<Quantity> implements ContextualDeserializer {
+    JavaType unitType
+
+    TreeUomQuantityDeserializer() {
+      super(Quantity)
+    }
+
+    @Override
+    JsonDeserializer<?> createContextual(DeserializationContext deserializationContext, BeanProperty property) {
+      return new TreeUomQuantityDeserializer(unitType: property.type.containedType(0))
+    }
+
+    @Override
+    Quantity deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) {
+      JsonNode quantityJsonNode = jsonParser.readValueAsTree() as JsonNode
+      Unit unit = KwrkSimpleUnitFormat.instance.parse(quantityJsonNode.get("unitSymbol").textValue().trim())
+      Quantity quantity = Quantities.getQuantity(quantityJsonNode.get("value").numberValue(), unit)
+
+      if (unitType != null && quantity.unit.dimension != UnitDimension.of(unitType.rawClass as Class<Quantity>)) {
+        throw new MeasurementParseException("Unexpected dimension of a quantity [quantity: $quantity].")
+      }
+
+      return quantity
+    }
+  }
+
+  @Param(['{"weight":{"value":12345,"unitSymbol":"kg"}}', '{"weight":{"value":1234000,"unitSymbol":"g"}}'])
+  public String weightJson
+
+  ObjectMapper objectMapper
+  ObjectMapper treeObjectMapper
+
+  @Setup
+  void setup() {
+    objectMapper = makeObjectMapper(new UomQuantityDeserializer())
+    treeObjectMapper = makeObjectMapper(new TreeUomQuantityDeserializer())
+  }
+
+  static ObjectMapper makeObjectMapper(JsonDeserializer<Quantity> quantityDeserializer) {
+    SimpleModule simpleModule = new SimpleModule()
+    simpleModule.addDeserializer(Quantity, quantityDeserializer)
+
+    ObjectMapper objectMapper = new ObjectMapper()
+    objectMapper.registerModule(simpleModule)
+    return objectMapper
+  }
+
+  @Benchmark
+  WeightHolder deserialize() {
+    return objectMapper.readValue(weightJson, WeightHolder)
+  }
+
+  @Benchmark
+  WeightHolder deserializeViaTree() {
+    return treeObjectMapper.readValue(weightJson, WeightHolder)
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.benchmark.lib.lo.jackson
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.module.SimpleModule
+import groovy.transform.CompileStatic
+import org.klokwrk.lib.lo.jackson.databind.ser.UomQuantitySerializer
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import tech.units.indriya.quantity.Quantities
+import tech.units.indriya.unit.Units
+
+import javax.measure.Quantity
+import javax.measure.quantity.Mass
+import java.util.concurrent.TimeUnit
+
+@CompileStatic
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class UomQuantitySerializerBenchmark {
+  static class WeightHolder {
+    Quantity<Mass> weight
+  }
+
+  @Param(["12345", "12345.5"])
+  public String weightValue
+
+  ObjectMapper objectMapper
+  WeightHolder weightHolder
+
+  @Setup
+  void setup() {
+    SimpleModule simpleModule = new SimpleModule()
+    simpleModule.addSerializer(Quantity, new UomQuantitySerializer())
+
+    objectMapper = new ObjectMapper()
+    objectMapper.registerModule(simpleModule)
+
+    Number weightNumber = weightValue.contains(".") ? new BigDecimal(weightValue) : Integer.valueOf(weightValue)
+    weightHolder = new WeightHolder(weight: Quantities.getQuantity(weightNumber, Units.KILOGRAM))
+  }
+
+  @Benchmark
+  String serialize() {
+    return objectMapper.writeValueAsString(weightHolder)
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.benchmark.lib.lo.uom
+
+import groovy.transform.CompileStatic
+import org.klokwrk.lib.lo.uom.format.KwrkQuantityFormat
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+import javax.measure.Quantity
+import java.util.concurrent.TimeUnit
+
+@CompileStatic
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class QuantityFormatBenchmark {
+  @Param(["12345 kg", "-18 °C", "1234000 g"])
+  public String quantityString
+
+  Quantity quantity
+
+  @Setup
+  void setup() {
+    quantity = KwrkQuantityFormat.instance.parse(quantityString)
+  }
+
+  @Benchmark
+  Quantity parse() {
+    return KwrkQuantityFormat.instance.parse(quantityString)
+  }
+
+  @Benchmark
+  String format() {
+    return KwrkQuantityFormat.instance.format(quantity)
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.benchmark.lib.xlang.groovy.base
+
+import com.github.f4b6a3.uuid.factory.nonstandard.ShortPrefixCombFactory
+import groovy.transform.CompileStatic
+import org.klokwrk.lib.xlang.groovy.base.misc.CombUuidShortPrefixGenerator
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OperationsPerInvocation
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Threads
+
+import java.security.SecureRandom
+import java.time.Clock
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares COMB UUID short prefix generation via {@link CombUuidShortPrefixGenerator} with the previous approach of creating {@code ShortPrefixCombFactory} and {@code SecureRandom} for each UUID.
+ */
+@CompileStatic
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+class CombUuidShortPrefixBenchmark {
+  static final int BULK_COUNT = 100
+
+  @Benchmark
+  UUID createWithNewFactoryPerUuid() {
+    return new ShortPrefixCombFactory(new SecureRandom(), Clock.systemUTC()).create()
+  }
+
+  @Benchmark
+  UUID generate() {
+    return CombUuidShortPrefixGenerator.defaultInstance.generate()
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BULK_COUNT)
+  List<UUID> generateInBulk() {
+    return CombUuidShortPrefixGenerator.defaultInstance.generate(BULK_COUNT)
+  }
+}
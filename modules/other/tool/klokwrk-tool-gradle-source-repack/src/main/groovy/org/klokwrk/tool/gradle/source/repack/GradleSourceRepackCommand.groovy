@@ -40,6 +40,7 @@ import picocli.CommandLine.Spec
 import jakarta.inject.Inject
 import java.nio.file.FileSystem
 import java.nio.file.FileSystems
+import java.security.MessageDigest
 import java.util.regex.Pattern
 
 @SuppressWarnings("CodeNarc.JavaIoPackageAccess")
@@ -115,10 +116,19 @@ Example: ROOT=INFO,org.klokwrk.tool.gradle.source.repack=DEBUG,io.micronaut.http
     GradleSourceRepackCliArguments cliArguments = makeGradleSourceRepackCliArguments(FileSystems.default)
     log.debug("cliArguments: {}", cliArguments)
 
-    File gradleDistributionZipFile = fetchGradleDistributionZipFile(cliArguments, gradleDownloader)
+    Tuple2<File, String> gradleDistributionZipFileAndSha256Tuple = fetchGradleDistributionZipFile(cliArguments, gradleDownloader)
+    File gradleDistributionZipFile = gradleDistributionZipFileAndSha256Tuple.v1
+    String downloadedGradleDistributionZipSha256 = gradleDistributionZipFileAndSha256Tuple.v2
     File gradleDistributionZipSha256File = fetchGradleDistributionZipSha256File(cliArguments, gradleDownloader)
 
-    GradleSha256CheckInfo gradleSha256CheckInfo = GradleSha256Checker.checkSha256(gradleDistributionZipSha256File, gradleDistributionZipFile)
+    GradleSha256CheckInfo gradleSha256CheckInfo
+    if (downloadedGradleDistributionZipSha256 == null) {
+      gradleSha256CheckInfo = GradleSha256Checker.checkSha256(gradleDistributionZipSha256File, gradleDistributionZipFile)
+    }
+    else {
+      gradleSha256CheckInfo = GradleSha256Checker.checkSha256(gradleDistributionZipSha256File, downloadedGradleDistributionZipSha256)
+    }
+
     if (gradleSha256CheckInfo.isMatch() == true) {
       printlnOnConsole "SHA-256 checksum OK."
     }
@@ -171,19 +181,27 @@ Example: ROOT=INFO,org.klokwrk.tool.gradle.source.repack=DEBUG,io.micronaut.http
     return cliArguments
   }
 
-  private File fetchGradleDistributionZipFile(GradleSourceRepackCliArguments cliArguments, GradleDownloader gradleDownloader) {
+  /**
+   * Returns Gradle distribution ZIP file, together with its SHA-256 checksum calculated during download.
+   * <p/>
+   * When Gradle distribution ZIP file already exists, it is not downloaded, and returned checksum is {@code null}.
+   */
+  private Tuple2<File, String> fetchGradleDistributionZipFile(GradleSourceRepackCliArguments cliArguments, GradleDownloader gradleDownloader) {
     GradleDownloaderInfo gradleDownloaderZipInfo = cliArguments.toGradleDownloaderInfoForDistributionZip()
 
     File gradleDistributionZipFile = new File(gradleDownloaderZipInfo.downloadTargetFileAbsolutePath)
+    String downloadedGradleDistributionZipSha256 = null
     if (gradleDistributionZipFile.exists()) {
       log.debug("Using already existing Gradle distribution ZIP file '{}'.", gradleDistributionZipFile.absolutePath)
     }
     else {
       log.debug("Starting download of Gradle distribution ZIP file.")
-      gradleDistributionZipFile = gradleDownloader.download(gradleDownloaderZipInfo)
+      MessageDigest sha256MessageDigest = MessageDigest.getInstance("SHA-256")
+      gradleDistributionZipFile = gradleDownloader.download(gradleDownloaderZipInfo, sha256MessageDigest)
+      downloadedGradleDistributionZipSha256 = sha256MessageDigest.digest().encodeHex().toString()
     }
 
-    return gradleDistributionZipFile
+    return Tuple.tuple(gradleDistributionZipFile, downloadedGradleDistributionZipSha256)
   }
 
   private File fetchGradleDistributionZipSha256File(GradleSourceRepackCliArguments cliArguments, GradleDownloader gradleDownloader) {
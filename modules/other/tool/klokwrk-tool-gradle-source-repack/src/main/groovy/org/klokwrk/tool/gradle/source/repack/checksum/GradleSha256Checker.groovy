@@ -30,10 +30,16 @@ class GradleSha256Checker {
    * Calculates SHA-256 checksum of Gradle distribution ZIP file and compares it to the provided file containing SHA-256 hex encoded checksum.
    */
   static GradleSha256CheckInfo checkSha256(File gradleDistributionZipSha256File, File gradleDistributionZipFile) {
+    String calculatedSha256 = ChecksumCalculator.calculateAsHexEncodedString(gradleDistributionZipFile, "SHA-256")
+    return checkSha256(gradleDistributionZipSha256File, calculatedSha256)
+  }
+
+  /**
+   * Compares already calculated SHA-256 checksum of Gradle distribution ZIP file (i.e. calculated during download) to the provided file containing SHA-256 hex encoded checksum.
+   */
+  static GradleSha256CheckInfo checkSha256(File gradleDistributionZipSha256File, String calculatedSha256) {
     String fetchedSha256 = gradleDistributionZipSha256File.readLines()[0]
     log.debug("Fetched SHA-256   : ${fetchedSha256}")
-
-    String calculatedSha256 = ChecksumCalculator.calculateAsHexEncodedString(gradleDistributionZipFile, "SHA-256")
     log.debug("Calculated SHA-256: ${calculatedSha256}")
 
     return new GradleSha256CheckInfo(fetchedSha256, calculatedSha256)
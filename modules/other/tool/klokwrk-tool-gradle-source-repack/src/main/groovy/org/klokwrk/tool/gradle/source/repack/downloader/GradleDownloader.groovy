@@ -32,6 +32,7 @@ import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 
 import jakarta.inject.Singleton
+import java.security.MessageDigest
 
 /**
  * Singleton service that downloads Gradle distribution files (typically {@code *.zip} or {@code *.zip.sha256}).
@@ -58,8 +59,11 @@ class GradleDownloader {
 
   /**
    * Downloads Gradle distribution files (typically *.zip or *.zip.sha256) based on provided {@link GradleDownloaderInfo} specification.
+   * <p/>
+   * When {@code messageDigest} is provided, it is updated with all downloaded bytes while they are written into the target file. This way, the checksum of downloaded file is available right after
+   * the download, without reading the whole file again.
    */
-  File download(GradleDownloaderInfo gradleDownloaderInfo) {
+  File download(GradleDownloaderInfo gradleDownloaderInfo, MessageDigest messageDigest = null) {
     log.debug("Starting download with following gradleDownloaderInfo: {}", gradleDownloaderInfo)
 
     Tuple2 realDownloadUrlAndContentLengthTuple = calculateRealDownloadUrlAndContentLength(gradleDownloaderInfo)
@@ -81,7 +85,10 @@ class GradleDownloader {
 
                            return byteArray
                          })
-                         .doOnNext({ byte[] byteArray -> fileOutputStream.write(byteArray) })
+                         .doOnNext({ byte[] byteArray ->
+                           fileOutputStream.write(byteArray)
+                           messageDigest?.update(byteArray)
+                         })
                          .doOnComplete({ printlnOutNewline() })
                          .blockLast()
     }
@@ -0,0 +1,48 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.tool.gradle.source.repack.repackager
+
+import groovy.transform.CompileStatic
+import groovy.transform.TupleConstructor
+
+/**
+ * Encapsulates a ZIP entry whose data are already deflated and which is ready to be written with {@link DeflatedZipEntryWriter}.
+ */
+@TupleConstructor
+@CompileStatic
+class DeflatedZipEntry {
+  /**
+   * Name of the entry inside the target archive.
+   */
+  final String name
+
+  /**
+   * CRC-32 of uncompressed entry data.
+   */
+  final long crc
+
+  /**
+   * Size of uncompressed entry data.
+   */
+  final long size
+
+  /**
+   * Raw (without ZLIB header and trailer) deflated entry data.
+   */
+  final byte[] deflatedBytes
+}
@@ -0,0 +1,182 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.tool.gradle.source.repack.repackager
+
+import groovy.transform.CompileStatic
+import groovy.transform.TupleConstructor
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.nio.charset.StandardCharsets
+import java.time.LocalDateTime
+
+/**
+ * Minimal ZIP archive writer which accepts entries with already deflated data.
+ * <p/>
+ * Unlike {@link java.util.zip.ZipOutputStream}, which deflates entry data by itself while writing, this writer allows entries to be compressed upfront (i.e. in parallel) and only written sequentially.
+ * <p/>
+ * It supports only what is needed for repackaging Gradle sources: deflated entries with known CRC-32 and sizes, and archives that do not need ZIP64 extensions (at most {@link #ENTRY_COUNT_MAX}
+ * entries, and entry sizes and offsets below 4 GiB). Like {@link java.util.zip.ZipOutputStream}, entry names are encoded in UTF-8, and all entries get the modification time of writer creation.
+ */
+@CompileStatic
+class DeflatedZipEntryWriter implements Closeable {
+  static final Integer ENTRY_COUNT_MAX = 0xFFFF
+
+  private static final long UNSIGNED_INT_MAX = 0xFFFFFFFFL
+  private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50
+  private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50
+  private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50
+  private static final int LOCAL_FILE_HEADER_SIZE = 30
+  private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46
+  private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22
+  private static final short VERSION = 20 as short
+  private static final short FLAG_UTF8 = 0x0800 as short
+  private static final short METHOD_DEFLATED = 8 as short
+
+  private final OutputStream outputStream
+  private final int dosTime
+  private final List<CentralDirectoryRecord> centralDirectoryRecordList = []
+  private long bytesWrittenCount = 0
+
+  DeflatedZipEntryWriter(OutputStream outputStream) {
+    this.outputStream = outputStream
+    this.dosTime = toDosTime(LocalDateTime.now())
+  }
+
+  /**
+   * Writes a local file header followed by deflated data of a given entry.
+   */
+  void writeEntry(DeflatedZipEntry deflatedZipEntry) {
+    if (centralDirectoryRecordList.size() >= ENTRY_COUNT_MAX) {
+      throw new IllegalStateException("Cannot write more than ${ ENTRY_COUNT_MAX } entries without ZIP64 extensions.")
+    }
+
+    long compressedSize = deflatedZipEntry.deflatedBytes.length
+    if (deflatedZipEntry.size > UNSIGNED_INT_MAX || compressedSize > UNSIGNED_INT_MAX || bytesWrittenCount > UNSIGNED_INT_MAX) {
+      throw new IllegalStateException("Cannot write entry '${ deflatedZipEntry.name }' without ZIP64 extensions.")
+    }
+
+    CentralDirectoryRecord centralDirectoryRecord =
+        new CentralDirectoryRecord(deflatedZipEntry.name.getBytes(StandardCharsets.UTF_8), deflatedZipEntry.crc, compressedSize, deflatedZipEntry.size, bytesWrittenCount)
+
+    ByteBuffer localFileHeader = ByteBuffer.allocate(LOCAL_FILE_HEADER_SIZE + centralDirectoryRecord.nameBytes.length).order(ByteOrder.LITTLE_ENDIAN)
+    localFileHeader
+        .putInt(LOCAL_FILE_HEADER_SIGNATURE)
+        .putShort(VERSION)
+        .putShort(FLAG_UTF8)
+        .putShort(METHOD_DEFLATED)
+        .putInt(dosTime)
+        .putInt((int) centralDirectoryRecord.crc)
+        .putInt((int) centralDirectoryRecord.compressedSize)
+        .putInt((int) centralDirectoryRecord.size)
+        .putShort((short) centralDirectoryRecord.nameBytes.length)
+        .putShort((short) 0)
+        .put(centralDirectoryRecord.nameBytes)
+
+    write(localFileHeader.array())
+    write(deflatedZipEntry.deflatedBytes)
+
+    centralDirectoryRecordList.add(centralDirectoryRecord)
+  }
+
+  /**
+   * Writes the central directory and the end of central directory record, and closes the underlying output stream.
+   */
+  @Override
+  void close() throws IOException {
+    try {
+      writeCentralDirectory()
+    }
+    finally {
+      outputStream.close()
+    }
+  }
+
+  protected void writeCentralDirectory() {
+    long centralDirectoryOffset = bytesWrittenCount
+    if (centralDirectoryOffset > UNSIGNED_INT_MAX) {
+      throw new IllegalStateException("Cannot write central directory without ZIP64 extensions.")
+    }
+
+    centralDirectoryRecordList.each { CentralDirectoryRecord centralDirectoryRecord ->
+      ByteBuffer centralDirectoryHeader = ByteBuffer.allocate(CENTRAL_DIRECTORY_HEADER_SIZE + centralDirectoryRecord.nameBytes.length).order(ByteOrder.LITTLE_ENDIAN)
+      centralDirectoryHeader
+          .putInt(CENTRAL_DIRECTORY_HEADER_SIGNATURE)
+          .putShort(VERSION) // version made by
+          .putShort(VERSION) // version needed to extract
+          .putShort(FLAG_UTF8)
+          .putShort(METHOD_DEFLATED)
+          .putInt(dosTime)
+          .putInt((int) centralDirectoryRecord.crc)
+          .putInt((int) centralDirectoryRecord.compressedSize)
+          .putInt((int) centralDirectoryRecord.size)
+          .putShort((short) centralDirectoryRecord.nameBytes.length)
+          .putShort((short) 0) // extra field length
+          .putShort((short) 0) // file comment length
+          .putShort((short) 0) // disk number start
+          .putShort((short) 0) // internal file attributes
+          .putInt(0) // external file attributes
+          .putInt((int) centralDirectoryRecord.localFileHeaderOffset)
+          .put(centralDirectoryRecord.nameBytes)
+
+      write(centralDirectoryHeader.array())
+    }
+
+    long centralDirectorySize = bytesWrittenCount - centralDirectoryOffset
+    ByteBuffer endOfCentralDirectory = ByteBuffer.allocate(END_OF_CENTRAL_DIRECTORY_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+    endOfCentralDirectory
+        .putInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+        .putShort((short) 0) // number of this disk
+        .putShort((short) 0) // disk where central directory starts
+        .putShort((short) centralDirectoryRecordList.size()) // number of central directory records on this disk
+        .putShort((short) centralDirectoryRecordList.size()) // total number of central directory records
+        .putInt((int) centralDirectorySize)
+        .putInt((int) centralDirectoryOffset)
+        .putShort((short) 0) // comment length
+
+    write(endOfCentralDirectory.array())
+    outputStream.flush()
+  }
+
+  protected void write(byte[] bytes) {
+    outputStream.write(bytes)
+    bytesWrittenCount += bytes.length
+  }
+
+  /**
+   * Converts local date and time into MS-DOS date and time format used in ZIP headers.
+   */
+  protected static int toDosTime(LocalDateTime localDateTime) {
+    if (localDateTime.year < 1980) {
+      return (1 << 21) | (1 << 16)
+    }
+
+    return ((localDateTime.year - 1980) << 25) | (localDateTime.monthValue << 21) | (localDateTime.dayOfMonth << 16) |
+           (localDateTime.hour << 11) | (localDateTime.minute << 5) | (localDateTime.second >> 1)
+  }
+
+  @TupleConstructor
+  @CompileStatic
+  protected static class CentralDirectoryRecord {
+    final byte[] nameBytes
+    final long crc
+    final long compressedSize
+    final long size
+    final long localFileHeaderOffset
+  }
+}
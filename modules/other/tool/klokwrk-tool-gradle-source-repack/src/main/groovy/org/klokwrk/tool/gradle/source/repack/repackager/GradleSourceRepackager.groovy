@@ -21,13 +21,27 @@ import groovy.transform.CompileStatic
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.zip.CRC32
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
 import java.util.zip.ZipEntry
-import java.util.zip.ZipException
 import java.util.zip.ZipFile
 import java.util.zip.ZipOutputStream
 
 /**
  * Repackages Gradle sources into a sources archive understood by IDEA.
+ * <p/>
+ * Repackaging reads the central directory of Gradle distribution only once, and skips duplicate target entries (e.g. {@code package-info.java}) upfront. Entries are inflated and deflated again in
+ * parallel on all available processors, while deflated entries are written into the target archive sequentially in the original order with {@link DeflatedZipEntryWriter}. When the number of target
+ * entries requires ZIP64 extensions (not supported by {@link DeflatedZipEntryWriter}), repackaging falls back to the sequential {@link ZipOutputStream} based implementation, which writes the same
+ * already collected target entries.
  */
 @SuppressWarnings("CodeNarc.JavaIoPackageAccess")
 @CompileStatic
@@ -51,8 +65,18 @@ class GradleSourceRepackager {
 
     log.info("Repackaging Gradle sources: {} ===> {}", repackagerInfo.gradleDistributionZipFilePath, repackagerInfo.gradleApiSourcesFilePath)
 
-    Long countOfTargetZipEntries = calculateCountOfTargetZipEntries(repackagerInfo)
-    List<String> skippedMessageList = repackageZipFile(repackagerInfo, countOfTargetZipEntries)
+    List<String> skippedMessageList = []
+    new ZipFile(repackagerInfo.gradleDistributionZipFilePath).withCloseable { ZipFile originalZipFile ->
+      Map<String, ZipEntry> targetZipEntryNameToOriginalZipEntryMap = collectTargetZipEntries(repackagerInfo, originalZipFile, skippedMessageList)
+
+      if (targetZipEntryNameToOriginalZipEntryMap.size() <= DeflatedZipEntryWriter.ENTRY_COUNT_MAX) {
+        repackageZipFileInParallel(repackagerInfo, originalZipFile, targetZipEntryNameToOriginalZipEntryMap)
+      }
+      else {
+        repackageZipFile(repackagerInfo, originalZipFile, targetZipEntryNameToOriginalZipEntryMap)
+      }
+    }
+
     if (skippedMessageList && log.isDebugEnabled()) {
       println ""
       log.debug("During repackaging the following entries were skipped:")
@@ -60,18 +84,101 @@ class GradleSourceRepackager {
     }
   }
 
-  protected static Long calculateCountOfTargetZipEntries(GradleSourceRepackagerInfo repackagerInfo) {
-    Long countOfTargetZipEntries = null
-    new ZipFile(repackagerInfo.gradleDistributionZipFilePath).withCloseable { ZipFile zipFile ->
-      countOfTargetZipEntries = zipFile
-          .stream()
-          .filter({ ZipEntry zipEntry -> !zipEntry.isDirectory() && zipEntry.name.startsWith(repackagerInfo.gradleDistributionSrcDirPath) })
-          .map({ ZipEntry zipEntry -> calculateTargetZipEntryName(repackagerInfo.gradleDistributionSrcDirPath, zipEntry) })
-          .distinct() // skipping duplicate target entries (e.g. package-info.java)
-          .count()
+  /**
+   * In a single pass over the central directory of Gradle distribution, collects source entries mapped by their target names.
+   * <p/>
+   * When several source entries map to the same target name, only the first one is kept, while others are reported in {@code skippedMessageList}.
+   */
+  protected static Map<String, ZipEntry> collectTargetZipEntries(GradleSourceRepackagerInfo repackagerInfo, ZipFile originalZipFile, List<String> skippedMessageList) {
+    Map<String, ZipEntry> targetZipEntryNameToOriginalZipEntryMap = new LinkedHashMap<>()
+    originalZipFile
+        .stream()
+        .filter({ ZipEntry zipEntry -> !zipEntry.isDirectory() && zipEntry.name.startsWith(repackagerInfo.gradleDistributionSrcDirPath) })
+        .forEach({ ZipEntry originalZipEntry ->
+          String targetZipEntryName = calculateTargetZipEntryName(repackagerInfo.gradleDistributionSrcDirPath, originalZipEntry)
+          if (targetZipEntryNameToOriginalZipEntryMap.putIfAbsent(targetZipEntryName, originalZipEntry) != null) {
+            skippedMessageList.add("Skipping duplicate entry: ${ targetZipEntryName }.".toString())
+          }
+        })
+
+    return targetZipEntryNameToOriginalZipEntryMap
+  }
+
+  @SuppressWarnings(["CodeNarc.Indentation", "CodeNarc.Println"])
+  protected static void repackageZipFileInParallel(GradleSourceRepackagerInfo repackagerInfo, ZipFile originalZipFile, Map<String, ZipEntry> targetZipEntryNameToOriginalZipEntryMap) {
+    Integer parallelism = Runtime.runtime.availableProcessors()
+    ExecutorService executorService = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("gradle-source-repack-", 0).daemon(true).factory())
+
+    try {
+      new DeflatedZipEntryWriter(new BufferedOutputStream(new FileOutputStream(repackagerInfo.gradleApiSourcesFilePath), 1024 * 1024)).withCloseable { DeflatedZipEntryWriter targetZipEntryWriter ->
+        // NOTE: Bounded queue of pending futures limits the memory used by deflated entries that wait to be written in the original order.
+        BlockingQueue<Future<DeflatedZipEntry>> pendingDeflatedZipEntryQueue = new ArrayBlockingQueue<>(parallelism * 4)
+        Iterator<Map.Entry<String, ZipEntry>> targetZipEntryIterator = targetZipEntryNameToOriginalZipEntryMap.entrySet().iterator()
+        Long countOfTargetZipEntries = targetZipEntryNameToOriginalZipEntryMap.size() as Long
+        Long zipEntriesProcessedCount = 0L
+        Integer lastPrintedPercentage = -1
+
+        while (targetZipEntryIterator.hasNext() || !pendingDeflatedZipEntryQueue.isEmpty()) {
+          while (targetZipEntryIterator.hasNext() && pendingDeflatedZipEntryQueue.remainingCapacity() > 0) {
+            Map.Entry<String, ZipEntry> targetZipEntry = targetZipEntryIterator.next()
+            pendingDeflatedZipEntryQueue.add(executorService.submit({ deflateZipEntry(originalZipFile, targetZipEntry.value, targetZipEntry.key) } as Callable<DeflatedZipEntry>))
+          }
+
+          DeflatedZipEntry deflatedZipEntry = fetchDeflatedZipEntry(pendingDeflatedZipEntryQueue.poll())
+          targetZipEntryWriter.writeEntry(deflatedZipEntry)
+
+          zipEntriesProcessedCount++
+          if (log.isTraceEnabled()) {
+            println ""
+            log.trace("Repacked Gradle source file: {} -> {}", targetZipEntryNameToOriginalZipEntryMap[deflatedZipEntry.name].name, deflatedZipEntry.name)
+          }
+
+          Integer percentage = (zipEntriesProcessedCount * 100 / countOfTargetZipEntries).toInteger()
+          if (percentage != lastPrintedPercentage) {
+            printRepackagingProgressOnConsole(repackagerInfo.gradleApiSourcesFilePath, percentage)
+            lastPrintedPercentage = percentage
+          }
+        }
+      }
+    }
+    finally {
+      executorService.shutdownNow()
     }
+  }
 
-    return countOfTargetZipEntries
+  /**
+   * Reads (inflates) original entry data and deflates them again into a raw deflate format suitable for {@link DeflatedZipEntryWriter}.
+   */
+  protected static DeflatedZipEntry deflateZipEntry(ZipFile originalZipFile, ZipEntry originalZipEntry, String targetZipEntryName) {
+    byte[] bytes = null
+    originalZipFile.getInputStream(originalZipEntry).withCloseable { InputStream inputStream ->
+      bytes = inputStream.readAllBytes()
+    }
+
+    CRC32 crc32 = new CRC32()
+    crc32.update(bytes)
+
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true)
+    ByteArrayOutputStream deflatedByteArrayOutputStream = new ByteArrayOutputStream(Math.max(bytes.length >> 1, 64))
+    try {
+      new DeflaterOutputStream(deflatedByteArrayOutputStream, deflater).withCloseable { DeflaterOutputStream deflaterOutputStream ->
+        deflaterOutputStream.write(bytes)
+      }
+    }
+    finally {
+      deflater.end()
+    }
+
+    return new DeflatedZipEntry(targetZipEntryName, crc32.value, bytes.length as long, deflatedByteArrayOutputStream.toByteArray())
+  }
+
+  protected static DeflatedZipEntry fetchDeflatedZipEntry(Future<DeflatedZipEntry> deflatedZipEntryFuture) {
+    try {
+      return deflatedZipEntryFuture.get()
+    }
+    catch (ExecutionException executionException) {
+      throw executionException.cause
+    }
   }
 
   protected static String calculateTargetZipEntryName(String gradleDistributionSrcDirPath, ZipEntry originalZipEntry) {
@@ -82,65 +189,40 @@ class GradleSourceRepackager {
     return targetZipEntryName
   }
 
+  /**
+   * Sequentially writes collected target entries with {@link ZipOutputStream}, which supports ZIP64 extensions.
+   */
   @SuppressWarnings(["CodeNarc.Indentation", "CodeNarc.Println"])
-  protected static List<String> repackageZipFile(GradleSourceRepackagerInfo repackagerInfo, Long countOfTargetZipEntries) {
-    List<String> skippedMessageList = []
+  protected static void repackageZipFile(GradleSourceRepackagerInfo repackagerInfo, ZipFile originalZipFile, Map<String, ZipEntry> targetZipEntryNameToOriginalZipEntryMap) {
     new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(repackagerInfo.gradleApiSourcesFilePath))).withCloseable { ZipOutputStream targetZipOutputStream ->
-      new ZipFile(repackagerInfo.gradleDistributionZipFilePath).withCloseable { ZipFile originalZipFile ->
-        Long zipEntriesProcessedCount = Long.valueOf(0)
-        originalZipFile
-            .stream()
-            .filter({ ZipEntry zipEntry -> !zipEntry.isDirectory() && zipEntry.name.startsWith(repackagerInfo.gradleDistributionSrcDirPath) })
-            .forEach({ ZipEntry originalZipEntry ->
-              String targetZipEntryName = calculateTargetZipEntryName(repackagerInfo.gradleDistributionSrcDirPath, originalZipEntry)
-              String skippedMessage = repackageZipEntry(originalZipFile, originalZipEntry, targetZipOutputStream, targetZipEntryName)
-
-              if (skippedMessage) {
-                skippedMessageList.add(skippedMessage)
-              }
-              else {
-                zipEntriesProcessedCount++
-                if (log.isTraceEnabled()) {
-                  println ""
-                  log.trace("Repacked Gradle source file: {} -> {}", originalZipEntry.name, targetZipEntryName)
-                }
-              }
-
-              Integer percentage = (zipEntriesProcessedCount * 100 / countOfTargetZipEntries).toInteger()
-              printRepackagingProgressOnConsole(repackagerInfo.gradleApiSourcesFilePath, percentage)
-
-              //noinspection GroovyUnnecessaryReturn
-              return // Note: this return is here just to make JaCoCo report more reliable.
-            })
-      }
-    }
+      Long countOfTargetZipEntries = targetZipEntryNameToOriginalZipEntryMap.size() as Long
+      Long zipEntriesProcessedCount = 0L
+      Integer lastPrintedPercentage = -1
 
-    return skippedMessageList
-  }
-
-  protected static String repackageZipEntry(ZipFile originalZipFile, ZipEntry originalZipEntry, ZipOutputStream targetZipOutputStream, String targetZipEntryName) {
-    String skippedMessage = null
-    originalZipFile.getInputStream(originalZipEntry).withCloseable { InputStream inputStream ->
-      try {
-        targetZipOutputStream.putNextEntry(new ZipEntry(targetZipEntryName))
+      targetZipEntryNameToOriginalZipEntryMap.each { String targetZipEntryName, ZipEntry originalZipEntry ->
+        repackageZipEntry(originalZipFile, originalZipEntry, targetZipOutputStream, targetZipEntryName)
 
-        byte[] bytes = new byte[1024]
-        int length
-        while ((length = inputStream.read(bytes)) >= 0) {
-          targetZipOutputStream.write(bytes, 0, length)
-        }
-      }
-      catch (ZipException zipException) {
-        if (zipException.message.contains("duplicate entry")) {
-          skippedMessage = "Skipping ${ zipException.message }."
+        zipEntriesProcessedCount++
+        if (log.isTraceEnabled()) {
+          println ""
+          log.trace("Repacked Gradle source file: {} -> {}", originalZipEntry.name, targetZipEntryName)
         }
-        else {
-          throw zipException
+
+        Integer percentage = (zipEntriesProcessedCount * 100 / countOfTargetZipEntries).toInteger()
+        if (percentage != lastPrintedPercentage) {
+          printRepackagingProgressOnConsole(repackagerInfo.gradleApiSourcesFilePath, percentage)
+          lastPrintedPercentage = percentage
         }
       }
     }
+  }
 
-    return skippedMessage
+  protected static void repackageZipEntry(ZipFile originalZipFile, ZipEntry originalZipEntry, ZipOutputStream targetZipOutputStream, String targetZipEntryName) {
+    originalZipFile.getInputStream(originalZipEntry).withCloseable { InputStream inputStream ->
+      targetZipOutputStream.putNextEntry(new ZipEntry(targetZipEntryName))
+      inputStream.transferTo(targetZipOutputStream)
+      targetZipOutputStream.closeEntry()
+    }
   }
 
   @SuppressWarnings("CodeNarc.Println")
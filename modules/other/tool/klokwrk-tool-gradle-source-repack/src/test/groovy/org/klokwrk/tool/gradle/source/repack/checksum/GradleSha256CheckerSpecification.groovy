@@ -38,6 +38,20 @@ class GradleSha256CheckerSpecification extends Specification {
     gradleSha256CheckInfo.isMatch()
   }
 
+  void "should match for provided valid sha-256 checksum calculated upfront"() {
+    given:
+    ClassPathResourceLoader loader = new ResourceResolver().getLoader(ClassPathResourceLoader).get()
+    File testSlimGradleDistributionSha256File = new File(loader.getResource("classpath:testFiles/slim-gradle-6.7.1-all.zip.sha256").get().file)
+    File testSlimGradleDistributionFile = new File(loader.getResource("classpath:testFiles/slim-gradle-6.7.1-all.zip").get().file)
+    String calculatedSha256 = ChecksumCalculator.calculateAsHexEncodedString(testSlimGradleDistributionFile, "SHA-256")
+
+    when:
+    GradleSha256CheckInfo gradleSha256CheckInfo = GradleSha256Checker.checkSha256(testSlimGradleDistributionSha256File, calculatedSha256)
+
+    then:
+    gradleSha256CheckInfo.isMatch()
+  }
+
   // Demo for improving code coverage with Groovy @Slf4j annotation and different logging levels.
   // Groovy @Slf4j annotation generates the most performant code for logging. Unfortunatelly, as code is generated inline, annotation produces several branches which are probably
   // not covered by tests. This test provides a simple example of using already existing test and running it with different logging levels.
@@ -24,6 +24,7 @@ import io.micronaut.context.env.Environment
 import io.micronaut.core.io.ResourceResolver
 import io.micronaut.core.io.scan.ClassPathResourceLoader
 import io.micronaut.http.client.exceptions.HttpClientResponseException
+import org.klokwrk.tool.gradle.source.repack.checksum.ChecksumCalculator
 import org.klokwrk.tool.gradle.source.repack.constant.Constant
 import spock.lang.AutoCleanup
 import spock.lang.Shared
@@ -31,6 +32,7 @@ import spock.lang.Specification
 
 import java.nio.file.Files
 import java.nio.file.Paths
+import java.security.MessageDigest
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse
 import static com.github.tomakehurst.wiremock.client.WireMock.get
@@ -272,6 +274,52 @@ class GradleDownloaderSpecification extends Specification {
     new File(downloadTargetDir).delete()
   }
 
+  void "should calculate checksum of downloaded file during download"() {
+    given:
+    ClassPathResourceLoader loader = new ResourceResolver().getLoader(ClassPathResourceLoader).get()
+    File testSlimGradleDistributionFile = new File(loader.getResource("classpath:testFiles/slim-gradle-6.7.1-all.zip").get().file)
+    Long testSlimGradleDistributionFileSizeInBytes = testSlimGradleDistributionFile.size()
+
+    wireMockServer.stubFor(
+        head(urlMatching("/gradle-6.7.1-all.zip"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Length", testSlimGradleDistributionFileSizeInBytes.toString())
+            )
+    )
+
+    wireMockServer.stubFor(
+        get(urlMatching("/gradle-6.7.1-all.zip"))
+        .willReturn(
+            aResponse()
+                .withStatus(200)
+                .withHeader("Content-Length", testSlimGradleDistributionFileSizeInBytes.toString())
+                .withBody(testSlimGradleDistributionFile.bytes)
+        )
+    )
+
+    String downloadTargetDir = "${ System.getProperty("user.dir") }/build/_testrun/${ UUID.randomUUID() }/"
+    Files.createDirectories(Paths.get(downloadTargetDir))
+
+    GradleDownloader gradleDownloader = applicationContext.getBean(GradleDownloader)
+    GradleDownloaderInfo gradleDownloaderInfo = new GradleDownloaderInfo(
+        "6.7.1", Constant.GRADLE_DISTRIBUTION_TYPE_DEFAULT, Constant.GRADLE_DISTRIBUTION_FILE_EXTENSION_DEFAULT, "${ wireMockServer.baseUrl() }/", downloadTargetDir
+    )
+
+    MessageDigest messageDigest = MessageDigest.getInstance("SHA-256")
+
+    when:
+    File gradleDistributionDownloadFile = gradleDownloader.download(gradleDownloaderInfo, messageDigest)
+
+    then:
+    messageDigest.digest().encodeHex().toString() == ChecksumCalculator.calculateAsHexEncodedString(testSlimGradleDistributionFile, "SHA-256")
+
+    cleanup:
+    gradleDistributionDownloadFile.delete()
+    new File(downloadTargetDir).delete()
+  }
+
   void "should work with HTTP redirect"() {
     given:
     ClassPathResourceLoader loader = new ResourceResolver().getLoader(ClassPathResourceLoader).get()
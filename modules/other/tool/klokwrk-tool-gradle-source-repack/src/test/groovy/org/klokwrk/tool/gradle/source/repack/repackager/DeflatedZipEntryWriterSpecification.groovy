@@ -0,0 +1,107 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020-2024 CROZ d.o.o, the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.klokwrk.tool.gradle.source.repack.repackager
+
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.zip.CRC32
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipInputStream
+
+class DeflatedZipEntryWriterSpecification extends Specification {
+  Path targetZipFilePath
+
+  void setup() {
+    targetZipFilePath = Files.createTempFile("deflated-zip-entry-writer", ".zip")
+  }
+
+  void cleanup() {
+    Files.deleteIfExists(targetZipFilePath)
+  }
+
+  void "should write archive readable by ZipFile and ZipInputStream"() {
+    given:
+    Map<String, String> entryNameToContentMap = [
+        "org/example/Some.java": "package org.example;\n\nclass Some {}\n" * 20,
+        "org/example/package-info.java": "package org.example;\n",
+        "org/example/čćž.txt": "some non-ASCII name",
+        "org/example/empty.txt": ""
+    ]
+
+    when:
+    new DeflatedZipEntryWriter(Files.newOutputStream(targetZipFilePath)).withCloseable { DeflatedZipEntryWriter deflatedZipEntryWriter ->
+      entryNameToContentMap.each { String name, String content ->
+        deflatedZipEntryWriter.writeEntry(makeDeflatedZipEntry(name, content))
+      }
+    }
+
+    List<ZipEntry> zipFileEntryList = []
+    Map<String, String> zipFileEntryNameToContentMap = [:]
+    new ZipFile(targetZipFilePath.toFile()).withCloseable { ZipFile zipFile ->
+      zipFile.entries().each { ZipEntry zipEntry ->
+        zipFileEntryList << zipEntry
+        zipFileEntryNameToContentMap[zipEntry.name] = new String(zipFile.getInputStream(zipEntry).readAllBytes(), StandardCharsets.UTF_8)
+      }
+    }
+
+    Map<String, String> zipInputStreamEntryNameToContentMap = [:]
+    new ZipInputStream(Files.newInputStream(targetZipFilePath)).withCloseable { ZipInputStream zipInputStream ->
+      ZipEntry zipEntry
+      while ((zipEntry = zipInputStream.nextEntry) != null) {
+        zipInputStreamEntryNameToContentMap[zipEntry.name] = new String(zipInputStream.readAllBytes(), StandardCharsets.UTF_8)
+      }
+    }
+
+    then:
+    verifyAll {
+      zipFileEntryList*.name == entryNameToContentMap.keySet().toList()
+      zipFileEntryList.every({ ZipEntry zipEntry -> zipEntry.method == ZipEntry.DEFLATED })
+      zipFileEntryNameToContentMap == entryNameToContentMap
+      zipInputStreamEntryNameToContentMap == entryNameToContentMap
+    }
+  }
+
+  void "should write empty archive"() {
+    when:
+    new DeflatedZipEntryWriter(Files.newOutputStream(targetZipFilePath)).close()
+    Integer zipFileSize = new ZipFile(targetZipFilePath.toFile()).withCloseable { ZipFile zipFile -> zipFile.size() }
+
+    then:
+    zipFileSize == 0
+  }
+
+  private static DeflatedZipEntry makeDeflatedZipEntry(String name, String content) {
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8)
+
+    CRC32 crc32 = new CRC32()
+    crc32.update(bytes)
+
+    ByteArrayOutputStream deflatedByteArrayOutputStream = new ByteArrayOutputStream()
+    new DeflaterOutputStream(deflatedByteArrayOutputStream, new Deflater(Deflater.DEFAULT_COMPRESSION, true)).withCloseable { DeflaterOutputStream deflaterOutputStream ->
+      deflaterOutputStream.write(bytes)
+    }
+
+    return new DeflatedZipEntry(name, crc32.value, bytes.length, deflatedByteArrayOutputStream.toByteArray())
+  }
+}
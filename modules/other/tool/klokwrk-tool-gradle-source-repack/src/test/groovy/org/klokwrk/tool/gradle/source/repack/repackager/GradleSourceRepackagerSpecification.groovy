@@ -29,9 +29,7 @@ import spock.lang.Specification
 import java.nio.file.Files
 import java.nio.file.Paths
 import java.util.zip.ZipEntry
-import java.util.zip.ZipException
 import java.util.zip.ZipFile
-import java.util.zip.ZipOutputStream
 
 class GradleSourceRepackagerSpecification extends Specification {
   void "should fail when Gradle distribution does not exist"() {
@@ -134,24 +132,87 @@ class GradleSourceRepackagerSpecification extends Specification {
     Level.TRACE      | true
   }
 
-  void "repackageZipEntry() method should throw for unexpected message of ZipException"() {
-    given: "slimmed Gradle distribution zip"
+  void "should repack all distinct source entries with unchanged content"() {
+    given:
     ClassPathResourceLoader loader = new ResourceResolver().getLoader(ClassPathResourceLoader).get()
-    File testSlimGradleDistributionFile = new File(loader.getResource("classpath:testFiles/slim-gradle-6.7.1-all.zip").get().file)
+    File testSlimGradleDistributionFile = new File(loader.getResource("classpath:testFiles/slim-with-duplicates-gradle-6.7.1-all.zip").get().file)
+
+    String repackedZipFileDirectoryPath = "${ System.getProperty("user.dir") }/build/_testrun/${ UUID.randomUUID() }/"
+    Files.createDirectories(Paths.get(repackedZipFileDirectoryPath))
 
-    and: "something"
-    ZipFile originalZipFile = new ZipFile(testSlimGradleDistributionFile.absolutePath)
-    ZipEntry originalZipEntry = new ZipEntry("some original zip entry name")
-    String targetZipEntryName = "some target zip entry name"
+    String repackedZipFilePath = "${ repackedZipFileDirectoryPath }slim-gradle-api-6.7.1-sources.zip"
 
-    ZipOutputStream targetZipOutputStreamStub = Stub()
-    targetZipOutputStreamStub.putNextEntry(_ as ZipEntry) >> { throw new ZipException("unexpected message") }
+    GradleSourceRepackagerInfo gradleSourceRepackagerInfo = new GradleSourceRepackagerInfo(testSlimGradleDistributionFile.absolutePath, "6.7.1", repackedZipFilePath, repackedZipFileDirectoryPath)
+
+    Map<String, byte[]> expectedTargetEntryNameToContentMap = [:]
+    new ZipFile(testSlimGradleDistributionFile).withCloseable { ZipFile originalZipFile ->
+      originalZipFile.entries().each { ZipEntry zipEntry ->
+        if (!zipEntry.isDirectory() && zipEntry.name.startsWith(gradleSourceRepackagerInfo.gradleDistributionSrcDirPath)) {
+          String targetZipEntryName = GradleSourceRepackager.calculateTargetZipEntryName(gradleSourceRepackagerInfo.gradleDistributionSrcDirPath, zipEntry)
+          expectedTargetEntryNameToContentMap.putIfAbsent(targetZipEntryName, originalZipFile.getInputStream(zipEntry).readAllBytes())
+        }
+      }
+    }
 
     when:
-    GradleSourceRepackager.repackageZipEntry(originalZipFile, originalZipEntry, targetZipOutputStreamStub, targetZipEntryName)
+    GradleSourceRepackager.repackGradleSource(gradleSourceRepackagerInfo)
+
+    Map<String, byte[]> repackedEntryNameToContentMap = [:]
+    new ZipFile(repackedZipFilePath).withCloseable { ZipFile repackedZipFile ->
+      repackedZipFile.entries().each { ZipEntry zipEntry ->
+        repackedEntryNameToContentMap[zipEntry.name] = repackedZipFile.getInputStream(zipEntry).readAllBytes()
+      }
+    }
 
     then:
-    ZipException zipException = thrown()
-    zipException.message == "unexpected message"
+    verifyAll {
+      repackedEntryNameToContentMap.keySet().toList() == expectedTargetEntryNameToContentMap.keySet().toList()
+      repackedEntryNameToContentMap.every({ String name, byte[] content -> Arrays.equals(content, expectedTargetEntryNameToContentMap[name]) })
+    }
+
+    cleanup:
+    new File(repackedZipFilePath).delete()
+    new File(repackedZipFileDirectoryPath).delete()
+  }
+
+  void "repackageZipFile() method should write collected target entries with unchanged content"() {
+    given:
+    ClassPathResourceLoader loader = new ResourceResolver().getLoader(ClassPathResourceLoader).get()
+    File testSlimGradleDistributionFile = new File(loader.getResource("classpath:testFiles/slim-with-duplicates-gradle-6.7.1-all.zip").get().file)
+
+    String repackedZipFileDirectoryPath = "${ System.getProperty("user.dir") }/build/_testrun/${ UUID.randomUUID() }/"
+    Files.createDirectories(Paths.get(repackedZipFileDirectoryPath))
+
+    String repackedZipFilePath = "${ repackedZipFileDirectoryPath }slim-gradle-api-6.7.1-sources.zip"
+
+    GradleSourceRepackagerInfo gradleSourceRepackagerInfo = new GradleSourceRepackagerInfo(testSlimGradleDistributionFile.absolutePath, "6.7.1", repackedZipFilePath, repackedZipFileDirectoryPath)
+
+    ZipFile originalZipFile = new ZipFile(testSlimGradleDistributionFile)
+    List<String> skippedMessageList = []
+    Map<String, ZipEntry> targetZipEntryNameToOriginalZipEntryMap = GradleSourceRepackager.collectTargetZipEntries(gradleSourceRepackagerInfo, originalZipFile, skippedMessageList)
+
+    when:
+    GradleSourceRepackager.repackageZipFile(gradleSourceRepackagerInfo, originalZipFile, targetZipEntryNameToOriginalZipEntryMap)
+
+    Map<String, byte[]> repackedEntryNameToContentMap = [:]
+    new ZipFile(repackedZipFilePath).withCloseable { ZipFile repackedZipFile ->
+      repackedZipFile.entries().each { ZipEntry zipEntry ->
+        repackedEntryNameToContentMap[zipEntry.name] = repackedZipFile.getInputStream(zipEntry).readAllBytes()
+      }
+    }
+
+    then:
+    verifyAll {
+      skippedMessageList.size() > 0
+      repackedEntryNameToContentMap.keySet().toList() == targetZipEntryNameToOriginalZipEntryMap.keySet().toList()
+      repackedEntryNameToContentMap.every({ String name, byte[] content ->
+        Arrays.equals(content, originalZipFile.getInputStream(targetZipEntryNameToOriginalZipEntryMap[name]).readAllBytes())
+      })
+    }
+
+    cleanup:
+    originalZipFile?.close()
+    new File(repackedZipFilePath).delete()
+    new File(repackedZipFileDirectoryPath).delete()
   }
 }